@@ -0,0 +1,78 @@
+package com.example.calendar.config;
+
+import com.example.support.diagnostics.FlightRecorderService;
+import com.example.support.diagnostics.LatencyTriggerFilter;
+import com.example.support.diagnostics.RecordingController;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Continuous flight recording, dumped automatically when calendar requests get slow.
+ * Dumps are listed and downloaded at {@code /diagnostics/recordings}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "calendar.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig {
+
+    @Bean
+    public FlightRecorderService flightRecorderService(
+            @Value("${calendar.diagnostics.jfr.dump-dir:${java.io.tmpdir}/calendar-service-recordings}") Path directory,
+            @Value("${calendar.diagnostics.jfr.settings:default}") String settings,
+            @Value("${calendar.diagnostics.jfr.max-age:2m}") Duration maxAge,
+            @Value("${calendar.diagnostics.jfr.max-size:64MB}") DataSize maxSize,
+            @Value("${calendar.diagnostics.jfr.max-dumps:10}") int maxDumps) throws Exception {
+        return new FlightRecorderService("calendar-service", directory, settings, maxAge, maxSize.toBytes(), maxDumps);
+    }
+
+    @Bean
+    public LatencyTriggerFilter latencyTriggerFilter(
+            FlightRecorderService flightRecorderService,
+            @Value("${calendar.diagnostics.jfr.p99-threshold:250ms}") Duration threshold,
+            @Value("${calendar.diagnostics.jfr.check-interval:30s}") Duration checkInterval,
+            @Value("${calendar.diagnostics.jfr.min-samples:100}") int minSamples,
+            @Value("${calendar.diagnostics.jfr.cooldown:10m}") Duration cooldown) {
+        return new LatencyTriggerFilter(flightRecorderService, FlightRecorderConfig::isMeasured, threshold, checkInterval,
+                minSamples, cooldown);
+    }
+
+    @Bean
+    public RecordingController recordingController(FlightRecorderService flightRecorderService) {
+        return new RecordingController(flightRecorderService);
+    }
+
+    /**
+     * Ahead of the security filter chain, so time spent verifying tokens and requests rejected
+     * there are measured too.
+     */
+    @Bean
+    public FilterRegistrationBean<LatencyTriggerFilter> latencyTriggerFilterRegistration(LatencyTriggerFilter filter) {
+        FilterRegistrationBean<LatencyTriggerFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Calendar reads ({@code GET /calendar} and below, and batch queries). Imports and exports
+     * are left out, as their duration follows the size of the file.
+     */
+    static boolean isMeasured(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        if (!(path.equals("/calendar") || path.startsWith("/calendar/"))) {
+            return false;
+        }
+        return switch (request.getMethod()) {
+            case "GET" -> !path.equals("/calendar/export.ics");
+            case "POST" -> path.equals("/calendar/batch");
+            default -> false;
+        };
+    }
+}
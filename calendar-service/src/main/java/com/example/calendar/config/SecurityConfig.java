@@ -1,16 +1,29 @@
 package com.example.calendar.config;
 
+import com.example.calendar.ratelimit.AdmissionControlFilter;
+import com.example.calendar.ratelimit.TokenBucketRateLimiter;
+import com.example.calendar.warmup.WarmupTokenIssuer;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
 import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.SupplierJwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.web.authentication.BearerTokenAuthenticationFilter;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -32,11 +45,31 @@ public class SecurityConfig {
     @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}")
     private String issuerUri;
 
+    @Value("${calendar.ratelimit.enabled:true}")
+    private boolean rateLimitEnabled;
+
+    @Value("${calendar.ratelimit.capacity:50}")
+    private int rateLimitCapacity;
+
+    @Value("${calendar.ratelimit.refill-per-second:20}")
+    private double rateLimitRefillPerSecond;
+
+    @Value("${calendar.ratelimit.idle-eviction-seconds:300}")
+    private long rateLimitIdleEvictionSeconds;
+
+    @Value("${calendar.admission.max-concurrent:64}")
+    private int maxConcurrentRequests;
+
+    @Value("${calendar.diagnostics.admin-role:calendar-admin}")
+    private String diagnosticsAdminRole;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/calendar/token-info").permitAll()
+                .requestMatchers("/calendar/token-info", "/actuator/health/**").permitAll()
+                .requestMatchers("/diagnostics/recordings", "/diagnostics/recordings/**").hasRole(diagnosticsAdminRole)
+                .requestMatchers("/diagnostics/**").access(loopbackOnly())
                 .anyRequest().hasRole("my-role") // Restrict access to users with 'my-role'
             )
             .oauth2ResourceServer(oauth2 -> oauth2
@@ -44,14 +77,49 @@ public class SecurityConfig {
                     .jwtAuthenticationConverter(jwtAuthenticationConverter())
                 )
             )
+            // Per-user rate limit and global concurrency cap, once the JWT subject is known
+            .addFilterAfter(admissionControlFilter(), BearerTokenAuthenticationFilter.class)
             .csrf(csrf -> csrf.disable()); // Disable CSRF for APIs
 
         return http.build();
     }
 
+    /**
+     * Created here rather than as a bean so that it only runs inside the security filter chain,
+     * after the bearer token has been authenticated.
+     */
+    private AdmissionControlFilter admissionControlFilter() {
+        TokenBucketRateLimiter rateLimiter = rateLimitEnabled
+            ? new TokenBucketRateLimiter(rateLimitCapacity, rateLimitRefillPerSecond, rateLimitIdleEvictionSeconds * 1000)
+            : null;
+        return new AdmissionControlFilter(rateLimiter, maxConcurrentRequests);
+    }
+
+    /**
+     * Allows requests from the loopback interface only, without a token. Diagnostics expose
+     * request details of all users and are meant for operators on the host.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> loopbackOnly() {
+        IpAddressMatcher ipv4 = new IpAddressMatcher("127.0.0.0/8");
+        IpAddressMatcher ipv6 = new IpAddressMatcher("::1");
+        return (authentication, context) -> new AuthorizationDecision(
+            ipv4.matches(context.getRequest()) || ipv6.matches(context.getRequest()));
+    }
+
+    /**
+     * JWT decoder for the configured issuer. Issuer discovery and key lookup run on the first
+     * token rather than during startup, so the service starts (and AOT/CDS training runs
+     * complete) without waiting for Keycloak; a failed discovery is retried on the next token.
+     * While the startup warmup runs, its locally signed tokens are accepted as well.
+     * Each verification is traced as a {@code calendar.jwt.verify} span.
+     */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        return NimbusJwtDecoder.withIssuerLocation(issuerUri).build();
+    public JwtDecoder jwtDecoder(ObjectProvider<WarmupTokenIssuer> warmupTokens, ObservationRegistry observationRegistry) {
+        JwtDecoder issuerDecoder = new SupplierJwtDecoder(() -> NimbusJwtDecoder.withIssuerLocation(issuerUri).build());
+        WarmupTokenIssuer warmup = warmupTokens.getIfAvailable();
+        JwtDecoder decoder = warmup != null ? warmup.decoderFallingBackTo(issuerDecoder) : issuerDecoder;
+        return token -> Observation.createNotStarted("calendar.jwt.verify", observationRegistry)
+            .observe(() -> decoder.decode(token));
     }
 
     /**
@@ -61,10 +129,14 @@ public class SecurityConfig {
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        // The authentication name (the subject) is also the rate-limit and calendar key
+        converter.setPrincipalClaimName(JwtClaimNames.SUB);
 
         converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            Map<String, Object> claims = jwt.getClaims();
-            logger.debug("JWT Claims: {}", claims);
+            // Claim names only: the values carry personal data and cost a map walk per request
+            if (logger.isDebugEnabled()) {
+                logger.debug("JWT of {} with claims {}", jwt.getSubject(), jwt.getClaims().keySet());
+            }
 
             Object realmAccess = jwt.getClaim("realm_access");
             if (realmAccess instanceof Map<?, ?> realmAccessMap) {
@@ -0,0 +1,55 @@
+package com.example.calendar.config;
+
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.service.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+/**
+ * Runs the {@link SyntheticDataGenerator} at startup when {@code calendar.generator.enabled=true}.
+ * Events are preloaded into the store, or written as one NDJSON file per user into
+ * {@code calendar.generator.output-dir} when that property is set.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.generator.enabled", havingValue = "true")
+public class SyntheticDataLoader implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataLoader.class);
+
+    private final EventStore eventStore;
+    private final SyntheticDataGenerator generator;
+    private final String outputDir;
+
+    public SyntheticDataLoader(EventStore eventStore,
+                               @Value("${calendar.generator.seed:42}") long seed,
+                               @Value("${calendar.generator.users:100}") int users,
+                               @Value("${calendar.generator.events-per-user:1000}") int eventsPerUser,
+                               @Value("${calendar.generator.span-days:365}") int spanDays,
+                               @Value("${calendar.generator.start:2025-01-01T00:00:00}") LocalDateTime start,
+                               @Value("${calendar.generator.recurring-ratio:0.02}") double recurringRatio,
+                               @Value("${calendar.generator.user-prefix:user-}") String userPrefix,
+                               @Value("${calendar.generator.output-dir:}") String outputDir) {
+        this.eventStore = eventStore;
+        this.generator = new SyntheticDataGenerator(new SyntheticDataGenerator.Settings(
+                seed, users, eventsPerUser, spanDays, start, recurringRatio, userPrefix));
+        this.outputDir = outputDir;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        if (outputDir != null && !outputDir.isBlank()) {
+            generator.writeNdjson(Path.of(outputDir));
+        } else {
+            generator.preload(eventStore);
+        }
+        logger.info("Synthetic data generation finished; store holds {} entries", eventStore.size());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.calendar.config;
+
+import com.example.calendar.diagnostics.ObservedJacksonHttpMessageConverter;
+import com.example.support.diagnostics.SpanRingBuffer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * Request tracing without a collector. Spring Boot traces incoming requests (continuing the
+ * caller's trace from its {@code traceparent} header) and the security filter chain; the
+ * stages in between are observed where they run: JWT verification in {@link SecurityConfig},
+ * event retrieval in the controller and response serialization here. Finished spans are
+ * kept in a {@link SpanRingBuffer} and listed at {@code /diagnostics/traces}.
+ */
+@Configuration
+public class TracingConfig {
+
+    @Bean
+    public SpanRingBuffer spanRingBuffer(@Value("${calendar.diagnostics.trace-buffer-size:8192}") int capacity) {
+        return new SpanRingBuffer(capacity);
+    }
+
+    /**
+     * Replaces Spring Boot's Jackson converter, for the JSON and the columnar format alike.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   ObservationRegistry observationRegistry) {
+        return new ObservedJacksonHttpMessageConverter(objectMapper, observationRegistry);
+    }
+}
@@ -1,14 +1,46 @@
 package com.example.calendar.controller;
 
+import com.example.calendar.model.BatchRequest;
+import com.example.calendar.model.BatchResponse;
+import com.example.calendar.model.ColumnarEvents;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.model.ImportFormat;
+import com.example.calendar.model.ImportReport;
+import com.example.calendar.service.BatchQueryService;
+import com.example.calendar.service.CalendarAccess;
 import com.example.calendar.service.CalendarService;
+import com.example.calendar.service.EventImportService;
+import com.example.calendar.service.EventSearchService;
+import com.example.calendar.service.IcsExportService;
+import com.example.calendar.service.MergedViewService;
+import com.example.calendar.service.StatsService;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -21,10 +53,36 @@ public class CalendarController {
 
     private static final Logger logger = LoggerFactory.getLogger(CalendarController.class);
 
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar;charset=UTF-8");
+
     private final CalendarService calendarService;
+    private final IcsExportService icsExportService;
+    private final EventImportService eventImportService;
+    private final EventSearchService eventSearchService;
+    private final StatsService statsService;
+    private final MergedViewService mergedViewService;
+    private final CalendarAccess calendarAccess;
+    private final BatchQueryService batchQueryService;
+    private final ObservationRegistry observationRegistry;
 
-    public CalendarController(CalendarService calendarService) {
+    public CalendarController(CalendarService calendarService,
+                              IcsExportService icsExportService,
+                              EventImportService eventImportService,
+                              EventSearchService eventSearchService,
+                              StatsService statsService,
+                              MergedViewService mergedViewService,
+                              CalendarAccess calendarAccess,
+                              BatchQueryService batchQueryService,
+                              ObservationRegistry observationRegistry) {
         this.calendarService = calendarService;
+        this.icsExportService = icsExportService;
+        this.eventImportService = eventImportService;
+        this.eventSearchService = eventSearchService;
+        this.statsService = statsService;
+        this.mergedViewService = mergedViewService;
+        this.calendarAccess = calendarAccess;
+        this.batchQueryService = batchQueryService;
+        this.observationRegistry = observationRegistry;
     }
 
     /**
@@ -36,9 +94,211 @@ public class CalendarController {
     @GetMapping
     @PreAuthorize("hasRole('my-role')")
     public ResponseEntity<List<Map<String, Object>>> getCalendar() {
-        logger.info("Fetching calendar events");
+        logger.debug("Fetching calendar events");
         // Let exceptions propagate to be handled by GlobalExceptionHandler
         List<Map<String, Object>> events = calendarService.getCalendarEvents();
         return ResponseEntity.ok(events);
     }
+
+    /**
+     * Creates a single or recurring event in the caller's calendar, or with
+     * {@code ?calendar=team:platform} in a shared calendar (see {@link CalendarAccess#resolveWritable}).
+     * Recurring events are given as an RRULE (e.g. {@code FREQ=DAILY;COUNT=1800}) and stored once.
+     *
+     * @return the stored event
+     */
+    @PostMapping("/events")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<Map<String, Object>> createEvent(
+            @AuthenticationPrincipal Jwt jwt,
+            Authentication authentication,
+            @RequestParam(defaultValue = CalendarAccess.OWN) String calendar,
+            @RequestBody EventRequest request) {
+        String calendarId = calendarAccess.resolveWritable(jwt.getSubject(), authentication.getAuthorities(), calendar);
+        Map<String, Object> event = calendarService.createEvent(calendarId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(event);
+    }
+
+    /**
+     * Lists occurrences of the caller's stored events within {@code [from, to)}.
+     * Defaults to the seven days starting today when no window is given; the default starts
+     * at midnight so repeated default reads share one cached window.
+     *
+     * @return occurrences sorted by time
+     */
+    @GetMapping("/events")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<List<Map<String, Object>>> getEvents(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int limit) {
+        LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(7);
+        List<Map<String, Object>> events = queryObservation("json")
+                .observe(() -> calendarService.getCalendarEvents(jwt.getSubject(), windowStart, windowEnd, limit));
+        return ResponseEntity.ok(events);
+    }
+
+    /**
+     * Columnar variant of {@code GET /calendar/events}, selected with
+     * {@code Accept: application/vnd.calendar.columnar+json}. Intended for wide ranges:
+     * ids, delta-encoded start times and title indexes are sent as parallel arrays and each
+     * distinct title only once.
+     *
+     * @return columnar occurrences sorted by time
+     */
+    @GetMapping(value = "/events", produces = ColumnarEvents.MEDIA_TYPE)
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<ColumnarEvents> getColumnarEvents(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "0") int limit) {
+        LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(7);
+        ColumnarEvents events = queryObservation("columnar")
+                .observe(() -> calendarService.getColumnarEvents(jwt.getSubject(), windowStart, windowEnd, limit));
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(ColumnarEvents.MEDIA_TYPE)).body(events);
+    }
+
+    /**
+     * Deletes an event or a whole recurring series from the caller's calendar, or from the shared
+     * calendar given as {@code ?calendar=}.
+     */
+    @DeleteMapping("/events/{id}")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<Void> deleteEvent(@AuthenticationPrincipal Jwt jwt,
+                                            Authentication authentication,
+                                            @RequestParam(defaultValue = CalendarAccess.OWN) String calendar,
+                                            @PathVariable long id) {
+        String calendarId = calendarAccess.resolveWritable(jwt.getSubject(), authentication.getAuthorities(), calendar);
+        return calendarService.deleteEvent(calendarId, id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * Exports the caller's calendar as iCalendar (RFC 5545).
+     * The body is streamed from the store in buffered chunks; it is never built in memory.
+     * Optional {@code from}/{@code to} restrict the export to events that can occur in that window.
+     */
+    @GetMapping("/export.ics")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<StreamingResponseBody> exportIcs(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        // Validate before the response is committed so bad input still gets a 400
+        icsExportService.validateWindow(from, to);
+        String calendarId = jwt.getSubject();
+        StreamingResponseBody body = out -> icsExportService.export(calendarId, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(TEXT_CALENDAR)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"calendar.ics\"")
+                .body(body);
+    }
+
+    /**
+     * Bulk-imports events into the caller's calendar from an ICS or NDJSON request body.
+     * The body is streamed and parsed in parallel chunks; invalid records are reported
+     * individually and do not abort the import.
+     *
+     * @param format optional explicit format ({@code ics} or {@code ndjson}); otherwise taken from Content-Type
+     * @return final import report
+     */
+    @PostMapping("/import")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<ImportReport> importEvents(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+            InputStream body) {
+        ImportFormat importFormat = ImportFormat.resolve(format, contentType);
+        return ResponseEntity.ok(eventImportService.importEvents(jwt.getSubject(), body, importFormat));
+    }
+
+    /**
+     * Lists progress of the caller's running and recent imports.
+     */
+    @GetMapping("/imports")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<List<ImportReport>> listImports(@AuthenticationPrincipal Jwt jwt) {
+        return ResponseEntity.ok(eventImportService.listImports(jwt.getSubject()));
+    }
+
+    /**
+     * Searches the caller's event titles by words or word prefixes, optionally within {@code [from, to)}.
+     *
+     * @return matching events sorted by time
+     */
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<List<Map<String, Object>>> search(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam("q") String query,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(eventSearchService.search(jwt.getSubject(), query, from, to, limit));
+    }
+
+    /**
+     * Returns the caller's per-day event counts and busy minutes in {@code [from, to)} plus counts by title.
+     * Aggregates are maintained on every write, so this does not scan the calendar.
+     * Defaults to the 30 days starting today.
+     */
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<Map<String, Object>> getStats(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate rangeStart = from != null ? from : LocalDate.now();
+        LocalDate rangeEnd = to != null ? to : rangeStart.plusDays(30);
+        return ResponseEntity.ok(statsService.getStats(jwt.getSubject(), rangeStart, rangeEnd));
+    }
+
+    /**
+     * Combined view of several calendars, e.g. {@code ?calendars=own,team:platform,shared:holidays}.
+     * Occurrences are k-way merged from the per-calendar sorted iterators and streamed as a
+     * JSON array in time order, stopping once {@code limit} is reached.
+     */
+    @GetMapping("/merged")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<StreamingResponseBody> getMergedView(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestParam List<String> calendars,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit) {
+        List<String> calendarIds = calendarAccess.resolveReadable(jwt.getSubject(), calendars);
+        LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(7);
+        mergedViewService.validate(calendarIds, windowStart, windowEnd);
+        StreamingResponseBody body = out -> mergedViewService.write(calendarIds, windowStart, windowEnd, limit, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    /**
+     * Answers several calendar windows (e.g. a whole team's week) in one round trip.
+     * Sub-queries run in parallel with bounded concurrency; each reports its own status.
+     *
+     * @return one result per sub-query, in request order
+     */
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('my-role')")
+    public ResponseEntity<BatchResponse> batch(
+            @AuthenticationPrincipal Jwt jwt,
+            @RequestBody BatchRequest request) {
+        return ResponseEntity.ok(batchQueryService.execute(jwt.getSubject(), request));
+    }
+
+    /**
+     * Traces retrieving one window of events from the store as a {@code calendar.events.query} span.
+     */
+    private Observation queryObservation(String format) {
+        return Observation.createNotStarted("calendar.events.query", observationRegistry)
+                .lowCardinalityKeyValue("format", format);
+    }
 }
@@ -0,0 +1,34 @@
+package com.example.calendar.diagnostics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that records writing each JSON response body as a
+ * {@code calendar.serialize} span. The span covers serialization and writing the
+ * bytes to the response, which for large bodies includes waiting on the socket.
+ */
+public class ObservedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final ObservationRegistry observationRegistry;
+
+    public ObservedJacksonHttpMessageConverter(ObjectMapper objectMapper, ObservationRegistry observationRegistry) {
+        super(objectMapper);
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        Observation.createNotStarted("calendar.serialize", observationRegistry)
+                .lowCardinalityKeyValue("content.type", String.valueOf(outputMessage.getHeaders().getContentType()))
+                .observeChecked(() -> super.writeInternal(object, type, outputMessage));
+    }
+}
@@ -3,8 +3,11 @@ package com.example.calendar.exception;
 //Global exception handler
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
@@ -17,6 +20,30 @@ public class GlobalExceptionHandler {
              .body("Calendar service error: " + ex.getMessage());
  }
 
+ @ExceptionHandler({IllegalArgumentException.class, MethodArgumentTypeMismatchException.class})
+ public ResponseEntity<String> handleBadRequest(Exception ex) {
+     // Invalid client input (malformed recurrence rule, bad window, unparsable dates)
+     return ResponseEntity
+             .status(HttpStatus.BAD_REQUEST)
+             .body("Bad request: " + ex.getMessage());
+ }
+
+ @ExceptionHandler(AccessDeniedException.class)
+ public ResponseEntity<String> handleAccessDenied(AccessDeniedException ex) {
+     // Method security and calendar access checks deny with 403, not as a server error
+     return ResponseEntity
+             .status(HttpStatus.FORBIDDEN)
+             .body("Access denied: " + ex.getMessage());
+ }
+
+ @ExceptionHandler(NoResourceFoundException.class)
+ public ResponseEntity<String> handleNotFound(NoResourceFoundException ex) {
+     // Unknown paths are not server errors
+     return ResponseEntity
+             .status(HttpStatus.NOT_FOUND)
+             .body("Not found: " + ex.getResourcePath());
+ }
+
  @ExceptionHandler(Exception.class)
  public ResponseEntity<String> handleGenericException(Exception ex) {
      // Catch all for other exceptions
@@ -0,0 +1,244 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.model.EventRequest;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Streaming reader for iCalendar (RFC 5545) input.
+ * {@link #nextEvent()} unfolds content lines and returns one raw VEVENT at a time, so
+ * the caller can hand events to worker threads without holding the whole file.
+ * {@link #toRequest(List)} turns a raw VEVENT into an {@link EventRequest}; it is
+ * stateless and safe to call concurrently.
+ * <p>
+ * Date-times are taken as local values; a trailing {@code Z} or a TZID parameter is ignored,
+ * matching how the service stores floating times.
+ */
+public class IcsReader {
+
+    private static final DateTimeFormatter BASIC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final BufferedReader reader;
+    private String pending;
+    private long lineNumber;
+    private long eventNumber;
+    private String eventError;
+    /** The previous event was cut short by a BEGIN:VEVENT, which opened the next one. */
+    private boolean resync;
+
+    public IcsReader(BufferedReader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Reads the next VEVENT block. A VEVENT that is cut short by the next {@code BEGIN:VEVENT}
+     * or by the end of input is still returned, with the lines read so far, and
+     * {@link #getEventError()} describes the problem; reading then resumes with the next event.
+     *
+     * @return unfolded content lines between BEGIN:VEVENT and END:VEVENT (exclusive),
+     *         or null at end of input
+     */
+    public List<String> nextEvent() throws IOException {
+        List<String> lines = null;
+        int nested = 0;
+        eventError = null;
+        if (resync) {
+            resync = false;
+            lines = new ArrayList<>(8);
+            eventNumber++;
+        }
+        String line;
+        while ((line = nextContentLine()) != null) {
+            if (lines == null) {
+                if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                    lines = new ArrayList<>(8);
+                    eventNumber++;
+                }
+            } else if (line.equalsIgnoreCase("BEGIN:VEVENT")) {
+                // VEVENTs do not nest, so END:VEVENT is missing; this line starts the next event
+                eventError = "Missing END:VEVENT before line " + lineNumber;
+                resync = true;
+                return lines;
+            } else if (line.equalsIgnoreCase("END:VEVENT")) {
+                return lines;
+            } else if (line.regionMatches(true, 0, "BEGIN:", 0, 6)) {
+                // Sub-components such as VALARM carry their own DURATION etc.; skip them
+                nested++;
+            } else if (line.regionMatches(true, 0, "END:", 0, 4)) {
+                // A stray END: of a component that was never opened is ignored
+                nested = Math.max(0, nested - 1);
+            } else if (nested == 0) {
+                lines.add(line);
+            }
+        }
+        if (lines != null) {
+            eventError = "Unterminated VEVENT at line " + lineNumber;
+        }
+        return lines;
+    }
+
+    /**
+     * Ordinal (1-based) of the VEVENT last returned by {@link #nextEvent()}.
+     */
+    public long getEventNumber() {
+        return eventNumber;
+    }
+
+    /**
+     * Why the VEVENT last returned by {@link #nextEvent()} is malformed, or null if it was
+     * properly terminated.
+     */
+    public String getEventError() {
+        return eventError;
+    }
+
+    /**
+     * Joins folded physical lines (continuations start with a space or tab).
+     */
+    private String nextContentLine() throws IOException {
+        String current = pending != null ? pending : readPhysical();
+        pending = null;
+        if (current == null) {
+            return null;
+        }
+        StringBuilder unfolded = null;
+        String next;
+        while ((next = readPhysical()) != null && !next.isEmpty()
+                && (next.charAt(0) == ' ' || next.charAt(0) == '\t')) {
+            if (unfolded == null) {
+                unfolded = new StringBuilder(current);
+            }
+            unfolded.append(next, 1, next.length());
+        }
+        pending = next;
+        return unfolded == null ? current : unfolded.toString();
+    }
+
+    private String readPhysical() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * Converts a raw VEVENT into an event request.
+     *
+     * @param lines unfolded content lines of one VEVENT
+     * @return request carrying SUMMARY, DTSTART, DTEND/DURATION, RRULE and EXDATE values
+     * @throws IllegalArgumentException when a property value is malformed
+     */
+    public static EventRequest toRequest(List<String> lines) {
+        String title = null;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        Integer duration = null;
+        String rrule = null;
+        List<LocalDateTime> exdates = null;
+
+        for (String line : lines) {
+            int colon = valueSeparator(line);
+            if (colon < 0) {
+                continue;
+            }
+            String head = line.substring(0, colon);
+            int semicolon = head.indexOf(';');
+            String name = (semicolon < 0 ? head : head.substring(0, semicolon)).toUpperCase(Locale.ROOT);
+            String value = line.substring(colon + 1);
+
+            switch (name) {
+                case "SUMMARY" -> title = unescapeText(value);
+                case "DTSTART" -> start = parseDateTime(value);
+                case "DTEND" -> end = parseDateTime(value);
+                case "DURATION" -> duration = parseDurationMinutes(value);
+                case "RRULE" -> rrule = value;
+                case "EXDATE" -> {
+                    if (exdates == null) {
+                        exdates = new ArrayList<>();
+                    }
+                    for (String v : value.split(",")) {
+                        exdates.add(parseDateTime(v));
+                    }
+                }
+                default -> {
+                    // Other properties (UID, DTSTAMP, DESCRIPTION, ...) are not stored
+                }
+            }
+        }
+        if (duration == null && start != null && end != null) {
+            duration = (int) ChronoUnit.MINUTES.between(start, end);
+        }
+        return new EventRequest(title, start, duration, rrule, exdates);
+    }
+
+    /**
+     * Finds the colon separating name/parameters from the value, skipping quoted parameter values.
+     */
+    private static int valueSeparator(String line) {
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == ':' && !quoted) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static LocalDateTime parseDateTime(String value) {
+        String v = value.trim();
+        if (v.endsWith("Z") || v.endsWith("z")) {
+            v = v.substring(0, v.length() - 1);
+        }
+        try {
+            if (v.indexOf('T') > 0) {
+                return LocalDateTime.parse(v, BASIC_DATE_TIME);
+            }
+            return LocalDate.parse(v, DateTimeFormatter.BASIC_ISO_DATE).atStartOfDay();
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid date-time: " + value, ex);
+        }
+    }
+
+    static int parseDurationMinutes(String value) {
+        String v = value.trim().toUpperCase(Locale.ROOT);
+        try {
+            // java.time.Duration does not accept the week form of RFC 5545 durations
+            if (v.endsWith("W")) {
+                return Math.toIntExact(Long.parseLong(v.substring(1, v.length() - 1)) * 7 * 24 * 60);
+            }
+            return Math.toIntExact(Duration.parse(v).toMinutes());
+        } catch (RuntimeException ex) {
+            throw new IllegalArgumentException("Invalid duration: " + value, ex);
+        }
+    }
+
+    static String unescapeText(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                sb.append(next == 'n' || next == 'N' ? '\n' : next);
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
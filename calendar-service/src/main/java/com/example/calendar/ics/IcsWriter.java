@@ -0,0 +1,134 @@
+package com.example.calendar.ics;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.RecurrenceRule;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Minimal RFC 5545 (iCalendar) writer that emits one VEVENT at a time.
+ * It only appends to the underlying {@link Writer}, so wrapping a buffered response
+ * stream keeps memory constant regardless of how many events are exported.
+ * <p>
+ * Times are written as floating local date-times, matching how the service stores them.
+ * Content lines are folded at 75 octets and TEXT values are escaped as required by the RFC.
+ */
+public class IcsWriter {
+
+    private static final String CRLF = "\r\n";
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private static final DateTimeFormatter LOCAL_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_FORMAT =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    private final Writer out;
+    private final String uidDomain;
+    private final String dtStamp;
+    private final StringBuilder line = new StringBuilder(128);
+
+    /**
+     * @param out       destination; callers should pass a buffered writer
+     * @param uidDomain right-hand side of generated UIDs (e.g. {@code calendar-service})
+     * @param stamp     export time used for the required DTSTAMP property
+     */
+    public IcsWriter(Writer out, String uidDomain, Instant stamp) {
+        this.out = out;
+        this.uidDomain = uidDomain;
+        this.dtStamp = UTC_FORMAT.format(stamp);
+    }
+
+    public void writeHeader(String calendarName) throws IOException {
+        writeLine("BEGIN:VCALENDAR");
+        writeLine("VERSION:2.0");
+        writeLine("PRODID:-//example.com//calendar-service//EN");
+        writeLine("CALSCALE:GREGORIAN");
+        if (calendarName != null) {
+            writeLine("X-WR-CALNAME:" + escapeText(calendarName));
+        }
+    }
+
+    /**
+     * Writes an entry as a VEVENT. Recurring entries are written once with RRULE/EXDATE,
+     * leaving expansion to the consuming client.
+     */
+    public void writeEvent(CalendarEntry entry) throws IOException {
+        writeLine("BEGIN:VEVENT");
+        writeLine("UID:" + entry.id() + "@" + uidDomain);
+        writeLine("DTSTAMP:" + dtStamp);
+        writeLine("DTSTART:" + LOCAL_FORMAT.format(entry.start()));
+        writeLine("DURATION:PT" + entry.durationMinutes() + "M");
+        writeLine("SUMMARY:" + escapeText(entry.title()));
+        RecurrenceRule recurrence = entry.recurrence();
+        if (recurrence != null) {
+            writeLine("RRULE:" + recurrence.toRRule());
+            for (LocalDateTime exdate : recurrence.getExceptions()) {
+                writeLine("EXDATE:" + LOCAL_FORMAT.format(exdate));
+            }
+        }
+        writeLine("END:VEVENT");
+    }
+
+    public void writeFooter() throws IOException {
+        writeLine("END:VCALENDAR");
+    }
+
+    /**
+     * Escapes a TEXT value (RFC 5545 section 3.3.11).
+     */
+    static String escapeText(String value) {
+        StringBuilder sb = null;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case ';' -> "\\;";
+                case ',' -> "\\,";
+                case '\n' -> "\\n";
+                case '\r' -> "";
+                default -> null;
+            };
+            if (replacement != null && sb == null) {
+                sb = new StringBuilder(value.length() + 8).append(value, 0, i);
+            }
+            if (sb != null) {
+                if (replacement != null) {
+                    sb.append(replacement);
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+        return sb == null ? value : sb.toString();
+    }
+
+    /**
+     * Writes a content line, folding it with CRLF + space so no physical line exceeds
+     * 75 octets of UTF-8. Surrogate pairs are never split.
+     */
+    private void writeLine(String content) throws IOException {
+        line.setLength(0);
+        int octets = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < content.length();
+            int width = c < 0x80 ? 1 : c < 0x800 ? 2 : pair ? 4 : 3;
+            if (octets + width > MAX_LINE_OCTETS) {
+                line.append(CRLF).append(' ');
+                octets = 1;
+            }
+            line.append(c);
+            if (pair) {
+                line.append(content.charAt(++i));
+            }
+            octets += width;
+        }
+        line.append(CRLF);
+        out.append(line);
+    }
+}
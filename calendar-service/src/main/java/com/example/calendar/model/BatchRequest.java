@@ -0,0 +1,27 @@
+package com.example.calendar.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Body of {@code POST /calendar/batch}: several calendar reads answered in one response.
+ *
+ * @param queries sub-queries, answered in the same order
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record BatchRequest(List<Query> queries) {
+
+    /**
+     * One calendar window to read.
+     *
+     * @param calendarId calendar (user id, {@code own}, or a shared calendar such as {@code team:platform})
+     * @param from       inclusive window start; defaults to the start of today
+     * @param to         exclusive window end; defaults to {@code from} plus 7 days
+     * @param limit      maximum occurrences; capped at {@code calendar.query.max-results}
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Query(String calendarId, LocalDateTime from, LocalDateTime to, Integer limit) {
+    }
+}
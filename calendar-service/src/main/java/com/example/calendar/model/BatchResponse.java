@@ -0,0 +1,31 @@
+package com.example.calendar.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of {@code POST /calendar/batch}.
+ *
+ * @param results       one result per sub-query, in request order
+ * @param elapsedMillis time spent answering the whole batch
+ */
+public record BatchResponse(List<Result> results, long elapsedMillis) {
+
+    /**
+     * Outcome of one sub-query. A failing sub-query does not fail the batch.
+     *
+     * @param calendarId resolved calendar id
+     * @param from       window start used
+     * @param to         window end used
+     * @param status     HTTP-style status of the sub-query (200, 400, 403 or 500)
+     * @param events     occurrences with id, title, time and durationMinutes; absent on error
+     * @param error      error message; absent on success
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Result(String calendarId, LocalDateTime from, LocalDateTime to, int status,
+                         List<Map<String, Object>> events, String error) {
+    }
+}
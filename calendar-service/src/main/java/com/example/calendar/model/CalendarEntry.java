@@ -0,0 +1,34 @@
+package com.example.calendar.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A stored calendar event: either a single event or the master record of a
+ * recurring series. Recurring series are stored once and expanded on read.
+ *
+ * @param id              unique event id
+ * @param calendarId      owning calendar (the owner's JWT subject for personal calendars)
+ * @param title           event title
+ * @param start           start of the event, or of the first occurrence for a series
+ * @param durationMinutes length of each occurrence in minutes
+ * @param recurrence      recurrence rule, or null for a single event
+ */
+public record CalendarEntry(
+        long id,
+        String calendarId,
+        String title,
+        LocalDateTime start,
+        int durationMinutes,
+        RecurrenceRule recurrence) {
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Latest occurrence start of this entry, or null for an unbounded series.
+     */
+    public LocalDateTime lastStart() {
+        return recurrence == null ? start : recurrence.lastStart(start);
+    }
+}
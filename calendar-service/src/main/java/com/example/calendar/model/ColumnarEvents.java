@@ -0,0 +1,26 @@
+package com.example.calendar.model;
+
+import java.util.List;
+
+/**
+ * Columnar encoding of a time-ordered occurrence list for wide-range reads.
+ * <p>
+ * Element {@code i} of every array describes the same occurrence. Start times are epoch
+ * seconds of the local wall-clock time (read as UTC), delta-encoded: {@code starts[0]} is
+ * absolute and each later value is the distance to the previous occurrence, so sorted
+ * ranges serialize as small numbers. Titles are sent once in {@code titles} and referenced
+ * by index from {@code titleIndexes}.
+ *
+ * @param count        number of occurrences
+ * @param ids          event ids
+ * @param starts       delta-encoded epoch-second start times
+ * @param durations    durations in minutes
+ * @param titleIndexes index into {@code titles} per occurrence
+ * @param titles       distinct titles in first-use order
+ */
+public record ColumnarEvents(int count, long[] ids, long[] starts, int[] durations, int[] titleIndexes,
+                             List<String> titles) {
+
+    /** Media type selecting this encoding on {@code GET /calendar/events}. */
+    public static final String MEDIA_TYPE = "application/vnd.calendar.columnar+json";
+}
@@ -0,0 +1,24 @@
+package com.example.calendar.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Request body for creating a calendar event.
+ *
+ * @param title           event title
+ * @param start           start of the event (ISO-8601 local date-time)
+ * @param durationMinutes length in minutes; defaults to 30 when null
+ * @param rrule           optional RRULE text, e.g. {@code FREQ=DAILY;COUNT=10}
+ * @param exdates         optional occurrence start times to exclude from the series
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record EventRequest(
+        String title,
+        LocalDateTime start,
+        Integer durationMinutes,
+        String rrule,
+        List<LocalDateTime> exdates) {
+}
@@ -0,0 +1,40 @@
+package com.example.calendar.model;
+
+import java.util.Locale;
+
+/**
+ * Supported bulk import formats.
+ */
+public enum ImportFormat {
+
+    /** iCalendar (RFC 5545), one VEVENT per record. */
+    ICS,
+
+    /** Newline-delimited JSON, one {@link EventRequest} object per line. */
+    NDJSON;
+
+    /**
+     * Resolves the format from an explicit name or, failing that, a request content type.
+     *
+     * @throws IllegalArgumentException when neither identifies a supported format
+     */
+    public static ImportFormat resolve(String name, String contentType) {
+        if (name != null && !name.isBlank()) {
+            try {
+                return valueOf(name.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException("Unsupported import format: " + name);
+            }
+        }
+        if (contentType != null) {
+            String type = contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/calendar")) {
+                return ICS;
+            }
+            if (type.startsWith("application/x-ndjson") || type.startsWith("application/ndjson")) {
+                return NDJSON;
+            }
+        }
+        throw new IllegalArgumentException("Import format must be given as ?format=ics|ndjson or via Content-Type");
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.calendar.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress or final outcome of a bulk import.
+ *
+ * @param importId        id of the import
+ * @param format          input format
+ * @param status          RUNNING, COMPLETED or FAILED
+ * @param startedAt       start time
+ * @param recordsRead     records read from the input so far
+ * @param imported        records stored
+ * @param rejected        records rejected by validation
+ * @param elapsedMillis   time spent so far
+ * @param eventsPerSecond stored records per second
+ * @param errors          first rejected records with their error (capped)
+ */
+public record ImportReport(
+        String importId,
+        ImportFormat format,
+        String status,
+        Instant startedAt,
+        long recordsRead,
+        long imported,
+        long rejected,
+        long elapsedMillis,
+        long eventsPerSecond,
+        List<RecordError> errors) {
+
+    /**
+     * A rejected input record.
+     *
+     * @param record  1-based record number (VEVENT ordinal or NDJSON line)
+     * @param message reason for rejection
+     */
+    public record RecordError(long record, String message) {
+    }
+}
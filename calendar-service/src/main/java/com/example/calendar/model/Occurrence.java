@@ -0,0 +1,20 @@
+package com.example.calendar.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single concrete occurrence of a {@link CalendarEntry} inside a requested window.
+ *
+ * @param eventId         id of the entry this occurrence belongs to
+ * @param calendarId      owning calendar
+ * @param title           event title
+ * @param start           start of this occurrence
+ * @param durationMinutes length of this occurrence in minutes
+ */
+public record Occurrence(
+        long eventId,
+        String calendarId,
+        String title,
+        LocalDateTime start,
+        int durationMinutes) {
+}
@@ -0,0 +1,298 @@
+package com.example.calendar.model;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * RRULE-style recurrence rule (RFC 5545 subset) stored once per series.
+ * Supports DAILY, WEEKLY and MONTHLY frequencies with INTERVAL, COUNT, UNTIL
+ * and a set of excluded occurrence start times (EXDATE).
+ * <p>
+ * Occurrences are never materialized; {@link #occurrences} expands them lazily
+ * and jumps straight to the requested window for daily and weekly rules.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    /** Upper bound for COUNT; unbounded series should omit COUNT instead. */
+    public static final int MAX_COUNT = 100_000;
+
+    /** Upper bound for INTERVAL, which keeps even the longest series far from date-time overflow. */
+    public static final int MAX_INTERVAL = 1_000;
+
+    private static final DateTimeFormatter BASIC_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter BASIC_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final Frequency frequency;
+    private final int interval;
+    private final int count;
+    private final LocalDateTime until;
+    private final NavigableSet<LocalDateTime> exceptions;
+
+    /**
+     * @param frequency  recurrence frequency
+     * @param interval   step between occurrences in units of the frequency (1 to {@link #MAX_INTERVAL})
+     * @param count      maximum number of occurrences, or 0 for unbounded
+     * @param until      last allowed occurrence start (inclusive), or null for unbounded
+     * @param exceptions occurrence start times to skip; they still count towards {@code count}
+     */
+    public RecurrenceRule(Frequency frequency, int interval, int count, LocalDateTime until,
+                          Collection<LocalDateTime> exceptions) {
+        if (frequency == null) {
+            throw new IllegalArgumentException("Recurrence frequency is required");
+        }
+        if (interval < 1 || interval > MAX_INTERVAL) {
+            throw new IllegalArgumentException("Recurrence interval must be between 1 and " + MAX_INTERVAL);
+        }
+        if (count < 0 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("Recurrence count must be between 0 and " + MAX_COUNT);
+        }
+        this.frequency = frequency;
+        this.interval = interval;
+        this.count = count;
+        this.until = until;
+        this.exceptions = exceptions == null || exceptions.isEmpty()
+                ? Collections.emptyNavigableSet()
+                : Collections.unmodifiableNavigableSet(new TreeSet<>(exceptions));
+    }
+
+    /**
+     * Parses an RRULE value such as {@code FREQ=WEEKLY;INTERVAL=2;COUNT=10}.
+     * An optional {@code RRULE:} prefix is accepted. UNTIL may be a basic date
+     * ({@code 20251231}, inclusive for the whole day) or date-time ({@code 20251231T090000}).
+     *
+     * @param rrule      rule text
+     * @param exceptions excluded occurrence start times, may be null
+     * @return parsed rule
+     * @throws IllegalArgumentException when the rule is malformed or uses unsupported parts
+     */
+    public static RecurrenceRule parse(String rrule, Collection<LocalDateTime> exceptions) {
+        if (rrule == null || rrule.isBlank()) {
+            throw new IllegalArgumentException("Recurrence rule must not be empty");
+        }
+        String value = rrule.trim();
+        if (value.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            value = value.substring(6);
+        }
+
+        Frequency frequency = null;
+        int interval = 1;
+        int count = 0;
+        LocalDateTime until = null;
+
+        for (String part : value.split(";")) {
+            if (part.isBlank()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String key = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String val = part.substring(eq + 1).trim();
+            try {
+                switch (key) {
+                    case "FREQ" -> frequency = Frequency.valueOf(val.toUpperCase(Locale.ROOT));
+                    case "INTERVAL" -> interval = Integer.parseInt(val);
+                    case "COUNT" -> count = Integer.parseInt(val);
+                    case "UNTIL" -> until = parseUntil(val);
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + key);
+                }
+            } catch (NumberFormatException | DateTimeParseException ex) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + val, ex);
+            }
+        }
+        if (count > 0 && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL must not both be set");
+        }
+        return new RecurrenceRule(frequency, interval, count, until, exceptions);
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        String v = value.endsWith("Z") || value.endsWith("z") ? value.substring(0, value.length() - 1) : value;
+        if (v.indexOf('T') > 0) {
+            return LocalDateTime.parse(v, BASIC_DATE_TIME);
+        }
+        return LocalDate.parse(v, BASIC_DATE).atTime(LocalTime.MAX);
+    }
+
+    /**
+     * Formats the rule back to RRULE text (without the {@code RRULE:} prefix).
+     */
+    public String toRRule() {
+        StringBuilder sb = new StringBuilder("FREQ=").append(frequency.name());
+        if (interval != 1) {
+            sb.append(";INTERVAL=").append(interval);
+        }
+        if (count > 0) {
+            sb.append(";COUNT=").append(count);
+        }
+        if (until != null) {
+            sb.append(";UNTIL=").append(BASIC_DATE_TIME.format(until));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Lazily expands occurrence start times of a series that begins at {@code seriesStart},
+     * limited to the half-open window {@code [from, to)}. Occurrences are produced in
+     * ascending order and only computed as the iterator is consumed.
+     *
+     * @param seriesStart start of the first occurrence
+     * @param from        inclusive window start
+     * @param to          exclusive window end
+     * @return iterator over occurrence start times inside the window
+     */
+    public Iterator<LocalDateTime> occurrences(LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to) {
+        return new OccurrenceIterator(seriesStart, from, to);
+    }
+
+    /**
+     * Latest possible occurrence start, or null when the rule is unbounded.
+     * Used to decide whether a series can intersect a window at all, and by validation
+     * to reject series that would run past the supported date range.
+     *
+     * @throws IllegalArgumentException when the series ends outside the supported date range
+     */
+    public LocalDateTime lastStart(LocalDateTime seriesStart) {
+        if (until != null) {
+            return until;
+        }
+        if (count == 0) {
+            return null;
+        }
+        try {
+            return switch (frequency) {
+                case DAILY -> seriesStart.plusDays((long) (count - 1) * interval);
+                case WEEKLY -> seriesStart.plusWeeks((long) (count - 1) * interval);
+                case MONTHLY -> {
+                    // Skipped short months make the position calendar dependent, so walk the series once
+                    LocalDateTime last = seriesStart;
+                    Iterator<LocalDateTime> it = new OccurrenceIterator(seriesStart, seriesStart, LocalDateTime.MAX);
+                    while (it.hasNext()) {
+                        last = it.next();
+                    }
+                    yield last;
+                }
+            };
+        } catch (DateTimeException | ArithmeticException ex) {
+            throw new IllegalArgumentException("Recurrence " + toRRule() + " starting " + seriesStart
+                    + " ends outside the supported date range", ex);
+        }
+    }
+
+    public Frequency getFrequency() {
+        return frequency;
+    }
+
+    public int getInterval() {
+        return interval;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public LocalDateTime getUntil() {
+        return until;
+    }
+
+    public NavigableSet<LocalDateTime> getExceptions() {
+        return exceptions;
+    }
+
+    @Override
+    public String toString() {
+        return toRRule();
+    }
+
+    /**
+     * Walks the series index by index. For DAILY and WEEKLY rules the starting index is
+     * computed arithmetically so a one-week window of a five-year daily series only
+     * visits seven candidates. MONTHLY rules iterate from the first month because
+     * months lacking the start day (e.g. the 31st) are skipped and do not count.
+     */
+    private final class OccurrenceIterator implements Iterator<LocalDateTime> {
+
+        private final LocalDateTime seriesStart;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+
+        /** Position in units of the frequency step (not multiplied by interval). */
+        private long step;
+        /** Number of valid occurrences before {@code step}, used for COUNT. */
+        private long produced;
+        private LocalDateTime next;
+
+        OccurrenceIterator(LocalDateTime seriesStart, LocalDateTime from, LocalDateTime to) {
+            this.seriesStart = seriesStart;
+            this.from = from;
+            this.to = to;
+            if (frequency != Frequency.MONTHLY && from.isAfter(seriesStart)) {
+                ChronoUnit unit = frequency == Frequency.DAILY ? ChronoUnit.DAYS : ChronoUnit.WEEKS;
+                step = Math.max(0, unit.between(seriesStart, from) / interval);
+                // Every daily/weekly candidate is valid, so the occurrence number equals the step
+                produced = step;
+            }
+            this.next = advance();
+        }
+
+        private LocalDateTime candidate(long n) {
+            long amount = n * interval;
+            return switch (frequency) {
+                case DAILY -> seriesStart.plusDays(amount);
+                case WEEKLY -> seriesStart.plusWeeks(amount);
+                case MONTHLY -> seriesStart.plusMonths(amount);
+            };
+        }
+
+        private LocalDateTime advance() {
+            while (true) {
+                if (count > 0 && produced >= count) {
+                    return null;
+                }
+                LocalDateTime candidate = candidate(step++);
+                if (frequency == Frequency.MONTHLY && candidate.getDayOfMonth() != seriesStart.getDayOfMonth()) {
+                    // plusMonths clamps to the month end; RFC 5545 skips such dates instead
+                    continue;
+                }
+                produced++;
+                if ((until != null && candidate.isAfter(until)) || !candidate.isBefore(to)) {
+                    return null;
+                }
+                if (candidate.isBefore(from) || exceptions.contains(candidate)) {
+                    continue;
+                }
+                return candidate;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public LocalDateTime next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            LocalDateTime current = next;
+            next = advance();
+            return current;
+        }
+    }
+}
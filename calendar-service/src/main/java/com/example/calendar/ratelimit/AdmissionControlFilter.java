@@ -0,0 +1,120 @@
+package com.example.calendar.ratelimit;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for authenticated API calls, run right after bearer-token authentication.
+ * <ol>
+ *   <li>Per-user rate limit: a token bucket keyed by the JWT subject; an exhausted bucket
+ *       gets {@code 429 Too Many Requests} with {@code Retry-After}.</li>
+ *   <li>Global concurrency cap: at most {@code maxConcurrent} requests are processed at once;
+ *       beyond that requests are shed immediately with {@code 503} and {@code Retry-After}
+ *       instead of queueing until every caller's latency collapses.</li>
+ * </ol>
+ * The per-user check comes first, so a flooding user is rejected before taking a global slot.
+ * Async requests (streamed responses) hold their slot until the response completes.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+
+    private final TokenBucketRateLimiter rateLimiter;
+    private final Semaphore inFlight;
+
+    /**
+     * @param rateLimiter   per-user limiter, or null to disable rate limiting
+     * @param maxConcurrent global concurrency cap; 0 or less disables the cap
+     */
+    public AdmissionControlFilter(TokenBucketRateLimiter rateLimiter, int maxConcurrent) {
+        this.rateLimiter = rateLimiter;
+        this.inFlight = maxConcurrent > 0 ? new Semaphore(maxConcurrent) : null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (rateLimiter != null && authentication instanceof JwtAuthenticationToken jwtAuthentication) {
+            long waitNanos = rateLimiter.tryAcquire(jwtAuthentication.getName(), System.nanoTime());
+            if (waitNanos > 0) {
+                logger.debug("Rate limit exceeded for subject {}", jwtAuthentication.getName());
+                reject(response, HttpStatus.TOO_MANY_REQUESTS, retryAfterSeconds(waitNanos), "Rate limit exceeded");
+                return;
+            }
+        }
+        if (inFlight == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        if (!inFlight.tryAcquire()) {
+            logger.debug("Concurrency limit reached; shedding {} {}", request.getMethod(), request.getRequestURI());
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, 1, "Server busy");
+            return;
+        }
+        boolean releaseOnCompletion = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener());
+                releaseOnCompletion = true;
+            }
+        } finally {
+            if (!releaseOnCompletion) {
+                inFlight.release();
+            }
+        }
+    }
+
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds,
+                               String message) throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write(message);
+    }
+
+    /**
+     * Releases the concurrency slot of an async request once its response is complete.
+     */
+    private final class ReleasingListener implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            inFlight.release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+    }
+}
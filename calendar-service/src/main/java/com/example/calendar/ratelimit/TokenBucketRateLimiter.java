@@ -0,0 +1,87 @@
+package com.example.calendar.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket rate limiter keyed by an arbitrary string (the caller's JWT subject).
+ * <p>
+ * Each key holds an immutable {@link State} in an {@link AtomicReference} that is refilled
+ * lazily and updated with a compare-and-set, so acquiring never blocks and callers with
+ * different keys never contend. Buckets idle for longer than {@code idleTimeout} are
+ * evicted by whichever caller first notices that a sweep is due; since such a bucket has
+ * refilled completely, dropping it is indistinguishable from keeping it.
+ */
+public class TokenBucketRateLimiter {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final long idleTimeoutNanos;
+    private final Map<String, AtomicReference<State>> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos;
+
+    /**
+     * @param capacity          burst size (maximum tokens per key)
+     * @param refillPerSecond   sustained requests per second per key
+     * @param idleTimeoutMillis idle time after which a key's bucket is evicted;
+     *                          raised to at least the time a bucket needs to refill
+     */
+    public TokenBucketRateLimiter(int capacity, double refillPerSecond, long idleTimeoutMillis) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Rate limit capacity and refill rate must be positive");
+        }
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        long refillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        this.idleTimeoutNanos = Math.max(TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis), refillNanos);
+        this.nextSweepNanos = new AtomicLong(System.nanoTime() + idleTimeoutNanos);
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @param key       rate-limit key
+     * @param nowNanos  current {@link System#nanoTime()}
+     * @return 0 when the request is admitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        maybeSweep(nowNanos);
+        AtomicReference<State> bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicReference<>(new State(capacity, nowNanos)));
+        }
+        while (true) {
+            State current = bucket.get();
+            long elapsed = Math.max(0, nowNanos - current.updatedNanos());
+            double tokens = Math.min(capacity, current.tokens() + elapsed * tokensPerNano);
+            if (tokens < 1) {
+                return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+            }
+            State next = new State(tokens - 1, Math.max(nowNanos, current.updatedNanos()));
+            if (bucket.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of keys currently tracked.
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    private void maybeSweep(long nowNanos) {
+        long due = nextSweepNanos.get();
+        if (nowNanos - due < 0 || !nextSweepNanos.compareAndSet(due, nowNanos + idleTimeoutNanos)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> nowNanos - bucket.get().updatedNanos() > idleTimeoutNanos);
+    }
+
+    private record State(double tokens, long updatedNanos) {
+    }
+}
@@ -0,0 +1,221 @@
+package com.example.calendar.repository;
+
+import com.example.calendar.model.CalendarEntry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-calendar analytics maintained incrementally from {@link EventStore} writes:
+ * occurrences per day, busy minutes per day and occurrences per title.
+ * <p>
+ * Only occurrences starting in a fixed range of days are counted: from {@code history-days}
+ * before to {@code horizon-days} after the startup date. The range is computed once, so a
+ * removal always subtracts exactly what the save added, and it bounds both the memory of a
+ * calendar and the work of a write however far in the past or future its events lie.
+ * <p>
+ * Day counters live in pages of primitive int arrays, allocated only for the months a
+ * calendar actually uses; title counters are indexed by dictionary-encoded title id. Each
+ * write costs O(occurrences of that entry in the range) and each read costs
+ * O(days requested + titles), never O(calendar).
+ */
+@Component
+public class CalendarStats implements EventStoreListener {
+
+    private final LocalDateTime first;
+    private final LocalDateTime horizon;
+    private final Map<String, Integer> titleIds = new ConcurrentHashMap<>();
+    private final AtomicInteger nextTitleId = new AtomicInteger();
+    private volatile String[] titlesById = new String[16];
+    private final Map<String, Counters> calendars = new ConcurrentHashMap<>();
+
+    public CalendarStats(EventStore eventStore,
+                         @Value("${calendar.stats.history-days:1096}") int historyDays,
+                         @Value("${calendar.stats.horizon-days:730}") int horizonDays) {
+        LocalDate today = LocalDate.now();
+        this.first = today.minusDays(historyDays).atStartOfDay();
+        this.horizon = today.plusDays(horizonDays).atStartOfDay();
+        eventStore.addListener(this);
+    }
+
+    @Override
+    public void onSaved(CalendarEntry entry) {
+        apply(entry, 1);
+    }
+
+    @Override
+    public void onRemoved(CalendarEntry entry) {
+        apply(entry, -1);
+    }
+
+    @Override
+    public void onCalendarDeleted(String calendarId) {
+        calendars.remove(calendarId);
+    }
+
+    /**
+     * Snapshot of a calendar's aggregates for the days in {@code [from, to)}.
+     *
+     * @param calendarId calendar to read
+     * @param from       first day (inclusive)
+     * @param to         last day (exclusive)
+     * @return aggregates; days without events are omitted
+     */
+    public Snapshot snapshot(String calendarId, LocalDate from, LocalDate to) {
+        Counters counters = calendars.get(calendarId);
+        if (counters == null) {
+            return new Snapshot(Map.of(), Map.of(), Map.of());
+        }
+        String[] titles = titlesById;
+        return counters.snapshot(from.toEpochDay(), to.toEpochDay(), titles);
+    }
+
+    /**
+     * Start of the range in which occurrences are counted.
+     */
+    public LocalDateTime getFirst() {
+        return first;
+    }
+
+    /**
+     * End (exclusive) of the range in which occurrences are counted.
+     */
+    public LocalDateTime getHorizon() {
+        return horizon;
+    }
+
+    private void apply(CalendarEntry entry, int sign) {
+        int titleId = titleId(entry.title());
+        Counters counters = calendars.computeIfAbsent(entry.calendarId(), id -> new Counters());
+        synchronized (counters) {
+            if (!entry.isRecurring()) {
+                if (!entry.start().isBefore(first) && entry.start().isBefore(horizon)) {
+                    counters.add(entry.start(), entry.durationMinutes(), titleId, sign);
+                }
+                return;
+            }
+            Iterator<LocalDateTime> it = entry.recurrence().occurrences(entry.start(), first, horizon);
+            while (it.hasNext()) {
+                counters.add(it.next(), entry.durationMinutes(), titleId, sign);
+            }
+        }
+    }
+
+    private int titleId(String title) {
+        Integer existing = titleIds.get(title);
+        if (existing != null) {
+            return existing;
+        }
+        return titleIds.computeIfAbsent(title, t -> {
+            int id = nextTitleId.getAndIncrement();
+            synchronized (this) {
+                String[] titles = titlesById;
+                if (id >= titles.length) {
+                    titles = Arrays.copyOf(titles, Math.max(titles.length * 2, id + 1));
+                }
+                titles[id] = t;
+                titlesById = titles;
+            }
+            return id;
+        });
+    }
+
+    /**
+     * Aggregates of one calendar.
+     *
+     * @param eventsPerDay      occurrences starting on each day
+     * @param busyMinutesPerDay minutes covered by occurrences on each day (split at midnight)
+     * @param countsByTitle     occurrences per title across the whole counted range
+     */
+    public record Snapshot(Map<LocalDate, Integer> eventsPerDay,
+                           Map<LocalDate, Integer> busyMinutesPerDay,
+                           Map<String, Integer> countsByTitle) {
+    }
+
+    /**
+     * Primitive counters of one calendar; guarded by its own monitor.
+     */
+    private static final class Counters {
+
+        /** Days per page; a page covers about a month. */
+        static final int PAGE_DAYS = 32;
+
+        final Map<Long, Page> pages = new HashMap<>();
+        int[] titleCounts = new int[8];
+
+        void add(LocalDateTime start, int durationMinutes, int titleId, int sign) {
+            long day = start.toLocalDate().toEpochDay();
+            page(day).events[slot(day)] += sign;
+
+            // Spread the duration over the days it covers; durations are capped at two weeks
+            LocalDateTime cursor = start;
+            long remaining = durationMinutes;
+            while (remaining > 0) {
+                LocalDateTime nextMidnight = cursor.toLocalDate().plusDays(1).atStartOfDay();
+                long minutesToday = Math.min(remaining, ChronoUnit.MINUTES.between(cursor, nextMidnight));
+                long cursorDay = cursor.toLocalDate().toEpochDay();
+                page(cursorDay).busyMinutes[slot(cursorDay)] += (int) (sign * minutesToday);
+                remaining -= minutesToday;
+                cursor = nextMidnight;
+            }
+
+            if (titleId >= titleCounts.length) {
+                titleCounts = Arrays.copyOf(titleCounts, Math.max(titleCounts.length * 2, titleId + 1));
+            }
+            titleCounts[titleId] += sign;
+        }
+
+        private Page page(long day) {
+            return pages.computeIfAbsent(Math.floorDiv(day, PAGE_DAYS), index -> new Page());
+        }
+
+        private static int slot(long day) {
+            return Math.floorMod(day, PAGE_DAYS);
+        }
+
+        synchronized Snapshot snapshot(long fromDay, long toDay, String[] titles) {
+            Map<LocalDate, Integer> eventsPerDay = new LinkedHashMap<>();
+            Map<LocalDate, Integer> busyPerDay = new LinkedHashMap<>();
+            for (long day = fromDay; day < toDay; day++) {
+                Page page = pages.get(Math.floorDiv(day, PAGE_DAYS));
+                if (page == null) {
+                    // Skip to the first day of the next page
+                    day = (Math.floorDiv(day, PAGE_DAYS) + 1) * PAGE_DAYS - 1;
+                    continue;
+                }
+                int index = slot(day);
+                if (page.events[index] != 0 || page.busyMinutes[index] != 0) {
+                    LocalDate date = LocalDate.ofEpochDay(day);
+                    eventsPerDay.put(date, page.events[index]);
+                    busyPerDay.put(date, page.busyMinutes[index]);
+                }
+            }
+            Map<String, Integer> byTitle = new LinkedHashMap<>();
+            for (int id = 0; id < titleCounts.length && id < titles.length; id++) {
+                if (titleCounts[id] != 0 && titles[id] != null) {
+                    byTitle.put(titles[id], titleCounts[id]);
+                }
+            }
+            return new Snapshot(eventsPerDay, busyPerDay, byTitle);
+        }
+    }
+
+    /**
+     * Event and busy-minute counters of {@link Counters#PAGE_DAYS} consecutive days.
+     */
+    private static final class Page {
+
+        final int[] events = new int[Counters.PAGE_DAYS];
+        final int[] busyMinutes = new int[Counters.PAGE_DAYS];
+    }
+}
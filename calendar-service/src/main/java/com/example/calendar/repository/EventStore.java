@@ -0,0 +1,376 @@
+package com.example.calendar.repository;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.Occurrence;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * In-memory store of calendar entries, partitioned by calendar.
+ * Single events are kept in a skip list ordered by start time so a window read is a
+ * range scan. Recurring series are stored once as their master entry and expanded
+ * lazily against the requested window.
+ * <p>
+ * Registered {@link EventStoreListener}s are notified of every write so derived
+ * structures can be kept up to date without rescanning the store.
+ */
+@Repository
+public class EventStore {
+
+    /** Order of occurrences within and across calendars. */
+    public static final Comparator<Occurrence> OCCURRENCE_ORDER =
+            Comparator.comparing(Occurrence::start).thenComparingLong(Occurrence::eventId);
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final ConcurrentHashMap<Long, CalendarEntry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CalendarBucket> calendars = new ConcurrentHashMap<>();
+    private final List<EventStoreListener> listeners = new CopyOnWriteArrayList<>();
+    /** Highest version of a deleted calendar; recreated calendars continue above it */
+    private final AtomicLong deletedVersion = new AtomicLong();
+
+    /**
+     * Registers a listener notified after every save and removal.
+     */
+    public void addListener(EventStoreListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Allocates a new unique event id.
+     */
+    public long nextId() {
+        return sequence.incrementAndGet();
+    }
+
+    /**
+     * Allocates a contiguous block of event ids, e.g. for a reproducible bulk load.
+     *
+     * @param count number of ids
+     * @return the first id of the block
+     */
+    public long reserveIds(long count) {
+        return sequence.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Stores (or replaces) an entry in its calendar.
+     *
+     * @param entry entry to store
+     * @return the stored entry
+     * @throws IllegalArgumentException when a series ends outside the supported date range;
+     *                                  the store is left unchanged then
+     */
+    public CalendarEntry save(CalendarEntry entry) {
+        // Expanding the rule is the only step that can fail, so it runs before anything is changed
+        Series indexed = new Series(entry, entry.lastStart());
+        CalendarEntry previous = entries.get(entry.id());
+        if (previous != null) {
+            bucket(previous.calendarId()).remove(previous);
+            notifyRemoved(previous);
+        }
+        bucket(entry.calendarId()).add(indexed);
+        entries.put(entry.id(), entry);
+        notifySaved(entry);
+        return entry;
+    }
+
+    /**
+     * Stores a batch of new entries. Each affected calendar's version is bumped once per
+     * batch rather than once per entry, which keeps bulk imports cheap.
+     *
+     * @param batch entries with ids not yet present in the store
+     * @throws IllegalArgumentException when a series ends outside the supported date range;
+     *                                  nothing of the batch is stored then
+     */
+    public void saveAll(Collection<CalendarEntry> batch) {
+        Map<String, List<Series>> byCalendar = new HashMap<>();
+        for (CalendarEntry entry : batch) {
+            byCalendar.computeIfAbsent(entry.calendarId(), id -> new ArrayList<>())
+                    .add(new Series(entry, entry.lastStart()));
+        }
+        for (CalendarEntry entry : batch) {
+            CalendarEntry previous = entries.get(entry.id());
+            if (previous != null) {
+                bucket(previous.calendarId()).remove(previous);
+                notifyRemoved(previous);
+            }
+        }
+        byCalendar.forEach((calendarId, calendarEntries) -> bucket(calendarId).addAll(calendarEntries));
+        for (CalendarEntry entry : batch) {
+            entries.put(entry.id(), entry);
+        }
+        for (CalendarEntry entry : batch) {
+            notifySaved(entry);
+        }
+    }
+
+    public Optional<CalendarEntry> findById(long id) {
+        return Optional.ofNullable(entries.get(id));
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param id event id
+     * @return the removed entry, if it existed
+     */
+    public Optional<CalendarEntry> delete(long id) {
+        CalendarEntry removed = entries.remove(id);
+        if (removed != null) {
+            bucket(removed.calendarId()).remove(removed);
+            notifyRemoved(removed);
+        }
+        return Optional.ofNullable(removed);
+    }
+
+    /**
+     * Removes a calendar with all its entries, including the per-calendar state of the
+     * listeners, e.g. for throwaway calendars. Meant for calendars no longer written to:
+     * an entry saved concurrently may be dropped with the calendar.
+     *
+     * @param calendarId calendar to remove
+     * @return number of entries removed
+     */
+    public int deleteCalendar(String calendarId) {
+        CalendarBucket bucket = calendars.get(calendarId);
+        if (bucket == null) {
+            return 0;
+        }
+        List<Long> ids = new ArrayList<>(bucket.series.keySet());
+        bucket.singles.values().forEach(entry -> ids.add(entry.id()));
+        int removed = 0;
+        for (long id : ids) {
+            if (delete(id).isPresent()) {
+                removed++;
+            }
+        }
+        // A calendar created again must not reuse a version that cached windows were keyed by
+        deletedVersion.accumulateAndGet(bucket.version.get(), Math::max);
+        calendars.remove(calendarId, bucket);
+        for (EventStoreListener listener : listeners) {
+            listener.onCalendarDeleted(calendarId);
+        }
+        return removed;
+    }
+
+    /**
+     * Monotonic modification counter of a calendar, used to invalidate cached windows.
+     */
+    public long version(String calendarId) {
+        CalendarBucket bucket = calendars.get(calendarId);
+        return bucket == null ? 0 : bucket.version.get();
+    }
+
+    /**
+     * Number of stored entries (single events plus series masters) across all calendars.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Returns occurrences of a calendar whose start lies in {@code [from, to)}, in ascending
+     * start order, with recurring series expanded only inside the window.
+     *
+     * @param calendarId calendar to read
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @param limit      maximum number of occurrences to return
+     * @return occurrences ordered by start time
+     */
+    public List<Occurrence> findOccurrences(String calendarId, LocalDateTime from, LocalDateTime to, int limit) {
+        Iterator<Occurrence> it = occurrenceIterator(calendarId, from, to);
+        List<Occurrence> data = new ArrayList<>();
+        while (data.size() < limit && it.hasNext()) {
+            data.add(it.next());
+        }
+        return data;
+    }
+
+    /**
+     * Lazily iterates a calendar's occurrences in {@code [from, to)} in (start, id) order.
+     * The single-event range scan and every intersecting series are each already sorted,
+     * so they are combined with a k-way merge instead of collecting and sorting.
+     *
+     * @param calendarId calendar to read
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @return sorted occurrence iterator backed by the live store
+     */
+    public Iterator<Occurrence> occurrenceIterator(String calendarId, LocalDateTime from, LocalDateTime to) {
+        CalendarBucket bucket = calendars.get(calendarId);
+        if (bucket == null) {
+            return Collections.emptyIterator();
+        }
+
+        List<Iterator<Occurrence>> sources = new ArrayList<>();
+        Iterator<CalendarEntry> singles = bucket.singles.subMap(Slot.first(from), Slot.first(to)).values().iterator();
+        sources.add(new MappingIterator<>(singles, EventStore::toOccurrence));
+        for (Series series : bucket.series.values()) {
+            if (series.intersects(from, to)) {
+                CalendarEntry entry = series.entry();
+                Iterator<LocalDateTime> starts = entry.recurrence().occurrences(entry.start(), from, to);
+                sources.add(new MappingIterator<>(starts, start -> new Occurrence(
+                        entry.id(), entry.calendarId(), entry.title(), start, entry.durationMinutes())));
+            }
+        }
+        return sources.size() == 1 ? sources.get(0) : new MergingIterator<>(sources, OCCURRENCE_ORDER);
+    }
+
+    /**
+     * Lazily streams the stored entries of a calendar that can produce an occurrence in
+     * {@code [from, to)}: single events starting in the window followed by intersecting
+     * series masters (unexpanded). Either bound may be null for an open window.
+     * The stream is backed by the live store and never copies the calendar.
+     *
+     * @param calendarId calendar to read
+     * @param from       inclusive window start, or null
+     * @param to         exclusive window end, or null
+     * @return stream of entries; singles in start order, series unordered
+     */
+    public Stream<CalendarEntry> streamEntries(String calendarId, LocalDateTime from, LocalDateTime to) {
+        CalendarBucket bucket = calendars.get(calendarId);
+        if (bucket == null) {
+            return Stream.empty();
+        }
+        NavigableMap<Slot, CalendarEntry> singles = bucket.singles;
+        if (from != null) {
+            singles = singles.tailMap(Slot.first(from), true);
+        }
+        if (to != null) {
+            singles = singles.headMap(Slot.first(to), false);
+        }
+        LocalDateTime seriesFrom = from != null ? from : LocalDateTime.MIN;
+        LocalDateTime seriesTo = to != null ? to : LocalDateTime.MAX;
+        return Stream.concat(
+                singles.values().stream(),
+                bucket.series.values().stream()
+                        .filter(series -> series.intersects(seriesFrom, seriesTo))
+                        .map(Series::entry));
+    }
+
+    private static Occurrence toOccurrence(CalendarEntry entry) {
+        return new Occurrence(entry.id(), entry.calendarId(), entry.title(), entry.start(), entry.durationMinutes());
+    }
+
+    private void notifySaved(CalendarEntry entry) {
+        for (EventStoreListener listener : listeners) {
+            listener.onSaved(entry);
+        }
+    }
+
+    private void notifyRemoved(CalendarEntry entry) {
+        for (EventStoreListener listener : listeners) {
+            listener.onRemoved(entry);
+        }
+    }
+
+    private CalendarBucket bucket(String calendarId) {
+        return calendars.computeIfAbsent(calendarId, id -> new CalendarBucket(deletedVersion.get()));
+    }
+
+    /**
+     * Per-calendar storage. Singles are ordered by (start, id); series are unordered
+     * because each one is expanded independently.
+     */
+    private static final class CalendarBucket {
+
+        final ConcurrentSkipListMap<Slot, CalendarEntry> singles = new ConcurrentSkipListMap<>();
+        final ConcurrentHashMap<Long, Series> series = new ConcurrentHashMap<>();
+        final AtomicLong version;
+
+        CalendarBucket(long initialVersion) {
+            this.version = new AtomicLong(initialVersion);
+        }
+
+        void add(Series indexed) {
+            put(indexed);
+            version.incrementAndGet();
+        }
+
+        void addAll(List<Series> batch) {
+            for (Series indexed : batch) {
+                put(indexed);
+            }
+            version.incrementAndGet();
+        }
+
+        private void put(Series indexed) {
+            CalendarEntry entry = indexed.entry();
+            if (entry.isRecurring()) {
+                series.put(entry.id(), indexed);
+            } else {
+                singles.put(new Slot(entry.start(), entry.id()), entry);
+            }
+        }
+
+        void remove(CalendarEntry entry) {
+            if (entry.isRecurring()) {
+                series.remove(entry.id());
+            } else {
+                singles.remove(new Slot(entry.start(), entry.id()));
+            }
+            version.incrementAndGet();
+        }
+    }
+
+    /**
+     * Applies a mapping function to each element of a source iterator on demand.
+     */
+    private record MappingIterator<S, T>(Iterator<S> source, Function<S, T> mapper) implements Iterator<T> {
+
+        @Override
+        public boolean hasNext() {
+            return source.hasNext();
+        }
+
+        @Override
+        public T next() {
+            return mapper.apply(source.next());
+        }
+    }
+
+    /**
+     * Entry with its precomputed last occurrence start (null for an unbounded series).
+     * Only recurring masters are kept in this form; singles are indexed by {@link Slot}.
+     */
+    private record Series(CalendarEntry entry, LocalDateTime lastStart) {
+
+        boolean intersects(LocalDateTime from, LocalDateTime to) {
+            return entry.start().isBefore(to) && (lastStart == null || !lastStart.isBefore(from));
+        }
+    }
+
+    /**
+     * Ordering key of single events.
+     */
+    private record Slot(LocalDateTime start, long id) implements Comparable<Slot> {
+
+        static Slot first(LocalDateTime start) {
+            return new Slot(start, Long.MIN_VALUE);
+        }
+
+        @Override
+        public int compareTo(Slot other) {
+            int cmp = start.compareTo(other.start);
+            return cmp != 0 ? cmp : Long.compare(id, other.id);
+        }
+    }
+}
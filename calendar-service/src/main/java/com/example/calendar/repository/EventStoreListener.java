@@ -0,0 +1,28 @@
+package com.example.calendar.repository;
+
+import com.example.calendar.model.CalendarEntry;
+
+/**
+ * Callback for derived structures (indexes, aggregates) that are maintained incrementally
+ * as entries are written to the {@link EventStore}. Called synchronously on the writing
+ * thread, possibly concurrently for different entries, so implementations must be thread-safe.
+ */
+public interface EventStoreListener {
+
+    /**
+     * Called after an entry has been stored.
+     */
+    void onSaved(CalendarEntry entry);
+
+    /**
+     * Called after an entry has been removed, or replaced by a newer version.
+     */
+    void onRemoved(CalendarEntry entry);
+
+    /**
+     * Called after a calendar has been deleted, once {@link #onRemoved} has been called for
+     * each of its entries; per-calendar state can be dropped.
+     */
+    default void onCalendarDeleted(String calendarId) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.calendar.repository;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazy k-way merge of iterators that are each already sorted by the same comparator.
+ * A binary heap holds the current head of every source, so producing n elements
+ * costs O(n log k) and sources are only advanced as far as the consumer reads.
+ * Ties are broken by source position, which keeps the merge stable.
+ *
+ * @param <T> element type
+ */
+public class MergingIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Cursor<T>> heap;
+
+    public MergingIterator(List<? extends Iterator<? extends T>> sources, Comparator<? super T> comparator) {
+        Comparator<Cursor<T>> byHead = (a, b) -> {
+            int cmp = comparator.compare(a.head, b.head);
+            return cmp != 0 ? cmp : Integer.compare(a.source, b.source);
+        };
+        this.heap = new PriorityQueue<>(Math.max(1, sources.size()), byHead);
+        for (int i = 0; i < sources.size(); i++) {
+            Iterator<? extends T> source = sources.get(i);
+            if (source.hasNext()) {
+                heap.add(new Cursor<>(i, source, source.next()));
+            }
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heap.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Cursor<T> cursor = heap.poll();
+        if (cursor == null) {
+            throw new NoSuchElementException();
+        }
+        T result = cursor.head;
+        if (cursor.iterator.hasNext()) {
+            cursor.head = cursor.iterator.next();
+            heap.add(cursor);
+        }
+        return result;
+    }
+
+    private static final class Cursor<T> {
+
+        final int source;
+        final Iterator<? extends T> iterator;
+        T head;
+
+        Cursor(int source, Iterator<? extends T> iterator, T head) {
+            this.source = source;
+            this.iterator = iterator;
+            this.head = head;
+        }
+    }
+}
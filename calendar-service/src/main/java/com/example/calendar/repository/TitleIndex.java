@@ -0,0 +1,244 @@
+package com.example.calendar.repository;
+
+import com.example.calendar.model.CalendarEntry;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory inverted index over event titles, kept up to date by {@link EventStore} writes.
+ * <p>
+ * Titles are tokenized into lower-case words. Each distinct word is dictionary-encoded
+ * once into an int term id; a sorted term map resolves prefixes to term ids. Postings are
+ * kept per calendar as sorted primitive {@code long[]} arrays of event ids, so a query only
+ * touches the postings of the matching terms and never scans events.
+ */
+@Component
+public class TitleIndex implements EventStoreListener {
+
+    private final Map<String, Integer> termIds = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<String, Integer> sortedTerms = new ConcurrentSkipListMap<>();
+    private final AtomicInteger nextTermId = new AtomicInteger();
+    private final Map<String, CalendarPostings> calendars = new ConcurrentHashMap<>();
+
+    public TitleIndex(EventStore eventStore) {
+        eventStore.addListener(this);
+    }
+
+    @Override
+    public void onSaved(CalendarEntry entry) {
+        CalendarPostings postings = calendars.computeIfAbsent(entry.calendarId(), id -> new CalendarPostings());
+        for (String token : tokenize(entry.title())) {
+            postings.add(termId(token), entry.id());
+        }
+    }
+
+    @Override
+    public void onRemoved(CalendarEntry entry) {
+        CalendarPostings postings = calendars.get(entry.calendarId());
+        if (postings == null) {
+            return;
+        }
+        for (String token : tokenize(entry.title())) {
+            Integer termId = termIds.get(token);
+            if (termId != null) {
+                postings.remove(termId, entry.id());
+            }
+        }
+    }
+
+    @Override
+    public void onCalendarDeleted(String calendarId) {
+        calendars.remove(calendarId);
+    }
+
+    /**
+     * Finds events of a calendar whose title contains, for every query token, a word
+     * starting with that token ("cli ca" matches "Client call").
+     *
+     * @param calendarId calendar to search
+     * @param query      free text
+     * @return matching event ids in ascending order
+     */
+    public long[] search(String calendarId, String query) {
+        List<String> tokens = tokenize(query);
+        CalendarPostings postings = calendars.get(calendarId);
+        if (tokens.isEmpty() || postings == null) {
+            return new long[0];
+        }
+        long[] result = null;
+        for (String token : tokens) {
+            int[] matchingTerms = sortedTerms.subMap(token, true, token + Character.MAX_VALUE, false)
+                    .values().stream().mapToInt(Integer::intValue).toArray();
+            long[] ids = postings.union(matchingTerms);
+            result = result == null ? ids : intersect(result, ids);
+            if (result.length == 0) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Number of distinct terms in the dictionary.
+     */
+    public int termCount() {
+        return termIds.size();
+    }
+
+    /**
+     * Splits text into lower-case alphanumeric words, dropping duplicates.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>(4);
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                String token = text.substring(start, i).toLowerCase(Locale.ROOT);
+                if (!tokens.contains(token)) {
+                    tokens.add(token);
+                }
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private int termId(String term) {
+        Integer existing = termIds.get(term);
+        if (existing != null) {
+            return existing;
+        }
+        return termIds.computeIfAbsent(term, t -> {
+            int id = nextTermId.getAndIncrement();
+            sortedTerms.put(t, id);
+            return id;
+        });
+    }
+
+    private static long[] intersect(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    /**
+     * Postings of one calendar: term id to sorted event ids.
+     * Guarded by its own monitor; writes to different calendars never contend.
+     */
+    private static final class CalendarPostings {
+
+        private final Map<Integer, LongPostings> byTerm = new HashMap<>();
+
+        synchronized void add(int termId, long eventId) {
+            byTerm.computeIfAbsent(termId, id -> new LongPostings()).add(eventId);
+        }
+
+        synchronized void remove(int termId, long eventId) {
+            LongPostings list = byTerm.get(termId);
+            if (list != null && list.remove(eventId) && list.size == 0) {
+                byTerm.remove(termId);
+            }
+        }
+
+        /**
+         * Sorted, de-duplicated union of the postings of the given terms.
+         */
+        synchronized long[] union(int[] termIdsToMerge) {
+            if (termIdsToMerge.length == 1) {
+                LongPostings list = byTerm.get(termIdsToMerge[0]);
+                return list == null ? new long[0] : Arrays.copyOf(list.ids, list.size);
+            }
+            int total = 0;
+            for (int termId : termIdsToMerge) {
+                LongPostings list = byTerm.get(termId);
+                total += list == null ? 0 : list.size;
+            }
+            long[] merged = new long[total];
+            int n = 0;
+            for (int termId : termIdsToMerge) {
+                LongPostings list = byTerm.get(termId);
+                if (list != null) {
+                    System.arraycopy(list.ids, 0, merged, n, list.size);
+                    n += list.size;
+                }
+            }
+            Arrays.sort(merged);
+            int unique = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (i == 0 || merged[i] != merged[i - 1]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return Arrays.copyOf(merged, unique);
+        }
+    }
+
+    /**
+     * Growable sorted array of event ids. Ids are allocated increasingly, so adds are
+     * almost always appends.
+     */
+    private static final class LongPostings {
+
+        long[] ids = new long[4];
+        int size;
+
+        void add(long id) {
+            if (size == 0 || ids[size - 1] < id) {
+                ensureCapacity();
+                ids[size++] = id;
+                return;
+            }
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0) {
+                return;
+            }
+            int insertAt = -pos - 1;
+            ensureCapacity();
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        private void ensureCapacity() {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, ids.length * 2);
+            }
+        }
+    }
+}
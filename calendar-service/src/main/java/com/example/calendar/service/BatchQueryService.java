@@ -0,0 +1,133 @@
+package com.example.calendar.service;
+
+import com.example.calendar.exception.CalendarServiceException;
+import com.example.calendar.model.BatchRequest;
+import com.example.calendar.model.BatchResponse;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Answers many calendar reads in one request, e.g. the calendars of a whole team.
+ * <p>
+ * Sub-queries run in parallel on a dedicated pool of {@code calendar.batch.parallelism}
+ * threads, which bounds the total concurrency of all batches; a per-batch semaphore
+ * ({@code calendar.batch.max-concurrency}) keeps one large batch from occupying the whole
+ * pool. Each sub-query goes through {@link CalendarService}, so windows hit the same
+ * occurrence cache as single reads, and fails on its own without failing the batch.
+ */
+@Service
+public class BatchQueryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchQueryService.class);
+
+    private final CalendarService calendarService;
+    private final CalendarAccess calendarAccess;
+    private final int maxQueries;
+    private final int maxConcurrency;
+    private final ExecutorService workers;
+
+    public BatchQueryService(CalendarService calendarService,
+                             CalendarAccess calendarAccess,
+                             @Value("${calendar.batch.max-queries:100}") int maxQueries,
+                             @Value("${calendar.batch.parallelism:0}") int parallelism,
+                             @Value("${calendar.batch.max-concurrency:8}") int maxConcurrency) {
+        this.calendarService = calendarService;
+        this.calendarAccess = calendarAccess;
+        this.maxQueries = maxQueries;
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.maxConcurrency = Math.max(1, Math.min(maxConcurrency, threads));
+        this.workers = Executors.newFixedThreadPool(threads, new WorkerThreadFactory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Runs all sub-queries of a batch for a caller.
+     *
+     * @param subject caller's JWT subject; {@code own} resolves to it
+     * @param request sub-queries
+     * @return one result per sub-query, in request order
+     * @throws IllegalArgumentException when the batch is empty or has more than {@code calendar.batch.max-queries} queries
+     */
+    public BatchResponse execute(String subject, BatchRequest request) {
+        List<BatchRequest.Query> queries = request == null || request.queries() == null ? List.of() : request.queries();
+        if (queries.isEmpty() || queries.size() > maxQueries) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + maxQueries + " queries");
+        }
+        long started = System.nanoTime();
+        Semaphore inFlight = new Semaphore(maxConcurrency);
+        List<CompletableFuture<BatchResponse.Result>> futures = new ArrayList<>(queries.size());
+        try {
+            for (BatchRequest.Query query : queries) {
+                inFlight.acquire();
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return run(subject, query);
+                    } finally {
+                        inFlight.release();
+                    }
+                }, workers));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new CalendarServiceException("Batch interrupted", ex);
+        }
+
+        List<BatchResponse.Result> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<BatchResponse.Result> future : futures) {
+            results.add(future.join());
+        }
+        return new BatchResponse(results, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private BatchResponse.Result run(String subject, BatchRequest.Query query) {
+        LocalDateTime from = query.from() != null ? query.from() : LocalDate.now().atStartOfDay();
+        LocalDateTime to = query.to() != null ? query.to() : from.plusDays(7);
+        String calendarId = query.calendarId();
+        try {
+            calendarId = calendarAccess.resolveReadable(subject, List.of(String.valueOf(calendarId))).get(0);
+            int limit = query.limit() != null ? query.limit() : 0;
+            List<Map<String, Object>> events = calendarService.getCalendarEvents(calendarId, from, to, limit);
+            return new BatchResponse.Result(calendarId, from, to, 200, events, null);
+        } catch (AccessDeniedException ex) {
+            return new BatchResponse.Result(calendarId, from, to, 403, null, ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            return new BatchResponse.Result(calendarId, from, to, 400, null, ex.getMessage());
+        } catch (RuntimeException ex) {
+            logger.error("Batch sub-query for calendar {} failed", calendarId, ex);
+            return new BatchResponse.Result(calendarId, from, to, 500, null, "Internal error");
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "calendar-batch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
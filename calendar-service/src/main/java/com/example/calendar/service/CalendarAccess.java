@@ -0,0 +1,97 @@
+package com.example.calendar.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Access rules for calendars other than the caller's own.
+ * The caller's personal calendar id is its JWT subject and may be requested as {@code own}.
+ * Calendars whose id starts with one of {@code calendar.access.shared-prefixes}
+ * (e.g. {@code team:platform}) are readable by every user with the calendar role and writable
+ * by users with the {@code calendar.access.shared-writer-role}; other users' personal calendars
+ * are readable only when {@code calendar.access.personal-visible} is set, and never writable.
+ */
+@Component
+public class CalendarAccess {
+
+    public static final String OWN = "own";
+
+    private final List<String> sharedPrefixes;
+    private final boolean personalVisible;
+    private final String sharedWriterAuthority;
+
+    public CalendarAccess(@Value("${calendar.access.shared-prefixes:team:,shared:}") List<String> sharedPrefixes,
+                          @Value("${calendar.access.personal-visible:false}") boolean personalVisible,
+                          @Value("${calendar.access.shared-writer-role:calendar-admin}") String sharedWriterRole) {
+        this.sharedPrefixes = List.copyOf(sharedPrefixes);
+        this.personalVisible = personalVisible;
+        this.sharedWriterAuthority = "ROLE_" + sharedWriterRole;
+    }
+
+    /**
+     * Resolves requested calendar ids for a caller, de-duplicated in request order.
+     *
+     * @param subject   caller's JWT subject
+     * @param requested requested ids; {@code own} stands for the caller's calendar
+     * @return resolved calendar ids
+     * @throws AccessDeniedException when any requested calendar is not readable
+     */
+    public List<String> resolveReadable(String subject, List<String> requested) {
+        Set<String> resolved = new LinkedHashSet<>();
+        for (String id : requested) {
+            String calendarId = resolve(subject, id);
+            if (!canRead(subject, calendarId)) {
+                throw new AccessDeniedException("Calendar not readable: " + calendarId);
+            }
+            resolved.add(calendarId);
+        }
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Resolves the calendar a write goes to.
+     *
+     * @param subject     caller's JWT subject
+     * @param authorities caller's granted authorities
+     * @param requested   requested id; {@code own} or blank stands for the caller's calendar
+     * @return resolved calendar id
+     * @throws AccessDeniedException for another user's personal calendar, or a shared calendar
+     *                               when the caller lacks the shared writer role
+     */
+    public String resolveWritable(String subject, Collection<? extends GrantedAuthority> authorities, String requested) {
+        String calendarId = resolve(subject, requested);
+        if (calendarId.equals(subject)) {
+            return calendarId;
+        }
+        if (isShared(calendarId)
+                && authorities.stream().anyMatch(authority -> sharedWriterAuthority.equals(authority.getAuthority()))) {
+            return calendarId;
+        }
+        throw new AccessDeniedException("Calendar not writable: " + calendarId);
+    }
+
+    public boolean canRead(String subject, String calendarId) {
+        return calendarId.equals(subject) || isShared(calendarId) || personalVisible;
+    }
+
+    private boolean isShared(String calendarId) {
+        for (String prefix : sharedPrefixes) {
+            if (!prefix.isEmpty() && calendarId.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String resolve(String subject, String id) {
+        return id == null || id.isBlank() || OWN.equals(id.trim()) ? subject : id.trim();
+    }
+}
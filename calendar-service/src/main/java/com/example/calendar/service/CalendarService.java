@@ -5,14 +5,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import com.example.calendar.exception.CalendarServiceException;
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.ColumnarEvents;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.model.Occurrence;
+import com.example.calendar.model.RecurrenceRule;
+import com.example.calendar.repository.EventStore;
+import org.springframework.beans.factory.annotation.Value;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
 
 /**
- * Service responsible for generating calendar events.
- * Simulates event data with random tasks and timestamps.
+ * Service responsible for calendar events.
+ * Simulates event data with random tasks and timestamps, and manages stored
+ * single and recurring events whose occurrences are expanded per requested window.
  */
 @Service
 public class CalendarService {
@@ -21,7 +31,8 @@ public class CalendarService {
 
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
 
-    private static final List<String> TASKS = List.of(
+    /** Demo task titles, also used by {@link SyntheticDataGenerator}. */
+    static final List<String> TASKS = List.of(
         "Team meeting",
         "Doctor appointment",
         "Project review",
@@ -34,7 +45,21 @@ public class CalendarService {
         "Design brainstorming"
     );
 
-    private static final Random RANDOM = new Random();
+    private static final int DEFAULT_DURATION_MINUTES = 30;
+    private static final int MAX_DURATION_MINUTES = 14 * 24 * 60;
+    private static final int MIN_START_YEAR = 1900;
+    private static final int MAX_START_YEAR = 2200;
+
+    private final EventStore eventStore;
+    private final OccurrenceCache occurrenceCache;
+    private final int maxResults;
+
+    public CalendarService(EventStore eventStore, OccurrenceCache occurrenceCache,
+                           @Value("${calendar.query.max-results:5000}") int maxResults) {
+        this.eventStore = eventStore;
+        this.occurrenceCache = occurrenceCache;
+        this.maxResults = maxResults;
+    }
 
     /**
      * Generates a list of calendar events with random titles and times.
@@ -43,28 +68,31 @@ public class CalendarService {
      * @return list of event data maps
      */
     public List<Map<String, Object>> getCalendarEvents() {
-        logger.info("Generating calendar events");
+        logger.debug("Generating calendar events");
         try {
-            int count = 3 + RANDOM.nextInt(4);  // Generate between 3 and 6 events
+            // Per-thread generator; a shared java.util.Random contends across request threads
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int count = 3 + random.nextInt(4);  // Generate between 3 and 6 events
             List<Map<String, Object>> data = new ArrayList<>();
 
             for (int i = 0; i < count; i++) {
-                String task = TASKS.get(RANDOM.nextInt(TASKS.size()));
-                LocalDateTime time = LocalDateTime.now().plusMinutes(RANDOM.nextInt(72 * 60));
+                String task = TASKS.get(random.nextInt(TASKS.size()));
+                LocalDateTime time = LocalDateTime.now().plusMinutes(random.nextInt(72 * 60));
                 time = roundToNearestQuarterHour(time);
 
+                String formattedTime = FORMATTER.format(time);
                 Map<String, Object> event = new HashMap<>();
                 event.put("title", task);
-                event.put("time", FORMATTER.format(time));
+                event.put("time", formattedTime);
                 event.put("dateTime", time);  // Used internally for sorting
 
                 data.add(event);
-                logger.debug("Created event: title='{}', time='{}'", task, FORMATTER.format(time));
+                logger.debug("Created event: title='{}', time='{}'", task, formattedTime);
             }
 
             // Sort events by date/time ascending
             data.sort(Comparator.comparing(event -> (LocalDateTime) event.get("dateTime")));
-            logger.info("Sorted {} events by date/time", data.size());
+            logger.debug("Sorted {} events by date/time", data.size());
 
             // Assign sequential IDs and remove internal field
             for (int i = 0; i < data.size(); i++) {
@@ -72,13 +100,172 @@ public class CalendarService {
                 data.get(i).remove("dateTime");
             }
 
-            logger.info("Assigned IDs and finalized event list");
+            logger.debug("Assigned IDs and finalized event list");
             return data;
         } catch (Exception ex) {
             logger.error("Failed to generate calendar events", ex);
             throw new CalendarServiceException("Error occurred while generating calendar events", ex);
         }
     }
+
+    /**
+     * Stores a single or recurring event in the given calendar.
+     * A recurring event is stored once as a rule; its occurrences are never materialized.
+     *
+     * @param calendarId owning calendar
+     * @param request    event details
+     * @return the stored event as a response map
+     * @throws IllegalArgumentException when the request is invalid
+     */
+    public Map<String, Object> createEvent(String calendarId, EventRequest request) {
+        CalendarEntry entry = eventStore.save(toEntry(calendarId, request));
+        logger.debug("Stored event {} in calendar {} (recurring={})", entry.id(), calendarId, entry.isRecurring());
+        return toEntryMap(entry);
+    }
+
+    /**
+     * Validates an event request and builds a new entry with a freshly allocated id.
+     * Shared by single creates and bulk imports so both apply the same rules.
+     *
+     * @param calendarId owning calendar
+     * @param request    event details
+     * @return the entry, not yet stored
+     * @throws IllegalArgumentException when the request is invalid
+     */
+    public CalendarEntry toEntry(String calendarId, EventRequest request) {
+        if (request == null || request.title() == null || request.title().isBlank()) {
+            throw new IllegalArgumentException("Event title is required");
+        }
+        if (request.start() == null) {
+            throw new IllegalArgumentException("Event start is required");
+        }
+        if (request.start().getYear() < MIN_START_YEAR || request.start().getYear() > MAX_START_YEAR) {
+            throw new IllegalArgumentException("Event start must lie between the years " + MIN_START_YEAR
+                    + " and " + MAX_START_YEAR);
+        }
+        int duration = request.durationMinutes() != null ? request.durationMinutes() : DEFAULT_DURATION_MINUTES;
+        if (duration <= 0 || duration > MAX_DURATION_MINUTES) {
+            throw new IllegalArgumentException("Event duration must be between 1 and " + MAX_DURATION_MINUTES + " minutes");
+        }
+        RecurrenceRule recurrence = request.rrule() != null && !request.rrule().isBlank()
+                ? RecurrenceRule.parse(request.rrule(), request.exdates())
+                : null;
+        if (recurrence != null) {
+            // Fails on a series running past the supported date range, before anything is stored
+            recurrence.lastStart(request.start());
+        }
+        return new CalendarEntry(eventStore.nextId(), calendarId, request.title().trim(), request.start(), duration, recurrence);
+    }
+
+    /**
+     * Deletes an event (or a whole recurring series) from the given calendar.
+     *
+     * @return true if the event existed in that calendar and was removed
+     */
+    public boolean deleteEvent(String calendarId, long eventId) {
+        Optional<CalendarEntry> existing = eventStore.findById(eventId);
+        if (existing.isEmpty() || !existing.get().calendarId().equals(calendarId)) {
+            return false;
+        }
+        return eventStore.delete(eventId).isPresent();
+    }
+
+    /**
+     * Returns occurrences of stored events whose start lies in {@code [from, to)}, sorted by time.
+     * Recurring series are expanded lazily and only inside the window; hot windows are
+     * served from {@link OccurrenceCache} until the calendar changes.
+     *
+     * @param calendarId calendar to read
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @param limit      maximum number of occurrences, capped at {@code calendar.query.max-results}
+     * @return list of occurrence maps with id, title, time and durationMinutes
+     */
+    public List<Map<String, Object>> getCalendarEvents(String calendarId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Occurrence> occurrences = findOccurrences(calendarId, from, to, limit);
+        List<Map<String, Object>> data = new ArrayList<>(occurrences.size());
+        for (Occurrence occurrence : occurrences) {
+            data.add(toOccurrenceMap(occurrence));
+        }
+        return data;
+    }
+
+    /**
+     * Same occurrences as {@link #getCalendarEvents(String, LocalDateTime, LocalDateTime, int)},
+     * encoded column-wise with delta-encoded start times and a title dictionary.
+     *
+     * @param calendarId calendar to read
+     * @param from       inclusive window start
+     * @param to         exclusive window end
+     * @param limit      maximum number of occurrences, capped at {@code calendar.query.max-results}
+     * @return columnar occurrences
+     */
+    public ColumnarEvents getColumnarEvents(String calendarId, LocalDateTime from, LocalDateTime to, int limit) {
+        List<Occurrence> occurrences = findOccurrences(calendarId, from, to, limit);
+        int count = occurrences.size();
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        int[] durations = new int[count];
+        int[] titleIndexes = new int[count];
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> titles = new ArrayList<>();
+
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            Occurrence occurrence = occurrences.get(i);
+            long start = occurrence.start().toEpochSecond(ZoneOffset.UTC);
+            ids[i] = occurrence.eventId();
+            starts[i] = start - previous;
+            previous = start;
+            durations[i] = occurrence.durationMinutes();
+            titleIndexes[i] = dictionary.computeIfAbsent(occurrence.title(), title -> {
+                titles.add(title);
+                return titles.size() - 1;
+            });
+        }
+        return new ColumnarEvents(count, ids, starts, durations, titleIndexes, titles);
+    }
+
+    private List<Occurrence> findOccurrences(String calendarId, LocalDateTime from, LocalDateTime to, int limit) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new IllegalArgumentException("Query window requires from < to");
+        }
+        int effectiveLimit = limit <= 0 ? maxResults : Math.min(limit, maxResults);
+
+        OccurrenceCache.WindowKey key = new OccurrenceCache.WindowKey(calendarId, from, to, effectiveLimit);
+        // Read the version before expanding so a concurrent write can only cause a later miss
+        long version = eventStore.version(calendarId);
+        List<Occurrence> occurrences = occurrenceCache.get(key, version);
+        if (occurrences == null) {
+            occurrences = eventStore.findOccurrences(calendarId, from, to, effectiveLimit);
+            occurrenceCache.put(key, version, occurrences);
+        }
+        return occurrences;
+    }
+
+    private Map<String, Object> toOccurrenceMap(Occurrence occurrence) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", occurrence.eventId());
+        event.put("title", occurrence.title());
+        event.put("time", FORMATTER.format(occurrence.start()));
+        event.put("durationMinutes", occurrence.durationMinutes());
+        return event;
+    }
+
+    private Map<String, Object> toEntryMap(CalendarEntry entry) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", entry.id());
+        event.put("calendarId", entry.calendarId());
+        event.put("title", entry.title());
+        event.put("time", FORMATTER.format(entry.start()));
+        event.put("durationMinutes", entry.durationMinutes());
+        if (entry.isRecurring()) {
+            event.put("rrule", entry.recurrence().toRRule());
+            event.put("exdates", entry.recurrence().getExceptions().stream().map(FORMATTER::format).toList());
+        }
+        return event;
+    }
+
     /**
      * Rounds a LocalDateTime to the nearest quarter hour (15 minutes).
      *
@@ -0,0 +1,319 @@
+package com.example.calendar.service;
+
+import com.example.calendar.exception.CalendarServiceException;
+import com.example.calendar.ics.IcsReader;
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.model.ImportFormat;
+import com.example.calendar.model.ImportReport;
+import com.example.calendar.repository.EventStore;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bulk import of ICS or NDJSON calendars.
+ * <p>
+ * The request thread only frames the input into raw records (VEVENT blocks or lines) and
+ * groups them into chunks. Chunks are parsed and validated in parallel on a dedicated pool
+ * and each chunk is written to the store as one batch. A semaphore bounds the chunks in
+ * flight, so memory stays proportional to {@code parallelism * chunkSize} whatever the
+ * file size. Invalid records are counted and reported without aborting the import.
+ */
+@Service
+public class EventImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventImportService.class);
+
+    private static final int MAX_TRACKED_IMPORTS = 100;
+
+    private final CalendarService calendarService;
+    private final EventStore eventStore;
+    private final ObjectReader requestReader;
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+    private final ExecutorService workers;
+    private final Map<String, ImportProgress> imports = new ConcurrentHashMap<>();
+
+    public EventImportService(CalendarService calendarService,
+                              EventStore eventStore,
+                              ObjectMapper objectMapper,
+                              @Value("${calendar.import.parallelism:0}") int parallelism,
+                              @Value("${calendar.import.chunk-size:5000}") int chunkSize,
+                              @Value("${calendar.import.max-reported-errors:100}") int maxReportedErrors) {
+        this.calendarService = calendarService;
+        this.eventStore = eventStore;
+        this.parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxReportedErrors = maxReportedErrors;
+        this.requestReader = objectMapper.readerFor(EventRequest.class);
+        this.workers = Executors.newFixedThreadPool(this.parallelism, new WorkerThreadFactory());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    /**
+     * Imports all records of the given stream into a calendar.
+     *
+     * @param calendarId target calendar
+     * @param input      ICS or NDJSON body; read to the end but not closed
+     * @param format     input format
+     * @return final report with counts, throughput and the first per-record errors
+     * @throws CalendarServiceException when the input cannot be read
+     */
+    public ImportReport importEvents(String calendarId, InputStream input, ImportFormat format) {
+        ImportProgress progress = register(calendarId, format);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 64 * 1024);
+        // Titles repeat heavily in real calendars; share one String per distinct title
+        Map<String, String> titles = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(parallelism * 2);
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+
+        try {
+            List<RawRecord> chunk = new ArrayList<>(chunkSize);
+            RawRecord raw;
+            RecordSource source = format == ImportFormat.ICS ? icsSource(reader) : ndjsonSource(reader);
+            while ((raw = source.next()) != null) {
+                progress.recordsRead.incrementAndGet();
+                chunk.add(raw);
+                if (chunk.size() == chunkSize) {
+                    pending.add(submit(calendarId, format, chunk, titles, progress, inFlight));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                pending.add(submit(calendarId, format, chunk, titles, progress, inFlight));
+            }
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get();
+            progress.status = "COMPLETED";
+        } catch (IOException | ExecutionException ex) {
+            abort(progress, pending);
+            logger.error("Import {} into calendar {} failed after {} events", progress.importId, calendarId,
+                    progress.imported.get(), ex);
+            throw new CalendarServiceException("Import failed after " + progress.imported.get() + " events: "
+                    + ex.getMessage(), ex);
+        } catch (InterruptedException ex) {
+            abort(progress, pending);
+            Thread.currentThread().interrupt();
+            throw new CalendarServiceException("Import interrupted after " + progress.imported.get() + " events", ex);
+        } finally {
+            progress.finishedNanos = System.nanoTime();
+        }
+
+        ImportReport report = progress.toReport();
+        logger.info("Import {} into calendar {}: {} imported, {} rejected, {} events/s",
+                report.importId(), calendarId, report.imported(), report.rejected(), report.eventsPerSecond());
+        return report;
+    }
+
+    /**
+     * Stops the chunks of a failed import that have not been stored yet and waits for the ones
+     * already storing, so nothing is added to the calendar once the failure is reported.
+     */
+    private static void abort(ImportProgress progress, List<CompletableFuture<Void>> pending) {
+        progress.aborted = true;
+        for (CompletableFuture<Void> chunk : pending) {
+            try {
+                chunk.join();
+            } catch (RuntimeException ex) {
+                // Already failed; the import is reported as failed anyway
+            }
+        }
+        progress.status = "FAILED";
+    }
+
+    /**
+     * Returns the progress of the caller's recent and running imports, newest first.
+     */
+    public List<ImportReport> listImports(String calendarId) {
+        return imports.values().stream()
+                .filter(progress -> progress.calendarId.equals(calendarId))
+                .sorted(Comparator.comparing((ImportProgress progress) -> progress.startedAt).reversed())
+                .map(ImportProgress::toReport)
+                .toList();
+    }
+
+    private CompletableFuture<Void> submit(String calendarId, ImportFormat format, List<RawRecord> chunk,
+                                           Map<String, String> titles, ImportProgress progress,
+                                           Semaphore inFlight) throws InterruptedException {
+        // Back-pressure: do not read further ahead than the workers can parse
+        inFlight.acquire();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                if (progress.aborted) {
+                    return;
+                }
+                List<CalendarEntry> batch = new ArrayList<>(chunk.size());
+                for (RawRecord raw : chunk) {
+                    try {
+                        EventRequest request = parse(format, raw);
+                        CalendarEntry entry = calendarService.toEntry(calendarId, request);
+                        String title = titles.computeIfAbsent(entry.title(), t -> t);
+                        batch.add(title == entry.title() ? entry : new CalendarEntry(entry.id(), entry.calendarId(),
+                                title, entry.start(), entry.durationMinutes(), entry.recurrence()));
+                    } catch (RuntimeException | IOException ex) {
+                        progress.reject(raw.number(), ex.getMessage(), maxReportedErrors);
+                    }
+                }
+                // A chunk past this check is awaited by abort() before the failure is reported
+                if (progress.aborted) {
+                    return;
+                }
+                eventStore.saveAll(batch);
+                progress.imported.addAndGet(batch.size());
+            } finally {
+                inFlight.release();
+            }
+        }, workers);
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventRequest parse(ImportFormat format, RawRecord raw) throws IOException {
+        if (raw.error() != null) {
+            throw new IllegalArgumentException(raw.error());
+        }
+        if (format == ImportFormat.ICS) {
+            return IcsReader.toRequest((List<String>) raw.payload());
+        }
+        try {
+            return requestReader.readValue((String) raw.payload());
+        } catch (JsonProcessingException ex) {
+            // Keep the per-record message short; Jackson appends the full source location
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage(), ex);
+        }
+    }
+
+    private RecordSource icsSource(BufferedReader reader) {
+        IcsReader ics = new IcsReader(reader);
+        return () -> {
+            List<String> lines = ics.nextEvent();
+            return lines == null ? null : new RawRecord(ics.getEventNumber(), lines, ics.getEventError());
+        };
+    }
+
+    private RecordSource ndjsonSource(BufferedReader reader) {
+        AtomicLong lineNumber = new AtomicLong();
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                long number = lineNumber.incrementAndGet();
+                if (!line.isBlank()) {
+                    return new RawRecord(number, line, null);
+                }
+            }
+            return null;
+        };
+    }
+
+    private ImportProgress register(String calendarId, ImportFormat format) {
+        if (imports.size() >= MAX_TRACKED_IMPORTS) {
+            imports.values().stream()
+                    .filter(progress -> !"RUNNING".equals(progress.status))
+                    .min(Comparator.comparing(progress -> progress.startedAt))
+                    .ifPresent(oldest -> imports.remove(oldest.importId));
+        }
+        ImportProgress progress = new ImportProgress(UUID.randomUUID().toString(), calendarId, format);
+        imports.put(progress.importId, progress);
+        return progress;
+    }
+
+    /**
+     * Frames the input into raw records; returns null at end of input.
+     */
+    @FunctionalInterface
+    private interface RecordSource {
+        RawRecord next() throws IOException;
+    }
+
+    /**
+     * One unparsed record: an NDJSON line or the content lines of a VEVENT, with the framing
+     * error that makes it invalid regardless of its content (null if none).
+     */
+    private record RawRecord(long number, Object payload, String error) {
+    }
+
+    /**
+     * Live counters of one import, readable while it runs.
+     */
+    private static final class ImportProgress {
+
+        final String importId;
+        final String calendarId;
+        final ImportFormat format;
+        final Instant startedAt = Instant.now();
+        final long startedNanos = System.nanoTime();
+        final AtomicLong recordsRead = new AtomicLong();
+        final AtomicLong imported = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final ConcurrentLinkedQueue<ImportReport.RecordError> errors = new ConcurrentLinkedQueue<>();
+        volatile String status = "RUNNING";
+        volatile boolean aborted;
+        volatile long finishedNanos;
+
+        ImportProgress(String importId, String calendarId, ImportFormat format) {
+            this.importId = importId;
+            this.calendarId = calendarId;
+            this.format = format;
+        }
+
+        void reject(long record, String message, int maxReported) {
+            if (rejected.incrementAndGet() <= maxReported) {
+                errors.add(new ImportReport.RecordError(record, message));
+            }
+        }
+
+        ImportReport toReport() {
+            long end = finishedNanos != 0 ? finishedNanos : System.nanoTime();
+            long elapsedMillis = Math.max(1, (end - startedNanos) / 1_000_000);
+            long storedCount = imported.get();
+            List<ImportReport.RecordError> reported = errors.stream()
+                    .sorted(Comparator.comparingLong(ImportReport.RecordError::record))
+                    .toList();
+            return new ImportReport(importId, format, status, startedAt, recordsRead.get(), storedCount,
+                    rejected.get(), elapsedMillis, storedCount * 1000 / elapsedMillis, reported);
+        }
+    }
+
+    private static final class WorkerThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "calendar-import-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
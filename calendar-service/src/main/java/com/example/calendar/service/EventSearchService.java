@@ -0,0 +1,125 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.repository.TitleIndex;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Full-text and prefix search over event titles, optionally restricted to a time range.
+ * Candidate ids come from the {@link TitleIndex}; only those entries are looked up in the store,
+ * and their start times drop the ones outside the range before any series is expanded. The
+ * candidates are then visited in order of their earliest possible time in the range, keeping
+ * the first {@code limit} hits in a bounded heap, until no later candidate can displace one.
+ */
+@Service
+public class EventSearchService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+    private static final Comparator<Hit> HIT_ORDER =
+            Comparator.comparing(Hit::time).thenComparingLong(hit -> hit.entry().id());
+
+    private final TitleIndex titleIndex;
+    private final EventStore eventStore;
+    private final int maxResults;
+
+    public EventSearchService(TitleIndex titleIndex, EventStore eventStore,
+                              @Value("${calendar.query.max-results:5000}") int maxResults) {
+        this.titleIndex = titleIndex;
+        this.eventStore = eventStore;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Searches a calendar's event titles.
+     * For a recurring series inside a time range, {@code time} is its first occurrence in that range.
+     *
+     * @param calendarId calendar to search
+     * @param query      words or word prefixes that must all match
+     * @param from       inclusive range start, or null
+     * @param to         exclusive range end, or null
+     * @param limit      maximum results; capped at {@code calendar.query.max-results}
+     * @return matching events ordered by time, with id, title, time, durationMinutes and recurring
+     */
+    public List<Map<String, Object>> search(String calendarId, String query, LocalDateTime from,
+                                            LocalDateTime to, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Search window requires from < to");
+        }
+        int effectiveLimit = limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        LocalDateTime windowStart = from != null ? from : LocalDateTime.MIN;
+        LocalDateTime windowEnd = to != null ? to : LocalDateTime.MAX;
+
+        // Each candidate with the earliest time it can have in the window
+        List<Hit> candidates = new ArrayList<>();
+        for (long id : titleIndex.search(calendarId, query)) {
+            CalendarEntry entry = eventStore.findById(id).orElse(null);
+            if (entry == null || !entry.start().isBefore(windowEnd)) {
+                continue;
+            }
+            LocalDateTime last = entry.lastStart();
+            if (last == null || !last.isBefore(windowStart)) {
+                candidates.add(new Hit(entry, entry.start().isBefore(windowStart) ? windowStart : entry.start()));
+            }
+        }
+        candidates.sort(HIT_ORDER);
+
+        // Max-heap: the root is the latest hit kept so far and the first to be displaced
+        PriorityQueue<Hit> best = new PriorityQueue<>(HIT_ORDER.reversed());
+        for (Hit candidate : candidates) {
+            if (best.size() == effectiveLimit && candidate.time().isAfter(best.peek().time())) {
+                break; // this and every further candidate start after all hits kept
+            }
+            LocalDateTime time = firstStartInWindow(candidate.entry(), windowStart, windowEnd);
+            if (time == null) {
+                continue;
+            }
+            Hit hit = new Hit(candidate.entry(), time);
+            if (best.size() < effectiveLimit) {
+                best.add(hit);
+            } else if (HIT_ORDER.compare(hit, best.peek()) < 0) {
+                best.poll();
+                best.add(hit);
+            }
+        }
+        List<Hit> hits = new ArrayList<>(best);
+        hits.sort(HIT_ORDER);
+
+        List<Map<String, Object>> data = new ArrayList<>(hits.size());
+        for (Hit hit : hits) {
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("id", hit.entry().id());
+            event.put("title", hit.entry().title());
+            event.put("time", FORMATTER.format(hit.time()));
+            event.put("durationMinutes", hit.entry().durationMinutes());
+            event.put("recurring", hit.entry().isRecurring());
+            data.add(event);
+        }
+        return data;
+    }
+
+    private static LocalDateTime firstStartInWindow(CalendarEntry entry, LocalDateTime from, LocalDateTime to) {
+        if (!entry.isRecurring()) {
+            return !entry.start().isBefore(from) && entry.start().isBefore(to) ? entry.start() : null;
+        }
+        Iterator<LocalDateTime> occurrences = entry.recurrence().occurrences(entry.start(), from, to);
+        return occurrences.hasNext() ? occurrences.next() : null;
+    }
+
+    private record Hit(CalendarEntry entry, LocalDateTime time) {
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.calendar.service;
+
+import com.example.calendar.ics.IcsWriter;
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.repository.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams a calendar as iCalendar (RFC 5545) text.
+ * Entries are read lazily from the store and written through a fixed-size buffer, so an
+ * export of any size runs in constant memory and is flushed to the client chunk by chunk.
+ */
+@Service
+public class IcsExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IcsExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String UID_DOMAIN = "calendar-service";
+
+    private final EventStore eventStore;
+
+    public IcsExportService(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    /**
+     * Validates an optional export window before the response is committed.
+     *
+     * @throws IllegalArgumentException when both bounds are given and from is not before to
+     */
+    public void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("Export window requires from < to");
+        }
+    }
+
+    /**
+     * Writes the calendar to the given stream. Single events starting in the window and
+     * recurring series with at least one possible occurrence in it are exported; series are
+     * written once with their RRULE rather than expanded.
+     *
+     * @param calendarId   calendar to export
+     * @param from         inclusive window start, or null
+     * @param to           exclusive window end, or null
+     * @param outputStream response body; not closed by this method
+     * @return number of exported VEVENTs
+     */
+    public long export(String calendarId, LocalDateTime from, LocalDateTime to, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), BUFFER_SIZE);
+        IcsWriter ics = new IcsWriter(writer, UID_DOMAIN, Instant.now());
+
+        long exported = 0;
+        ics.writeHeader(calendarId);
+        try (Stream<CalendarEntry> entries = eventStore.streamEntries(calendarId, from, to)) {
+            Iterator<CalendarEntry> it = entries.iterator();
+            while (it.hasNext()) {
+                ics.writeEvent(it.next());
+                exported++;
+            }
+        }
+        ics.writeFooter();
+        writer.flush();
+
+        logger.debug("Exported {} events of calendar {} as iCalendar", exported, calendarId);
+        return exported;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.Occurrence;
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.repository.MergingIterator;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Combined, time-ordered view over several calendars (own, team, shared).
+ * Each calendar contributes an already sorted lazy occurrence iterator; a heap-based
+ * k-way merge interleaves them and stops after {@code limit} elements, so the top N of
+ * k calendars costs O(N log k) and no calendar is read further than needed.
+ */
+@Service
+public class MergedViewService {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final EventStore eventStore;
+    private final ObjectMapper objectMapper;
+    private final int maxCalendars;
+    private final int maxResults;
+
+    public MergedViewService(EventStore eventStore, ObjectMapper objectMapper,
+                             @Value("${calendar.merge.max-calendars:50}") int maxCalendars,
+                             @Value("${calendar.query.max-results:5000}") int maxResults) {
+        this.eventStore = eventStore;
+        this.objectMapper = objectMapper;
+        this.maxCalendars = maxCalendars;
+        this.maxResults = maxResults;
+    }
+
+    /**
+     * Validates a merged view request before the response is committed.
+     *
+     * @throws IllegalArgumentException on an empty or oversized calendar list or an invalid window
+     */
+    public void validate(List<String> calendarIds, LocalDateTime from, LocalDateTime to) {
+        if (calendarIds.isEmpty() || calendarIds.size() > maxCalendars) {
+            throw new IllegalArgumentException("Between 1 and " + maxCalendars + " calendars must be requested");
+        }
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Query window requires from < to");
+        }
+    }
+
+    /**
+     * Lazily merges the occurrences of the given calendars in time order.
+     */
+    public Iterator<Occurrence> merge(List<String> calendarIds, LocalDateTime from, LocalDateTime to) {
+        List<Iterator<Occurrence>> sources = new ArrayList<>(calendarIds.size());
+        for (String calendarId : calendarIds) {
+            sources.add(eventStore.occurrenceIterator(calendarId, from, to));
+        }
+        return new MergingIterator<>(sources, EventStore.OCCURRENCE_ORDER);
+    }
+
+    /**
+     * Streams the merged view as a JSON array, writing each occurrence as soon as the merge
+     * yields it and stopping at the limit.
+     *
+     * @return number of written occurrences
+     */
+    public int write(List<String> calendarIds, LocalDateTime from, LocalDateTime to, int limit,
+                     OutputStream out) throws IOException {
+        int effectiveLimit = limit <= 0 ? maxResults : Math.min(limit, maxResults);
+        Iterator<Occurrence> merged = merge(calendarIds, from, to);
+        int written = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartArray();
+            while (written < effectiveLimit && merged.hasNext()) {
+                Occurrence occurrence = merged.next();
+                json.writeStartObject();
+                json.writeNumberField("id", occurrence.eventId());
+                json.writeStringField("calendarId", occurrence.calendarId());
+                json.writeStringField("title", occurrence.title());
+                json.writeStringField("time", FORMATTER.format(occurrence.start()));
+                json.writeNumberField("durationMinutes", occurrence.durationMinutes());
+                json.writeEndObject();
+                written++;
+            }
+            json.writeEndArray();
+        }
+        return written;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.Occurrence;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Small LRU cache of expanded occurrence windows.
+ * Each cached window remembers the calendar version it was computed from, so any
+ * write to the calendar invalidates it without explicit eviction.
+ */
+@Component
+public class OccurrenceCache {
+
+    private final int maxEntries;
+    private final Map<WindowKey, CachedWindow> cache;
+
+    public OccurrenceCache(@Value("${calendar.recurrence.cache-size:1024}") int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<WindowKey, CachedWindow> eldest) {
+                return size() > OccurrenceCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached window if it was computed at the given calendar version.
+     *
+     * @return cached occurrences, or null on a miss
+     */
+    public List<Occurrence> get(WindowKey key, long version) {
+        if (maxEntries <= 0) {
+            return null;
+        }
+        synchronized (cache) {
+            CachedWindow window = cache.get(key);
+            return window != null && window.version() == version ? window.occurrences() : null;
+        }
+    }
+
+    public void put(WindowKey key, long version, List<Occurrence> occurrences) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        synchronized (cache) {
+            cache.put(key, new CachedWindow(version, List.copyOf(occurrences)));
+        }
+    }
+
+    /**
+     * Identifies a window read of one calendar.
+     */
+    public record WindowKey(String calendarId, LocalDateTime from, LocalDateTime to, int limit) {
+    }
+
+    private record CachedWindow(long version, List<Occurrence> occurrences) {
+    }
+}
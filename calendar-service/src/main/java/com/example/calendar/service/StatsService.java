@@ -0,0 +1,64 @@
+package com.example.calendar.service;
+
+import com.example.calendar.repository.CalendarStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serves per-calendar analytics from the incrementally maintained {@link CalendarStats}.
+ */
+@Service
+public class StatsService {
+
+    private final CalendarStats calendarStats;
+    private final int maxDays;
+
+    public StatsService(CalendarStats calendarStats, @Value("${calendar.stats.max-days:1096}") int maxDays) {
+        this.calendarStats = calendarStats;
+        this.maxDays = maxDays;
+    }
+
+    /**
+     * Returns events per day, busy minutes per day and counts by title of a calendar.
+     *
+     * @param calendarId calendar to read
+     * @param from       first day (inclusive)
+     * @param to         last day (exclusive)
+     * @return response map with {@code days} (date, events, busyMinutes) and {@code titles}
+     */
+    public Map<String, Object> getStats(String calendarId, LocalDate from, LocalDate to) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("Stats range requires from < to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) > maxDays) {
+            throw new IllegalArgumentException("Stats range must not exceed " + maxDays + " days");
+        }
+        CalendarStats.Snapshot snapshot = calendarStats.snapshot(calendarId, from, to);
+
+        List<Map<String, Object>> days = new ArrayList<>(snapshot.eventsPerDay().size());
+        snapshot.eventsPerDay().forEach((date, events) -> {
+            Map<String, Object> day = new LinkedHashMap<>();
+            day.put("date", date.toString());
+            day.put("events", events);
+            day.put("busyMinutes", snapshot.busyMinutesPerDay().getOrDefault(date, 0));
+            days.add(day);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("calendarId", calendarId);
+        stats.put("from", from.toString());
+        stats.put("to", to.toString());
+        stats.put("countedFrom", calendarStats.getFirst().toLocalDate().toString());
+        stats.put("countedUntil", calendarStats.getHorizon().toLocalDate().toString());
+        stats.put("days", days);
+        stats.put("titles", snapshot.countsByTitle());
+        return stats;
+    }
+}
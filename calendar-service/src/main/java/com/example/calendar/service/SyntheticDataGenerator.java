@@ -0,0 +1,171 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.RecurrenceRule;
+import com.example.calendar.repository.EventStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Deterministic, parallel generator of synthetic calendars for load tests and benchmarks.
+ * <p>
+ * Every user gets its own {@link SplittableRandom} derived from the seed and the user index,
+ * so users can be generated on any thread in any order and the same settings always
+ * produce the same events. Event ids are fixed per user too: each user owns a contiguous id
+ * range after its predecessors. Events are either stored directly in an {@link EventStore}
+ * or written as one NDJSON file per user that the user can {@code POST /calendar/import}.
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyntheticDataGenerator.class);
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final long USER_SEED_STRIDE = 0x9E3779B97F4A7C15L;
+
+    private final Settings settings;
+
+    public SyntheticDataGenerator(Settings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Generator settings.
+     *
+     * @param seed           base seed; equal settings yield identical events
+     * @param users          number of users (calendars)
+     * @param eventsPerUser  entries per user
+     * @param spanDays       days over which event starts are spread
+     * @param start          start of the span
+     * @param recurringRatio fraction of entries generated as weekly series
+     * @param userPrefix     calendar id prefix; ids are {@code prefix + index}, zero-padded
+     */
+    public record Settings(long seed, int users, int eventsPerUser, int spanDays,
+                           LocalDateTime start, double recurringRatio, String userPrefix) {
+
+        public Settings {
+            if (users < 1 || eventsPerUser < 0 || spanDays < 1) {
+                throw new IllegalArgumentException("Generator needs users >= 1, events-per-user >= 0 and span-days >= 1");
+            }
+            if (recurringRatio < 0 || recurringRatio > 1) {
+                throw new IllegalArgumentException("Generator recurring-ratio must be between 0 and 1");
+            }
+        }
+    }
+
+    /**
+     * Calendar id of the user with the given index.
+     */
+    public String calendarId(int userIndex) {
+        return String.format("%s%06d", settings.userPrefix(), userIndex);
+    }
+
+    /**
+     * Generates one user's entries. Depends only on the settings and the index.
+     *
+     * @param userIndex 0-based user index
+     * @param firstId   id of the user's first entry; the others follow consecutively
+     * @return entries of that user
+     */
+    public List<CalendarEntry> generateUser(int userIndex, long firstId) {
+        SplittableRandom random = new SplittableRandom(settings.seed() + userIndex * USER_SEED_STRIDE);
+        String calendarId = calendarId(userIndex);
+        int quarterHours = settings.spanDays() * 96;
+        List<CalendarEntry> entries = new ArrayList<>(settings.eventsPerUser());
+
+        for (int i = 0; i < settings.eventsPerUser(); i++) {
+            String title = CalendarService.TASKS.get(random.nextInt(CalendarService.TASKS.size()));
+            LocalDateTime start = settings.start().plusMinutes(15L * random.nextInt(quarterHours));
+            int duration = 15 * (1 + random.nextInt(8));
+            RecurrenceRule recurrence = random.nextDouble() < settings.recurringRatio()
+                    ? new RecurrenceRule(RecurrenceRule.Frequency.WEEKLY, 1, 4 + random.nextInt(49), null, null)
+                    : null;
+            entries.add(new CalendarEntry(firstId + i, calendarId, title, start, duration, recurrence));
+        }
+        return entries;
+    }
+
+    /**
+     * Generates all users in parallel and stores them, one batch per user. The ids of the whole
+     * dataset are reserved up front, so a user's ids do not depend on thread scheduling and
+     * equal {@code 1 + userIndex * eventsPerUser + i} in an empty store.
+     *
+     * @return number of stored entries
+     */
+    public long preload(EventStore eventStore) {
+        long begin = System.nanoTime();
+        long firstId = eventStore.reserveIds((long) settings.users() * settings.eventsPerUser());
+        AtomicLong stored = new AtomicLong();
+        IntStream.range(0, settings.users()).parallel().forEach(userIndex -> {
+            List<CalendarEntry> entries = generateUser(userIndex,
+                    firstId + (long) userIndex * settings.eventsPerUser());
+            eventStore.saveAll(entries);
+            stored.addAndGet(entries.size());
+        });
+        logger.info("Preloaded {} synthetic events for {} users in {} ms",
+                stored.get(), settings.users(), (System.nanoTime() - begin) / 1_000_000);
+        return stored.get();
+    }
+
+    /**
+     * Writes each user as {@code <calendarId>.ndjson} into the given directory, with the
+     * {@code /calendar/events} fields per line. The import endpoint stores events in the caller's
+     * own calendar, so each file is meant to be imported by its user. Users are rendered in
+     * parallel; every file is byte-for-byte reproducible.
+     *
+     * @return number of written entries
+     */
+    public long writeNdjson(Path directory) throws IOException {
+        long begin = System.nanoTime();
+        Files.createDirectories(directory);
+        try {
+            IntStream.range(0, settings.users()).parallel().forEach(userIndex -> {
+                Path file = directory.resolve(calendarId(userIndex) + ".ndjson");
+                try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                    writeUser(userIndex, out);
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+        long written = (long) settings.users() * settings.eventsPerUser();
+        logger.info("Wrote {} synthetic events for {} users to {} in {} ms",
+                written, settings.users(), directory, (System.nanoTime() - begin) / 1_000_000);
+        return written;
+    }
+
+    /**
+     * Writes one NDJSON line per entry straight to {@code out}, so no file-sized string is built
+     * for users with many events.
+     */
+    private void writeUser(int userIndex, Writer out) throws IOException {
+        StringBuilder line = new StringBuilder(256);
+        for (CalendarEntry entry : generateUser(userIndex, 0)) {
+            line.setLength(0);
+            // Titles come from the fixed task list and need no JSON escaping
+            line.append("{\"title\":\"").append(entry.title())
+                .append("\",\"start\":\"").append(ISO.format(entry.start()))
+                .append("\",\"durationMinutes\":").append(entry.durationMinutes());
+            if (entry.isRecurring()) {
+                line.append(",\"rrule\":\"").append(entry.recurrence().toRRule()).append('"');
+            }
+            line.append("}\n");
+            out.append(line);
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.calendar.warmup;
+
+import com.example.calendar.model.ColumnarEvents;
+import com.example.calendar.repository.EventStore;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends synthetic requests through the running server before it reports ready, so the first
+ * user requests do not pay for cold JIT, lazily created Jackson serializers, the first JWT
+ * verification or issuer discovery. Requests go over loopback HTTP with tokens from
+ * {@link WarmupTokenIssuer} for a few {@code warmup-N} users, create a small calendar per user,
+ * read it in the JSON and columnar formats and delete it again. The warmup calendars are then
+ * removed from the store, along with their index and statistics state.
+ *
+ * <p>Spring Boot switches readiness to {@code ACCEPTING_TRAFFIC} only after all application
+ * runners have returned, so {@code /actuator/health/readiness} stays down until the warmup
+ * has finished or {@code calendar.warmup.max-duration} has passed. Issuer discovery runs
+ * alongside the requests and is waited for only within that bound, so an unreachable
+ * identity provider cannot hold readiness back.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /** Spreads the warmup over enough users that the per-user rate limit does not throttle it */
+    private static final int USERS = 64;
+
+    /** Role the calendar endpoints require (see {@code SecurityConfig}) */
+    private static final String ROLE = "my-role";
+
+    private final WarmupTokenIssuer tokens;
+    private final EventStore eventStore;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+    private final int requests;
+    private final int concurrency;
+    private final Duration maxDuration;
+
+    private final AtomicInteger sent = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+
+    public WarmupRunner(WarmupTokenIssuer tokens, EventStore eventStore, ObjectMapper objectMapper, Environment environment,
+                        @Value("${calendar.warmup.requests:1000}") int requests,
+                        @Value("${calendar.warmup.concurrency:4}") int concurrency,
+                        @Value("${calendar.warmup.max-duration:30s}") Duration maxDuration) {
+        this.tokens = tokens;
+        this.eventStore = eventStore;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+        this.requests = requests;
+        this.concurrency = Math.max(1, concurrency);
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            tokens.close();
+            return;
+        }
+        try {
+            long start = System.nanoTime();
+            long deadline = start + maxDuration.toNanos();
+            // Discovery runs alongside the requests and is waited for until the deadline at most
+            CompletableFuture<Boolean> discovery = CompletableFuture.supplyAsync(tokens::prefetchIssuerKeys,
+                    task -> Thread.ofVirtual().name("warmup-discovery").start(task));
+            sendRequests(URI.create("http://localhost:" + port), deadline);
+            String issuerKeys = awaitDiscovery(discovery, deadline);
+            logger.info("Warmup finished in {} ms: {} requests, {} failed; issuer keys {}",
+                    (System.nanoTime() - start) / 1_000_000, sent.get(), failed.get(), issuerKeys);
+        } finally {
+            tokens.close();
+            for (int user = 0; user < USERS; user++) {
+                eventStore.deleteCalendar(user(user));
+            }
+        }
+    }
+
+    private void sendRequests(URI base, long deadline) throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(2)).build();
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        URI eventsUri = base.resolve("/calendar/events?from=" + from + "&to=" + from.plusDays(30));
+
+        String[] userTokens = new String[USERS];
+        List<List<Long>> created = new ArrayList<>(USERS);
+        for (int user = 0; user < USERS; user++) {
+            userTokens[user] = tokens.issue(user(user), List.of(ROLE), maxDuration.plusMinutes(1));
+            created.add(System.nanoTime() < deadline ? createEvents(client, base, userTokens[user], from) : List.of());
+        }
+
+        // Reads rotate over the users, alternating between the JSON and the columnar format
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> tasks = new ArrayList<>(concurrency);
+            for (int worker = 0; worker < concurrency; worker++) {
+                tasks.add(workers.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < requests && System.nanoTime() < deadline;
+                         i = next.getAndIncrement()) {
+                        String accept = (i / USERS) % 2 == 0 ? "application/json" : ColumnarEvents.MEDIA_TYPE;
+                        send(client, HttpRequest.newBuilder(eventsUri).header("Accept", accept), userTokens[i % USERS]);
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+
+        // Whatever is left once the deadline has passed goes with the calendars afterwards
+        for (int user = 0; user < USERS && System.nanoTime() < deadline; user++) {
+            for (long id : created.get(user)) {
+                send(client, HttpRequest.newBuilder(base.resolve("/calendar/events/" + id)).DELETE(), userTokens[user]);
+            }
+        }
+    }
+
+    /**
+     * Waits for the discovery until the warmup deadline. A discovery still running then is left
+     * to finish in the background, where the first request would otherwise have waited for it.
+     */
+    private static String awaitDiscovery(CompletableFuture<Boolean> discovery, long deadline) throws InterruptedException {
+        try {
+            return discovery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    ? "fetched" : "not reachable, fetched on the first request";
+        } catch (TimeoutException e) {
+            return "still being fetched";
+        } catch (ExecutionException e) {
+            return "not reachable, fetched on the first request";
+        }
+    }
+
+    private static String user(int index) {
+        return "warmup-" + index;
+    }
+
+    private List<Long> createEvents(HttpClient client, URI base, String token, LocalDateTime from) throws Exception {
+        List<Map<String, Object>> bodies = List.of(
+                Map.of("title", "Warmup meeting", "start", from.plusHours(9).toString(), "durationMinutes", 30),
+                Map.of("title", "Warmup standup", "start", from.plusHours(10).toString(), "durationMinutes", 15,
+                        "rrule", "FREQ=DAILY;COUNT=60"));
+        List<Long> ids = new ArrayList<>(bodies.size());
+        for (Map<String, Object> body : bodies) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve("/calendar/events"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+            HttpResponse<byte[]> response = send(client, request, token);
+            if (response != null && response.statusCode() == 201) {
+                JsonNode id = objectMapper.readTree(response.body()).get("id");
+                if (id != null) {
+                    ids.add(id.asLong());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private HttpResponse<byte[]> send(HttpClient client, HttpRequest.Builder request, String token) {
+        sent.incrementAndGet();
+        try {
+            HttpResponse<byte[]> response = client.send(
+                    request.header("Authorization", "Bearer " + token).timeout(Duration.ofSeconds(10)).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            if (response.statusCode() >= 400) {
+                failed.incrementAndGet();
+            }
+            return response;
+        } catch (Exception e) {
+            failed.incrementAndGet();
+            logger.debug("Warmup request failed", e);
+            return null;
+        }
+    }
+}
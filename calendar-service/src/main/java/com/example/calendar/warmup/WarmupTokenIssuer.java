@@ -0,0 +1,127 @@
+package com.example.calendar.warmup;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Signs RS256 bearer tokens for the startup warmup with a key pair that exists only in memory,
+ * so warmup requests take the same verification and role-mapping path as Keycloak tokens.
+ * The decoder from {@link #decoderFallingBackTo(JwtDecoder)} accepts these tokens until
+ * {@link #close()}; afterwards every token goes to the issuer's decoder alone.
+ */
+@Component
+@ConditionalOnProperty(name = "calendar.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupTokenIssuer {
+
+    static final String ISSUER = "urn:calendar-service:warmup";
+
+    private final RSASSASigner signer;
+    private final String keyId;
+    private volatile JwtDecoder warmupDecoder;
+    private volatile JwtDecoder issuerDecoder;
+
+    public WarmupTokenIssuer() {
+        try {
+            RSAKey key = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+            this.signer = new RSASSASigner(key);
+            this.keyId = key.getKeyID();
+            NimbusJwtDecoder decoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+            decoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(ISSUER));
+            this.warmupDecoder = decoder;
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not create the warmup signing key", e);
+        }
+    }
+
+    /**
+     * Signs a token for {@code subject} holding the given realm roles.
+     */
+    public String issue(String subject, List<String> roles, Duration ttl) {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(ttl)))
+                .claim("realm_access", Map.of("roles", roles))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign warmup token", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * Returns a decoder that tries the warmup key while the warmup runs and otherwise
+     * delegates to {@code issuerDecoder}.
+     */
+    public JwtDecoder decoderFallingBackTo(JwtDecoder issuerDecoder) {
+        this.issuerDecoder = issuerDecoder;
+        return token -> {
+            JwtDecoder warmup = warmupDecoder;
+            if (warmup != null) {
+                try {
+                    return warmup.decode(token);
+                } catch (JwtException e) {
+                    // Not a warmup token
+                }
+            }
+            return issuerDecoder.decode(token);
+        };
+    }
+
+    /**
+     * Runs issuer discovery and the signing-key lookup of the issuer's decoder ahead of
+     * the first real token. The warmup token itself is rejected by that decoder.
+     *
+     * @return whether issuer discovery and the key set lookup succeeded
+     */
+    public boolean prefetchIssuerKeys() {
+        JwtDecoder decoder = issuerDecoder;
+        if (decoder == null) {
+            return false;
+        }
+        try {
+            decoder.decode(issue("warmup", List.of(), Duration.ofMinutes(1)));
+            return true;
+        } catch (BadJwtException e) {
+            // Expected: signed with the warmup key, rejected after discovery and the key set lookup
+            return true;
+        } catch (RuntimeException e) {
+            // Discovery or the key set lookup failed; the decoder retries on the next token
+            return false;
+        }
+    }
+
+    /** Stops accepting warmup tokens. */
+    public void close() {
+        warmupDecoder = null;
+    }
+
+    public boolean isActive() {
+        return warmupDecoder != null;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.calendar.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderConfigTest {
+
+    @Test
+    void onlyCalendarReadsShouldBeMeasured() {
+        assertTrue(measured("GET", "/calendar"));
+        assertTrue(measured("GET", "/calendar/events"));
+        assertTrue(measured("POST", "/calendar/batch"));
+
+        // Imports, exports and writes take as long as their payload is large
+        assertFalse(measured("POST", "/calendar/import"));
+        assertFalse(measured("GET", "/calendar/export.ics"));
+        assertFalse(measured("POST", "/calendar/events"));
+        assertFalse(measured("DELETE", "/calendar/events/1"));
+        assertFalse(measured("GET", "/calendars"));
+        assertFalse(measured("GET", "/actuator/health"));
+    }
+
+    private static boolean measured(String method, String path) {
+        return FlightRecorderConfig.isMeasured(new MockHttpServletRequest(method, path));
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.calendar.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.ContextInitializer;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.calendar.controller.CalendarController;
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.service.CalendarService;
+import com.example.calendar.service.OccurrenceCache;
+import com.example.support.logging.RateLimitingTurboFilter;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Request throughput under the logging setups of the request path. A request generates the
+ * calendar with {@link CalendarService#getCalendarEvents()} and logs the four INFO statements
+ * the path used to log per request (one in the controller, three in the service). Sixteen
+ * threads issue requests as fast as they can for three seconds per setup:
+ * <ul>
+ *   <li>synchronous: every statement is formatted and written on the request thread, as with
+ *       Spring Boot's default console appender;</li>
+ *   <li>asynchronous: the same statements go through the non-blocking {@link AsyncAppender}
+ *       of {@code logback-spring.xml}, which drops events rather than stall when its queue is full;</li>
+ *   <li>asynchronous and rate-limited: additionally limited by {@link RateLimitingTurboFilter}
+ *       with the defaults of {@code application.properties}.</li>
+ * </ul>
+ * Lines go to a file under {@code target} with Spring Boot's console pattern, which is cheaper
+ * than a terminal or a container log pipe, so the gap is a lower bound.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=RequestLoggingBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class RequestLoggingBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final long MEASURE_NANOS = 3_000_000_000L;
+    private static final String PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p %pid --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    private static final org.slf4j.Logger controllerLogger = LoggerFactory.getLogger(CalendarController.class);
+    private static final org.slf4j.Logger serviceLogger = LoggerFactory.getLogger(CalendarService.class);
+
+    private final CalendarService calendarService = new CalendarService(new EventStore(), new OccurrenceCache(16), 5000);
+
+    @AfterAll
+    static void restoreLogging() throws Exception {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+        new ContextInitializer(context).autoConfig();
+    }
+
+    @Test
+    void asyncRateLimitedLoggingRecoversThroughput() throws Exception {
+        Result synchronous = run("synchronous", false, false);
+        Result asynchronous = run("asynchronous", true, false);
+        Result limited = run("async-rate-limited", true, true);
+
+        System.out.printf("requests/s with 4 INFO statements per request, %d threads, %d cores%n",
+                THREADS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  synchronous appender:            %s%n", synchronous);
+        System.out.printf("  asynchronous appender:           %s%n", asynchronous);
+        System.out.printf("  asynchronous and rate-limited:   %s%n", limited);
+
+        assertTrue(limited.requestsPerSecond() > synchronous.requestsPerSecond(),
+                "Asynchronous, rate-limited logging must sustain more requests than synchronous logging");
+    }
+
+    private Result run(String name, boolean async, boolean rateLimited) throws Exception {
+        Path file = Path.of("target", "logging-benchmark-" + name + ".log");
+        Files.deleteIfExists(file);
+        configure(file, async, rateLimited);
+
+        LongAdder requests = new LongAdder();
+        long start = System.nanoTime();
+        long measureFrom = start + WARMUP_NANOS;
+        long deadline = measureFrom + MEASURE_NANOS;
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            new Thread(() -> {
+                try {
+                    long now;
+                    while ((now = System.nanoTime()) < deadline) {
+                        request();
+                        if (now >= measureFrom) {
+                            requests.increment();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        done.await();
+
+        // Stopping the context flushes what the asynchronous appender still holds
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+        long lines;
+        try (var stream = Files.lines(file)) {
+            lines = stream.count();
+        }
+        return new Result(requests.sum() * 1e9 / MEASURE_NANOS, lines);
+    }
+
+    private void request() {
+        controllerLogger.info("Fetching calendar events");
+        serviceLogger.info("Generating calendar events");
+        List<?> events = calendarService.getCalendarEvents();
+        serviceLogger.info("Sorted {} events by date/time", events.size());
+        serviceLogger.info("Assigned IDs and finalized event list");
+    }
+
+    private static void configure(Path file, boolean async, boolean rateLimited) {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern(PATTERN);
+        encoder.start();
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(context);
+        fileAppender.setName("FILE");
+        fileAppender.setFile(file.toString());
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        Appender<ILoggingEvent> appender = fileAppender;
+        if (async) {
+            AsyncAppender asyncAppender = new AsyncAppender();
+            asyncAppender.setContext(context);
+            asyncAppender.setName("ASYNC_FILE");
+            asyncAppender.setQueueSize(8192);
+            asyncAppender.setNeverBlock(true);
+            asyncAppender.setIncludeCallerData(false);
+            asyncAppender.addAppender(fileAppender);
+            asyncAppender.start();
+            appender = asyncAppender;
+        }
+        if (rateLimited) {
+            RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+            filter.setContext(context);
+            filter.addLogger("com.example.calendar.controller");
+            filter.addLogger("com.example.calendar.service");
+            filter.setPermitsPerSecond(10);
+            filter.setBurst(20);
+            filter.start();
+            context.addTurboFilter(filter);
+        }
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+        context.start();
+    }
+
+    record Result(double requestsPerSecond, long linesWritten) {
+
+        @Override
+        public String toString() {
+            return String.format("%,10.0f requests/s  %,9d lines written", requestsPerSecond, linesWritten);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.calendar.ratelimit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdmissionControlFilterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void bucketShouldAllowBurstThenRefillAtRate() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(3, 2, 60_000);
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", now));
+        }
+        long wait = limiter.tryAcquire("alice", now);
+        assertEquals(SECOND / 2, wait, SECOND / 1000, "One token refills every 500 ms");
+        assertEquals(0, limiter.tryAcquire("bob", now), "Keys have independent buckets");
+        assertEquals(0, limiter.tryAcquire("alice", now + wait));
+        assertTrue(limiter.tryAcquire("alice", now + wait) > 0);
+    }
+
+    @Test
+    void idleBucketsShouldBeEvicted() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(2, 1, 10_000);
+        long now = System.nanoTime();
+        limiter.tryAcquire("alice", now);
+        limiter.tryAcquire("bob", now);
+        assertEquals(2, limiter.size());
+
+        limiter.tryAcquire("carol", now + 30 * SECOND);
+        assertEquals(1, limiter.size(), "Only the bucket used at the sweep survives");
+    }
+
+    @Test
+    void shouldReturn429WithRetryAfterWhenUserExceedsRate() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(new TokenBucketRateLimiter(1, 0.5, 60_000), 0);
+        authenticate("alice");
+
+        MockHttpServletResponse first = run(filter);
+        MockHttpServletResponse second = run(filter);
+
+        assertEquals(200, first.getStatus());
+        assertEquals(429, second.getStatus());
+        assertEquals("2", second.getHeader("Retry-After"));
+
+        authenticate("bob");
+        assertEquals(200, run(filter).getStatus(), "Other users are not affected");
+    }
+
+    @Test
+    void shouldShedRequestsBeyondTheConcurrencyCap() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(null, 1);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<Integer> blockedStatus = new AtomicReference<>();
+
+        Thread slow = new Thread(() -> {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            try {
+                filter.doFilter(new MockHttpServletRequest("GET", "/calendar/events"), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception ex) {
+                throw new IllegalStateException(ex);
+            }
+            blockedStatus.set(response.getStatus());
+        });
+        slow.start();
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse shed = run(filter);
+        assertEquals(503, shed.getStatus());
+        assertEquals("1", shed.getHeader("Retry-After"));
+
+        release.countDown();
+        slow.join();
+        assertEquals(200, blockedStatus.get());
+        assertEquals(200, run(filter).getStatus(), "Slot is released after completion");
+    }
+
+    static void authenticate(String subject) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(subject)
+            .issuedAt(Instant.now())
+            .expiresAt(Instant.now().plusSeconds(300))
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+    }
+
+    private static MockHttpServletResponse run(AdmissionControlFilter filter) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/calendar/events"), response, new MockFilterChain());
+        return response;
+    }
+}
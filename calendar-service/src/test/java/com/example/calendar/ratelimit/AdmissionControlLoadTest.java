@@ -0,0 +1,128 @@
+package com.example.calendar.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Load test for admission control: well-behaved users' p99 latency with and without one
+ * abusive user, with and without the filter. Requests are generated open-loop (at a fixed
+ * rate, whatever the latency) against a fixed pool of request threads, like a servlet
+ * container; latency includes the time spent queued for a thread.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=AdmissionControlLoadTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AdmissionControlLoadTest {
+
+    private static final int REQUEST_THREADS = 16;
+    private static final long WORK_MILLIS = 4;
+    private static final int NORMAL_USERS = 8;
+    private static final int NORMAL_RATE = 20;
+    private static final int ABUSIVE_RATE = 6_000;
+    private static final long DURATION_MILLIS = Long.getLong("benchmark.duration-millis", 3_000);
+
+    @Test
+    void abusiveUserDoesNotRaiseOtherUsersP99() throws Exception {
+        // Warm up class loading and JIT so the baseline is not skewed by the first run
+        run(controlled(), true);
+        Result baseline = run(controlled(), false);
+        Result unprotected = run(new AdmissionControlFilter(null, 0), true);
+        Result protectedRun = run(controlled(), true);
+
+        System.out.printf("normal users p50/p99 (ms), %d request threads, %d ms work%n", REQUEST_THREADS, WORK_MILLIS);
+        System.out.printf("  no abuser:                      %s%n", baseline);
+        System.out.printf("  abuser, no admission control:   %s%n", unprotected);
+        System.out.printf("  abuser, admission control:      %s%n", protectedRun);
+
+        assertEquals(0, protectedRun.normalRejected(), "Well-behaved users are never limited");
+        assertTrue(protectedRun.p99() < unprotected.p99() / 5,
+            "Admission control must keep the abuser from queueing everyone else");
+        assertTrue(protectedRun.p99() <= baseline.p99() * 3 + TimeUnit.MILLISECONDS.toNanos(10),
+            "Normal users' p99 stays close to the no-abuser baseline");
+    }
+
+    private static AdmissionControlFilter controlled() {
+        return new AdmissionControlFilter(new TokenBucketRateLimiter(50, 50, 60_000), REQUEST_THREADS * 4);
+    }
+
+    private static Result run(AdmissionControlFilter filter, boolean withAbuser) throws Exception {
+        ExecutorService requestThreads = Executors.newFixedThreadPool(REQUEST_THREADS);
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        AtomicLong normalRejected = new AtomicLong();
+        long started = System.nanoTime();
+        long end = started + TimeUnit.MILLISECONDS.toNanos(DURATION_MILLIS);
+        long normalSent = 0;
+        long abusiveSent = 0;
+
+        for (long now = started; now < end; now = System.nanoTime()) {
+            double elapsedSeconds = (now - started) / 1e9;
+            for (long due = (long) (elapsedSeconds * NORMAL_RATE * NORMAL_USERS); normalSent < due; normalSent++) {
+                String subject = "user-" + (normalSent % NORMAL_USERS);
+                long scheduled = now;
+                requestThreads.execute(() -> {
+                    int status = call(filter, subject);
+                    if (status == 200) {
+                        latencies.add(System.nanoTime() - scheduled);
+                    } else {
+                        normalRejected.incrementAndGet();
+                    }
+                });
+            }
+            if (withAbuser) {
+                for (long due = (long) (elapsedSeconds * ABUSIVE_RATE); abusiveSent < due; abusiveSent++) {
+                    requestThreads.execute(() -> call(filter, "abuser"));
+                }
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        requestThreads.shutdown();
+        assertTrue(requestThreads.awaitTermination(5, TimeUnit.MINUTES));
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(percentile(sorted, 0.50), percentile(sorted, 0.99), normalRejected.get());
+    }
+
+    private static int call(AdmissionControlFilter filter, String subject) {
+        AdmissionControlFilterTest.authenticate(subject);
+        try {
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(new MockHttpServletRequest("GET", "/calendar/events"), response,
+                (request, res) -> LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(WORK_MILLIS)));
+            return response.getStatus();
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+
+    private record Result(long p50, long p99, long normalRejected) {
+
+        @Override
+        public String toString() {
+            return String.format("%.1f / %.1f (rejected %d)", p50 / 1e6, p99 / 1e6, normalRejected);
+        }
+    }
+}
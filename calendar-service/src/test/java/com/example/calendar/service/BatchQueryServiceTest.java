@@ -0,0 +1,77 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.BatchRequest;
+import com.example.calendar.model.BatchResponse;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.repository.EventStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchQueryServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    private CalendarService calendarService;
+    private BatchQueryService batchQueryService;
+
+    @BeforeEach
+    void setup() {
+        calendarService = new CalendarService(new EventStore(), new OccurrenceCache(16), 5000);
+        batchQueryService = new BatchQueryService(calendarService,
+            new CalendarAccess(List.of("team:"), false, "calendar-admin"), 10, 4, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batchQueryService.shutdown();
+    }
+
+    @Test
+    void shouldAnswerEveryQueryInRequestOrder() {
+        calendarService.createEvent("alice", new EventRequest("Standup", DAY.withHour(9), 15, "FREQ=DAILY", null));
+        calendarService.createEvent("team:platform", new EventRequest("Planning", DAY.withHour(10), 60, null, null));
+
+        BatchResponse response = batchQueryService.execute("alice", new BatchRequest(List.of(
+            new BatchRequest.Query("own", DAY, DAY.plusDays(3), null),
+            new BatchRequest.Query("team:platform", DAY, DAY.plusDays(3), null),
+            new BatchRequest.Query("own", DAY, DAY.plusDays(7), 2))));
+
+        List<BatchResponse.Result> results = response.results();
+        assertEquals(3, results.size());
+        assertEquals("alice", results.get(0).calendarId());
+        assertEquals(3, results.get(0).events().size());
+        assertEquals("Planning", results.get(1).events().get(0).get("title"));
+        assertEquals(2, results.get(2).events().size());
+        results.forEach(result -> assertEquals(200, result.status()));
+    }
+
+    @Test
+    void shouldReportFailingQueriesWithoutFailingTheBatch() {
+        BatchResponse response = batchQueryService.execute("alice", new BatchRequest(List.of(
+            new BatchRequest.Query("bob", DAY, DAY.plusDays(1), null),
+            new BatchRequest.Query("own", DAY.plusDays(1), DAY, null),
+            new BatchRequest.Query("own", DAY, DAY.plusDays(1), null))));
+
+        assertEquals(403, response.results().get(0).status());
+        assertEquals(400, response.results().get(1).status());
+        assertNull(response.results().get(1).events());
+        assertEquals(200, response.results().get(2).status());
+    }
+
+    @Test
+    void shouldRejectEmptyAndOversizedBatches() {
+        List<BatchRequest.Query> tooMany = new ArrayList<>();
+        for (int i = 0; i < 11; i++) {
+            tooMany.add(new BatchRequest.Query("own", DAY, DAY.plusDays(1), null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> batchQueryService.execute("alice", new BatchRequest(List.of())));
+        assertThrows(IllegalArgumentException.class, () -> batchQueryService.execute("alice", new BatchRequest(tooMany)));
+    }
+}
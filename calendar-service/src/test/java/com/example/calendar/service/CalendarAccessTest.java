@@ -0,0 +1,81 @@
+package com.example.calendar.service;
+
+import com.example.calendar.exception.GlobalExceptionHandler;
+import com.example.calendar.model.BatchRequest;
+import com.example.calendar.model.BatchResponse;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.repository.EventStore;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.boot.test.context.ConfigDataApplicationContextInitializer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the shipped configuration: other users' personal calendars are not readable, and
+ * shared calendars are writable only with the shared writer role.
+ */
+class CalendarAccessTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withInitializer(new ConfigDataApplicationContextInitializer())
+        // Converts the comma-separated shared prefixes as the application does
+        .withInitializer(context -> context.getBeanFactory().setConversionService(ApplicationConversionService.getSharedInstance()))
+        .withUserConfiguration(CalendarAccess.class);
+
+    @Test
+    void mergedViewOfAnotherUsersCalendarShouldBeForbiddenByDefault() {
+        contextRunner.run(context -> {
+            CalendarAccess access = context.getBean(CalendarAccess.class);
+
+            assertEquals(List.of("alice", "team:platform"), access.resolveReadable("alice", List.of("own", "team:platform")));
+            AccessDeniedException denied = assertThrows(AccessDeniedException.class,
+                () -> access.resolveReadable("alice", List.of("own", "bob")));
+            assertEquals(HttpStatus.FORBIDDEN, new GlobalExceptionHandler().handleAccessDenied(denied).getStatusCode());
+        });
+    }
+
+    @Test
+    void batchQueryOfAnotherUsersCalendarShouldBeForbiddenByDefault() {
+        contextRunner.run(context -> {
+            CalendarService calendarService = new CalendarService(new EventStore(), new OccurrenceCache(16), 5000);
+            calendarService.createEvent("bob", new EventRequest("Private", DAY.withHour(9), 30, null, null));
+            BatchQueryService batchQueryService = new BatchQueryService(calendarService,
+                context.getBean(CalendarAccess.class), 10, 2, 2);
+            try {
+                BatchResponse response = batchQueryService.execute("alice", new BatchRequest(List.of(
+                    new BatchRequest.Query("bob", DAY, DAY.plusDays(1), null))));
+
+                assertEquals(403, response.results().get(0).status());
+                assertNull(response.results().get(0).events());
+            } finally {
+                batchQueryService.shutdown();
+            }
+        });
+    }
+
+    @Test
+    void sharedCalendarsShouldBeWritableOnlyWithTheWriterRole() {
+        contextRunner.run(context -> {
+            CalendarAccess access = context.getBean(CalendarAccess.class);
+            List<GrantedAuthority> user = AuthorityUtils.createAuthorityList("ROLE_my-role");
+            List<GrantedAuthority> writer = AuthorityUtils.createAuthorityList("ROLE_my-role", "ROLE_calendar-admin");
+
+            assertEquals("alice", access.resolveWritable("alice", user, "own"));
+            assertEquals("team:platform", access.resolveWritable("alice", writer, "team:platform"));
+            assertThrows(AccessDeniedException.class, () -> access.resolveWritable("alice", user, "team:platform"));
+            assertThrows(AccessDeniedException.class, () -> access.resolveWritable("alice", writer, "bob"),
+                "Other users' personal calendars are never writable");
+        });
+    }
+}
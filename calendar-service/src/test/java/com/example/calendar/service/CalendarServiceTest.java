@@ -1,10 +1,19 @@
 package com.example.calendar.service;
 
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.ColumnarEvents;
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.model.RecurrenceRule;
+import com.example.calendar.repository.CalendarStats;
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.repository.TitleIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Method;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Map;
 
@@ -16,7 +25,7 @@ class CalendarServiceTest {
 
     @BeforeEach
     void setup() {
-        calendarService = new CalendarService();
+        calendarService = new CalendarService(new EventStore(), new OccurrenceCache(16), 5000);
     }
 
     @Test
@@ -134,4 +143,138 @@ class CalendarServiceTest {
         assertEquals(input, result, "Zero minutes should remain unchanged");
     }
 
+    @Test
+    void shouldExpandDailySeriesOnlyInsideRequestedWindow() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        calendarService.createEvent("alice", new EventRequest("Standup", start, 15, "FREQ=DAILY;COUNT=1800", null));
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents(
+            "alice", LocalDateTime.of(2027, 3, 1, 0, 0), LocalDateTime.of(2027, 3, 8, 0, 0), 0);
+
+        assertEquals(7, events.size(), "One occurrence per day of the window expected");
+        assertEquals("2027-03-01T09:00:00.000", events.get(0).get("time"));
+        assertEquals("2027-03-07T09:00:00.000", events.get(6).get("time"));
+    }
+
+    @Test
+    void shouldHonourCountUntilAndExceptions() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 6, 10, 0);
+        calendarService.createEvent("bob", new EventRequest("Weekly sync", start, 30, "FREQ=WEEKLY;COUNT=4",
+            List.of(start.plusWeeks(1))));
+        calendarService.createEvent("bob", new EventRequest("Retro", start, 60, "FREQ=WEEKLY;INTERVAL=2;UNTIL=20250210", null));
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents(
+            "bob", start, start.plusYears(1), 0);
+
+        long syncs = events.stream().filter(e -> "Weekly sync".equals(e.get("title"))).count();
+        long retros = events.stream().filter(e -> "Retro".equals(e.get("title"))).count();
+        assertEquals(3, syncs, "COUNT=4 minus one excluded occurrence");
+        assertEquals(3, retros, "Jan 6, Jan 20 and Feb 3 fall before UNTIL");
+    }
+
+    @Test
+    void shouldSkipMonthsWithoutTheStartDay() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 8, 0);
+        calendarService.createEvent("carol", new EventRequest("Month end", start, 30, "FREQ=MONTHLY;COUNT=3", null));
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents(
+            "carol", start, start.plusYears(1), 0);
+
+        assertEquals(List.of("2025-01-31T08:00:00.000", "2025-03-31T08:00:00.000", "2025-05-31T08:00:00.000"),
+            events.stream().map(e -> e.get("time")).toList());
+    }
+
+    @Test
+    void shouldMergeSinglesAndSeriesAndReflectWritesInCachedWindows() {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        LocalDateTime from = start.minusDays(1);
+        LocalDateTime to = start.plusDays(3);
+        calendarService.createEvent("dave", new EventRequest("Standup", start, 15, "FREQ=DAILY", null));
+
+        assertEquals(3, calendarService.getCalendarEvents("dave", from, to, 0).size());
+
+        Map<String, Object> single = calendarService.createEvent("dave",
+            new EventRequest("Client call", start.plusHours(2), 45, null, null));
+        List<Map<String, Object>> events = calendarService.getCalendarEvents("dave", from, to, 0);
+        assertEquals(4, events.size(), "Cached window must be invalidated by a write");
+        assertEquals("Client call", events.get(1).get("title"), "Single event sorted between series occurrences");
+
+        assertTrue(calendarService.deleteEvent("dave", (long) single.get("id")));
+        assertEquals(3, calendarService.getCalendarEvents("dave", from, to, 0).size());
+    }
+
+    @Test
+    void columnarEncodingShouldMatchRowEncoding() {
+        LocalDateTime start = LocalDateTime.of(2025, 6, 2, 9, 0);
+        calendarService.createEvent("erin", new EventRequest("Standup", start, 15, "FREQ=DAILY;COUNT=3", null));
+        calendarService.createEvent("erin", new EventRequest("Client call", start.plusHours(2), 45, null, null));
+
+        List<Map<String, Object>> rows = calendarService.getCalendarEvents("erin", start, start.plusDays(7), 0);
+        ColumnarEvents columns = calendarService.getColumnarEvents("erin", start, start.plusDays(7), 0);
+
+        assertEquals(rows.size(), columns.count());
+        assertEquals(List.of("Standup", "Client call"), columns.titles(), "Each title is sent once");
+        long epochSecond = 0;
+        for (int i = 0; i < columns.count(); i++) {
+            epochSecond += columns.starts()[i];
+            Map<String, Object> row = rows.get(i);
+            assertEquals(row.get("id"), columns.ids()[i]);
+            assertEquals(row.get("title"), columns.titles().get(columns.titleIndexes()[i]));
+            assertEquals(row.get("durationMinutes"), columns.durations()[i]);
+            assertEquals(row.get("time"), LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS")));
+        }
+        assertEquals(2 * 3600, columns.starts()[1], "Starts after the first are deltas");
+    }
+
+    @Test
+    void shouldRejectInvalidRecurrenceRules() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 9, 0);
+        assertThrows(IllegalArgumentException.class, () ->
+            calendarService.createEvent("erin", new EventRequest("Bad", start, 30, "FREQ=YEARLY", null)));
+        assertThrows(IllegalArgumentException.class, () ->
+            calendarService.createEvent("erin", new EventRequest("Bad", start, 30, "FREQ=DAILY;BYDAY=MO", null)));
+        assertThrows(IllegalArgumentException.class, () ->
+            calendarService.createEvent("erin", new EventRequest("Bad", start, 30, "FREQ=WEEKLY;INTERVAL=2147483647;COUNT=100000", null)));
+        assertThrows(IllegalArgumentException.class, () ->
+            calendarService.createEvent("erin", new EventRequest("Bad", LocalDateTime.of(999_999_000, 1, 1, 9, 0), 30,
+                "FREQ=WEEKLY;INTERVAL=1000;COUNT=100000", null)));
+        assertTrue(calendarService.getCalendarEvents("erin", LocalDateTime.MIN, LocalDateTime.MAX, 0).isEmpty(),
+            "A rejected event must not be stored");
+    }
+
+    @Test
+    void storeShouldLeaveNoTraceOfASeriesItCannotIndex() {
+        EventStore store = new EventStore();
+        CalendarEntry overflowing = new CalendarEntry(store.nextId(), "erin", "Bad", LocalDateTime.of(999_999_000, 1, 1, 9, 0),
+            30, RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=1000;COUNT=100000", null));
+
+        assertThrows(IllegalArgumentException.class, () -> store.save(overflowing));
+        assertThrows(IllegalArgumentException.class, () -> store.saveAll(List.of(overflowing)));
+        assertTrue(store.findById(overflowing.id()).isEmpty());
+        assertEquals(0, store.size());
+        assertEquals(0, store.version("erin"));
+    }
+
+    @Test
+    void storeShouldDeleteACalendarWithItsIndexAndStats() {
+        EventStore store = new EventStore();
+        TitleIndex titleIndex = new TitleIndex(store);
+        CalendarStats stats = new CalendarStats(store, 30, 365);
+        CalendarService service = new CalendarService(store, new OccurrenceCache(16), 5000);
+        LocalDateTime start = LocalDateTime.now().plusDays(1).withHour(9).withMinute(0).withSecond(0).withNano(0);
+        service.createEvent("warmup-0", new EventRequest("Warmup standup", start, 15, "FREQ=DAILY;COUNT=5", null));
+        service.createEvent("frank", new EventRequest("Warmup review", start, 30, null, null));
+        assertEquals(5, service.getCalendarEvents("warmup-0", start, start.plusDays(7), 0).size());
+
+        assertEquals(1, store.deleteCalendar("warmup-0"));
+        assertEquals(1, store.size());
+        assertEquals(0, titleIndex.search("warmup-0", "warmup").length);
+        assertEquals(1, titleIndex.search("frank", "warmup").length);
+        assertTrue(stats.snapshot("warmup-0", start.toLocalDate(), start.toLocalDate().plusDays(7)).eventsPerDay().isEmpty());
+
+        // Recreated, the calendar must not be served the window cached before the deletion
+        service.createEvent("warmup-0", new EventRequest("Warmup meeting", start, 30, null, null));
+        assertEquals(1, service.getCalendarEvents("warmup-0", start, start.plusDays(7), 0).size());
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.ImportFormat;
+import com.example.calendar.model.ImportReport;
+import com.example.calendar.repository.EventStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ingest throughput benchmark for bulk import (events/sec) on a synthetic file of 500k events,
+ * or {@code benchmark.events}. Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=EventImportBenchmarkTest -Dbenchmark=true [-Dbenchmark.events=2000000]
+ * </pre>
+ * Multi-million-event runs need a few GB of heap, since all events stay in the in-memory store.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class EventImportBenchmarkTest {
+
+    private static final String[] TITLES = {
+        "Team meeting", "Doctor appointment", "Project review", "Client call", "One-on-one meeting",
+        "Lunch with team", "Code review", "Product demo", "Client feedback session", "Design brainstorming"
+    };
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final DateTimeFormatter BASIC = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void ndjsonIngestThroughput() throws Exception {
+        int events = Integer.getInteger("benchmark.events", 500_000);
+        Path file = tempDir.resolve("events.ndjson");
+        writeNdjson(file, events);
+        ImportReport report = runImport(file, ImportFormat.NDJSON);
+        assertEquals(events, report.imported());
+    }
+
+    @Test
+    void icsIngestThroughput() throws Exception {
+        int events = Integer.getInteger("benchmark.events", 500_000);
+        Path file = tempDir.resolve("events.ics");
+        writeIcs(file, events);
+        ImportReport report = runImport(file, ImportFormat.ICS);
+        assertEquals(events, report.imported());
+    }
+
+    private ImportReport runImport(Path file, ImportFormat format) throws Exception {
+        EventStore eventStore = new EventStore();
+        CalendarService calendarService = new CalendarService(eventStore, new OccurrenceCache(0), 5000);
+        EventImportService importService = new EventImportService(calendarService, eventStore,
+            new ObjectMapper().registerModule(new JavaTimeModule()), 0, 5000, 100);
+        try (InputStream in = Files.newInputStream(file)) {
+            ImportReport report = importService.importEvents("benchmark", in, format);
+            System.out.printf("%s import: %,d events (%,d MB) in %,d ms -> %,d events/s on %d cores%n",
+                format, report.imported(), Files.size(file) / (1024 * 1024), report.elapsedMillis(),
+                report.eventsPerSecond(), Runtime.getRuntime().availableProcessors());
+            return report;
+        } finally {
+            importService.shutdown();
+        }
+    }
+
+    private static void writeNdjson(Path file, int events) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            for (int i = 0; i < events; i++) {
+                LocalDateTime start = base.plusMinutes(15L * random.nextInt(5 * 365 * 96));
+                out.write("{\"title\":\"" + TITLES[random.nextInt(TITLES.length)] + "\",\"start\":\""
+                    + ISO.format(start) + "\",\"durationMinutes\":" + (15 * (1 + random.nextInt(8))) + "}\n");
+            }
+        }
+    }
+
+    private static void writeIcs(Path file, int events) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime base = LocalDateTime.of(2020, 1, 1, 0, 0);
+        try (Writer out = new BufferedWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8), 1 << 16)) {
+            out.write("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n");
+            for (int i = 0; i < events; i++) {
+                LocalDateTime start = base.plusMinutes(15L * random.nextInt(5 * 365 * 96));
+                out.write("BEGIN:VEVENT\r\nUID:" + i + "@bench\r\nDTSTART:" + BASIC.format(start)
+                    + "\r\nDURATION:PT" + (15 * (1 + random.nextInt(8))) + "M\r\nSUMMARY:"
+                    + TITLES[random.nextInt(TITLES.length)] + "\r\nEND:VEVENT\r\n");
+            }
+            out.write("END:VCALENDAR\r\n");
+        }
+    }
+}
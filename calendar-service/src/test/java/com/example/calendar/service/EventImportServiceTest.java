@@ -0,0 +1,199 @@
+package com.example.calendar.service;
+
+import com.example.calendar.exception.CalendarServiceException;
+import com.example.calendar.model.ImportFormat;
+import com.example.calendar.model.ImportReport;
+import com.example.calendar.repository.EventStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventImportServiceTest {
+
+    private EventStore eventStore;
+    private CalendarService calendarService;
+    private EventImportService importService;
+
+    @BeforeEach
+    void setup() {
+        eventStore = new EventStore();
+        calendarService = new CalendarService(eventStore, new OccurrenceCache(16), 5000);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        // Small chunks so even tiny inputs exercise several parallel batches
+        importService = new EventImportService(calendarService, eventStore, objectMapper, 4, 3, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.shutdown();
+    }
+
+    @Test
+    void shouldImportNdjsonAndReportInvalidLinesWithoutAborting() {
+        String ndjson = String.join("\n",
+            "{\"title\":\"Team meeting\",\"start\":\"2025-05-05T09:00:00\",\"durationMinutes\":30}",
+            "{\"title\":\"Standup\",\"start\":\"2025-05-05T08:45:00\",\"durationMinutes\":15,\"rrule\":\"FREQ=DAILY;COUNT=5\"}",
+            "not json",
+            "",
+            "{\"title\":\"\",\"start\":\"2025-05-05T10:00:00\"}",
+            "{\"title\":\"Code review\",\"start\":\"2025-05-06T14:00:00\"}",
+            "{\"title\":\"Broken rule\",\"start\":\"2025-05-06T14:00:00\",\"rrule\":\"FREQ=HOURLY\"}");
+
+        ImportReport report = importService.importEvents("alice", stream(ndjson), ImportFormat.NDJSON);
+
+        assertEquals("COMPLETED", report.status());
+        assertEquals(6, report.recordsRead());
+        assertEquals(3, report.imported());
+        assertEquals(3, report.rejected());
+        assertEquals(List.of(3L, 5L, 7L), report.errors().stream().map(ImportReport.RecordError::record).toList(),
+            "Errors should carry the NDJSON line number");
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents("alice",
+            LocalDateTime.of(2025, 5, 5, 0, 0), LocalDateTime.of(2025, 5, 7, 0, 0), 0);
+        assertEquals(4, events.size(), "Two standups plus two single events in the window");
+    }
+
+    @Test
+    void shouldStopStoringOnceAReadFailureIsReported() throws Exception {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            ndjson.append("{\"title\":\"Event ").append(i).append("\",\"start\":\"2025-05-05T09:00:00\"}\n");
+        }
+        InputStream failing = new SequenceInputStream(stream(ndjson.toString()), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+
+        assertThrows(CalendarServiceException.class, () -> importService.importEvents("alice", failing, ImportFormat.NDJSON));
+
+        ImportReport report = importService.listImports("alice").get(0);
+        assertEquals("FAILED", report.status());
+        int stored = eventStore.size();
+        Thread.sleep(100);
+        assertEquals(stored, eventStore.size(), "No chunk is stored after the failure was reported");
+        assertEquals(report.imported(), stored);
+    }
+
+    @Test
+    void shouldImportFoldedIcsWithDurationsAndExceptions() {
+        String ics = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "VERSION:2.0",
+            "BEGIN:VEVENT",
+            "UID:1@example.com",
+            "DTSTART;TZID=Europe/Berlin:20250303T090000",
+            "DTEND;TZID=Europe/Berlin:20250303T094500",
+            "SUMMARY:Client call\\, pricing",
+            "BEGIN:VALARM",
+            "TRIGGER:-PT15M",
+            "DURATION:PT5M",
+            "END:VALARM",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250303T100000Z",
+            "DURATION:PT15M",
+            "SUMMARY:Daily stand",
+            " up",
+            "RRULE:FREQ=DAILY;COUNT=5",
+            "EXDATE:20250304T100000,20250305T100000",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "SUMMARY:No start",
+            "END:VEVENT",
+            "END:VCALENDAR",
+            "");
+
+        ImportReport report = importService.importEvents("bob", stream(ics), ImportFormat.ICS);
+
+        assertEquals(3, report.recordsRead());
+        assertEquals(2, report.imported());
+        assertEquals(1, report.rejected());
+        assertEquals(3L, report.errors().get(0).record());
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents("bob",
+            LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 4, 1, 0, 0), 0);
+        assertEquals(4, events.size(), "One call plus three remaining standups");
+        assertEquals("Client call, pricing", events.get(0).get("title"));
+        assertEquals(45, events.get(0).get("durationMinutes"), "VALARM DURATION must not override the event");
+        assertEquals("Daily standup", events.get(1).get("title"));
+    }
+
+    @Test
+    void shouldRejectUnterminatedIcsEventsAndResyncOnTheNextOne() {
+        String ics = String.join("\r\n",
+            "BEGIN:VCALENDAR",
+            "END:VTIMEZONE",
+            "BEGIN:VEVENT",
+            "DTSTART:20250303T090000",
+            "END:VALARM",
+            "SUMMARY:Stray end",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250303T100000",
+            "SUMMARY:Missing end",
+            "BEGIN:VEVENT",
+            "DTSTART:20250303T110000",
+            "SUMMARY:After resync",
+            "END:VEVENT",
+            "BEGIN:VEVENT",
+            "DTSTART:20250303T120000",
+            "SUMMARY:Cut off",
+            "");
+
+        ImportReport report = importService.importEvents("bob", stream(ics), ImportFormat.ICS);
+
+        assertEquals("COMPLETED", report.status());
+        assertEquals(4, report.recordsRead());
+        assertEquals(2, report.imported());
+        assertEquals(List.of(2L, 4L), report.errors().stream().map(ImportReport.RecordError::record).toList());
+        assertTrue(report.errors().get(0).message().contains("Missing END:VEVENT"), report.errors().get(0).message());
+
+        List<Map<String, Object>> events = calendarService.getCalendarEvents("bob",
+            LocalDateTime.of(2025, 3, 3, 0, 0), LocalDateTime.of(2025, 3, 4, 0, 0), 0);
+        assertEquals(List.of("Stray end", "After resync"), events.stream().map(e -> e.get("title")).toList());
+    }
+
+    @Test
+    void shouldRoundTripExportedIcs() throws Exception {
+        for (int i = 0; i < 100; i++) {
+            calendarService.createEvent("carol", new com.example.calendar.model.EventRequest(
+                "Event " + (i % 7), LocalDateTime.of(2025, 1, 1, 8, 0).plusHours(i), 30, null, null));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new IcsExportService(eventStore).export("carol", null, null, out);
+
+        ImportReport report = importService.importEvents("dave",
+            new ByteArrayInputStream(out.toByteArray()), ImportFormat.ICS);
+
+        assertEquals(100, report.imported());
+        assertEquals(0, report.rejected());
+        assertEquals(1, importService.listImports("dave").size());
+    }
+
+    @Test
+    void shouldResolveFormatFromParameterOrContentType() {
+        assertEquals(ImportFormat.ICS, ImportFormat.resolve(null, "text/calendar; charset=utf-8"));
+        assertEquals(ImportFormat.NDJSON, ImportFormat.resolve("ndjson", "text/calendar"));
+        assertThrows(IllegalArgumentException.class, () -> ImportFormat.resolve(null, "application/json"));
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
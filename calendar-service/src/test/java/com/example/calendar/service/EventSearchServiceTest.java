@@ -0,0 +1,92 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.repository.EventStore;
+import com.example.calendar.repository.TitleIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventSearchServiceTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 8, 9, 0);
+
+    private CalendarService calendarService;
+    private EventSearchService searchService;
+    private TitleIndex titleIndex;
+
+    @BeforeEach
+    void setup() {
+        EventStore eventStore = new EventStore();
+        titleIndex = new TitleIndex(eventStore);
+        calendarService = new CalendarService(eventStore, new OccurrenceCache(16), 5000);
+        searchService = new EventSearchService(titleIndex, eventStore, 5000);
+
+        calendarService.createEvent("alice", new EventRequest("Client call", BASE, 30, null, null));
+        calendarService.createEvent("alice", new EventRequest("Client feedback session", BASE.plusYears(1), 60, null, null));
+        calendarService.createEvent("alice", new EventRequest("Team meeting", BASE.plusDays(1), 30, "FREQ=WEEKLY", null));
+        calendarService.createEvent("bob", new EventRequest("Client call", BASE, 30, null, null));
+    }
+
+    @Test
+    void shouldMatchWordPrefixesCaseInsensitively() {
+        List<Map<String, Object>> hits = searchService.search("alice", "CLI", null, null, 0);
+        assertEquals(List.of("Client call", "Client feedback session"), titles(hits));
+
+        assertEquals(List.of("Client call"), titles(searchService.search("alice", "client ca", null, null, 0)));
+        assertTrue(searchService.search("alice", "dentist", null, null, 0).isEmpty());
+    }
+
+    @Test
+    void shouldOnlySearchTheCallersCalendar() {
+        assertEquals(1, searchService.search("bob", "client", null, null, 0).size());
+    }
+
+    @Test
+    void shouldCombineWithTimeRangeAndExpandSeries() {
+        LocalDateTime from = BASE.plusMonths(6);
+        List<Map<String, Object>> hits = searchService.search("alice", "client", from, from.plusYears(1), 0);
+        assertEquals(List.of("Client feedback session"), titles(hits));
+
+        List<Map<String, Object>> meetings = searchService.search("alice", "meet", from, from.plusDays(7), 0);
+        assertEquals(1, meetings.size());
+        assertEquals(true, meetings.get(0).get("recurring"));
+        assertFalse(LocalDateTime.parse((String) meetings.get(0).get("time")).isBefore(from));
+    }
+
+    @Test
+    void shouldKeepTheEarliestHitsUpToTheLimit() {
+        for (int day = 20; day > 0; day--) {
+            calendarService.createEvent("carol", new EventRequest("Review " + day, BASE.plusDays(day), 30, null, null));
+        }
+        calendarService.createEvent("carol", new EventRequest("Review series", BASE.plusDays(3).plusHours(1), 30, "FREQ=DAILY", null));
+        // Starts before the window, but its first occurrence in it comes after several single events
+        calendarService.createEvent("carol", new EventRequest("Review weekly", BASE.minusDays(1).plusHours(2), 30, "FREQ=WEEKLY", null));
+
+        assertEquals(List.of("Review weekly", "Review 1", "Review 2"), titles(searchService.search("carol", "review", null, null, 3)));
+        assertEquals(List.of("Review 3", "Review series", "Review 4"),
+            titles(searchService.search("carol", "review", BASE.plusDays(3), BASE.plusDays(30), 3)));
+        assertEquals(List.of("Review 3", "Review series", "Review 4", "Review 5", "Review 6", "Review weekly"),
+            titles(searchService.search("carol", "review", BASE.plusDays(3), BASE.plusDays(30), 6)));
+    }
+
+    @Test
+    void shouldUpdateIndexIncrementallyOnDelete() {
+        Map<String, Object> created = calendarService.createEvent("alice", new EventRequest("Dentist", BASE, 30, null, null));
+        int terms = titleIndex.termCount();
+        assertEquals(1, searchService.search("alice", "dent", null, null, 0).size());
+
+        calendarService.deleteEvent("alice", (long) created.get("id"));
+        assertTrue(searchService.search("alice", "dent", null, null, 0).isEmpty());
+        assertEquals(terms, titleIndex.termCount(), "Dictionary is append-only");
+    }
+
+    private static List<Object> titles(List<Map<String, Object>> hits) {
+        return hits.stream().map(hit -> hit.get("title")).toList();
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.model.RecurrenceRule;
+import com.example.calendar.repository.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IcsExportServiceTest {
+
+    private EventStore eventStore;
+    private IcsExportService exportService;
+
+    @BeforeEach
+    void setup() {
+        eventStore = new EventStore();
+        exportService = new IcsExportService(eventStore);
+    }
+
+    @Test
+    void shouldWriteValidCalendarWithRecurrenceAndEscapedText() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 0);
+        eventStore.save(new CalendarEntry(eventStore.nextId(), "alice", "Client call; pricing, Q2", start, 45, null));
+        eventStore.save(new CalendarEntry(eventStore.nextId(), "alice", "Standup", start, 15,
+            RecurrenceRule.parse("FREQ=DAILY;COUNT=10", List.of(start.plusDays(2)))));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.export("alice", null, null, out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals(2, exported);
+        assertTrue(ics.startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n"));
+        assertTrue(ics.endsWith("END:VCALENDAR\r\n"));
+        assertTrue(ics.contains("SUMMARY:Client call\\; pricing\\, Q2\r\n"));
+        assertTrue(ics.contains("DTSTART:20250303T090000\r\n"));
+        assertTrue(ics.contains("RRULE:FREQ=DAILY;COUNT=10\r\n"));
+        assertTrue(ics.contains("EXDATE:20250305T090000\r\n"));
+        assertFalse(ics.replace("\r\n", "").contains("\n"), "Only CRLF line endings expected");
+    }
+
+    @Test
+    void shouldFoldLongLinesAndFilterByWindow() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 9, 0);
+        eventStore.save(new CalendarEntry(eventStore.nextId(), "bob", "x".repeat(200), start, 30, null));
+        eventStore.save(new CalendarEntry(eventStore.nextId(), "bob", "Outside", start.plusMonths(2), 30, null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long exported = exportService.export("bob", start, start.plusDays(1), out);
+        String ics = out.toString(StandardCharsets.UTF_8);
+
+        assertEquals(1, exported);
+        assertFalse(ics.contains("Outside"));
+        for (String physicalLine : ics.split("\r\n")) {
+            assertTrue(physicalLine.getBytes(StandardCharsets.UTF_8).length <= 75, "Line exceeds 75 octets");
+        }
+        assertTrue(ics.replace("\r\n ", "").contains("SUMMARY:" + "x".repeat(200)));
+    }
+
+    @Test
+    void shouldStreamFiftyThousandEventsWithoutBuffering() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 8, 0);
+        for (int i = 0; i < 50_000; i++) {
+            eventStore.save(new CalendarEntry(eventStore.nextId(), "carol", "Code review", start.plusMinutes(15L * i), 15, null));
+        }
+
+        CountingOutputStream out = new CountingOutputStream();
+        long begin = System.nanoTime();
+        long exported = exportService.export("carol", null, null, out);
+        long millis = (System.nanoTime() - begin) / 1_000_000;
+
+        assertEquals(50_000, exported);
+        assertTrue(out.writes > 10, "Body should reach the stream in many chunks, got " + out.writes);
+        assertTrue(out.largestWrite <= 64 * 1024 * 4, "Chunks should be bounded by the buffer size");
+        assertTrue(millis < 10_000, "Export took " + millis + " ms");
+    }
+
+    @Test
+    void shouldRejectInvertedWindow() {
+        LocalDateTime now = LocalDateTime.now();
+        assertThrows(IllegalArgumentException.class, () -> exportService.validateWindow(now, now.minusDays(1)));
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        int writes;
+        int largestWrite;
+
+        @Override
+        public void write(int b) {
+            writes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            writes++;
+            largestWrite = Math.max(largestWrite, len);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.model.Occurrence;
+import com.example.calendar.repository.EventStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MergedViewServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.now().plusDays(1).withHour(0).withMinute(0).withSecond(0).withNano(0);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CalendarService calendarService;
+    private MergedViewService mergedViewService;
+
+    @BeforeEach
+    void setup() {
+        EventStore eventStore = new EventStore();
+        calendarService = new CalendarService(eventStore, new OccurrenceCache(16), 5000);
+        mergedViewService = new MergedViewService(eventStore, objectMapper, 50, 5000);
+    }
+
+    @Test
+    void shouldInterleaveCalendarsInTimeOrder() {
+        calendarService.createEvent("alice", new EventRequest("Standup", DAY.withHour(9), 15, "FREQ=DAILY;COUNT=3", null));
+        calendarService.createEvent("alice", new EventRequest("Review", DAY.plusDays(1).withHour(11), 30, null, null));
+        calendarService.createEvent("team:platform", new EventRequest("Planning", DAY.withHour(10), 60, null, null));
+        calendarService.createEvent("team:platform", new EventRequest("Retro", DAY.plusDays(2).withHour(8), 60, null, null));
+
+        Iterator<Occurrence> merged = mergedViewService.merge(List.of("alice", "team:platform", "nobody"),
+            DAY, DAY.plusDays(7));
+        List<String> titles = new ArrayList<>();
+        LocalDateTime previous = LocalDateTime.MIN;
+        while (merged.hasNext()) {
+            Occurrence occurrence = merged.next();
+            assertFalse(occurrence.start().isBefore(previous));
+            previous = occurrence.start();
+            titles.add(occurrence.title());
+        }
+        assertEquals(List.of("Standup", "Planning", "Standup", "Review", "Retro", "Standup"), titles);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldStreamOnlyTheFirstOccurrencesUpToTheLimit() throws Exception {
+        calendarService.createEvent("alice", new EventRequest("Standup", DAY.withHour(9), 15, "FREQ=DAILY", null));
+        calendarService.createEvent("bob", new EventRequest("Focus", DAY.withHour(8), 120, "FREQ=DAILY", null));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int written = mergedViewService.write(List.of("alice", "bob"), DAY, DAY.plusYears(5), 3, out);
+
+        List<Map<String, Object>> events = objectMapper.readValue(out.toByteArray(), List.class);
+        assertEquals(3, written);
+        assertEquals(List.of("bob", "alice", "bob"), events.stream().map(e -> e.get("calendarId")).toList());
+    }
+
+    @Test
+    void shouldResolveOwnAliasAndRejectHiddenPersonalCalendars() {
+        CalendarAccess access = new CalendarAccess(List.of("team:", "shared:"), false, "calendar-admin");
+
+        assertEquals(List.of("alice", "team:platform"),
+            access.resolveReadable("alice", List.of("own", "team:platform", "alice")));
+        assertThrows(AccessDeniedException.class, () -> access.resolveReadable("alice", List.of("bob")));
+        assertThrows(IllegalArgumentException.class, () -> mergedViewService.validate(List.of(), DAY, DAY.plusDays(1)));
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.EventRequest;
+import com.example.calendar.repository.CalendarStats;
+import com.example.calendar.repository.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.now().plusDays(1);
+
+    private CalendarService calendarService;
+    private StatsService statsService;
+
+    @BeforeEach
+    void setup() {
+        EventStore eventStore = new EventStore();
+        CalendarStats calendarStats = new CalendarStats(eventStore, 30, 365);
+        calendarService = new CalendarService(eventStore, new OccurrenceCache(16), 5000);
+        statsService = new StatsService(calendarStats, 1096);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAggregateSinglesAndSeriesPerDayAndTitle() {
+        calendarService.createEvent("alice", new EventRequest("Standup", DAY.atTime(9, 0), 15, "FREQ=DAILY;COUNT=3", null));
+        calendarService.createEvent("alice", new EventRequest("Client call", DAY.atTime(14, 0), 60, null, null));
+        calendarService.createEvent("alice", new EventRequest("Late deploy", DAY.plusDays(1).atTime(23, 30), 90, null, null));
+
+        Map<String, Object> stats = statsService.getStats("alice", DAY, DAY.plusDays(7));
+        List<Map<String, Object>> days = (List<Map<String, Object>>) stats.get("days");
+
+        assertEquals(3, days.size());
+        assertEquals(Map.of("date", DAY.toString(), "events", 2, "busyMinutes", 75), days.get(0));
+        assertEquals(Map.of("date", DAY.plusDays(1).toString(), "events", 2, "busyMinutes", 45), days.get(1));
+        assertEquals(Map.of("date", DAY.plusDays(2).toString(), "events", 1, "busyMinutes", 75), days.get(2),
+            "Minutes past midnight count towards the next day");
+        assertEquals(Map.of("Standup", 3, "Client call", 1, "Late deploy", 1), stats.get("titles"));
+        assertEquals(List.of("calendarId", "from", "to", "countedFrom", "countedUntil", "days", "titles"),
+            List.copyOf(stats.keySet()));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldReverseCountersOnDelete() {
+        Map<String, Object> series = calendarService.createEvent("bob",
+            new EventRequest("Standup", DAY.atTime(9, 0), 15, "FREQ=WEEKLY", null));
+        calendarService.createEvent("bob", new EventRequest("Standup", DAY.atTime(16, 0), 15, null, null));
+
+        calendarService.deleteEvent("bob", (long) series.get("id"));
+
+        Map<String, Object> stats = statsService.getStats("bob", DAY.minusDays(1), DAY.plusYears(2));
+        assertEquals(1, ((List<Map<String, Object>>) stats.get("days")).size());
+        assertEquals(Map.of("Standup", 1), stats.get("titles"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldOnlyCountOccurrencesInsideTheTrackedRange() {
+        calendarService.createEvent("dave", new EventRequest("Old", DAY.minusYears(50).atTime(9, 0), 30, null, null));
+        calendarService.createEvent("dave", new EventRequest("Far", DAY.plusYears(150).atTime(9, 0), 30, null, null));
+        calendarService.createEvent("dave", new EventRequest("Daily", DAY.minusYears(100).atTime(9, 0), 30, "FREQ=DAILY", null));
+
+        Map<String, Object> stats = statsService.getStats("dave", DAY.minusDays(40), DAY.plusDays(400));
+        List<Map<String, Object>> days = (List<Map<String, Object>>) stats.get("days");
+        assertEquals(LocalDate.now().minusDays(30).toString(), days.get(0).get("date"));
+        assertEquals(30 + 365, days.size(), "One occurrence per tracked day");
+        assertEquals(Map.of("Daily", 30 + 365), stats.get("titles"));
+    }
+
+    @Test
+    void shouldRejectEventsOutsideTheSupportedRangeBeforeStoringThem() {
+        assertThrows(IllegalArgumentException.class, () -> calendarService.createEvent("erin",
+            new EventRequest("Forever", DAY.atTime(9, 0), Integer.MAX_VALUE, null, null)));
+        assertThrows(IllegalArgumentException.class, () -> calendarService.createEvent("erin",
+            new EventRequest("Far", LocalDate.of(999_999_999, 1, 1).atStartOfDay(), 30, null, null)));
+
+        assertTrue(calendarService.getCalendarEvents("erin", LocalDateTime.MIN, LocalDateTime.MAX, 0).isEmpty());
+    }
+
+    @Test
+    void shouldRejectInvalidRanges() {
+        assertThrows(IllegalArgumentException.class, () -> statsService.getStats("carol", DAY, DAY));
+        assertThrows(IllegalArgumentException.class, () -> statsService.getStats("carol", DAY, DAY.plusYears(5)));
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.calendar.service;
+
+import com.example.calendar.model.CalendarEntry;
+import com.example.calendar.repository.EventStore;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SyntheticDataGeneratorTest {
+
+    @Test
+    void shouldBeReproducibleRegardlessOfThreading() throws Exception {
+        SyntheticDataGenerator.Settings settings = new SyntheticDataGenerator.Settings(
+            7L, 40, 25, 30, LocalDateTime.of(2025, 1, 1, 0, 0), 0.1, "user-");
+        SyntheticDataGenerator generator = new SyntheticDataGenerator(settings);
+
+        Path first = Files.createTempDirectory("synthetic");
+        Path second = Files.createTempDirectory("synthetic");
+        try {
+            assertEquals(1000, generator.writeNdjson(first));
+            new SyntheticDataGenerator(settings).writeNdjson(second);
+            for (int user = 0; user < settings.users(); user++) {
+                String name = generator.calendarId(user) + ".ndjson";
+                assertEquals(25, Files.readAllLines(first.resolve(name)).size());
+                assertEquals(-1L, Files.mismatch(first.resolve(name), second.resolve(name)),
+                    "Same seed must produce identical files");
+            }
+        } finally {
+            deleteRecursively(first);
+            deleteRecursively(second);
+        }
+
+        EventStore store = new EventStore();
+        assertEquals(1000, generator.preload(store));
+        EventStore again = new EventStore();
+        new SyntheticDataGenerator(settings).preload(again);
+        for (long id = 1; id <= 1000; id++) {
+            // RecurrenceRule has no equals; the record's string form covers its RRULE
+            assertEquals(store.findById(id).map(CalendarEntry::toString), again.findById(id).map(CalendarEntry::toString),
+                "Ids must not depend on thread scheduling");
+        }
+        List<CalendarEntry> expected = generator.generateUser(3, 1 + 3 * 25);
+        for (CalendarEntry entry : expected) {
+            assertEquals(Optional.of(entry.toString()), store.findById(entry.id()).map(CalendarEntry::toString),
+                "Preloaded calendar must match regenerated user");
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    void settingsShouldRejectInvalidSizes() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        assertThrows(IllegalArgumentException.class,
+            () -> new SyntheticDataGenerator.Settings(7L, 0, 25, 30, start, 0.1, "user-"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SyntheticDataGenerator.Settings(7L, 40, -1, 30, start, 0.1, "user-"));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SyntheticDataGenerator.Settings(7L, 40, 25, 30, start, 1.5, "user-"));
+    }
+}
@@ -0,0 +1,211 @@
+package com.example.calendar.warmup;
+
+import com.example.calendar.CalendarServiceApplication;
+import com.example.calendar.model.ColumnarEvents;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the first requests after the service reports ready, with and without the startup
+ * warmup. Each variant starts the service in its own JVM, so neither benefits from the other's
+ * JIT state; a local stub issuer serves discovery and the signing key, and the service preloads
+ * synthetic calendars. After readiness turns UP, 1,000 requests are sent one after another
+ * (JSON and columnar reads over 50 users) and their p50/p99/max latency is reported.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=StartupWarmupBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupWarmupBenchmarkTest {
+
+    private static final int REQUESTS = 1_000;
+    private static final int USERS = 50;
+
+    private static RSAKey signingKey;
+    private static HttpServer issuer;
+    private static String issuerUri;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    static void startIssuer() throws Exception {
+        signingKey = new RSAKeyGenerator(2048).keyID("bench").generate();
+        issuer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        issuerUri = "http://localhost:" + issuer.getAddress().getPort() + "/realms/bench";
+        String discovery = """
+                {"issuer":"%1$s","jwks_uri":"%1$s/certs","authorization_endpoint":"%1$s/auth",
+                 "token_endpoint":"%1$s/token","subject_types_supported":["public"],
+                 "id_token_signing_alg_values_supported":["RS256"]}""".formatted(issuerUri);
+        issuer.createContext("/realms/bench/.well-known/openid-configuration", exchange -> respond(exchange, discovery));
+        issuer.createContext("/realms/bench/certs",
+                exchange -> respond(exchange, new JWKSet(signingKey.toPublicJWK()).toString()));
+        issuer.start();
+    }
+
+    @AfterAll
+    static void stopIssuer() {
+        issuer.stop(0);
+    }
+
+    @Test
+    void warmupLowersFirstRequestsP99() throws Exception {
+        Result cold = run(false);
+        Result warm = run(true);
+
+        System.out.printf("first %d requests after ready (ms), %d users, %d cores%n",
+                REQUESTS, USERS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  without warmup:  %s%n", cold);
+        System.out.printf("  with warmup:     %s%n", warm);
+
+        assertEquals(0, cold.errors());
+        assertEquals(0, warm.errors());
+        assertTrue(warm.p99() < cold.p99(), "Warmup must lower the p99 of the first requests");
+    }
+
+    private Result run(boolean warmup) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Process service = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                CalendarServiceApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuerUri,
+                "--calendar.warmup.enabled=" + warmup,
+                "--calendar.generator.enabled=true",
+                "--calendar.generator.users=" + USERS,
+                "--calendar.generator.user-prefix=bench-",
+                "--calendar.generator.start=" + LocalDate.now().atStartOfDay(),
+                "--logging.level.root=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "warmup-benchmark-" + warmup + ".log").toFile())
+                .start();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            long started = System.nanoTime();
+            awaitReady(base.resolve("/actuator/health/readiness"));
+            long readyMillis = (System.nanoTime() - started) / 1_000_000;
+
+            String[] tokens = new String[USERS];
+            for (int user = 0; user < USERS; user++) {
+                tokens[user] = token("bench-" + user);
+            }
+            LocalDateTime from = LocalDate.now().atStartOfDay();
+            URI events = base.resolve("/calendar/events?from=" + from + "&to=" + from.plusDays(30) + "&limit=100");
+
+            long[] latencies = new long[REQUESTS];
+            int errors = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                String accept = i % 2 == 0 ? "application/json" : ColumnarEvents.MEDIA_TYPE;
+                HttpRequest request = HttpRequest.newBuilder(events)
+                        .header("Accept", accept)
+                        .header("Authorization", "Bearer " + tokens[i % USERS])
+                        .build();
+                long start = System.nanoTime();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                latencies[i] = System.nanoTime() - start;
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            }
+            return new Result(readyMillis, latencies, errors);
+        } finally {
+            service.destroy();
+            service.waitFor();
+        }
+    }
+
+    private void awaitReady(URI readiness) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(HttpRequest.newBuilder(readiness).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        fail("Service did not become ready");
+    }
+
+    private static String token(String subject) throws Exception {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuerUri)
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofHours(1))))
+                .claim("realm_access", Map.of("roles", List.of("my-role")))
+                .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    record Result(long readyMillis, long[] latencies, int errors) {
+
+        double p99() {
+            return percentile(0.99);
+        }
+
+        double percentile(double p) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ready after %5d ms  p50 %6.2f  p99 %7.2f  max %7.2f  errors %d",
+                    readyMillis, percentile(0.5), p99(), percentile(1.0), errors);
+        }
+    }
+}
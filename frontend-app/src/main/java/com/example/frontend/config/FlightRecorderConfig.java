@@ -0,0 +1,72 @@
+package com.example.frontend.config;
+
+import com.example.support.diagnostics.FlightRecorderService;
+import com.example.support.diagnostics.LatencyTriggerFilter;
+import com.example.support.diagnostics.RecordingController;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Continuous flight recording, dumped automatically when calendar pages get slow.
+ * Dumps are listed and downloaded at {@code /diagnostics/recordings}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.diagnostics.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightRecorderConfig {
+
+    @Bean
+    public FlightRecorderService flightRecorderService(
+            @Value("${app.diagnostics.jfr.dump-dir:${java.io.tmpdir}/frontend-app-recordings}") Path directory,
+            @Value("${app.diagnostics.jfr.settings:default}") String settings,
+            @Value("${app.diagnostics.jfr.max-age:2m}") Duration maxAge,
+            @Value("${app.diagnostics.jfr.max-size:64MB}") DataSize maxSize,
+            @Value("${app.diagnostics.jfr.max-dumps:10}") int maxDumps) throws Exception {
+        return new FlightRecorderService("frontend-app", directory, settings, maxAge, maxSize.toBytes(), maxDumps);
+    }
+
+    @Bean
+    public LatencyTriggerFilter latencyTriggerFilter(
+            FlightRecorderService flightRecorderService,
+            @Value("${app.diagnostics.jfr.p99-threshold:500ms}") Duration threshold,
+            @Value("${app.diagnostics.jfr.check-interval:30s}") Duration checkInterval,
+            @Value("${app.diagnostics.jfr.min-samples:100}") int minSamples,
+            @Value("${app.diagnostics.jfr.cooldown:10m}") Duration cooldown) {
+        return new LatencyTriggerFilter(flightRecorderService, FlightRecorderConfig::isMeasured, threshold, checkInterval,
+                minSamples, cooldown);
+    }
+
+    @Bean
+    public RecordingController recordingController(FlightRecorderService flightRecorderService) {
+        return new RecordingController(flightRecorderService);
+    }
+
+    /**
+     * Ahead of the security filter chain, so loading the login state from cookies or the
+     * session and refreshing tokens are measured too.
+     */
+    @Bean
+    public FilterRegistrationBean<LatencyTriggerFilter> latencyTriggerFilterRegistration(LatencyTriggerFilter filter) {
+        FilterRegistrationBean<LatencyTriggerFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    /**
+     * Calendar pages, {@code GET /calendar} and below.
+     */
+    static boolean isMeasured(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return request.getMethod().equals("GET") && (path.equals("/calendar") || path.startsWith("/calendar/"));
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.frontend.config;
 
+import com.example.frontend.security.AccessFlagsAuthorizationManager;
+import com.example.frontend.security.LazyClientRegistrationRepository;
+import com.example.frontend.security.RealmRoleOidcUserService;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -11,31 +17,24 @@ import org.springframework.security.authorization.AuthorizationDecision;
 import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-
-import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
-import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.config.http.SessionCreationPolicy;
 
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
 
 import org.springframework.security.oauth2.client.oidc.web.logout.OidcClientInitiatedLogoutSuccessHandler;
 
-import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
-import org.springframework.security.oauth2.core.oidc.user.OidcUser;
-
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.jwt.JwtDecoder;
-import org.springframework.security.oauth2.jwt.JwtDecoders;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
 
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.LoginUrlAuthenticationEntryPoint;
 import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
+import org.springframework.security.web.savedrequest.CookieRequestCache;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Security configuration for the frontend application using OAuth2/OIDC with Keycloak.
@@ -58,48 +57,97 @@ public class SecurityConfig {
     @Value("${app.security.require-2fa:false}")
     private boolean require2fa;
 
+    /**
+     * Role allowed to list and download flight recordings.
+     */
+    @Value("${app.diagnostics.admin-role:calendar-admin}")
+    private String diagnosticsAdminRole;
+
     private final ClientRegistrationRepository clientRegistrationRepository;
 
-    public SecurityConfig(ClientRegistrationRepository clientRegistrationRepository) {
+    /**
+     * Session state repositories; present only with {@code app.session.store=cookie}.
+     */
+    private final ObjectProvider<SecurityContextRepository> securityContextRepository;
+    private final ObjectProvider<AuthorizationRequestRepository<OAuth2AuthorizationRequest>> authorizationRequestRepository;
+
+    public SecurityConfig(ClientRegistrationRepository clientRegistrationRepository,
+                          ObjectProvider<SecurityContextRepository> securityContextRepository,
+                          ObjectProvider<AuthorizationRequestRepository<OAuth2AuthorizationRequest>> authorizationRequestRepository) {
         this.clientRegistrationRepository = clientRegistrationRepository;
+        this.securityContextRepository = securityContextRepository;
+        this.authorizationRequestRepository = authorizationRequestRepository;
+    }
+
+    /**
+     * Client registrations resolved on first use rather than at startup, so instances start
+     * without waiting for Keycloak issuer discovery. Replaces Spring Boot's eager repository.
+     */
+    @Bean
+    public static LazyClientRegistrationRepository clientRegistrationRepository(OAuth2ClientProperties properties) {
+        return new LazyClientRegistrationRepository(properties);
     }
 
     /**
-     * Configures the JWT decoder using issuer URI from Keycloak client registration.
+     * OIDC user service mapping Keycloak realm roles from the verified ID token to authorities.
+     * With {@code app.security.load-userinfo=false} the UserInfo call is skipped and the user
+     * is built from the ID token alone.
      */
     @Bean
-    public JwtDecoder jwtDecoder() {
-        var clientRegistration = clientRegistrationRepository.findByRegistrationId("keycloak");
-        String issuerUri = clientRegistration.getProviderDetails().getIssuerUri();
-        logger.info("Initializing JwtDecoder with issuer URI: {}", issuerUri);
-        return JwtDecoders.fromIssuerLocation(issuerUri);
+    public RealmRoleOidcUserService oidcUserService(
+            @Value("${app.security.load-userinfo:false}") boolean loadUserInfo,
+            @Value("${app.security.role-cache-size:1024}") int roleCacheSize) {
+        logger.info("OIDC login {} the UserInfo endpoint", loadUserInfo ? "calls" : "skips");
+        return new RealmRoleOidcUserService(loadUserInfo, roleCacheSize, requiredRole);
     }
 
     /**
      * Security filter chain that defines:
      * - Public endpoints for login and static resources.
-     * - Secured endpoints requiring specific role.
-     * - OAuth2 login with a custom OIDC user service to map roles.
+     * - Secured endpoints requiring the role (and a second factor with {@code app.security.require-2fa=true}),
+     *   checked against flags computed at login.
+     * - OAuth2 login with an OIDC user service that maps realm roles from the ID token.
      * - Logout handler that initiates Keycloak logout and redirects back.
+     * - With {@code app.session.store=cookie}: no HttpSession; login state, saved requests
+     *   and CSRF tokens live in cookies.
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http, JwtDecoder jwtDecoder) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, RealmRoleOidcUserService oidcUserService,
+                                           OAuth2AuthorizedClientRepository authorizedClientRepository) throws Exception {
         logger.info("Configuring security filter chain");
 
+        SecurityContextRepository contextRepository = securityContextRepository.getIfAvailable();
+        if (contextRepository != null) {
+            logger.info("Using stateless cookie-based sessions");
+            http
+                .securityContext(context -> context.securityContextRepository(contextRepository))
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .requestCache(cache -> cache.requestCache(new CookieRequestCache()))
+                .csrf(csrf -> csrf.csrfTokenRepository(new CookieCsrfTokenRepository()))
+                .logout(logout -> logout.addLogoutHandler((request, response, authentication) ->
+                    authorizedClientRepository.removeAuthorizedClient("keycloak", authentication, request, response)));
+        }
+
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/login**", "/css/**").permitAll()
-                .requestMatchers("/", "/home", "/calendar").hasRole(requiredRole)
+                .requestMatchers("/login**", "/css/**", "/js/**", "/actuator/health/**").permitAll()
+                .requestMatchers("/diagnostics/recordings", "/diagnostics/recordings/**").hasRole(diagnosticsAdminRole)
+                .requestMatchers("/diagnostics/**").access(loopbackOnly())
+                .requestMatchers("/", "/home", "/calendar", "/calendar/**").access(accessFlagsAuthorizationManager())
                 .anyRequest().authenticated()
             )
             .exceptionHandling(ex -> ex
                 .accessDeniedPage("/access-denied")
+                // Straight to Keycloak; the login link list would force registration discovery at startup
+                .authenticationEntryPoint(new LoginUrlAuthenticationEntryPoint("/oauth2/authorization/keycloak"))
             )
-            .oauth2Login(oauth2 -> oauth2
-                .userInfoEndpoint(userInfo -> 
-                    userInfo.oidcUserService(customOidcUserService(jwtDecoder))
-                )
-            )
+            .oauth2Login(oauth2 -> {
+                oauth2.userInfoEndpoint(userInfo ->
+                    userInfo.oidcUserService(oidcUserService)
+                );
+                authorizationRequestRepository.ifAvailable(repository ->
+                    oauth2.authorizationEndpoint(endpoint -> endpoint.authorizationRequestRepository(repository)));
+            })
             .logout(logout -> {
                 logout.invalidateHttpSession(true)
                       .clearAuthentication(true)
@@ -113,84 +161,21 @@ public class SecurityConfig {
     }
 
     /**
-     * Custom OIDC user service to map Keycloak realm roles to Spring Security authorities.
-     * Combines roles from 'realm_access' claim with existing user authorities.
+     * Authorization manager for the secured pages. Role and 2FA facts are computed once at
+     * login by {@link RealmRoleOidcUserService}; each request only compares a bit mask.
      */
-    private OidcUserService customOidcUserService(JwtDecoder jwtDecoder) {
-        OidcUserService delegate = new OidcUserService();
-
-        return new OidcUserService() {
-            @Override
-            public OidcUser loadUser(OidcUserRequest userRequest) {
-                logger.debug("Loading user with custom OIDC user service");
-
-                OidcUser oidcUser = delegate.loadUser(userRequest);
-
-                Jwt jwt = jwtDecoder.decode(userRequest.getAccessToken().getTokenValue());
-                Map<String, Object> claims = jwt.getClaims();
-
-                Object realmAccess = claims.get("realm_access");
-                if (realmAccess instanceof Map<?, ?> realmAccessMap) {
-                    Object rolesObj = realmAccessMap.get("roles");
-                    if (rolesObj instanceof List<?>) {
-                        List<String> roles = ((List<?>) rolesObj).stream()
-                                .map(Object::toString)
-                                .collect(Collectors.toList());
-
-                        logger.debug("Realm roles extracted from token: {}", roles);
-
-                        Set<GrantedAuthority> mappedAuthorities = roles.stream()
-                                .map(role -> (GrantedAuthority) () -> "ROLE_" + role)
-                                .collect(Collectors.toSet());
-
-                        // Merge with existing authorities
-                        Set<GrantedAuthority> combinedAuthorities = new java.util.HashSet<>(oidcUser.getAuthorities());
-                        combinedAuthorities.addAll(mappedAuthorities);
-
-                        return new DefaultOidcUser(combinedAuthorities, oidcUser.getIdToken(), oidcUser.getUserInfo());
-                    }
-                }
-
-                return oidcUser;
-            }
-        };
+    private AuthorizationManager<RequestAuthorizationContext> accessFlagsAuthorizationManager() {
+        return new AccessFlagsAuthorizationManager(requiredRole, require2fa);
     }
 
     /**
-     * Custom authorization manager (optional) to enforce role and 2FA if needed.
-     * Not wired by default; can be used for fine-grained access control.
+     * Allows requests from the loopback interface only, without a login. Diagnostics expose
+     * request details of all users and are meant for operators on the host.
      */
-    private AuthorizationManager<RequestAuthorizationContext> customAuthorizationManager() {
-        return (authentication, context) -> {
-            Authentication auth = authentication.get();
-
-            if (auth == null || !auth.isAuthenticated()) {
-                return new AuthorizationDecision(false);
-            }
-
-            boolean hasRequiredRole = auth.getAuthorities().stream()
-                    .map(GrantedAuthority::getAuthority)
-                    .anyMatch(role -> role.equalsIgnoreCase("ROLE_" + requiredRole));
-
-            if (!hasRequiredRole) {
-                return new AuthorizationDecision(false);
-            }
-
-            if (require2fa && auth.getPrincipal() instanceof OidcUser oidcUser) {
-                Object amrClaim = oidcUser.getClaims().get("amr");
-                if (amrClaim instanceof List<?>) {
-                    List<?> amrList = (List<?>) amrClaim;
-                    boolean mfaCompleted = amrList.stream()
-                        .map(Object::toString)
-                        .anyMatch(method -> method.toLowerCase().contains("mfa")
-                                || method.toLowerCase().contains("otp")
-                                || method.toLowerCase().contains("2fa"));
-                    return new AuthorizationDecision(mfaCompleted);
-                }
-                return new AuthorizationDecision(false);
-            }
-
-            return new AuthorizationDecision(true);
-        };
+    private static AuthorizationManager<RequestAuthorizationContext> loopbackOnly() {
+        IpAddressMatcher ipv4 = new IpAddressMatcher("127.0.0.0/8");
+        IpAddressMatcher ipv6 = new IpAddressMatcher("::1");
+        return (authentication, context) -> new AuthorizationDecision(
+            ipv4.matches(context.getRequest()) || ipv6.matches(context.getRequest()));
     }
 }
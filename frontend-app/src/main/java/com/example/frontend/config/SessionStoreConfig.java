@@ -0,0 +1,70 @@
+package com.example.frontend.config;
+
+import com.example.frontend.session.CookieOAuth2AuthorizationRequestRepository;
+import com.example.frontend.session.CookieOAuth2AuthorizedClientRepository;
+import com.example.frontend.session.CookieSecurityContextRepository;
+import com.example.frontend.session.EncryptedCookieStore;
+import com.example.frontend.session.SessionStateStore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Stateless session configuration, enabled with {@code app.session.store=cookie}.
+ * <p>
+ * Replaces the {@code HttpSession}-backed security context, authorized client and
+ * authorization request repositories with cookie-backed ones, so no frontend node holds
+ * login state and requests need no sticky routing. All nodes must share
+ * {@code app.session.cookie-key} (32 random bytes, Base64).
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.session.store", havingValue = "cookie")
+public class SessionStoreConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SessionStoreConfig.class);
+
+    @Bean
+    public SessionStateStore sessionStateStore(
+            @Value("${app.session.cookie-key:}") String cookieKey,
+            @Value("${app.session.cookie-secure:false}") boolean cookieSecure,
+            @Value("${app.session.max-age:10h}") Duration maxAge) {
+        byte[] key;
+        if (cookieKey.isBlank()) {
+            // Fine for a single node; logins do not survive a restart and other nodes cannot read them
+            logger.warn("app.session.cookie-key is not set; using a random key for this instance only");
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+        } else {
+            key = Base64.getDecoder().decode(cookieKey.trim());
+        }
+        return new EncryptedCookieStore(key, cookieSecure, maxAge);
+    }
+
+    @Bean
+    public CookieSecurityContextRepository securityContextRepository(
+            SessionStateStore sessionStateStore, ClientRegistrationRepository clientRegistrationRepository) {
+        return new CookieSecurityContextRepository(sessionStateStore, clientRegistrationRepository);
+    }
+
+    @Bean
+    public CookieOAuth2AuthorizedClientRepository authorizedClientRepository(
+            SessionStateStore sessionStateStore, ClientRegistrationRepository clientRegistrationRepository) {
+        return new CookieOAuth2AuthorizedClientRepository(sessionStateStore, clientRegistrationRepository);
+    }
+
+    @Bean
+    public CookieOAuth2AuthorizationRequestRepository authorizationRequestRepository(SessionStateStore sessionStateStore) {
+        return new CookieOAuth2AuthorizationRequestRepository(sessionStateStore);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.frontend.config;
+
+import com.example.frontend.token.ProactiveTokenRefresher;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import org.springframework.security.oauth2.client.endpoint.DefaultRefreshTokenTokenResponseClient;
+
+import java.time.Duration;
+
+/**
+ * Background access-token refresh for active sessions, enabled unless
+ * {@code app.token-refresh.enabled=false}. The refresh lead time should exceed the
+ * 60 second clock skew of the on-demand refresh provider, so that tokens of active users
+ * are renewed before a request would have to refresh them synchronously.
+ * <p>
+ * Only with server-side sessions: with {@code app.session.store=cookie} any node may serve a
+ * session's next request, so every node would track and refresh the same tokens.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.token-refresh.enabled", havingValue = "true", matchIfMissing = true)
+public class TokenRefreshConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "app.session.store", havingValue = "http-session", matchIfMissing = true)
+    public ProactiveTokenRefresher proactiveTokenRefresher(
+            @Value("${app.token-refresh.ahead:90s}") Duration refreshAhead,
+            @Value("${app.token-refresh.jitter:30s}") Duration jitter,
+            @Value("${app.token-refresh.idle-timeout:10m}") Duration idleTimeout,
+            @Value("${app.token-refresh.max-concurrent:4}") int maxConcurrent) {
+        return new ProactiveTokenRefresher(new DefaultRefreshTokenTokenResponseClient(),
+                refreshAhead, jitter, idleTimeout, maxConcurrent);
+    }
+}
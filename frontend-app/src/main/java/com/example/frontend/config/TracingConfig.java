@@ -0,0 +1,43 @@
+package com.example.frontend.config;
+
+import com.example.frontend.diagnostics.RenderObservationInterceptor;
+import com.example.support.diagnostics.SpanRingBuffer;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Request tracing without a collector. Spring Boot traces page requests and the calls to the
+ * calendar service, which carry the trace on in a {@code traceparent} header; the stages in
+ * between are observed where they run: authorizing (and refreshing) the user's client in
+ * {@link WebClientConfig}, decoding the calendar response in the service and rendering the
+ * view here. Finished spans are kept in a {@link SpanRingBuffer} and listed at
+ * {@code /diagnostics/traces}.
+ */
+@Configuration
+public class TracingConfig implements WebMvcConfigurer {
+
+    private final ObservationRegistry observationRegistry;
+
+    public TracingConfig(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    /**
+     * Static: Brave's tracing, and with it the observation registry injected here, needs the buffer.
+     */
+    @Bean
+    public static SpanRingBuffer spanRingBuffer(@Value("${app.diagnostics.trace-buffer-size:8192}") int capacity) {
+        return new SpanRingBuffer(capacity);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RenderObservationInterceptor(observationRegistry));
+    }
+}
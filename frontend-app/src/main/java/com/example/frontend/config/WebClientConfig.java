@@ -1,5 +1,12 @@
 package com.example.frontend.config;
 
+import com.example.frontend.token.ProactiveTokenRefresher;
+import com.example.frontend.token.RefreshAheadAuthorizedClientRepository;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -36,12 +43,16 @@ public class WebClientConfig {
      *
      * @param clientRegistrationRepository Repository of client registrations.
      * @param authorizedClientRepository Repository managing authorized client instances per user.
+     * @param tokenRefresher Background refresher; when present, tokens of active users are renewed ahead of expiry.
+     * @param observationRegistry Registry tracing each authorization, including token refreshes, as a span.
      * @return OAuth2AuthorizedClientManager managing OAuth2 clients for the app.
      */
     @Bean
     public OAuth2AuthorizedClientManager authorizedClientManager(
             ClientRegistrationRepository clientRegistrationRepository,
-            OAuth2AuthorizedClientRepository authorizedClientRepository) {
+            OAuth2AuthorizedClientRepository authorizedClientRepository,
+            ObjectProvider<ProactiveTokenRefresher> tokenRefresher,
+            ObservationRegistry observationRegistry) {
 
         OAuth2AuthorizedClientProvider authorizedClientProvider =
                 OAuth2AuthorizedClientProviderBuilder.builder()
@@ -49,12 +60,19 @@ public class WebClientConfig {
                         .refreshToken()
                         .build();
 
+        ProactiveTokenRefresher refresher = tokenRefresher.getIfAvailable();
+        OAuth2AuthorizedClientRepository clientRepository = refresher != null
+                ? new RefreshAheadAuthorizedClientRepository(authorizedClientRepository, refresher)
+                : authorizedClientRepository;
+
         DefaultOAuth2AuthorizedClientManager authorizedClientManager =
-                new DefaultOAuth2AuthorizedClientManager(clientRegistrationRepository, authorizedClientRepository);
+                new DefaultOAuth2AuthorizedClientManager(clientRegistrationRepository, clientRepository);
 
         authorizedClientManager.setAuthorizedClientProvider(authorizedClientProvider);
 
-        return authorizedClientManager;
+        return authorizeRequest -> Observation.createNotStarted("frontend.oauth2.authorize", observationRegistry)
+                .lowCardinalityKeyValue("client.registration", authorizeRequest.getClientRegistrationId())
+                .observe(() -> authorizedClientManager.authorize(authorizeRequest));
     }
 
     /**
@@ -62,12 +80,16 @@ public class WebClientConfig {
      * - Automatically injects Bearer tokens for requests.
      * - Sets base URL to calendar service.
      * - Increases in-memory buffer size to handle larger responses.
+     * - Is built from Spring Boot's builder, so calls are traced and carry the trace to the
+     *   calendar service in a {@code traceparent} header.
      *
+     * @param webClientBuilder Spring Boot's WebClient builder with tracing applied.
      * @param authorizedClientManager The OAuth2AuthorizedClientManager to authorize requests.
      * @return WebClient instance for calling calendar service.
      */
     @Bean
-    public WebClient calendarWebClient(OAuth2AuthorizedClientManager authorizedClientManager) {
+    public WebClient calendarWebClient(WebClient.Builder webClientBuilder,
+                                       OAuth2AuthorizedClientManager authorizedClientManager) {
 
         ServletOAuth2AuthorizedClientExchangeFilterFunction oauth2Filter =
                 new ServletOAuth2AuthorizedClientExchangeFilterFunction(authorizedClientManager);
@@ -75,7 +97,7 @@ public class WebClientConfig {
         // Default client registration ID should match your Keycloak registration in the app
         oauth2Filter.setDefaultClientRegistrationId("keycloak");
 
-        return WebClient.builder()
+        return webClientBuilder
                 .baseUrl(calendarUrl)
                 .filter(oauth2Filter)
                 .exchangeStrategies(
@@ -1,11 +1,13 @@
 package com.example.frontend.controller;
 
-import com.example.frontend.model.CalendarEvent;
+import com.example.frontend.model.CalendarPage;
 import com.example.frontend.service.FrontendService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
@@ -16,7 +18,10 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -29,9 +34,18 @@ public class FrontendController {
     private static final Logger log = LoggerFactory.getLogger(FrontendController.class);
 
     private final FrontendService frontendService;
-
-    public FrontendController(FrontendService frontendService) {
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    private final int windowDays;
+
+    public FrontendController(FrontendService frontendService,
+                              @Value("${app.calendar.page-size:100}") int defaultPageSize,
+                              @Value("${app.calendar.max-page-size:500}") int maxPageSize,
+                              @Value("${app.calendar.window-days:365}") int windowDays) {
         this.frontendService = frontendService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+        this.windowDays = windowDays;
     }
 
     /**
@@ -40,24 +54,34 @@ public class FrontendController {
      */
     @GetMapping("/")
     public String index(Model model, @AuthenticationPrincipal OidcUser user) {
-        log.debug("Rendering home page for user: {}", user != null ? user.getPreferredUsername() : "anonymous");
+        if (log.isDebugEnabled()) {
+            log.debug("Rendering home page for user: {}", user != null ? user.getPreferredUsername() : "anonymous");
+        }
         model.addAttribute("user", user);
         model.addAttribute("roles", extractRoles(user));
         return "index";
     }
 
     /**
-     * Fetches calendar events and renders the calendar view.
+     * Renders the calendar view with the first page of the user's events in the window
+     * (or the page at {@code cursor}). Further pages are loaded as row fragments from
+     * {@code /calendar/rows} while the user scrolls; without JavaScript a link opens them.
      * Handles errors gracefully and logs issues.
      */
     @GetMapping("/calendar")
     public String getCalendar(
             Model model,
             @AuthenticationPrincipal OidcUser user,
-            @RegisteredOAuth2AuthorizedClient("keycloak") OAuth2AuthorizedClient authorizedClient) {
+            @RegisteredOAuth2AuthorizedClient("keycloak") OAuth2AuthorizedClient authorizedClient,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int size) {
 
         // Log incoming request with user info (or anonymous if not authenticated)
-        log.debug("Received request for calendar data from user: {}", user != null ? user.getPreferredUsername() : "anonymous");
+        if (log.isDebugEnabled()) {
+            log.debug("Received request for calendar data from user: {}", user != null ? user.getPreferredUsername() : "anonymous");
+        }
 
         // Add user info and roles to the model for frontend rendering
         model.addAttribute("user", user);
@@ -72,17 +96,45 @@ public class FrontendController {
         }
 
         // No try-catch block here to keep controller clean
-        // Exceptions from fetchCalendarEvents will be handled globally by GlobalExceptionHandler
-        List<CalendarEvent> calendarEvents = frontendService.fetchCalendarEvents(authorizedClient);
+        // Exceptions from fetchCalendarPage will be handled globally by GlobalExceptionHandler
+        CalendarPage page = addCalendarPage(model, authorizedClient, from, to, cursor, size);
 
-        // Log success and add events to model
-        log.info("Fetched {} calendar events for user {}", calendarEvents.size(), user.getPreferredUsername());
-        model.addAttribute("calendarEvents", calendarEvents);
+        log.debug("Fetched {} calendar events for user {}", page.getEvents().size(), user.getPreferredUsername());
         model.addAttribute("calendarData", null);
 
         return "index";
     }
 
+    /**
+     * Renders one further page of the calendar as table rows, for appending to the view.
+     */
+    @GetMapping("/calendar/rows")
+    public String getCalendarRows(
+            Model model,
+            @RegisteredOAuth2AuthorizedClient("keycloak") OAuth2AuthorizedClient authorizedClient,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "0") int size) {
+        addCalendarPage(model, authorizedClient, from, to, cursor, size);
+        return "index :: calendarRows";
+    }
+
+    private CalendarPage addCalendarPage(Model model, OAuth2AuthorizedClient authorizedClient,
+                                         LocalDateTime from, LocalDateTime to, String cursor, int size) {
+        LocalDateTime windowStart = from != null ? from : LocalDate.now().atStartOfDay();
+        LocalDateTime windowEnd = to != null ? to : windowStart.plusDays(windowDays);
+        int pageSize = size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+
+        CalendarPage page = frontendService.fetchCalendarPage(authorizedClient, windowStart, windowEnd, cursor, pageSize);
+        model.addAttribute("calendarEvents", page.getEvents());
+        model.addAttribute("calendarPage", page);
+        model.addAttribute("windowStart", windowStart);
+        model.addAttribute("windowEnd", windowEnd);
+        model.addAttribute("pageSize", pageSize);
+        return page;
+    }
+
     /**
      * Simple access denied page mapping.
      */
@@ -0,0 +1,41 @@
+package com.example.frontend.diagnostics;
+
+import com.example.support.diagnostics.SpanRingBuffer;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * Local diagnostics: recently recorded traces of this application. Only reachable from the
+ * loopback interface (see {@code SecurityConfig}).
+ */
+@RestController
+@RequestMapping("/diagnostics")
+public class DiagnosticsController {
+
+    private final SpanRingBuffer spanRingBuffer;
+
+    public DiagnosticsController(SpanRingBuffer spanRingBuffer) {
+        this.spanRingBuffer = spanRingBuffer;
+    }
+
+    /**
+     * Lists the most recent traces with their spans in this application. The same trace id
+     * queried on the calendar service shows the backend side of a page view.
+     *
+     * @param traceId only this trace
+     * @param minDurationMs only traces that took at least this long here
+     * @param limit maximum number of traces
+     */
+    @GetMapping("/traces")
+    public List<SpanRingBuffer.Trace> traces(
+            @RequestParam(required = false) String traceId,
+            @RequestParam(defaultValue = "0") long minDurationMs,
+            @RequestParam(defaultValue = "20") int limit) {
+        return spanRingBuffer.traces(traceId, minDurationMs * 1000, Math.max(0, limit));
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.frontend.diagnostics;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+/**
+ * Traces view rendering as a {@code frontend.render} span: it starts once the controller has
+ * returned a view and ends when the response is complete. With partial output enabled the
+ * span therefore also covers writing the page to the client.
+ */
+public class RenderObservationInterceptor implements HandlerInterceptor {
+
+    private static final String OBSERVATION_ATTRIBUTE = RenderObservationInterceptor.class.getName() + ".observation";
+
+    private final ObservationRegistry observationRegistry;
+
+    public RenderObservationInterceptor(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (modelAndView != null && modelAndView.getViewName() != null) {
+            Observation observation = Observation.createNotStarted("frontend.render", observationRegistry)
+                    .lowCardinalityKeyValue("view", modelAndView.getViewName())
+                    .start();
+            request.setAttribute(OBSERVATION_ATTRIBUTE, observation);
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (request.getAttribute(OBSERVATION_ATTRIBUTE) instanceof Observation observation) {
+            request.removeAttribute(OBSERVATION_ATTRIBUTE);
+            if (ex != null) {
+                observation.error(ex);
+            }
+            observation.stop();
+        }
+    }
+}
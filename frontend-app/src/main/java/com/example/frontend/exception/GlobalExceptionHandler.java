@@ -31,6 +31,20 @@ public class GlobalExceptionHandler {
                 .body("Calendar service error: " + ex.getMessage());
     }
 
+    /**
+     * Handles invalid request input, such as a malformed calendar page cursor.
+     *
+     * @param ex the IllegalArgumentException thrown
+     * @return a ResponseEntity with the error message and BAD_REQUEST status
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> handleIllegalArgument(IllegalArgumentException ex) {
+        log.warn("Invalid request: {}", ex.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body("Invalid request: " + ex.getMessage());
+    }
+
     /**
      * Handles all other uncaught exceptions.
      *
@@ -1,13 +1,18 @@
 package com.example.frontend.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents a calendar event fetched from the calendar service.
  */
+@JsonIgnoreProperties(ignoreUnknown = true)
 public class CalendarEvent {
 
     private Long id;
@@ -20,6 +25,37 @@ public class CalendarEvent {
 
     private String title;
 
+    private Integer durationMinutes;
+
+    /**
+     * Decodes a columnar response into events.
+     * Start times are rebuilt by summing the deltas, and events with the same title share
+     * the dictionary's String instance instead of each holding its own copy.
+     *
+     * @param columns columnar response
+     * @return events in response order
+     */
+    public static List<CalendarEvent> fromColumnar(ColumnarCalendarEvents columns) {
+        String[] titles = columns.getTitles().toArray(new String[0]);
+        long[] ids = columns.getIds();
+        long[] starts = columns.getStarts();
+        int[] durations = columns.getDurations();
+        int[] titleIndexes = columns.getTitleIndexes();
+
+        List<CalendarEvent> events = new ArrayList<>(ids.length);
+        long epochSecond = 0;
+        for (int i = 0; i < ids.length; i++) {
+            epochSecond += starts[i];
+            CalendarEvent event = new CalendarEvent();
+            event.id = ids[i];
+            event.time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+            event.title = titles[titleIndexes[i]];
+            event.durationMinutes = durations[i];
+            events.add(event);
+        }
+        return events;
+    }
+
     // Getters and setters
 
     public Long getId() {
@@ -45,4 +81,12 @@ public class CalendarEvent {
     public void setTitle(String title) {
         this.title = title;
     }
+
+    public Integer getDurationMinutes() {
+        return durationMinutes;
+    }
+
+    public void setDurationMinutes(Integer durationMinutes) {
+        this.durationMinutes = durationMinutes;
+    }
 }
@@ -0,0 +1,76 @@
+package com.example.frontend.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * One page of the calendar view, with a cursor for the page after it.
+ * <p>
+ * The cursor is {@code <epoch second>.<skip>}: the start time of the page's last event
+ * (wall clock encoded as UTC, like the columnar format) and how many events starting at
+ * exactly that time have already been shown. Since the calendar service orders occurrences
+ * by time and then id, the next page is the window from that time with the first
+ * {@code skip} events dropped; no offsets or server-side state are needed.
+ */
+public class CalendarPage {
+
+    private final List<CalendarEvent> events;
+    private final String nextCursor;
+
+    public CalendarPage(List<CalendarEvent> events, String nextCursor) {
+        this.events = events;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Builds a cursor that resumes after {@code skip} events starting at {@code time}.
+     */
+    public static String cursor(LocalDateTime time, int skip) {
+        return time.toEpochSecond(ZoneOffset.UTC) + "." + skip;
+    }
+
+    /**
+     * Start time encoded in a cursor.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public static LocalDateTime cursorTime(String cursor) {
+        return LocalDateTime.ofEpochSecond(Long.parseLong(cursorPart(cursor, 0)), 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Number of events at the cursor's start time that were already shown.
+     *
+     * @throws IllegalArgumentException when the cursor is malformed
+     */
+    public static int cursorSkip(String cursor) {
+        int skip = Integer.parseInt(cursorPart(cursor, 1));
+        if (skip < 0) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+        return skip;
+    }
+
+    private static String cursorPart(String cursor, int index) {
+        String[] parts = cursor.split("\\.");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Invalid page cursor: " + cursor);
+        }
+        return parts[index];
+    }
+
+    // Getters
+
+    public List<CalendarEvent> getEvents() {
+        return events;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
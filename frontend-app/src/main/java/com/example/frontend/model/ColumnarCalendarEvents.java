@@ -0,0 +1,74 @@
+package com.example.frontend.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import java.util.List;
+
+/**
+ * Columnar calendar response ({@code application/vnd.calendar.columnar+json}).
+ * Element {@code i} of every array describes the same event; {@code starts} holds epoch
+ * seconds delta-encoded against the previous event, and {@code titleIndexes} point into
+ * the {@code titles} dictionary. Decode with {@link CalendarEvent#fromColumnar(ColumnarCalendarEvents)}.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ColumnarCalendarEvents {
+
+    public static final String MEDIA_TYPE = "application/vnd.calendar.columnar+json";
+
+    private int count;
+    private long[] ids = new long[0];
+    private long[] starts = new long[0];
+    private int[] durations = new int[0];
+    private int[] titleIndexes = new int[0];
+    private List<String> titles = List.of();
+
+    // Getters and setters
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    public long[] getIds() {
+        return ids;
+    }
+
+    public void setIds(long[] ids) {
+        this.ids = ids;
+    }
+
+    public long[] getStarts() {
+        return starts;
+    }
+
+    public void setStarts(long[] starts) {
+        this.starts = starts;
+    }
+
+    public int[] getDurations() {
+        return durations;
+    }
+
+    public void setDurations(int[] durations) {
+        this.durations = durations;
+    }
+
+    public int[] getTitleIndexes() {
+        return titleIndexes;
+    }
+
+    public void setTitleIndexes(int[] titleIndexes) {
+        this.titleIndexes = titleIndexes;
+    }
+
+    public List<String> getTitles() {
+        return titles;
+    }
+
+    public void setTitles(List<String> titles) {
+        this.titles = titles;
+    }
+}
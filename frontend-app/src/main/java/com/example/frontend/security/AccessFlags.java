@@ -0,0 +1,54 @@
+package com.example.frontend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Authorization facts about a user, computed once at login and kept as a bit set on the
+ * principal so that per-request checks are a single mask comparison.
+ */
+public final class AccessFlags {
+
+    /** The user holds {@code app.security.required-role}. */
+    public static final int REQUIRED_ROLE = 1;
+
+    /** The login used a second factor, according to the {@code amr} claim. */
+    public static final int MFA = 1 << 1;
+
+    private AccessFlags() {
+    }
+
+    /**
+     * Computes the flags of a user.
+     *
+     * @param authorities  granted authorities, including mapped {@code ROLE_*} realm roles
+     * @param claims       ID token claims
+     * @param requiredRole role required for the secured pages, without {@code ROLE_} prefix
+     * @return bit set of {@link #REQUIRED_ROLE} and {@link #MFA}
+     */
+    public static int compute(Collection<? extends GrantedAuthority> authorities, Map<String, Object> claims,
+                              String requiredRole) {
+        int flags = 0;
+        String roleAuthority = "ROLE_" + requiredRole;
+        for (GrantedAuthority authority : authorities) {
+            if (roleAuthority.equalsIgnoreCase(authority.getAuthority())) {
+                flags |= REQUIRED_ROLE;
+                break;
+            }
+        }
+        if (claims != null && claims.get("amr") instanceof List<?> methods) {
+            for (Object method : methods) {
+                String value = String.valueOf(method).toLowerCase(Locale.ROOT);
+                if (value.contains("mfa") || value.contains("otp") || value.contains("2fa")) {
+                    flags |= MFA;
+                    break;
+                }
+            }
+        }
+        return flags;
+    }
+}
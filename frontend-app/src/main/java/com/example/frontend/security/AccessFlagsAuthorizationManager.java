@@ -0,0 +1,46 @@
+package com.example.frontend.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Grants access when the principal's precomputed {@link AccessFlags} contain every required
+ * flag: the required role, plus a second factor when {@code app.security.require-2fa=true}.
+ * The check is one mask comparison and allocates nothing. Principals created before flags
+ * existed (e.g. restored from an older login cookie) have their flags computed on the fly.
+ */
+public class AccessFlagsAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+
+    private final int requiredFlags;
+    private final String requiredRole;
+
+    public AccessFlagsAuthorizationManager(String requiredRole, boolean requireMfa) {
+        this.requiredRole = requiredRole;
+        this.requiredFlags = AccessFlags.REQUIRED_ROLE | (requireMfa ? AccessFlags.MFA : 0);
+    }
+
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        Authentication auth = authentication.get();
+        if (auth == null || !auth.isAuthenticated()) {
+            return DENIED;
+        }
+        int flags;
+        if (auth.getPrincipal() instanceof FlaggedOidcUser user) {
+            flags = user.getAccessFlags();
+        } else if (auth.getPrincipal() instanceof OidcUser user) {
+            flags = AccessFlags.compute(auth.getAuthorities(), user.getClaims(), requiredRole);
+        } else {
+            return DENIED;
+        }
+        return (flags & requiredFlags) == requiredFlags ? GRANTED : DENIED;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.frontend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+
+import java.util.Collection;
+
+/**
+ * OIDC user carrying its {@link AccessFlags}, computed once at login.
+ */
+public class FlaggedOidcUser extends DefaultOidcUser {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int accessFlags;
+
+    public FlaggedOidcUser(Collection<? extends GrantedAuthority> authorities, OidcIdToken idToken,
+                           OidcUserInfo userInfo, String nameAttributeKey, int accessFlags) {
+        super(authorities, idToken, userInfo, nameAttributeKey);
+        this.accessFlags = accessFlags;
+    }
+
+    public int getAccessFlags() {
+        return accessFlags;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.frontend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientProperties;
+import org.springframework.boot.autoconfigure.security.oauth2.client.OAuth2ClientPropertiesMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+
+/**
+ * Client registrations built from {@code spring.security.oauth2.client.*} on first use
+ * instead of during startup. Spring Boot's own repository performs OIDC issuer discovery
+ * while the context starts, so a new instance waits on, and fails without, the identity
+ * provider. Here discovery starts in the background once the application is ready and is
+ * awaited by the first login at the latest; a failed discovery is retried on the next use.
+ * <p>
+ * Deliberately not {@link Iterable}: Spring Security would iterate the registrations at
+ * startup to build login links.
+ */
+public class LazyClientRegistrationRepository implements ClientRegistrationRepository,
+        ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(LazyClientRegistrationRepository.class);
+
+    private final OAuth2ClientProperties properties;
+    private volatile ClientRegistrationRepository delegate;
+
+    public LazyClientRegistrationRepository(OAuth2ClientProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public ClientRegistration findByRegistrationId(String registrationId) {
+        return resolve().findByRegistrationId(registrationId);
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        Thread.ofVirtual().name("client-registration-discovery").start(() -> {
+            try {
+                resolve();
+            } catch (RuntimeException e) {
+                logger.warn("OIDC issuer discovery failed; retrying on first login: {}", e.getMessage());
+            }
+        });
+    }
+
+    private ClientRegistrationRepository resolve() {
+        ClientRegistrationRepository repository = delegate;
+        if (repository == null) {
+            synchronized (this) {
+                repository = delegate;
+                if (repository == null) {
+                    long start = System.nanoTime();
+                    repository = new InMemoryClientRegistrationRepository(
+                            new OAuth2ClientPropertiesMapper(properties).asClientRegistrations());
+                    logger.info("Resolved OIDC client registrations in {} ms", (System.nanoTime() - start) / 1_000_000);
+                    delegate = repository;
+                }
+            }
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.frontend.security;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUserAuthority;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * OIDC user service that maps Keycloak realm roles to {@code ROLE_*} authorities without
+ * extra work at login.
+ * <p>
+ * Roles are read from the {@code realm_access.roles} claim of the ID token, which Spring
+ * Security has already verified. Should the realm not put roles into the ID token, the
+ * access token's payload is read instead; it was received directly from the token endpoint,
+ * so its signature is not verified again. The UserInfo call can be skipped when the ID token
+ * carries the profile claims the application needs. Mapped role authorities are immutable
+ * and shared between all users with the same role combination.
+ * <p>
+ * The returned user is a {@link FlaggedOidcUser} whose {@link AccessFlags} are computed here,
+ * once per login, for the {@link AccessFlagsAuthorizationManager}.
+ */
+public class RealmRoleOidcUserService extends OidcUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RealmRoleOidcUserService.class);
+
+    private static final TypeReference<Map<String, Object>> CLAIMS = new TypeReference<>() { };
+
+    private final boolean loadUserInfo;
+    private final String requiredRole;
+    private final int maxCachedCombinations;
+    private final Map<Set<String>, Set<GrantedAuthority>> authoritiesByRoles = new ConcurrentHashMap<>();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * @param loadUserInfo          whether to call the UserInfo endpoint at login
+     * @param maxCachedCombinations maximum number of distinct role combinations kept
+     * @param requiredRole          role required for the secured pages, without {@code ROLE_} prefix
+     */
+    public RealmRoleOidcUserService(boolean loadUserInfo, int maxCachedCombinations, String requiredRole) {
+        this.loadUserInfo = loadUserInfo;
+        this.requiredRole = requiredRole;
+        this.maxCachedCombinations = maxCachedCombinations;
+    }
+
+    @Override
+    public OidcUser loadUser(OidcUserRequest userRequest) {
+        OidcUser oidcUser = loadUserInfo ? super.loadUser(userRequest) : userFromIdToken(userRequest);
+
+        Collection<String> roles = realmRoles(oidcUser.getIdToken().getClaims());
+        if (roles == null) {
+            roles = realmRoles(accessTokenClaims(userRequest.getAccessToken()));
+        }
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>(oidcUser.getAuthorities());
+        if (roles != null && !roles.isEmpty()) {
+            logger.debug("Realm roles of {}: {}", oidcUser.getName(), roles);
+            authorities.addAll(authoritiesFor(roles));
+        }
+        int flags = AccessFlags.compute(authorities, oidcUser.getIdToken().getClaims(), requiredRole);
+        String nameAttributeKey = userRequest.getClientRegistration().getProviderDetails()
+                .getUserInfoEndpoint().getUserNameAttributeName();
+        return new FlaggedOidcUser(authorities, oidcUser.getIdToken(), oidcUser.getUserInfo(),
+                StringUtils.hasText(nameAttributeKey) ? nameAttributeKey : IdTokenClaimNames.SUB, flags);
+    }
+
+    /**
+     * Number of role combinations currently cached.
+     */
+    public int cachedCombinations() {
+        return authoritiesByRoles.size();
+    }
+
+    /**
+     * Same authorities {@link OidcUserService} grants when it does not call UserInfo.
+     */
+    private static OidcUser userFromIdToken(OidcUserRequest userRequest) {
+        OidcIdToken idToken = userRequest.getIdToken();
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        authorities.add(new OidcUserAuthority(idToken, null));
+        for (String scope : userRequest.getAccessToken().getScopes()) {
+            authorities.add(new SimpleGrantedAuthority("SCOPE_" + scope));
+        }
+        String nameAttributeKey = userRequest.getClientRegistration().getProviderDetails()
+                .getUserInfoEndpoint().getUserNameAttributeName();
+        return StringUtils.hasText(nameAttributeKey)
+                ? new DefaultOidcUser(authorities, idToken, nameAttributeKey)
+                : new DefaultOidcUser(authorities, idToken);
+    }
+
+    private Set<GrantedAuthority> authoritiesFor(Collection<String> roles) {
+        Set<String> key = new TreeSet<>(roles);
+        Set<GrantedAuthority> cached = authoritiesByRoles.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        Set<GrantedAuthority> mapped = new LinkedHashSet<>();
+        for (String role : key) {
+            mapped.add(new SimpleGrantedAuthority("ROLE_" + role));
+        }
+        mapped = Set.copyOf(mapped);
+        // Unusual role combinations beyond the cap are mapped per login rather than cached
+        if (authoritiesByRoles.size() < maxCachedCombinations) {
+            Set<GrantedAuthority> raced = authoritiesByRoles.putIfAbsent(Set.copyOf(key), mapped);
+            return raced != null ? raced : mapped;
+        }
+        return mapped;
+    }
+
+    private static Collection<String> realmRoles(Map<String, Object> claims) {
+        if (claims != null && claims.get("realm_access") instanceof Map<?, ?> realmAccess
+                && realmAccess.get("roles") instanceof List<?> roles) {
+            return roles.stream().map(Object::toString).toList();
+        }
+        return null;
+    }
+
+    private Map<String, Object> accessTokenClaims(OAuth2AccessToken accessToken) {
+        String[] parts = accessToken.getTokenValue().split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), CLAIMS);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Access token payload is not readable JSON; no realm roles mapped");
+            return null;
+        }
+    }
+}
@@ -2,19 +2,31 @@ package com.example.frontend.service;
 
 import com.example.frontend.exception.FrontendServiceException;  // Custom exception for this service
 import com.example.frontend.model.CalendarEvent;
+import com.example.frontend.model.CalendarPage;
+import com.example.frontend.model.ColumnarCalendarEvents;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service responsible for interacting with the calendar backend service.
@@ -26,16 +38,23 @@ public class FrontendService {
 
     private final WebClient calendarWebClient;
     private final ObjectMapper objectMapper;
+    private final ObservationRegistry observationRegistry;
+    private final int maxFetchEvents;
 
     /**
-     * Constructor injecting WebClient and ObjectMapper dependencies.
+     * Constructor injecting WebClient, ObjectMapper and ObservationRegistry dependencies.
      *
      * @param calendarWebClient WebClient configured for calendar backend
      * @param objectMapper Jackson ObjectMapper for JSON deserialization
+     * @param observationRegistry registry tracing response decoding as a span
+     * @param maxFetchEvents most events the calendar service returns for one query
      */
-    public FrontendService(WebClient calendarWebClient, ObjectMapper objectMapper) {
+    public FrontendService(WebClient calendarWebClient, ObjectMapper objectMapper, ObservationRegistry observationRegistry,
+                           @Value("${app.calendar.max-fetch-events:5000}") int maxFetchEvents) {
         this.calendarWebClient = calendarWebClient;
         this.objectMapper = objectMapper;
+        this.observationRegistry = observationRegistry;
+        this.maxFetchEvents = maxFetchEvents;
     }
 
     /**
@@ -73,7 +92,7 @@ public class FrontendService {
             // Deserialize JSON response into list of CalendarEvent objects
             List<CalendarEvent> events = objectMapper.readValue(responseBody, new TypeReference<List<CalendarEvent>>() {});
 
-            log.info("Successfully parsed {} calendar events.", events.size());
+            log.debug("Successfully parsed {} calendar events.", events.size());
 
             return events;
 
@@ -88,4 +107,181 @@ public class FrontendService {
             throw new FrontendServiceException("Unexpected error occurred while fetching calendar events", e);
         }
     }
+
+    /**
+     * Fetches the current user's stored events in {@code [from, to)} using the columnar
+     * response format, which is much smaller and faster to parse for wide ranges
+     * because repeated titles are sent and materialized only once.
+     *
+     * @param authorizedClient OAuth2AuthorizedClient containing access token
+     * @param from inclusive window start
+     * @param to exclusive window end
+     * @return events sorted by time
+     * @throws FrontendServiceException when HTTP or deserialization errors occur
+     */
+    public List<CalendarEvent> fetchCalendarRange(OAuth2AuthorizedClient authorizedClient,
+                                                  LocalDateTime from,
+                                                  LocalDateTime to) {
+        return fetchCalendarRange(authorizedClient, from, to, 0);
+    }
+
+    /**
+     * Fetches one page of the current user's stored events in {@code [from, to)}.
+     * Only the events of that page (plus the already shown events at the cursor's start
+     * time) are requested from the calendar service, so rendering the first page of a
+     * large calendar costs the same as rendering a small one.
+     *
+     * @param authorizedClient OAuth2AuthorizedClient containing access token
+     * @param from inclusive window start, used when {@code cursor} is null
+     * @param to exclusive window end
+     * @param cursor cursor of a previous page, or null for the first page
+     * @param size events per page
+     * @return the page and the cursor of the next one
+     * @throws IllegalArgumentException when the cursor is malformed, or skips so many events that
+     *         the page would exceed what the calendar service returns per query
+     * @throws FrontendServiceException when HTTP or deserialization errors occur
+     */
+    public CalendarPage fetchCalendarPage(OAuth2AuthorizedClient authorizedClient,
+                                          LocalDateTime from,
+                                          LocalDateTime to,
+                                          String cursor,
+                                          int size) {
+        LocalDateTime start = cursor != null ? CalendarPage.cursorTime(cursor) : from;
+        int skip = cursor != null ? CalendarPage.cursorSkip(cursor) : 0;
+        if ((long) skip + size + 1 > maxFetchEvents) {
+            // The calendar service would silently cut the window short instead
+            throw new IllegalArgumentException("Page cursor skips more than " + (maxFetchEvents - size - 1) + " events");
+        }
+
+        // One extra event tells whether another page follows
+        List<CalendarEvent> fetched = fetchCalendarRange(authorizedClient, start, to, skip + size + 1);
+        int end = Math.min(skip + size, fetched.size());
+        List<CalendarEvent> events = fetched.subList(Math.min(skip, end), end);
+        if (fetched.size() <= skip + size || events.isEmpty()) {
+            return new CalendarPage(events, null);
+        }
+
+        // Events at the last shown time that the next page must drop, counted from the window start
+        LocalDateTime last = events.get(events.size() - 1).getTime();
+        int shownAtLast = 0;
+        for (int i = end - 1; i >= 0 && fetched.get(i).getTime().equals(last); i--) {
+            shownAtLast++;
+        }
+        return new CalendarPage(events, CalendarPage.cursor(last, shownAtLast));
+    }
+
+    private List<CalendarEvent> fetchCalendarRange(OAuth2AuthorizedClient authorizedClient,
+                                                   LocalDateTime from,
+                                                   LocalDateTime to,
+                                                   int limit) {
+        String tokenValue = authorizedClient.getAccessToken().getTokenValue();
+
+        try {
+            byte[] responseBody = calendarWebClient.get()
+                    .uri("/calendar/events?from={from}&to={to}&limit={limit}", from, to, limit)
+                    .headers(headers -> headers.setBearerAuth(tokenValue))
+                    .accept(MediaType.parseMediaType(ColumnarCalendarEvents.MEDIA_TYPE))
+                    .retrieve()
+                    .bodyToMono(byte[].class)
+                    .block();
+
+            if (responseBody == null || responseBody.length == 0) {
+                log.info("No calendar events returned from calendar service.");
+                return List.of();
+            }
+
+            Observation decode = Observation.createNotStarted("frontend.calendar.decode", observationRegistry).start();
+            ColumnarCalendarEvents columns;
+            List<CalendarEvent> events;
+            try {
+                columns = objectMapper.readValue(responseBody, ColumnarCalendarEvents.class);
+                events = CalendarEvent.fromColumnar(columns);
+            } catch (Exception e) {
+                decode.error(e);
+                throw e;
+            } finally {
+                decode.stop();
+            }
+
+            log.debug("Decoded {} calendar events with {} distinct titles.", events.size(), columns.getTitles().size());
+            return events;
+
+        } catch (WebClientResponseException e) {
+            log.error("HTTP error while fetching calendar range: {}", e.getStatusCode(), e);
+            throw new FrontendServiceException("Failed to fetch calendar range due to HTTP error: " + e.getStatusCode(), e);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching calendar range", e);
+            throw new FrontendServiceException("Unexpected error occurred while fetching calendar range", e);
+        }
+    }
+
+    /**
+     * Fetches the events of several calendars (e.g. a team view) in a single call to the
+     * calendar service's batch endpoint instead of one round trip per calendar.
+     * Calendars the backend could not answer (not readable, invalid window) are logged and omitted.
+     *
+     * @param authorizedClient OAuth2AuthorizedClient containing access token
+     * @param calendarIds calendars to read; {@code own} is the current user's calendar
+     * @param from inclusive window start
+     * @param to exclusive window end
+     * @return events per calendar id, in request order
+     * @throws FrontendServiceException when HTTP or deserialization errors occur
+     */
+    public Map<String, List<CalendarEvent>> fetchCalendarBatch(OAuth2AuthorizedClient authorizedClient,
+                                                               List<String> calendarIds,
+                                                               LocalDateTime from,
+                                                               LocalDateTime to) {
+        String tokenValue = authorizedClient.getAccessToken().getTokenValue();
+
+        try {
+            List<Map<String, Object>> queries = new ArrayList<>(calendarIds.size());
+            for (String calendarId : calendarIds) {
+                Map<String, Object> query = new LinkedHashMap<>();
+                query.put("calendarId", calendarId);
+                query.put("from", from.toString());
+                query.put("to", to.toString());
+                queries.add(query);
+            }
+            String requestBody = objectMapper.writeValueAsString(Map.of("queries", queries));
+
+            String responseBody = calendarWebClient.post()
+                    .uri("/calendar/batch")
+                    .headers(headers -> headers.setBearerAuth(tokenValue))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .bodyValue(requestBody)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .block();
+
+            Map<String, List<CalendarEvent>> eventsByCalendar = new LinkedHashMap<>();
+            if (responseBody == null || responseBody.isBlank()) {
+                log.info("No batch results returned from calendar service.");
+                return eventsByCalendar;
+            }
+
+            for (JsonNode result : objectMapper.readTree(responseBody).path("results")) {
+                String calendarId = result.path("calendarId").asText();
+                if (result.path("status").asInt() != 200) {
+                    log.warn("Batch query for calendar {} failed with status {}: {}",
+                            calendarId, result.path("status").asInt(), result.path("error").asText());
+                    continue;
+                }
+                List<CalendarEvent> events = objectMapper.convertValue(result.path("events"),
+                        new TypeReference<List<CalendarEvent>>() {});
+                eventsByCalendar.put(calendarId, events);
+            }
+
+            log.debug("Fetched events of {} calendars in one batch.", eventsByCalendar.size());
+            return eventsByCalendar;
+
+        } catch (WebClientResponseException e) {
+            log.error("HTTP error while fetching calendar batch: {}", e.getStatusCode(), e);
+            throw new FrontendServiceException("Failed to fetch calendar batch due to HTTP error: " + e.getStatusCode(), e);
+
+        } catch (Exception e) {
+            log.error("Unexpected error while fetching calendar batch", e);
+            throw new FrontendServiceException("Unexpected error occurred while fetching calendar batch", e);
+        }
+    }
 }
@@ -0,0 +1,63 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.oauth2.client.web.AuthorizationRequestRepository;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.endpoint.OAuth2ParameterNames;
+
+import java.time.Duration;
+
+/**
+ * {@link AuthorizationRequestRepository} that keeps the pending authorization request
+ * (state, nonce) in a short-lived {@link SessionStateStore} entry, so the redirect back
+ * from the identity provider can land on any frontend node.
+ */
+public class CookieOAuth2AuthorizationRequestRepository implements AuthorizationRequestRepository<OAuth2AuthorizationRequest> {
+
+    public static final String COOKIE_NAME = "FRONTEND_AUTHZ";
+
+    private static final Duration MAX_AGE = Duration.ofMinutes(5);
+
+    private final SessionStateStore store;
+    private final SessionStateSerializer serializer = new SessionStateSerializer();
+
+    public CookieOAuth2AuthorizationRequestRepository(SessionStateStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest loadAuthorizationRequest(HttpServletRequest request) {
+        String state = request.getParameter(OAuth2ParameterNames.STATE);
+        if (state == null) {
+            return null;
+        }
+        byte[] data = store.load(request, COOKIE_NAME);
+        if (data == null) {
+            return null;
+        }
+        OAuth2AuthorizationRequest authorizationRequest = serializer.readAuthorizationRequest(data);
+        return state.equals(authorizationRequest.getState()) ? authorizationRequest : null;
+    }
+
+    @Override
+    public void saveAuthorizationRequest(OAuth2AuthorizationRequest authorizationRequest,
+                                         HttpServletRequest request, HttpServletResponse response) {
+        if (authorizationRequest == null) {
+            store.remove(request, response, COOKIE_NAME);
+            return;
+        }
+        store.save(request, response, COOKIE_NAME, serializer.writeAuthorizationRequest(authorizationRequest), MAX_AGE);
+    }
+
+    @Override
+    public OAuth2AuthorizationRequest removeAuthorizationRequest(HttpServletRequest request,
+                                                                 HttpServletResponse response) {
+        OAuth2AuthorizationRequest authorizationRequest = loadAuthorizationRequest(request);
+        if (authorizationRequest != null) {
+            store.remove(request, response, COOKIE_NAME);
+        }
+        return authorizationRequest;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+
+/**
+ * {@link OAuth2AuthorizedClientRepository} that keeps the user's access and refresh token in
+ * a {@link SessionStateStore} instead of the {@code HttpSession}. One authorized client is
+ * kept per browser, which matches this application's single Keycloak registration.
+ */
+public class CookieOAuth2AuthorizedClientRepository implements OAuth2AuthorizedClientRepository {
+
+    public static final String COOKIE_NAME = "FRONTEND_CLIENT";
+
+    private static final Logger log = LoggerFactory.getLogger(CookieOAuth2AuthorizedClientRepository.class);
+
+    private final SessionStateStore store;
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final SessionStateSerializer serializer = new SessionStateSerializer();
+
+    public CookieOAuth2AuthorizedClientRepository(SessionStateStore store,
+                                                  ClientRegistrationRepository clientRegistrationRepository) {
+        this.store = store;
+        this.clientRegistrationRepository = clientRegistrationRepository;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId,
+                                                                     Authentication principal,
+                                                                     HttpServletRequest request) {
+        byte[] data = store.load(request, COOKIE_NAME);
+        if (data == null) {
+            return null;
+        }
+        SessionStateSerializer.AuthorizedClientState state;
+        try {
+            state = serializer.readAuthorizedClient(data);
+        } catch (RuntimeException e) {
+            // Treated as no client, so the login flow obtains a new one
+            log.warn("Discarding unreadable token cookie: {}", e.getMessage());
+            return null;
+        }
+        if (!state.registrationId().equals(clientRegistrationId)
+                || (principal != null && !principal.getName().equals(state.principalName()))) {
+            return null;
+        }
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(clientRegistrationId);
+        return registration != null ? (T) serializer.toAuthorizedClient(state, registration) : null;
+    }
+
+    @Override
+    public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal,
+                                     HttpServletRequest request, HttpServletResponse response) {
+        store.save(request, response, COOKIE_NAME, serializer.writeAuthorizedClient(authorizedClient), null);
+    }
+
+    @Override
+    public void removeAuthorizedClient(String clientRegistrationId, Authentication principal,
+                                       HttpServletRequest request, HttpServletResponse response) {
+        store.remove(request, response, COOKIE_NAME);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.security.core.context.DeferredSecurityContext;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.web.context.HttpRequestResponseHolder;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link SecurityContextRepository} that keeps the OIDC login in a {@link SessionStateStore}
+ * instead of the {@code HttpSession}. The context is only decoded when a request actually
+ * reads it, and only written when Spring Security saves it explicitly (login and logout).
+ */
+public class CookieSecurityContextRepository implements SecurityContextRepository {
+
+    public static final String COOKIE_NAME = "FRONTEND_AUTH";
+
+    private static final Logger log = LoggerFactory.getLogger(CookieSecurityContextRepository.class);
+
+    private final SessionStateStore store;
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final SessionStateSerializer serializer = new SessionStateSerializer();
+    private final SecurityContextHolderStrategy holderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public CookieSecurityContextRepository(SessionStateStore store,
+                                           ClientRegistrationRepository clientRegistrationRepository) {
+        this.store = store;
+        this.clientRegistrationRepository = clientRegistrationRepository;
+    }
+
+    @Override
+    @Deprecated
+    public SecurityContext loadContext(HttpRequestResponseHolder requestResponseHolder) {
+        return loadDeferredContext(requestResponseHolder.getRequest()).get();
+    }
+
+    @Override
+    public DeferredSecurityContext loadDeferredContext(HttpServletRequest request) {
+        return new DeferredSecurityContext() {
+
+            private SecurityContext context;
+            private boolean generated;
+
+            @Override
+            public SecurityContext get() {
+                if (context == null) {
+                    context = read(request);
+                    generated = context == null;
+                    if (generated) {
+                        context = holderStrategy.createEmptyContext();
+                    }
+                }
+                return context;
+            }
+
+            @Override
+            public boolean isGenerated() {
+                get();
+                return generated;
+            }
+        };
+    }
+
+    @Override
+    public void saveContext(SecurityContext context, HttpServletRequest request, HttpServletResponse response) {
+        if (context.getAuthentication() instanceof OAuth2AuthenticationToken authentication
+                && authentication.getPrincipal() instanceof OidcUser user) {
+            byte[] data = serializer.writeAuthentication(authentication, user,
+                    nameAttributeKey(authentication.getAuthorizedClientRegistrationId()));
+            store.save(request, response, COOKIE_NAME, data, null);
+        } else {
+            store.remove(request, response, COOKIE_NAME);
+        }
+    }
+
+    @Override
+    public boolean containsContext(HttpServletRequest request) {
+        return store.load(request, COOKIE_NAME) != null;
+    }
+
+    private SecurityContext read(HttpServletRequest request) {
+        byte[] data = store.load(request, COOKIE_NAME);
+        if (data == null) {
+            return null;
+        }
+        try {
+            SecurityContext context = holderStrategy.createEmptyContext();
+            context.setAuthentication(serializer.readAuthentication(data));
+            return context;
+        } catch (RuntimeException e) {
+            log.warn("Discarding unreadable login cookie: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private String nameAttributeKey(String registrationId) {
+        ClientRegistration registration = clientRegistrationRepository.findByRegistrationId(registrationId);
+        String key = registration != null
+                ? registration.getProviderDetails().getUserInfoEndpoint().getUserNameAttributeName()
+                : null;
+        return StringUtils.hasText(key) ? key : IdTokenClaimNames.SUB;
+    }
+}
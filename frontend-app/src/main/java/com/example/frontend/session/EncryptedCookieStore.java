@@ -0,0 +1,246 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * {@link SessionStateStore} that keeps values in compressed, AES-256-GCM encrypted cookies.
+ * <p>
+ * A value is deflated, prefixed with its absolute expiry and encrypted with the cookie name
+ * as associated data, so cookies can be neither read, modified nor swapped by the client.
+ * Values longer than one cookie allows are split over {@code NAME}, {@code NAME_1}, ...
+ * Cookies are {@code HttpOnly}, {@code SameSite=Lax} (sent on the redirect back from the
+ * identity provider) and browser-session scoped; the encrypted expiry bounds how long a
+ * copied cookie stays usable. Decoded values are cached per request.
+ */
+public class EncryptedCookieStore implements SessionStateStore {
+
+    private static final Logger log = LoggerFactory.getLogger(EncryptedCookieStore.class);
+
+    /** Keeps each cookie, name and attributes included, well under the common 4096-byte limit. */
+    private static final int MAX_CHUNK_LENGTH = 3800;
+    private static final int MAX_CHUNKS = 4;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_BITS = 128;
+    private static final String CACHE_ATTRIBUTE = EncryptedCookieStore.class.getName() + ".";
+    private static final byte[] REMOVED = new byte[0];
+
+    private final SecretKey key;
+    private final boolean secure;
+    private final Duration defaultMaxAge;
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param key           32-byte AES key, shared by all frontend nodes
+     * @param secure        whether cookies are only sent over HTTPS
+     * @param defaultMaxAge lifetime of values saved without an explicit max age
+     */
+    public EncryptedCookieStore(byte[] key, boolean secure, Duration defaultMaxAge) {
+        if (key.length != 32) {
+            throw new IllegalArgumentException("Session cookie key must be 32 bytes (AES-256)");
+        }
+        this.key = new SecretKeySpec(key, "AES");
+        this.secure = secure;
+        this.defaultMaxAge = defaultMaxAge;
+    }
+
+    @Override
+    public byte[] load(HttpServletRequest request, String name) {
+        Object cached = request.getAttribute(CACHE_ATTRIBUTE + name);
+        if (cached instanceof byte[] value) {
+            return value == REMOVED ? null : value;
+        }
+        String encoded = readChunks(request, name);
+        byte[] value = encoded == null ? null : decode(name, encoded);
+        request.setAttribute(CACHE_ATTRIBUTE + name, value == null ? REMOVED : value);
+        return value;
+    }
+
+    @Override
+    public void save(HttpServletRequest request, HttpServletResponse response, String name, byte[] value,
+                     Duration maxAge) {
+        String encoded = encode(name, value, maxAge != null ? maxAge : defaultMaxAge);
+        int chunks = (encoded.length() + MAX_CHUNK_LENGTH - 1) / MAX_CHUNK_LENGTH;
+        if (chunks > MAX_CHUNKS) {
+            throw new IllegalStateException("Session value '" + name + "' is too large for cookies: "
+                    + encoded.length() + " characters");
+        }
+        for (int i = 0; i < chunks; i++) {
+            String chunk = encoded.substring(i * MAX_CHUNK_LENGTH, Math.min(encoded.length(), (i + 1) * MAX_CHUNK_LENGTH));
+            writeCookie(response, chunkName(name, i), chunk, maxAge);
+        }
+        // Expire chunks left over from a longer previous value
+        for (int i = chunks; i < MAX_CHUNKS; i++) {
+            if (findCookie(request, chunkName(name, i)) != null) {
+                writeCookie(response, chunkName(name, i), "", Duration.ZERO);
+            }
+        }
+        request.setAttribute(CACHE_ATTRIBUTE + name, value);
+    }
+
+    @Override
+    public void remove(HttpServletRequest request, HttpServletResponse response, String name) {
+        for (int i = 0; i < MAX_CHUNKS; i++) {
+            if (findCookie(request, chunkName(name, i)) != null) {
+                writeCookie(response, chunkName(name, i), "", Duration.ZERO);
+            }
+        }
+        request.setAttribute(CACHE_ATTRIBUTE + name, REMOVED);
+    }
+
+    /**
+     * Encodes a value exactly as it is written into cookies (all chunks concatenated).
+     */
+    String encode(String name, byte[] value, Duration maxAge) {
+        try {
+            byte[] compressed = deflate(value);
+            ByteBuffer plain = ByteBuffer.allocate(Long.BYTES + compressed.length);
+            plain.putLong(Instant.now().plus(maxAge).getEpochSecond()).put(compressed);
+
+            byte[] iv = new byte[IV_LENGTH];
+            random.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, iv));
+            cipher.updateAAD(name.getBytes(StandardCharsets.US_ASCII));
+            byte[] encrypted = cipher.doFinal(plain.array());
+
+            byte[] out = new byte[IV_LENGTH + encrypted.length];
+            System.arraycopy(iv, 0, out, 0, IV_LENGTH);
+            System.arraycopy(encrypted, 0, out, IV_LENGTH, encrypted.length);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(out);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to encrypt session cookie", e);
+        }
+    }
+
+    /**
+     * Decodes a value read from cookies.
+     *
+     * @return the value, or null when the cookie was tampered with, encrypted with another key or expired
+     */
+    byte[] decode(String name, String encoded) {
+        try {
+            byte[] in = Base64.getUrlDecoder().decode(encoded);
+            if (in.length <= IV_LENGTH) {
+                return null;
+            }
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_BITS, in, 0, IV_LENGTH));
+            cipher.updateAAD(name.getBytes(StandardCharsets.US_ASCII));
+            ByteBuffer plain = ByteBuffer.wrap(cipher.doFinal(in, IV_LENGTH, in.length - IV_LENGTH));
+
+            if (plain.getLong() < Instant.now().getEpochSecond()) {
+                log.debug("Session cookie {} expired", name);
+                return null;
+            }
+            return inflate(plain.array(), plain.position());
+        } catch (GeneralSecurityException | IllegalArgumentException | DataFormatException e) {
+            log.debug("Ignoring unreadable session cookie {}: {}", name, e.toString());
+            return null;
+        }
+    }
+
+    private void writeCookie(HttpServletResponse response, String name, String value, Duration maxAge) {
+        ResponseCookie.ResponseCookieBuilder cookie = ResponseCookie.from(name, value)
+                .path("/")
+                .httpOnly(true)
+                .secure(secure)
+                .sameSite("Lax");
+        if (maxAge != null) {
+            cookie.maxAge(maxAge);
+        }
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie.build().toString());
+    }
+
+    private static String readChunks(HttpServletRequest request, String name) {
+        String first = findCookie(request, name);
+        if (first == null || first.isEmpty()) {
+            return null;
+        }
+        StringBuilder value = new StringBuilder(first);
+        for (int i = 1; i < MAX_CHUNKS; i++) {
+            String chunk = findCookie(request, chunkName(name, i));
+            if (chunk == null || chunk.isEmpty()) {
+                break;
+            }
+            value.append(chunk);
+        }
+        return value.toString();
+    }
+
+    private static String findCookie(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (cookie.getName().equals(name)) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String chunkName(String name, int index) {
+        return index == 0 ? name : name + "_" + index;
+    }
+
+    private static byte[] deflate(byte[] value) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            deflater.setInput(value);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(value.length / 2 + 16);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset) throws DataFormatException {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+            ByteArrayOutputStream out = new ByteArrayOutputStream((data.length - offset) * 2);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("Truncated session cookie");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+}
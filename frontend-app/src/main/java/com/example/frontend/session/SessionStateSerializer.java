@@ -0,0 +1,184 @@
+package com.example.frontend.session;
+
+import com.example.frontend.security.FlaggedOidcUser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.oidc.IdTokenClaimNames;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact JSON form of the login state kept by the cookie-backed repositories.
+ * Only what cannot be derived is stored: token values with their validity, authority
+ * names, UserInfo claims and access flags. ID token claims are re-read from the token
+ * itself, which is safe because the encrypted store guarantees it is the token this
+ * application received.
+ */
+final class SessionStateSerializer {
+
+    private static final TypeReference<Map<String, Object>> CLAIMS = new TypeReference<>() {};
+
+    /** ID token claims that Spring Security exposes as {@link Instant}. */
+    private static final List<String> INSTANT_CLAIMS = List.of(
+            IdTokenClaimNames.IAT, IdTokenClaimNames.EXP, IdTokenClaimNames.AUTH_TIME, "nbf");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    byte[] writeAuthorizedClient(OAuth2AuthorizedClient client) {
+        OAuth2AccessToken accessToken = client.getAccessToken();
+        OAuth2RefreshToken refreshToken = client.getRefreshToken();
+        return write(new AuthorizedClientState(
+                client.getClientRegistration().getRegistrationId(),
+                client.getPrincipalName(),
+                accessToken.getTokenValue(),
+                epochSecond(accessToken.getIssuedAt()),
+                epochSecond(accessToken.getExpiresAt()),
+                accessToken.getScopes(),
+                refreshToken != null ? refreshToken.getTokenValue() : null,
+                refreshToken != null ? epochSecond(refreshToken.getIssuedAt()) : null));
+    }
+
+    AuthorizedClientState readAuthorizedClient(byte[] data) {
+        return read(data, AuthorizedClientState.class);
+    }
+
+    OAuth2AuthorizedClient toAuthorizedClient(AuthorizedClientState state, ClientRegistration registration) {
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                state.accessToken(), instant(state.accessIssuedAt()), instant(state.accessExpiresAt()), state.scopes());
+        OAuth2RefreshToken refreshToken = state.refreshToken() != null
+                ? new OAuth2RefreshToken(state.refreshToken(), instant(state.refreshIssuedAt()))
+                : null;
+        return new OAuth2AuthorizedClient(registration, state.principalName(), accessToken, refreshToken);
+    }
+
+    byte[] writeAuthentication(OAuth2AuthenticationToken authentication, OidcUser user, String nameAttributeKey) {
+        List<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+        return write(new AuthenticationState(
+                authentication.getAuthorizedClientRegistrationId(),
+                nameAttributeKey,
+                authorities,
+                user.getIdToken().getTokenValue(),
+                user.getUserInfo() != null ? user.getUserInfo().getClaims() : null,
+                user instanceof FlaggedOidcUser flagged ? flagged.getAccessFlags() : null));
+    }
+
+    OAuth2AuthenticationToken readAuthentication(byte[] data) {
+        AuthenticationState state = read(data, AuthenticationState.class);
+        Map<String, Object> claims = idTokenClaims(state.idToken());
+        OidcIdToken idToken = new OidcIdToken(state.idToken(),
+                (Instant) claims.get(IdTokenClaimNames.IAT), (Instant) claims.get(IdTokenClaimNames.EXP), claims);
+        OidcUserInfo userInfo = state.userInfo() != null ? new OidcUserInfo(state.userInfo()) : null;
+        List<GrantedAuthority> authorities = state.authorities().stream()
+                .map(authority -> (GrantedAuthority) new SimpleGrantedAuthority(authority))
+                .toList();
+        DefaultOidcUser user = state.accessFlags() != null
+                ? new FlaggedOidcUser(authorities, idToken, userInfo, state.nameAttributeKey(), state.accessFlags())
+                : new DefaultOidcUser(authorities, idToken, userInfo, state.nameAttributeKey());
+        return new OAuth2AuthenticationToken(user, authorities, state.registrationId());
+    }
+
+    byte[] writeAuthorizationRequest(OAuth2AuthorizationRequest request) {
+        return write(new AuthorizationRequestState(
+                request.getAuthorizationUri(),
+                request.getClientId(),
+                request.getRedirectUri(),
+                request.getScopes(),
+                request.getState(),
+                request.getAdditionalParameters(),
+                request.getAttributes(),
+                request.getAuthorizationRequestUri()));
+    }
+
+    OAuth2AuthorizationRequest readAuthorizationRequest(byte[] data) {
+        AuthorizationRequestState state = read(data, AuthorizationRequestState.class);
+        return OAuth2AuthorizationRequest.authorizationCode()
+                .authorizationUri(state.authorizationUri())
+                .clientId(state.clientId())
+                .redirectUri(state.redirectUri())
+                .scopes(state.scopes())
+                .state(state.state())
+                .additionalParameters(state.additionalParameters())
+                .attributes(state.attributes())
+                .authorizationRequestUri(state.authorizationRequestUri())
+                .build();
+    }
+
+    private Map<String, Object> idTokenClaims(String idToken) {
+        String[] parts = idToken.split("\\.");
+        if (parts.length < 2) {
+            throw new IllegalArgumentException("Stored ID token is not a JWT");
+        }
+        try {
+            Map<String, Object> claims = new LinkedHashMap<>(
+                    objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), CLAIMS));
+            for (String name : INSTANT_CLAIMS) {
+                if (claims.get(name) instanceof Number seconds) {
+                    claims.put(name, Instant.ofEpochSecond(seconds.longValue()));
+                }
+            }
+            return claims;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable ID token claims", e);
+        }
+    }
+
+    private byte[] write(Object state) {
+        try {
+            return objectMapper.writeValueAsBytes(state);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to serialize session state", e);
+        }
+    }
+
+    private <T> T read(byte[] data, Class<T> type) {
+        try {
+            return objectMapper.readValue(data, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable session state", e);
+        }
+    }
+
+    private static Long epochSecond(Instant instant) {
+        return instant != null ? instant.getEpochSecond() : null;
+    }
+
+    private static Instant instant(Long epochSecond) {
+        return epochSecond != null ? Instant.ofEpochSecond(epochSecond) : null;
+    }
+
+    record AuthorizedClientState(String registrationId, String principalName, String accessToken,
+                                 Long accessIssuedAt, Long accessExpiresAt, Set<String> scopes,
+                                 String refreshToken, Long refreshIssuedAt) {
+    }
+
+    record AuthenticationState(String registrationId, String nameAttributeKey, List<String> authorities,
+                               String idToken, Map<String, Object> userInfo, Integer accessFlags) {
+    }
+
+    record AuthorizationRequestState(String authorizationUri, String clientId, String redirectUri,
+                                     Set<String> scopes, String state, Map<String, Object> additionalParameters,
+                                     Map<String, Object> attributes, String authorizationRequestUri) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.time.Duration;
+
+/**
+ * Storage for per-user login state (security context, authorized client, pending
+ * authorization request) outside the servlet {@code HttpSession}.
+ * <p>
+ * The default implementation, {@link EncryptedCookieStore}, keeps the state in the
+ * browser, so any frontend node can serve any request and server memory does not grow
+ * with the number of logged-in users. Other implementations (e.g. a shared cache or an
+ * in-memory stub for tests) can be plugged in by providing a bean of this type.
+ */
+public interface SessionStateStore {
+
+    /**
+     * Loads a value saved for the current user.
+     *
+     * @param request current request
+     * @param name    value name
+     * @return the value, or null when absent, expired or unreadable
+     */
+    byte[] load(HttpServletRequest request, String name);
+
+    /**
+     * Saves a value for the current user, replacing any previous value.
+     *
+     * @param request  current request
+     * @param response current response; must not be committed yet
+     * @param name     value name
+     * @param value    value to store
+     * @param maxAge   lifetime, or null for the store's default
+     */
+    void save(HttpServletRequest request, HttpServletResponse response, String name, byte[] value, Duration maxAge);
+
+    /**
+     * Removes a value for the current user.
+     *
+     * @param request  current request
+     * @param response current response; must not be committed yet
+     * @param name     value name
+     */
+    void remove(HttpServletRequest request, HttpServletResponse response, String name);
+}
@@ -0,0 +1,245 @@
+package com.example.frontend.token;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2AccessTokenResponseClient;
+import org.springframework.security.oauth2.client.endpoint.OAuth2RefreshTokenGrantRequest;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AccessTokenResponse;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Refreshes the access tokens of active sessions shortly before they expire, so page views
+ * do not pay a synchronous round trip to the identity provider.
+ * <p>
+ * Every authorized client seen by a request is tracked per session, keyed by its refresh token:
+ * two sessions of one user hold different refresh tokens, so they neither share tokens nor
+ * cancel each other's refreshes. When a background refresh rotates the refresh token, the new
+ * value is added as a key of the same session until the session has picked it up.
+ * One refresh is scheduled per tracked client at {@code expiresAt - refreshAhead - random(jitter)};
+ * repeated requests of the same session coalesce onto that single task, the jitter spreads
+ * refreshes of users who logged in together, and a small worker pool bounds the refreshes
+ * in flight against the identity provider. A client whose user has not made a request for
+ * {@code idleTimeout} is dropped instead of refreshed; it then refreshes on demand as before.
+ */
+public class ProactiveTokenRefresher {
+
+    private static final Logger log = LoggerFactory.getLogger(ProactiveTokenRefresher.class);
+
+    private final OAuth2AccessTokenResponseClient<OAuth2RefreshTokenGrantRequest> tokenResponseClient;
+    private final Duration refreshAhead;
+    private final Duration jitter;
+    private final Duration idleTimeout;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<String, TrackedClient> clients = new ConcurrentHashMap<>();
+    private final AtomicLong refreshes = new AtomicLong();
+
+    /**
+     * @param tokenResponseClient client for the refresh_token grant
+     * @param refreshAhead        how long before expiry a token is refreshed
+     * @param jitter              maximum random extra lead time per refresh
+     * @param idleTimeout         inactivity after which a session is no longer refreshed
+     * @param maxConcurrent       maximum refreshes in flight
+     */
+    public ProactiveTokenRefresher(OAuth2AccessTokenResponseClient<OAuth2RefreshTokenGrantRequest> tokenResponseClient,
+                                   Duration refreshAhead, Duration jitter, Duration idleTimeout, int maxConcurrent) {
+        this.tokenResponseClient = tokenResponseClient;
+        this.refreshAhead = refreshAhead;
+        this.jitter = jitter;
+        this.idleTimeout = idleTimeout;
+        this.scheduler = new ScheduledThreadPoolExecutor(Math.max(1, maxConcurrent), new RefreshThreadFactory());
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Records that a request used an authorized client and schedules its refresh.
+     *
+     * @param client client loaded for the current request
+     * @return a fresher client refreshed in the background, or {@code client} itself
+     */
+    public OAuth2AuthorizedClient track(OAuth2AuthorizedClient client) {
+        if (client.getRefreshToken() == null || client.getAccessToken().getExpiresAt() == null) {
+            return client;
+        }
+        String key = key(client);
+        TrackedClient tracked = clients.computeIfAbsent(key, k -> new TrackedClient(k, label(client)));
+        tracked.lastUsedNanos = System.nanoTime();
+        synchronized (tracked) {
+            if (tracked.keys.isEmpty()) {
+                // Dropped concurrently; track the session afresh
+                return track(client);
+            }
+            OAuth2AuthorizedClient latest = tracked.latest;
+            if (latest != null && expiresAfter(latest, client)) {
+                return latest;
+            }
+            if (tracked.keys.size() > 1 && key.equals(key(latest))) {
+                // The session now carries the rotated refresh token; older keys are no longer used
+                for (String old : tracked.keys) {
+                    if (!old.equals(key)) {
+                        clients.remove(old, tracked);
+                    }
+                }
+                tracked.keys.retainAll(Set.of(key));
+            }
+            if (latest == null || !latest.getAccessToken().getTokenValue().equals(client.getAccessToken().getTokenValue())) {
+                tracked.latest = client;
+                schedule(tracked);
+            }
+            return client;
+        }
+    }
+
+    /**
+     * Stops tracking the session holding a client, e.g. on logout. Other sessions of the same
+     * user are not affected.
+     */
+    public void forget(OAuth2AuthorizedClient client) {
+        if (client.getRefreshToken() == null) {
+            return;
+        }
+        TrackedClient tracked = clients.get(key(client));
+        if (tracked != null) {
+            drop(tracked);
+        }
+    }
+
+    /**
+     * Number of sessions currently tracked.
+     */
+    public int trackedClients() {
+        return (int) clients.values().stream().distinct().count();
+    }
+
+    /**
+     * Number of successful background refreshes.
+     */
+    public long refreshCount() {
+        return refreshes.get();
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void schedule(TrackedClient tracked) {
+        cancel(tracked);
+        Instant expiresAt = tracked.latest.getAccessToken().getExpiresAt();
+        long jitterMillis = jitter.isZero() ? 0 : ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1);
+        long delayMillis = Duration.between(Instant.now(), expiresAt).minus(refreshAhead).toMillis() - jitterMillis;
+        tracked.next = scheduler.schedule(() -> refresh(tracked), Math.max(0, delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    private void refresh(TrackedClient tracked) {
+        if (System.nanoTime() - tracked.lastUsedNanos > idleTimeout.toNanos()) {
+            log.debug("Session of {} idle; not refreshing its token", tracked.label);
+            drop(tracked);
+            return;
+        }
+        OAuth2AuthorizedClient current = tracked.latest;
+        try {
+            OAuth2AccessTokenResponse response = tokenResponseClient.getTokenResponse(new OAuth2RefreshTokenGrantRequest(
+                    current.getClientRegistration(), current.getAccessToken(), current.getRefreshToken()));
+            OAuth2RefreshToken refreshToken = response.getRefreshToken() != null
+                    ? response.getRefreshToken() : current.getRefreshToken();
+            OAuth2AuthorizedClient refreshed = new OAuth2AuthorizedClient(current.getClientRegistration(),
+                    current.getPrincipalName(), response.getAccessToken(), refreshToken);
+            synchronized (tracked) {
+                if (tracked.latest == current && !tracked.keys.isEmpty()) {
+                    tracked.latest = refreshed;
+                    String key = key(refreshed);
+                    if (tracked.keys.add(key)) {
+                        clients.put(key, tracked);
+                    }
+                    schedule(tracked);
+                }
+            }
+            refreshes.incrementAndGet();
+            log.debug("Refreshed access token of {} ahead of expiry", tracked.label);
+        } catch (RuntimeException e) {
+            // Typically an ended SSO session; the next request refreshes or re-authenticates on demand
+            log.warn("Background token refresh for {} failed: {}", tracked.label, e.getMessage());
+            drop(tracked);
+        }
+    }
+
+    private void drop(TrackedClient tracked) {
+        synchronized (tracked) {
+            cancel(tracked);
+            for (String key : tracked.keys) {
+                clients.remove(key, tracked);
+            }
+            tracked.keys.clear();
+        }
+    }
+
+    private static void cancel(TrackedClient tracked) {
+        if (tracked.next != null) {
+            tracked.next.cancel(false);
+            tracked.next = null;
+        }
+    }
+
+    private static boolean expiresAfter(OAuth2AuthorizedClient candidate, OAuth2AuthorizedClient client) {
+        OAuth2AccessToken token = candidate.getAccessToken();
+        return token.getExpiresAt().isAfter(client.getAccessToken().getExpiresAt());
+    }
+
+    /**
+     * Identifies a session by its refresh token; never logged.
+     */
+    private static String key(OAuth2AuthorizedClient client) {
+        return client.getClientRegistration().getRegistrationId() + ":" + client.getRefreshToken().getTokenValue();
+    }
+
+    private static String label(OAuth2AuthorizedClient client) {
+        return client.getClientRegistration().getRegistrationId() + ":" + client.getPrincipalName();
+    }
+
+    /**
+     * Latest known client of one session, registered under every refresh token the session may
+     * still present; fields other than {@code lastUsedNanos} are guarded by its monitor.
+     * Dropped sessions have no keys left.
+     */
+    private static final class TrackedClient {
+
+        final String label;
+        final Set<String> keys = new HashSet<>();
+        volatile long lastUsedNanos;
+        volatile OAuth2AuthorizedClient latest;
+        ScheduledFuture<?> next;
+
+        TrackedClient(String key, String label) {
+            this.label = label;
+            keys.add(key);
+        }
+    }
+
+    private static final class RefreshThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "token-refresh-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.frontend.token;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Decorates the application's {@link OAuth2AuthorizedClientRepository} so that every loaded
+ * or saved client is tracked by the {@link ProactiveTokenRefresher}. When the refresher
+ * already holds a token refreshed in the background, that token is returned and written
+ * back to the user's session state instead of being refreshed synchronously.
+ */
+public class RefreshAheadAuthorizedClientRepository implements OAuth2AuthorizedClientRepository {
+
+    private final OAuth2AuthorizedClientRepository delegate;
+    private final ProactiveTokenRefresher refresher;
+
+    public RefreshAheadAuthorizedClientRepository(OAuth2AuthorizedClientRepository delegate,
+                                                  ProactiveTokenRefresher refresher) {
+        this.delegate = delegate;
+        this.refresher = refresher;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends OAuth2AuthorizedClient> T loadAuthorizedClient(String clientRegistrationId,
+                                                                     Authentication principal,
+                                                                     HttpServletRequest request) {
+        T client = delegate.loadAuthorizedClient(clientRegistrationId, principal, request);
+        if (client == null) {
+            return null;
+        }
+        OAuth2AuthorizedClient latest = refresher.track(client);
+        if (latest != client) {
+            HttpServletResponse response = currentResponse();
+            if (response != null && !response.isCommitted()) {
+                delegate.saveAuthorizedClient(latest, principal, request, response);
+            }
+        }
+        return (T) latest;
+    }
+
+    @Override
+    public void saveAuthorizedClient(OAuth2AuthorizedClient authorizedClient, Authentication principal,
+                                     HttpServletRequest request, HttpServletResponse response) {
+        delegate.saveAuthorizedClient(authorizedClient, principal, request, response);
+        refresher.track(authorizedClient);
+    }
+
+    @Override
+    public void removeAuthorizedClient(String clientRegistrationId, Authentication principal,
+                                       HttpServletRequest request, HttpServletResponse response) {
+        // Only this session's refreshes stop; the user's other sessions keep theirs
+        OAuth2AuthorizedClient client = delegate.loadAuthorizedClient(clientRegistrationId, principal, request);
+        delegate.removeAuthorizedClient(clientRegistrationId, principal, request, response);
+        if (client != null) {
+            refresher.forget(client);
+        }
+    }
+
+    private static HttpServletResponse currentResponse() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes instanceof ServletRequestAttributes servletAttributes ? servletAttributes.getResponse() : null;
+    }
+}
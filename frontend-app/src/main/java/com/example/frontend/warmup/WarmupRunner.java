@@ -0,0 +1,313 @@
+package com.example.frontend.warmup;
+
+import com.example.frontend.model.CalendarPage;
+import com.example.frontend.model.ColumnarCalendarEvents;
+import com.example.frontend.security.RealmRoleOidcUserService;
+import com.example.frontend.service.FrontendService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import io.micrometer.observation.ObservationRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import reactor.core.publisher.Mono;
+
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Exercises the calendar page's code paths with synthetic data before the application reports
+ * ready, so the first users do not pay for cold JIT, lazily created Jackson deserializers,
+ * template parsing, issuer discovery and the first connection to the calendar service.
+ * <p>
+ * Page views need a real login and Keycloak, so the warmup runs the same components in-process
+ * instead: the OIDC user mapping with access tokens signed by a throwaway local key, the
+ * {@link FrontendService} page fetch and columnar decoding against a canned response, and the
+ * calendar row fragment of the page template. It also opens a pooled connection to the
+ * calendar service and sends a few unauthenticated requests through Tomcat and the security
+ * filter chain.
+ * <p>
+ * Spring Boot switches readiness to {@code ACCEPTING_TRAFFIC} only after all application
+ * runners have returned, so {@code /actuator/health/readiness} stays down until the warmup
+ * has finished or {@code app.warmup.max-duration} has passed. Issuer discovery is waited for
+ * only within that bound, so an unreachable identity provider cannot hold readiness back.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupRunner.class);
+
+    /** Local registration; resolving the Keycloak one would need issuer discovery */
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("warmup")
+            .clientId("warmup")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+            .scope("openid", "profile", "email")
+            .authorizationUri("http://localhost/warmup/auth")
+            .tokenUri("http://localhost/warmup/token")
+            .userNameAttributeName("sub")
+            .build();
+
+    private static final String[] TITLES = {"Standup", "Planning", "1:1", "Review", "Lunch", "Focus time"};
+
+    private final ClientRegistrationRepository clientRegistrationRepository;
+    private final RealmRoleOidcUserService oidcUserService;
+    private final WebClient calendarWebClient;
+    private final ObjectMapper objectMapper;
+    private final ITemplateEngine templateEngine;
+    private final Environment environment;
+    private final String requiredRole;
+    private final int pageSize;
+    private final int iterations;
+    private final Duration maxDuration;
+
+    public WarmupRunner(ClientRegistrationRepository clientRegistrationRepository,
+                        RealmRoleOidcUserService oidcUserService,
+                        WebClient calendarWebClient,
+                        ObjectMapper objectMapper,
+                        ITemplateEngine templateEngine,
+                        Environment environment,
+                        @Value("${app.security.required-role:my-role}") String requiredRole,
+                        @Value("${app.calendar.page-size:100}") int pageSize,
+                        @Value("${app.warmup.iterations:500}") int iterations,
+                        @Value("${app.warmup.max-duration:20s}") Duration maxDuration) {
+        this.clientRegistrationRepository = clientRegistrationRepository;
+        this.oidcUserService = oidcUserService;
+        this.calendarWebClient = calendarWebClient;
+        this.objectMapper = objectMapper;
+        this.templateEngine = templateEngine;
+        this.environment = environment;
+        this.requiredRole = requiredRole;
+        this.pageSize = pageSize;
+        this.iterations = iterations;
+        this.maxDuration = maxDuration;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long start = System.nanoTime();
+        long deadline = start + maxDuration.toNanos();
+
+        // Discovery runs alongside the page builds and is waited for until the deadline at most
+        CompletableFuture<Boolean> discovery = CompletableFuture.supplyAsync(this::resolveRegistration,
+                task -> Thread.ofVirtual().name("warmup-discovery").start(task));
+        boolean connected = connectCalendarService(deadline);
+
+        RSASSASigner signer = new RSASSASigner(new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate());
+        LocalDateTime from = LocalDate.now().atStartOfDay();
+        // Untraced: synthetic page fetches would crowd real requests out of the trace buffer
+        FrontendService pageService = new FrontendService(cannedCalendarService(from), objectMapper,
+                ObservationRegistry.NOOP, Integer.MAX_VALUE);
+
+        int done = 0;
+        for (; done < iterations && System.nanoTime() < deadline; done++) {
+            OAuth2AuthorizedClient client = login(signer, "warmup-" + done, done % 2 == 0);
+            CalendarPage page = pageService.fetchCalendarPage(client, from, from.plusDays(365), null, pageSize);
+            renderRows(page, from);
+        }
+
+        int requests = sendLoopbackRequests(deadline);
+        String issuer = awaitDiscovery(discovery, deadline);
+        log.info("Warmup finished in {} ms: {} page renders, {} loopback requests; issuer {}, calendar service {}",
+                (System.nanoTime() - start) / 1_000_000, done, requests, issuer, connected ? "connected" : "not reachable");
+    }
+
+    /**
+     * Logs in a synthetic user through the OIDC user service. Realm roles are put into the
+     * ID token or, alternately, only into the signed access token.
+     */
+    private OAuth2AuthorizedClient login(RSASSASigner signer, String subject, boolean rolesInIdToken) throws JOSEException {
+        Instant now = Instant.now();
+        Map<String, Object> realmAccess = Map.of("roles", List.of(requiredRole, "offline_access"));
+        JWTClaimsSet accessClaims = new JWTClaimsSet.Builder()
+                .subject(subject)
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(Duration.ofMinutes(5))))
+                .claim("realm_access", realmAccess)
+                .build();
+        SignedJWT accessJwt = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), accessClaims);
+        accessJwt.sign(signer);
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                accessJwt.serialize(), now, now.plus(Duration.ofMinutes(5)), Set.of("openid", "profile", "email"));
+
+        OidcIdToken.Builder idToken = OidcIdToken.withTokenValue("warmup")
+                .subject(subject)
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofMinutes(5)))
+                .claim("preferred_username", subject)
+                .claim("amr", List.of("pwd"));
+        if (rolesInIdToken) {
+            idToken.claim("realm_access", realmAccess);
+        }
+        oidcUserService.loadUser(new OidcUserRequest(REGISTRATION, accessToken, idToken.build()));
+        return new OAuth2AuthorizedClient(REGISTRATION, subject, accessToken);
+    }
+
+    private void renderRows(CalendarPage page, LocalDateTime from) {
+        Context context = new Context();
+        // Without a next cursor the fragment needs no request-relative links, which a
+        // context outside of a request could not build
+        context.setVariable("calendarEvents", page.getEvents());
+        context.setVariable("calendarPage", new CalendarPage(page.getEvents(), null));
+        context.setVariable("windowStart", from);
+        context.setVariable("windowEnd", from.plusDays(365));
+        context.setVariable("pageSize", pageSize);
+        templateEngine.process("index", Set.of("calendarRows"), context, Writer.nullWriter());
+    }
+
+    /**
+     * A client with the calendar client's codecs whose exchange answers every request with
+     * one canned columnar page, one event more than the page size so a next cursor is computed.
+     */
+    private WebClient cannedCalendarService(LocalDateTime from) throws Exception {
+        int count = pageSize + 1;
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        int[] durations = new int[count];
+        int[] titleIndexes = new int[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            long start = from.plusMinutes(30L * i).toEpochSecond(ZoneOffset.UTC);
+            ids[i] = i + 1;
+            starts[i] = start - previous;
+            previous = start;
+            durations[i] = 30;
+            titleIndexes[i] = i % TITLES.length;
+        }
+        ColumnarCalendarEvents columns = new ColumnarCalendarEvents();
+        columns.setCount(count);
+        columns.setIds(ids);
+        columns.setStarts(starts);
+        columns.setDurations(durations);
+        columns.setTitleIndexes(titleIndexes);
+        columns.setTitles(List.of(TITLES));
+        String body = objectMapper.writeValueAsString(columns);
+
+        return calendarWebClient.mutate()
+                .filters(List::clear)
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, ColumnarCalendarEvents.MEDIA_TYPE)
+                        .body(body)
+                        .build()))
+                .build();
+    }
+
+    /**
+     * Runs issuer discovery for the Keycloak registration, which every page view needs to
+     * load the user's authorized client. A failure is retried on the first login.
+     */
+    private boolean resolveRegistration() {
+        try {
+            return clientRegistrationRepository.findByRegistrationId("keycloak") != null;
+        } catch (RuntimeException e) {
+            log.debug("Issuer not reachable during warmup", e);
+            return false;
+        }
+    }
+
+    /**
+     * Waits for the discovery until the warmup deadline. A discovery still running then is left
+     * to finish in the background, where the first login would otherwise have waited for it.
+     */
+    private static String awaitDiscovery(CompletableFuture<Boolean> discovery, long deadline) throws InterruptedException {
+        try {
+            return discovery.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)
+                    ? "discovered" : "not reachable";
+        } catch (TimeoutException e) {
+            return "still being discovered";
+        } catch (ExecutionException e) {
+            return "not reachable";
+        }
+    }
+
+    /**
+     * Opens a connection to the calendar service through the shared connection pool and
+     * event loops. Its readiness endpoint needs no token.
+     */
+    private boolean connectCalendarService(long deadline) {
+        try {
+            calendarWebClient.mutate()
+                    .filters(List::clear)
+                    .build()
+                    .get()
+                    .uri("/actuator/health/readiness")
+                    .exchangeToMono(ClientResponse::releaseBody)
+                    .block(Duration.ofNanos(Math.max(0, Math.min(Duration.ofSeconds(5).toNanos(), deadline - System.nanoTime()))));
+            return true;
+        } catch (RuntimeException e) {
+            log.debug("Calendar service not reachable during warmup", e);
+            return false;
+        }
+    }
+
+    /**
+     * Sends unauthenticated requests through Tomcat and the security filter chain: the login
+     * redirect of the calendar page and the static resources it loads.
+     */
+    private int sendLoopbackRequests(long deadline) {
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0) {
+            return 0;
+        }
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        URI base = URI.create("http://localhost:" + port);
+        List<URI> uris = List.of(
+                base.resolve("/calendar"), base.resolve("/css/index.css"), base.resolve("/js/calendar.js"));
+        int sent = 0;
+        for (int i = 0; i < 100 && System.nanoTime() < deadline; i++) {
+            try {
+                client.send(HttpRequest.newBuilder(uris.get(i % uris.size())).build(), HttpResponse.BodyHandlers.discarding());
+                sent++;
+            } catch (Exception e) {
+                log.debug("Warmup request failed", e);
+            }
+        }
+        return sent;
+    }
+}
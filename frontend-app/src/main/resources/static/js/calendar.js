@@ -0,0 +1,39 @@
+/* Appends further pages of calendar rows as the user scrolls to the end of the table */
+(function () {
+    const rows = document.getElementById('calendarRows');
+    if (!rows || !('IntersectionObserver' in window)) {
+        return; // The "More events" link still works
+    }
+
+    const observer = new IntersectionObserver(entries => {
+        entries.filter(entry => entry.isIntersecting).forEach(entry => loadNext(entry.target));
+    }, { rootMargin: '400px' });
+
+    function watch() {
+        const more = rows.querySelector('tr.more-rows');
+        if (more) {
+            observer.observe(more);
+        }
+    }
+
+    function loadNext(more) {
+        observer.unobserve(more);
+        fetch(more.dataset.next, { credentials: 'same-origin', headers: { 'Accept': 'text/html' } })
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return response.text();
+            })
+            .then(html => {
+                more.remove();
+                rows.insertAdjacentHTML('beforeend', html);
+                watch();
+            })
+            .catch(() => {
+                // Leave the link in place so the user can still open the next page
+            });
+    }
+
+    watch();
+})();
@@ -0,0 +1,24 @@
+package com.example.frontend.config;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderConfigTest {
+
+    @Test
+    void onlyCalendarPagesShouldBeMeasured() {
+        assertTrue(measured("GET", "/calendar"));
+        assertTrue(measured("GET", "/calendar/rows"));
+
+        assertFalse(measured("GET", "/css/index.css"));
+        assertFalse(measured("GET", "/calendars"));
+        assertFalse(measured("POST", "/logout"));
+    }
+
+    private static boolean measured(String method, String path) {
+        return FlightRecorderConfig.isMeasured(new MockHttpServletRequest(method, path));
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.frontend.controller;
+
+import com.example.frontend.model.CalendarEvent;
+import com.example.frontend.model.CalendarPage;
+import com.example.frontend.model.ColumnarCalendarEvents;
+import com.example.frontend.security.AccessFlags;
+import com.example.frontend.security.FlaggedOidcUser;
+import com.example.frontend.service.FrontendService;
+import com.example.frontend.session.CookieOAuth2AuthorizedClientRepository;
+import com.example.frontend.session.CookieSecurityContextRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Measures time to first byte and total time of the calendar page for a 10k-event calendar
+ * on an embedded Tomcat, rendering everything in one pass versus the first page only.
+ * The calendar service is replaced by a mock that decodes a columnar payload of the
+ * requested size, so frontend decode and render costs are included and backend time is not.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=CalendarPageTtfbBenchmarkTest -Dbenchmark=true [-Dbenchmark.events=10000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.session.store=cookie",
+        "app.session.cookie-key=AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=",
+        "app.calendar.max-page-size=100000",
+        "logging.level.com.example.frontend=WARN"
+})
+class CalendarPageTtfbBenchmarkTest {
+
+    private static final int EVENTS = Integer.getInteger("benchmark.events", 10_000);
+    private static final int ITERATIONS = 20;
+
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("frontend-app")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+            .scope("openid", "profile", "email")
+            .authorizationUri("http://127.0.0.1:1/auth")
+            .tokenUri("http://127.0.0.1:1/token")
+            .jwkSetUri("http://127.0.0.1:1/certs")
+            .userNameAttributeName("sub")
+            .build();
+
+    @TestConfiguration
+    static class OfflineRegistration {
+
+        // Takes precedence over the issuer-discovered registrations, which would need a running Keycloak
+        @Bean
+        @Primary
+        ClientRegistrationRepository offlineClientRegistrationRepository() {
+            return new InMemoryClientRegistrationRepository(REGISTRATION);
+        }
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @MockBean
+    private FrontendService frontendService;
+
+    @Autowired
+    private CookieSecurityContextRepository securityContextRepository;
+
+    @Autowired
+    private CookieOAuth2AuthorizedClientRepository authorizedClientRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void firstPageIsCompleteSooner() throws Exception {
+        Map<Integer, byte[]> payloads = Map.of(EVENTS, columnarPayload(EVENTS), 100, columnarPayload(100));
+        when(frontendService.fetchCalendarPage(any(), any(), any(), any(), anyInt())).thenAnswer(invocation -> {
+            int size = invocation.getArgument(4);
+            List<CalendarEvent> events = CalendarEvent.fromColumnar(
+                    objectMapper.readValue(payloads.get(size), ColumnarCalendarEvents.class));
+            String next = size < EVENTS ? CalendarPage.cursor(events.get(size - 1).getTime(), 1) : null;
+            return new CalendarPage(events, next);
+        });
+        String cookies = loginCookies();
+        HttpClient client = HttpClient.newHttpClient();
+
+        // Warm up JIT, template cache and connection
+        for (int i = 0; i < 10; i++) {
+            fetch(client, cookies, EVENTS);
+            fetch(client, cookies, 100);
+        }
+        long[][] singlePass = new long[3][ITERATIONS];
+        long[][] paged = new long[3][ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            record(singlePass, i, fetch(client, cookies, EVENTS));
+            record(paged, i, fetch(client, cookies, 100));
+        }
+
+        System.out.printf("Calendar page, %d events, median of %d requests%n", EVENTS, ITERATIONS);
+        report("all events at once", singlePass);
+        report("first page (100)", paged);
+        assertTrue(median(paged[1]) < median(singlePass[1]));
+    }
+
+    /**
+     * @return time to first byte (ns), total time (ns), bytes
+     */
+    private long[] fetch(HttpClient client, String cookies, int size) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/calendar?size=" + size))
+                .header("Cookie", cookies)
+                .header("Accept", "text/html")
+                .build();
+        long start = System.nanoTime();
+        HttpResponse<InputStream> response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            int first = body.read();
+            long ttfb = System.nanoTime() - start;
+            assertEquals(200, response.statusCode());
+            assertNotEquals(-1, first);
+            long bytes = 1 + body.transferTo(OutputStreamSink.INSTANCE);
+            return new long[] {ttfb, System.nanoTime() - start, bytes};
+        }
+    }
+
+    private String loginCookies() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = Map.of("sub", "alice", "iss", "http://127.0.0.1:1", "aud", "frontend-app",
+                "iat", now.getEpochSecond(), "exp", now.plusSeconds(3600).getEpochSecond(),
+                "preferred_username", "alice", "email", "alice@example.com");
+        String payload = claims.entrySet().stream()
+                .map(e -> "\"" + e.getKey() + "\":" + (e.getValue() instanceof Long ? e.getValue() : "\"" + e.getValue() + "\""))
+                .collect(Collectors.joining(",", "{", "}"));
+        String idTokenValue = "eyJhbGciOiJSUzI1NiJ9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+        Map<String, Object> tokenClaims = new java.util.HashMap<>(claims);
+        tokenClaims.put("iat", now);
+        tokenClaims.put("exp", now.plusSeconds(3600));
+        OidcIdToken idToken = new OidcIdToken(idTokenValue, now, now.plusSeconds(3600), tokenClaims);
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("OIDC_USER", "ROLE_my-role");
+        OAuth2AuthenticationToken authentication = new OAuth2AuthenticationToken(
+                new FlaggedOidcUser(authorities, idToken, null, "sub", AccessFlags.REQUIRED_ROLE), authorities, "keycloak");
+        OAuth2AuthorizedClient authorizedClient = new OAuth2AuthorizedClient(REGISTRATION, "alice",
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access", now, now.plusSeconds(3600)),
+                new OAuth2RefreshToken("refresh", now));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityContextRepository.saveContext(new SecurityContextImpl(authentication), request, response);
+        authorizedClientRepository.saveAuthorizedClient(authorizedClient, authentication, request, response);
+        return Arrays.stream(response.getCookies())
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    private byte[] columnarPayload(int count) throws Exception {
+        String[] titles = {"Team meeting", "Doctor appointment", "Project review", "Client call", "Code review"};
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        int[] durations = new int[count];
+        int[] titleIndexes = new int[count];
+        starts[0] = LocalDateTime.of(2026, 1, 1, 8, 0).toEpochSecond(ZoneOffset.UTC);
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            starts[i] = i == 0 ? starts[0] : 1800;
+            durations[i] = 30;
+            titleIndexes[i] = i % titles.length;
+        }
+        ColumnarCalendarEvents columns = new ColumnarCalendarEvents();
+        columns.setCount(count);
+        columns.setIds(ids);
+        columns.setStarts(starts);
+        columns.setDurations(durations);
+        columns.setTitleIndexes(titleIndexes);
+        columns.setTitles(new ArrayList<>(List.of(titles)));
+        return objectMapper.writeValueAsBytes(columns);
+    }
+
+    private static void record(long[][] samples, int i, long[] result) {
+        samples[0][i] = result[0];
+        samples[1][i] = result[1];
+        samples[2][i] = result[2];
+    }
+
+    private static void report(String label, long[][] samples) {
+        System.out.printf("  %-20s TTFB %7.2f ms  total %7.2f ms  %,9d bytes%n", label,
+                median(samples[0]) / 1e6, median(samples[1]) / 1e6, median(samples[2]));
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /** Discards the remaining body. */
+    private static final class OutputStreamSink extends java.io.OutputStream {
+
+        static final OutputStreamSink INSTANCE = new OutputStreamSink();
+
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.frontend.diagnostics;
+
+import com.example.frontend.model.ColumnarCalendarEvents;
+import com.example.frontend.security.AccessFlags;
+import com.example.frontend.security.FlaggedOidcUser;
+import com.example.frontend.session.CookieOAuth2AuthorizedClientRepository;
+import com.example.frontend.session.CookieSecurityContextRepository;
+import com.example.support.diagnostics.RecordedSpan;
+import com.example.support.diagnostics.SpanRingBuffer;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A calendar page view against a stub calendar service: the call must carry the page's trace
+ * in a {@code traceparent} header, and the frontend's spans of that trace must be listed at
+ * {@code /diagnostics/traces}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "app.session.store=cookie",
+        "app.session.cookie-key=AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA=",
+        "app.warmup.enabled=false",
+        "app.token-refresh.enabled=false"
+})
+@AutoConfigureObservability(metrics = false)
+class TracePropagationTest {
+
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("frontend-app")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+            .scope("openid", "profile", "email")
+            .authorizationUri("http://127.0.0.1:1/auth")
+            .tokenUri("http://127.0.0.1:1/token")
+            .jwkSetUri("http://127.0.0.1:1/certs")
+            .userNameAttributeName("sub")
+            .build();
+
+    private static final AtomicReference<String> receivedTraceparent = new AtomicReference<>();
+    private static final HttpServer calendarService = startCalendarService();
+
+    @TestConfiguration
+    static class OfflineRegistration {
+
+        // Takes precedence over the issuer-discovered registrations, which would need a running Keycloak
+        @Bean
+        @Primary
+        ClientRegistrationRepository offlineClientRegistrationRepository() {
+            return new InMemoryClientRegistrationRepository(REGISTRATION);
+        }
+    }
+
+    @DynamicPropertySource
+    static void calendarServiceUrl(DynamicPropertyRegistry registry) {
+        registry.add("calendar.service.url", () -> "http://localhost:" + calendarService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopCalendarService() {
+        calendarService.stop(0);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private SpanRingBuffer spanRingBuffer;
+
+    @Autowired
+    private CookieSecurityContextRepository securityContextRepository;
+
+    @Autowired
+    private CookieOAuth2AuthorizedClientRepository authorizedClientRepository;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @Test
+    void calendarPageTraceContinuesInCalendarService() throws Exception {
+        HttpResponse<String> page = client.send(HttpRequest.newBuilder(uri("/calendar"))
+                .header("Cookie", loginCookies())
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, page.statusCode());
+        assertTrue(page.body().contains("Standup"));
+
+        // traceparent: version-traceid-parentid-flags
+        String traceparent = receivedTraceparent.get();
+        assertNotNull(traceparent, "The calendar service call must carry the trace");
+        String[] parts = traceparent.split("-");
+        assertEquals(4, parts.length);
+        String traceId = parts[1];
+
+        SpanRingBuffer.Trace trace = awaitTrace(traceId, "http get /calendar");
+        Map<String, RecordedSpan> spansByName = trace.spans().stream()
+                .collect(Collectors.toMap(RecordedSpan::name, span -> span, (first, second) -> first));
+        assertTrue(spansByName.keySet().containsAll(Set.of(
+                "http get /calendar", "frontend.oauth2.authorize", "frontend.calendar.decode", "frontend.render")),
+                "Recorded spans: " + spansByName.keySet());
+
+        RecordedSpan clientSpan = trace.spans().stream()
+                .filter(span -> "CLIENT".equals(span.kind()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(parts[2], clientSpan.spanId(), "The calendar service continues from the client span");
+        // Fetching, decoding and rendering all run inside the request's secured part of the filter chain
+        assertEquals(clientSpan.parentId(), spansByName.get("frontend.calendar.decode").parentId());
+        assertEquals(clientSpan.parentId(), spansByName.get("frontend.render").parentId());
+
+        HttpResponse<String> diagnostics = client.send(HttpRequest.newBuilder(uri("/diagnostics/traces?traceId=" + traceId))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, diagnostics.statusCode());
+        assertTrue(diagnostics.body().contains("\"frontend.calendar.decode\""));
+    }
+
+    /**
+     * The server span ends after the response has been sent, so it may be recorded shortly after the client sees it.
+     */
+    private SpanRingBuffer.Trace awaitTrace(String traceId, String rootSpan) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            List<SpanRingBuffer.Trace> traces = spanRingBuffer.traces(traceId, 0, 1);
+            if (!traces.isEmpty() && traces.get(0).spans().stream().anyMatch(span -> rootSpan.equals(span.name()))) {
+                return traces.get(0);
+            }
+            assertTrue(System.nanoTime() < deadline, "Trace " + traceId + " was not recorded");
+            Thread.sleep(10);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private String loginCookies() {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = Map.of("sub", "alice", "iss", "http://127.0.0.1:1", "aud", "frontend-app",
+                "iat", now.getEpochSecond(), "exp", now.plusSeconds(3600).getEpochSecond(),
+                "preferred_username", "alice");
+        String payload = claims.entrySet().stream()
+                .map(e -> "\"" + e.getKey() + "\":" + (e.getValue() instanceof Long ? e.getValue() : "\"" + e.getValue() + "\""))
+                .collect(Collectors.joining(",", "{", "}"));
+        // The cookie store re-reads the claims from the ID token's payload
+        String idTokenValue = "eyJhbGciOiJSUzI1NiJ9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+        Map<String, Object> tokenClaims = new HashMap<>(claims);
+        tokenClaims.put("iat", now);
+        tokenClaims.put("exp", now.plusSeconds(3600));
+        OidcIdToken idToken = new OidcIdToken(idTokenValue, now, now.plusSeconds(3600), tokenClaims);
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("OIDC_USER", "ROLE_my-role");
+        OAuth2AuthenticationToken authentication = new OAuth2AuthenticationToken(
+                new FlaggedOidcUser(authorities, idToken, null, "sub", AccessFlags.REQUIRED_ROLE), authorities, "keycloak");
+        OAuth2AuthorizedClient authorizedClient = new OAuth2AuthorizedClient(REGISTRATION, "alice",
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access", now, now.plusSeconds(3600)));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        securityContextRepository.saveContext(new SecurityContextImpl(authentication), request, response);
+        authorizedClientRepository.saveAuthorizedClient(authorizedClient, authentication, request, response);
+        return Arrays.stream(response.getCookies())
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static HttpServer startCalendarService() {
+        long start = Instant.now().truncatedTo(ChronoUnit.DAYS).plus(1, ChronoUnit.DAYS).getEpochSecond();
+        byte[] body = """
+                {"count":2,"ids":[1,2],"starts":[%d,1800],"durations":[30,30],"titleIndexes":[0,0],"titles":["Standup"]}"""
+                .formatted(start).getBytes(StandardCharsets.UTF_8);
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/calendar/events", exchange -> {
+                receivedTraceparent.set(exchange.getRequestHeaders().getFirst("traceparent"));
+                exchange.getResponseHeaders().set("Content-Type", ColumnarCalendarEvents.MEDIA_TYPE);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            });
+            server.start();
+            return server;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.frontend.security;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessFlagsAuthorizationManagerTest {
+
+    private static final List<GrantedAuthority> ROLE = AuthorityUtils.createAuthorityList("OIDC_USER", "ROLE_my-role");
+    private static final List<GrantedAuthority> NO_ROLE = AuthorityUtils.createAuthorityList("OIDC_USER");
+
+    @Test
+    void flagsComputedAtLoginShouldReflectRoleAndSecondFactor() {
+        assertEquals(AccessFlags.REQUIRED_ROLE | AccessFlags.MFA,
+                AccessFlags.compute(ROLE, Map.of("amr", List.of("pwd", "OTP")), "my-role"));
+        assertEquals(AccessFlags.REQUIRED_ROLE, AccessFlags.compute(ROLE, Map.of("amr", List.of("pwd")), "My-Role"));
+        assertEquals(AccessFlags.MFA, AccessFlags.compute(NO_ROLE, Map.of("amr", List.of("mfa")), "my-role"));
+        assertEquals(0, AccessFlags.compute(NO_ROLE, Map.of(), "my-role"));
+    }
+
+    @Test
+    void roleIsRequiredAndSecondFactorOnlyWhenConfigured() {
+        AccessFlagsAuthorizationManager roleOnly = new AccessFlagsAuthorizationManager("my-role", false);
+        AccessFlagsAuthorizationManager with2fa = new AccessFlagsAuthorizationManager("my-role", true);
+        Authentication passwordOnly = login(new FlaggedOidcUser(ROLE, idToken(List.of("pwd")), null, "sub",
+                AccessFlags.REQUIRED_ROLE));
+        Authentication withOtp = login(new FlaggedOidcUser(ROLE, idToken(List.of("pwd", "otp")), null, "sub",
+                AccessFlags.REQUIRED_ROLE | AccessFlags.MFA));
+        Authentication withoutRole = login(new FlaggedOidcUser(NO_ROLE, idToken(List.of("otp")), null, "sub",
+                AccessFlags.MFA));
+
+        assertTrue(roleOnly.check(() -> passwordOnly, null).isGranted());
+        assertFalse(roleOnly.check(() -> withoutRole, null).isGranted());
+        assertFalse(with2fa.check(() -> passwordOnly, null).isGranted());
+        assertTrue(with2fa.check(() -> withOtp, null).isGranted());
+        assertFalse(roleOnly.check(() -> null, null).isGranted());
+        assertFalse(roleOnly.check(() -> new TestingAuthenticationToken("x", "n/a"), null).isGranted());
+    }
+
+    @Test
+    void principalsWithoutFlagsShouldBeCheckedFromTheirClaims() {
+        AccessFlagsAuthorizationManager with2fa = new AccessFlagsAuthorizationManager("my-role", true);
+
+        assertTrue(with2fa.check(() -> login(new DefaultOidcUser(ROLE, idToken(List.of("otp")))), null).isGranted());
+        assertFalse(with2fa.check(() -> login(new DefaultOidcUser(ROLE, idToken(List.of("pwd")))), null).isGranted());
+    }
+
+    private static Authentication login(OidcUser user) {
+        return new OAuth2AuthenticationToken(user, user.getAuthorities(), "keycloak");
+    }
+
+    private static OidcIdToken idToken(List<String> amr) {
+        Instant now = Instant.now();
+        return new OidcIdToken("id-token", now, now.plusSeconds(300), Map.of("sub", "alice", "amr", amr));
+    }
+}
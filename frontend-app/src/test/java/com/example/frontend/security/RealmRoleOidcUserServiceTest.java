@@ -0,0 +1,102 @@
+package com.example.frontend.security;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RealmRoleOidcUserServiceTest {
+
+    // Nothing listens on port 1: a UserInfo call would fail the login
+    private static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("frontend-app")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost:8090/login/oauth2/code/keycloak")
+            .scope("openid", "profile", "email")
+            .authorizationUri("http://127.0.0.1:1/auth")
+            .tokenUri("http://127.0.0.1:1/token")
+            .userInfoUri("http://127.0.0.1:1/userinfo")
+            .userNameAttributeName("sub")
+            .build();
+
+    @Test
+    void rolesShouldComeFromIdTokenWithoutCallingUserInfo() {
+        RealmRoleOidcUserService service = new RealmRoleOidcUserService(false, 16, "my-role");
+
+        OidcUser user = service.loadUser(request("alice", List.of("my-role", "offline_access"), "opaque-token"));
+
+        assertEquals("alice", user.getName());
+        assertEquals("alice@example.com", user.getEmail());
+        assertTrue(authorities(user).containsAll(Set.of("ROLE_my-role", "ROLE_offline_access", "OIDC_USER", "SCOPE_openid")));
+        assertEquals(AccessFlags.REQUIRED_ROLE, ((FlaggedOidcUser) user).getAccessFlags());
+    }
+
+    @Test
+    void rolesShouldFallBackToAccessTokenClaims() {
+        RealmRoleOidcUserService service = new RealmRoleOidcUserService(false, 16, "my-role");
+        String accessToken = "eyJhbGciOiJSUzI1NiJ9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        "{\"sub\":\"bob\",\"realm_access\":{\"roles\":[\"my-role\"]}}".getBytes(StandardCharsets.UTF_8))
+                + ".c2ln";
+
+        OidcUser user = service.loadUser(request("bob", null, accessToken));
+
+        assertTrue(authorities(user).contains("ROLE_my-role"));
+    }
+
+    @Test
+    void authoritiesShouldBeSharedPerRoleCombination() {
+        RealmRoleOidcUserService service = new RealmRoleOidcUserService(false, 2, "my-role");
+
+        GrantedAuthority first = roleAuthority(service.loadUser(request("u1", List.of("my-role", "b"), "t")));
+        GrantedAuthority second = roleAuthority(service.loadUser(request("u2", List.of("b", "my-role"), "t")));
+        service.loadUser(request("u3", List.of("my-role"), "t"));
+        service.loadUser(request("u4", List.of("my-role", "c"), "t"));
+
+        assertSame(first, second, "same roles in any order share one authority instance");
+        assertEquals(2, service.cachedCombinations(), "cache is capped");
+        assertTrue(authorities(service.loadUser(request("u5", List.of("my-role", "c"), "t"))).contains("ROLE_c"));
+    }
+
+    private static OidcUserRequest request(String subject, List<String> realmRoles, String accessTokenValue) {
+        Instant now = Instant.now();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", subject);
+        claims.put("iss", "http://localhost:8080/realms/frontend-calendar-realm");
+        claims.put("email", subject + "@example.com");
+        if (realmRoles != null) {
+            claims.put("realm_access", Map.of("roles", realmRoles));
+        }
+        OidcIdToken idToken = new OidcIdToken("id-token", now, now.plusSeconds(300), claims);
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                accessTokenValue, now, now.plusSeconds(300), Set.of("openid", "profile", "email"));
+        return new OidcUserRequest(REGISTRATION, accessToken, idToken);
+    }
+
+    private static Set<String> authorities(OidcUser user) {
+        return user.getAuthorities().stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+    }
+
+    private static GrantedAuthority roleAuthority(OidcUser user) {
+        return user.getAuthorities().stream()
+                .filter(authority -> authority.getAuthority().equals("ROLE_my-role"))
+                .findFirst().orElseThrow();
+    }
+}
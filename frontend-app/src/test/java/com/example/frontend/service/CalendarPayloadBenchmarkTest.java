@@ -0,0 +1,146 @@
+package com.example.frontend.service;
+
+import com.example.frontend.model.CalendarEvent;
+import com.example.frontend.model.ColumnarCalendarEvents;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares payload size and parse time of the row JSON and the columnar calendar format
+ * for a wide range. Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=CalendarPayloadBenchmarkTest -Dbenchmark=true [-Dbenchmark.events=200000]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CalendarPayloadBenchmarkTest {
+
+    // Same title distribution as the calendar service's demo and synthetic data
+    private static final String[] TITLES = {
+        "Team meeting", "Doctor appointment", "Project review", "Client call", "One-on-one meeting",
+        "Lunch with team", "Code review", "Product demo", "Client feedback session", "Design brainstorming"
+    };
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void columnarPayloadIsSmallerAndFasterToParse() throws Exception {
+        int count = Integer.getInteger("benchmark.events", 200_000);
+        byte[] rows = objectMapper.writeValueAsBytes(rowPayload(count));
+        byte[] columns = objectMapper.writeValueAsBytes(columnarPayload(count));
+
+        // Same content both ways
+        List<CalendarEvent> fromRows = parseRows(rows);
+        List<CalendarEvent> fromColumns = parseColumns(columns);
+        assertEquals(fromRows.size(), fromColumns.size());
+        assertEquals(fromRows.get(count - 1).getTime(), fromColumns.get(count - 1).getTime());
+        assertEquals(fromRows.get(count - 1).getTitle(), fromColumns.get(count - 1).getTitle());
+
+        long rowNanos = bestOf(() -> parseRows(rows));
+        long columnNanos = bestOf(() -> parseColumns(columns));
+
+        System.out.printf("%,d events%n", count);
+        System.out.printf("  row JSON:      %,d bytes (%,d gzipped), parse+decode %,d ms%n",
+            rows.length, gzipSize(rows), rowNanos / 1_000_000);
+        System.out.printf("  columnar JSON: %,d bytes (%,d gzipped), parse+decode %,d ms%n",
+            columns.length, gzipSize(columns), columnNanos / 1_000_000);
+        System.out.printf("  size ratio %.2f, parse speedup %.2fx%n",
+            (double) columns.length / rows.length, (double) rowNanos / columnNanos);
+
+        assertTrue(columns.length < rows.length);
+    }
+
+    private List<CalendarEvent> parseRows(byte[] json) throws Exception {
+        return objectMapper.readValue(json, new TypeReference<List<CalendarEvent>>() {});
+    }
+
+    private List<CalendarEvent> parseColumns(byte[] json) throws Exception {
+        return CalendarEvent.fromColumnar(objectMapper.readValue(json, ColumnarCalendarEvents.class));
+    }
+
+    private static long bestOf(ThrowingSupplier parse) throws Exception {
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 8; i++) {
+            long started = System.nanoTime();
+            parse.get();
+            best = Math.min(best, System.nanoTime() - started);
+        }
+        return best;
+    }
+
+    private static List<Map<String, Object>> rowPayload(int count) {
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 8, 0);
+        List<Map<String, Object>> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            time = time.plusMinutes(15L * random.nextInt(1, 8));
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("id", 1_000_000L + random.nextInt(count));
+            row.put("title", TITLES[random.nextInt(TITLES.length)]);
+            row.put("time", FORMATTER.format(time));
+            row.put("durationMinutes", 15 * random.nextInt(1, 9));
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> columnarPayload(int count) {
+        // Replays the row generator so both payloads describe the same events
+        SplittableRandom random = new SplittableRandom(42);
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 8, 0);
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        int[] durations = new int[count];
+        int[] titleIndexes = new int[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            time = time.plusMinutes(15L * random.nextInt(1, 8));
+            ids[i] = 1_000_000L + random.nextInt(count);
+            titleIndexes[i] = random.nextInt(TITLES.length);
+            long start = time.toEpochSecond(ZoneOffset.UTC);
+            starts[i] = start - previous;
+            previous = start;
+            durations[i] = 15 * random.nextInt(1, 9);
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("count", count);
+        payload.put("ids", ids);
+        payload.put("starts", starts);
+        payload.put("durations", durations);
+        payload.put("titleIndexes", titleIndexes);
+        payload.put("titles", List.of(TITLES));
+        return payload;
+    }
+
+    private static int gzipSize(byte[] data) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.size();
+    }
+
+    @FunctionalInterface
+    private interface ThrowingSupplier {
+        Object get() throws Exception;
+    }
+}
@@ -2,10 +2,13 @@ package com.example.frontend.service;
 
 import com.example.frontend.exception.FrontendServiceException;
 import com.example.frontend.model.CalendarEvent;
+import com.example.frontend.model.CalendarPage;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 
+import io.micrometer.observation.ObservationRegistry;
+
 import reactor.core.publisher.Mono;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -17,7 +20,9 @@ import org.springframework.security.oauth2.core.OAuth2AccessToken;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -38,6 +43,12 @@ class FrontendServiceTest {
     @Mock
     private WebClient.ResponseSpec responseSpec;
 
+    @Mock
+    private WebClient.RequestBodyUriSpec requestBodyUriSpec;
+
+    @Mock
+    private WebClient.RequestBodySpec requestBodySpec;
+
     @Mock
     private OAuth2AuthorizedClient authorizedClient;
 
@@ -53,7 +64,7 @@ class FrontendServiceTest {
     void setUp() {
         MockitoAnnotations.openMocks(this);
         objectMapper.registerModule(new JavaTimeModule());
-        frontendService = new FrontendService(calendarWebClient, objectMapper);
+        frontendService = new FrontendService(calendarWebClient, objectMapper, ObservationRegistry.NOOP, 5000);
     }
 
     @Test
@@ -140,4 +151,103 @@ class FrontendServiceTest {
 
         assertTrue(exception.getMessage().contains("Unexpected error occurred while fetching calendar events"));
     }
+
+    @Test
+    void fetchCalendarBatch_shouldGroupEventsByCalendarAndSkipFailedQueries() throws Exception {
+        String jsonResponse = "{\"results\":["
+            + "{\"calendarId\":\"alice\",\"status\":200,\"events\":[{\"id\":1,\"title\":\"Standup\",\"time\":\"2025-12-15T09:00:00.000\",\"durationMinutes\":15}]},"
+            + "{\"calendarId\":\"team:platform\",\"status\":200,\"events\":[]},"
+            + "{\"calendarId\":\"bob\",\"status\":403,\"error\":\"Calendar not readable: bob\"}"
+            + "],\"elapsedMillis\":3}";
+
+        when(authorizedClient.getAccessToken()).thenReturn(accessToken);
+        when(accessToken.getTokenValue()).thenReturn("dummy-token");
+
+        when(calendarWebClient.post()).thenReturn(requestBodyUriSpec);
+        when(requestBodyUriSpec.uri(anyString())).thenReturn(requestBodySpec);
+        when(requestBodySpec.headers(any())).thenReturn(requestBodySpec);
+        when(requestBodySpec.contentType(any())).thenReturn(requestBodySpec);
+        when(requestBodySpec.bodyValue(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(String.class)).thenReturn(Mono.just(jsonResponse));
+
+        LocalDateTime from = LocalDateTime.of(2025, 12, 15, 0, 0);
+        Map<String, List<CalendarEvent>> events = frontendService.fetchCalendarBatch(authorizedClient,
+            List.of("own", "team:platform", "bob"), from, from.plusDays(7));
+
+        // One round trip for all calendars
+        verify(calendarWebClient, times(1)).post();
+        assertEquals(List.of("alice", "team:platform"), List.copyOf(events.keySet()));
+        assertEquals("Standup", events.get("alice").get(0).getTitle());
+        assertTrue(events.get("team:platform").isEmpty());
+    }
+
+    @Test
+    void fetchCalendarRange_shouldDecodeColumnarResponseAndShareTitles() throws Exception {
+        // 2025-12-15T09:00 and two further events 1h and 24h later; titles sent once
+        String jsonResponse = "{\"count\":3,\"ids\":[7,9,7],\"starts\":[1765789200,3600,82800],"
+            + "\"durations\":[15,60,15],\"titleIndexes\":[0,1,0],\"titles\":[\"Standup\",\"Client call\"]}";
+
+        when(authorizedClient.getAccessToken()).thenReturn(accessToken);
+        when(accessToken.getTokenValue()).thenReturn("dummy-token");
+
+        when(calendarWebClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.headers(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.accept(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(byte[].class)).thenReturn(Mono.just(jsonResponse.getBytes()));
+
+        LocalDateTime from = LocalDateTime.of(2025, 12, 15, 0, 0);
+        List<CalendarEvent> events = frontendService.fetchCalendarRange(authorizedClient, from, from.plusDays(7));
+
+        assertEquals(3, events.size());
+        assertEquals(LocalDateTime.of(2025, 12, 15, 9, 0), events.get(0).getTime());
+        assertEquals(LocalDateTime.of(2025, 12, 15, 10, 0), events.get(1).getTime());
+        assertEquals(LocalDateTime.of(2025, 12, 16, 9, 0), events.get(2).getTime());
+        assertEquals("Client call", events.get(1).getTitle());
+        assertEquals(60, events.get(1).getDurationMinutes());
+        assertSame(events.get(0).getTitle(), events.get(2).getTitle(), "Repeated titles share one String");
+    }
+
+    @Test
+    void fetchCalendarPage_shouldResumeAfterEventsAtTheSameTime() throws Exception {
+        // Four events; the 2nd to 4th all start at 10:00 (epoch seconds of 2025-12-15T09:00 / 10:00)
+        String all = "{\"count\":4,\"ids\":[1,2,3,4],\"starts\":[1765789200,3600,0,0],"
+            + "\"durations\":[15,15,15,15],\"titleIndexes\":[0,0,0,0],\"titles\":[\"Standup\"]}";
+        String fromTen = "{\"count\":3,\"ids\":[2,3,4],\"starts\":[1765792800,0,0],"
+            + "\"durations\":[15,15,15],\"titleIndexes\":[0,0,0],\"titles\":[\"Standup\"]}";
+
+        when(authorizedClient.getAccessToken()).thenReturn(accessToken);
+        when(accessToken.getTokenValue()).thenReturn("dummy-token");
+        when(calendarWebClient.get()).thenReturn(requestHeadersUriSpec);
+        when(requestHeadersUriSpec.uri(anyString(), any(Object[].class))).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.headers(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.accept(any())).thenReturn(requestHeadersSpec);
+        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
+        when(responseSpec.bodyToMono(byte[].class))
+            .thenReturn(Mono.just(all.getBytes()), Mono.just(fromTen.getBytes()));
+
+        LocalDateTime from = LocalDateTime.of(2025, 12, 15, 0, 0);
+        CalendarPage first = frontendService.fetchCalendarPage(authorizedClient, from, from.plusDays(7), null, 2);
+        assertEquals(List.of(1L, 2L), first.getEvents().stream().map(CalendarEvent::getId).toList());
+        assertEquals(LocalDateTime.of(2025, 12, 15, 10, 0), CalendarPage.cursorTime(first.getNextCursor()));
+        assertEquals(1, CalendarPage.cursorSkip(first.getNextCursor()));
+
+        CalendarPage second = frontendService.fetchCalendarPage(authorizedClient, from, from.plusDays(7),
+            first.getNextCursor(), 2);
+        assertEquals(List.of(3L, 4L), second.getEvents().stream().map(CalendarEvent::getId).toList());
+        assertFalse(second.isHasMore());
+        verify(requestHeadersUriSpec).uri(anyString(), eq(LocalDateTime.of(2025, 12, 15, 10, 0)), any(), eq(4));
+    }
+
+    @Test
+    void fetchCalendarPage_shouldRejectCursorsBeyondTheResultCap() {
+        LocalDateTime from = LocalDateTime.of(2025, 12, 15, 0, 0);
+        String cursor = CalendarPage.cursor(from.plusHours(10), 4950);
+
+        assertThrows(IllegalArgumentException.class, () ->
+            frontendService.fetchCalendarPage(authorizedClient, from, from.plusDays(7), cursor, 50));
+        verifyNoInteractions(calendarWebClient);
+    }
 }
@@ -0,0 +1,288 @@
+package com.example.frontend.session;
+
+import com.example.frontend.security.AccessFlags;
+import com.example.frontend.security.FlaggedOidcUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.http.Cookie;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.endpoint.OAuth2AuthorizationRequest;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CookieSessionStoreTest {
+
+    static final ClientRegistration REGISTRATION = ClientRegistration.withRegistrationId("keycloak")
+            .clientId("frontend-app")
+            .clientSecret("secret")
+            .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+            .redirectUri("http://localhost:8090/login/oauth2/code/keycloak")
+            .scope("openid", "profile", "email")
+            .authorizationUri("http://localhost:8080/realms/frontend-calendar-realm/protocol/openid-connect/auth")
+            .tokenUri("http://localhost:8080/realms/frontend-calendar-realm/protocol/openid-connect/token")
+            .userNameAttributeName("sub")
+            .build();
+
+    private EncryptedCookieStore store;
+    private CookieSecurityContextRepository contextRepository;
+    private CookieOAuth2AuthorizedClientRepository clientRepository;
+
+    @BeforeEach
+    void setUp() {
+        store = new EncryptedCookieStore(new byte[32], false, Duration.ofHours(1));
+        InMemoryClientRegistrationRepository registrations = new InMemoryClientRegistrationRepository(REGISTRATION);
+        contextRepository = new CookieSecurityContextRepository(store, registrations);
+        clientRepository = new CookieOAuth2AuthorizedClientRepository(store, registrations);
+    }
+
+    @Test
+    void loginStateShouldRoundTripThroughCookies() {
+        OAuth2AuthenticationToken authentication = authentication("alice");
+        OAuth2AuthorizedClient client = authorizedClient("alice");
+
+        MockHttpServletResponse loginResponse = new MockHttpServletResponse();
+        MockHttpServletRequest loginRequest = new MockHttpServletRequest();
+        contextRepository.saveContext(new SecurityContextImpl(authentication), loginRequest, loginResponse);
+        clientRepository.saveAuthorizedClient(client, authentication, loginRequest, loginResponse);
+
+        // A later request, possibly to another node sharing the key
+        MockHttpServletRequest next = requestWith(loginResponse.getCookies());
+        SecurityContext context = contextRepository.loadDeferredContext(next).get();
+        OAuth2AuthenticationToken restored = (OAuth2AuthenticationToken) context.getAuthentication();
+        OidcUser user = (OidcUser) restored.getPrincipal();
+
+        assertEquals("alice", restored.getName());
+        assertEquals("keycloak", restored.getAuthorizedClientRegistrationId());
+        assertTrue(restored.getAuthorities().contains(new SimpleGrantedAuthority("ROLE_my-role")));
+        assertEquals(List.of("pwd", "otp"), user.getClaims().get("amr"));
+        assertEquals(AccessFlags.REQUIRED_ROLE | AccessFlags.MFA, ((FlaggedOidcUser) user).getAccessFlags());
+        assertEquals(authentication.getPrincipal().getAttributes().get("email"), user.getEmail());
+        assertEquals(((OidcUser) authentication.getPrincipal()).getIdToken().getTokenValue(), user.getIdToken().getTokenValue());
+        assertNotNull(user.getIdToken().getExpiresAt());
+
+        OAuth2AuthorizedClient loaded = clientRepository.loadAuthorizedClient("keycloak", restored, next);
+        assertEquals(client.getAccessToken().getTokenValue(), loaded.getAccessToken().getTokenValue());
+        assertEquals(client.getAccessToken().getExpiresAt(), loaded.getAccessToken().getExpiresAt());
+        assertEquals(client.getRefreshToken().getTokenValue(), loaded.getRefreshToken().getTokenValue());
+        assertNull(clientRepository.loadAuthorizedClient("keycloak", authentication("bob"), next),
+            "Client is bound to its principal");
+
+        for (Cookie cookie : loginResponse.getCookies()) {
+            assertTrue(cookie.isHttpOnly());
+            assertTrue(cookie.getValue().length() < 4000, "Each cookie fits the browser limit");
+        }
+    }
+
+    @Test
+    void tamperedOrForeignCookiesShouldBeIgnored() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        contextRepository.saveContext(new SecurityContextImpl(authentication("alice")), new MockHttpServletRequest(), response);
+        String value = response.getCookie(CookieSecurityContextRepository.COOKIE_NAME).getValue();
+
+        char flipped = value.charAt(20) == 'A' ? 'B' : 'A';
+        String tampered = value.substring(0, 20) + flipped + value.substring(21);
+        assertFalse(contextRepository.containsContext(
+            requestWith(new Cookie(CookieSecurityContextRepository.COOKIE_NAME, tampered))));
+
+        // Valid ciphertext moved to another cookie name fails authentication
+        assertNull(store.load(requestWith(new Cookie(CookieOAuth2AuthorizedClientRepository.COOKIE_NAME, value)),
+            CookieOAuth2AuthorizedClientRepository.COOKIE_NAME));
+
+        // Authentic but unreadable client state counts as no client rather than failing the request
+        MockHttpServletResponse clientResponse = new MockHttpServletResponse();
+        store.save(new MockHttpServletRequest(), clientResponse, CookieOAuth2AuthorizedClientRepository.COOKIE_NAME,
+            "not a client".getBytes(StandardCharsets.UTF_8), null);
+        assertNull(clientRepository.loadAuthorizedClient("keycloak", null, requestWith(clientResponse.getCookies())));
+
+        // Another node with the same key can read it, one with a different key cannot
+        EncryptedCookieStore sameKey = new EncryptedCookieStore(new byte[32], false, Duration.ofHours(1));
+        assertNotNull(sameKey.load(requestWith(response.getCookies()), CookieSecurityContextRepository.COOKIE_NAME));
+        byte[] key = new byte[32];
+        key[0] = 1;
+        assertNull(new EncryptedCookieStore(key, false, Duration.ofHours(1))
+            .load(requestWith(response.getCookies()), CookieSecurityContextRepository.COOKIE_NAME));
+    }
+
+    @Test
+    void largeValuesShouldBeChunkedAndExpiredValuesDropped() {
+        byte[] large = new byte[6000];
+        new Random(1).nextBytes(large);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        store.save(new MockHttpServletRequest(), response, "BIG", large, null);
+
+        assertEquals(3, response.getCookies().length);
+        assertArrayEquals(large, store.load(requestWith(response.getCookies()), "BIG"));
+
+        MockHttpServletResponse expired = new MockHttpServletResponse();
+        store.save(new MockHttpServletRequest(), expired, "OLD", new byte[]{1}, Duration.ofSeconds(-1));
+        assertNull(store.load(requestWith(expired.getCookies()), "OLD"));
+    }
+
+    @Test
+    void authorizationRequestShouldSurviveTheRedirectOnlyForItsState() {
+        CookieOAuth2AuthorizationRequestRepository repository = new CookieOAuth2AuthorizationRequestRepository(store);
+        OAuth2AuthorizationRequest authorizationRequest = OAuth2AuthorizationRequest.authorizationCode()
+            .authorizationUri(REGISTRATION.getProviderDetails().getAuthorizationUri())
+            .clientId("frontend-app")
+            .redirectUri(REGISTRATION.getRedirectUri())
+            .scopes(Set.of("openid"))
+            .state("state-123")
+            .additionalParameters(Map.of("nonce", "hashed-nonce"))
+            .attributes(Map.of("registration_id", "keycloak", "nonce", "raw-nonce"))
+            .build();
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        repository.saveAuthorizationRequest(authorizationRequest, new MockHttpServletRequest(), response);
+        assertEquals(300, response.getCookie(CookieOAuth2AuthorizationRequestRepository.COOKIE_NAME).getMaxAge());
+
+        MockHttpServletRequest callback = requestWith(response.getCookies());
+        callback.setParameter("state", "other");
+        assertNull(repository.loadAuthorizationRequest(callback));
+
+        callback = requestWith(response.getCookies());
+        callback.setParameter("state", "state-123");
+        OAuth2AuthorizationRequest loaded = repository.removeAuthorizationRequest(callback, new MockHttpServletResponse());
+        assertEquals("raw-nonce", loaded.getAttribute("nonce"));
+        assertEquals("hashed-nonce", loaded.getAdditionalParameters().get("nonce"));
+        assertEquals(authorizationRequest.getAuthorizationRequestUri(), loaded.getAuthorizationRequestUri());
+    }
+
+    static OAuth2AuthenticationToken authentication(String subject) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now.plusSeconds(300).getEpochSecond());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("auth_time", now.getEpochSecond());
+        claims.put("jti", "5b1c0b8e-8b76-4d3c-9b0f-6f9d0c7e2a11");
+        claims.put("iss", "http://localhost:8080/realms/frontend-calendar-realm");
+        claims.put("aud", "frontend-app");
+        claims.put("sub", subject);
+        claims.put("typ", "ID");
+        claims.put("azp", "frontend-app");
+        claims.put("nonce", "Zb0Dd6lY1b7cS3q0b8w2J3tB3oO5f0eU9PjZr1n4C2Y");
+        claims.put("session_state", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        claims.put("at_hash", "mX1Q1bq7cW2kQwqzV8y6dA");
+        claims.put("acr", "1");
+        claims.put("amr", List.of("pwd", "otp"));
+        claims.put("sid", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        claims.put("email_verified", true);
+        claims.put("realm_access", Map.of("roles", List.of("default-roles-frontend-calendar-realm", "offline_access",
+            "uma_authorization", "my-role")));
+        claims.put("name", "Alice Example");
+        claims.put("preferred_username", subject);
+        claims.put("given_name", "Alice");
+        claims.put("family_name", "Example");
+        claims.put("email", subject + "@example.com");
+        String idTokenValue = jwt(claims, 256);
+
+        Map<String, Object> tokenClaims = new LinkedHashMap<>(claims);
+        tokenClaims.put("iat", now);
+        tokenClaims.put("exp", now.plusSeconds(300));
+        tokenClaims.put("auth_time", now);
+        OidcIdToken idToken = new OidcIdToken(idTokenValue, now, now.plusSeconds(300), tokenClaims);
+        OidcUserInfo userInfo = new OidcUserInfo(Map.of("sub", subject, "email", subject + "@example.com",
+            "preferred_username", subject, "name", "Alice Example"));
+        List<GrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("OIDC_USER"),
+            new SimpleGrantedAuthority("SCOPE_openid"), new SimpleGrantedAuthority("SCOPE_profile"),
+            new SimpleGrantedAuthority("SCOPE_email"), new SimpleGrantedAuthority("ROLE_my-role"),
+            new SimpleGrantedAuthority("ROLE_offline_access"), new SimpleGrantedAuthority("ROLE_uma_authorization"));
+        return new OAuth2AuthenticationToken(new FlaggedOidcUser(authorities, idToken, userInfo, "sub",
+            AccessFlags.REQUIRED_ROLE | AccessFlags.MFA), authorities, "keycloak");
+    }
+
+    static OAuth2AuthorizedClient authorizedClient(String subject) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("exp", now.plusSeconds(300).getEpochSecond());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("jti", "0b7c6a3e-4f1e-4b7b-8f5c-9a1d2e3f4a5b");
+        claims.put("iss", "http://localhost:8080/realms/frontend-calendar-realm");
+        claims.put("aud", "account");
+        claims.put("sub", subject);
+        claims.put("typ", "Bearer");
+        claims.put("azp", "frontend-app");
+        claims.put("session_state", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        claims.put("acr", "1");
+        claims.put("allowed-origins", List.of("http://localhost:8090"));
+        claims.put("realm_access", Map.of("roles", List.of("default-roles-frontend-calendar-realm", "offline_access",
+            "uma_authorization", "my-role")));
+        claims.put("resource_access", Map.of("account", Map.of("roles", List.of("manage-account",
+            "manage-account-links", "view-profile"))));
+        claims.put("scope", "openid profile email");
+        claims.put("sid", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        claims.put("email_verified", true);
+        claims.put("name", "Alice Example");
+        claims.put("preferred_username", subject);
+        claims.put("email", subject + "@example.com");
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, jwt(claims, 256),
+            now, now.plusSeconds(300), Set.of("openid", "profile", "email"));
+
+        Map<String, Object> refreshClaims = new LinkedHashMap<>();
+        refreshClaims.put("exp", now.plusSeconds(1800).getEpochSecond());
+        refreshClaims.put("iat", now.getEpochSecond());
+        refreshClaims.put("jti", "9f8e7d6c-5b4a-4392-8170-6f5e4d3c2b1a");
+        refreshClaims.put("iss", "http://localhost:8080/realms/frontend-calendar-realm");
+        refreshClaims.put("aud", "http://localhost:8080/realms/frontend-calendar-realm");
+        refreshClaims.put("sub", subject);
+        refreshClaims.put("typ", "Refresh");
+        refreshClaims.put("azp", "frontend-app");
+        refreshClaims.put("session_state", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        refreshClaims.put("scope", "openid profile email");
+        refreshClaims.put("sid", "b0f0c0de-1234-4c8d-9e1f-abcdefabcdef");
+        OAuth2RefreshToken refreshToken = new OAuth2RefreshToken(jwt(refreshClaims, 32), now);
+        return new OAuth2AuthorizedClient(REGISTRATION, subject, accessToken, refreshToken);
+    }
+
+    /**
+     * Keycloak-shaped token: RS256 header, the given claims and a random signature of the given size.
+     */
+    static String jwt(Map<String, Object> claims, int signatureBytes) {
+        try {
+            Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+            String header = "{\"alg\":\"RS256\",\"typ\":\"JWT\",\"kid\":\"Xw3cG5uZ1v8qK2pL0mN4rT6yB9dF7hJ3sA1eC5gI0oU\"}";
+            byte[] signature = new byte[signatureBytes];
+            new Random(claims.hashCode()).nextBytes(signature);
+            return encoder.encodeToString(header.getBytes(StandardCharsets.UTF_8)) + "."
+                + encoder.encodeToString(new ObjectMapper().writeValueAsBytes(claims)) + "."
+                + encoder.encodeToString(signature);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    static MockHttpServletRequest requestWith(Cookie... cookies) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setCookies(cookies);
+        return request;
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.frontend.session;
+
+import jakarta.servlet.http.Cookie;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.HttpSessionOAuth2AuthorizedClientRepository;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Server memory per logged-in user with {@code HttpSession}-backed login state versus the
+ * encrypted cookie store, plus cookie size and per-request decode cost.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=SessionMemoryBenchmarkTest -Dbenchmark=true [-Dbenchmark.sessions=20000]
+ * </pre>
+ * Mock sessions carry less container overhead than real Tomcat sessions, so the
+ * HttpSession figure is a lower bound.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SessionMemoryBenchmarkTest {
+
+    @Test
+    void memoryPerSession() throws Exception {
+        int sessions = Integer.getInteger("benchmark.sessions", 20_000);
+
+        // HttpSession: every login stays on the heap of the node that handled it
+        HttpSessionSecurityContextRepository sessionContexts = new HttpSessionSecurityContextRepository();
+        HttpSessionOAuth2AuthorizedClientRepository sessionClients = new HttpSessionOAuth2AuthorizedClientRepository();
+        long before = usedHeap();
+        List<MockHttpSession> retained = new ArrayList<>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            String subject = "user-" + i;
+            OAuth2AuthenticationToken authentication = CookieSessionStoreTest.authentication(subject);
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            sessionContexts.saveContext(new SecurityContextImpl(authentication), request, response);
+            sessionClients.saveAuthorizedClient(CookieSessionStoreTest.authorizedClient(subject), authentication,
+                request, response);
+            retained.add((MockHttpSession) request.getSession(false));
+        }
+        long sessionBytes = (usedHeap() - before) / sessions;
+        assertEquals(sessions, retained.size());
+        retained.clear();
+
+        // Cookies: the same logins are encoded into the responses and nothing is kept
+        EncryptedCookieStore store = new EncryptedCookieStore(new byte[32], true, Duration.ofHours(10));
+        InMemoryClientRegistrationRepository registrations =
+            new InMemoryClientRegistrationRepository(CookieSessionStoreTest.REGISTRATION);
+        CookieSecurityContextRepository cookieContexts = new CookieSecurityContextRepository(store, registrations);
+        CookieOAuth2AuthorizedClientRepository cookieClients = new CookieOAuth2AuthorizedClientRepository(store, registrations);
+        before = usedHeap();
+        long cookieChars = 0;
+        Cookie[] sample = null;
+        long encodeNanos = 0;
+        for (int i = 0; i < sessions; i++) {
+            String subject = "user-" + i;
+            OAuth2AuthenticationToken authentication = CookieSessionStoreTest.authentication(subject);
+            OAuth2AuthorizedClient client = CookieSessionStoreTest.authorizedClient(subject);
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            long started = System.nanoTime();
+            cookieContexts.saveContext(new SecurityContextImpl(authentication), request, response);
+            cookieClients.saveAuthorizedClient(client, authentication, request, response);
+            encodeNanos += System.nanoTime() - started;
+            for (String header : response.getHeaders("Set-Cookie")) {
+                cookieChars += header.length();
+            }
+            sample = response.getCookies();
+        }
+        long cookieStoreBytes = Math.max(0, usedHeap() - before) / sessions;
+
+        long decodeNanos = 0;
+        int decodes = Math.min(sessions, 20_000);
+        for (int i = 0; i < decodes; i++) {
+            MockHttpServletRequest request = CookieSessionStoreTest.requestWith(sample);
+            long started = System.nanoTime();
+            var authentication = cookieContexts.loadDeferredContext(request).get().getAuthentication();
+            assertNotNull(cookieClients.loadAuthorizedClient("keycloak", authentication, request));
+            decodeNanos += System.nanoTime() - started;
+        }
+
+        System.out.printf("%,d sessions%n", sessions);
+        System.out.printf("  HttpSession store: %,d bytes of server heap per session%n", sessionBytes);
+        System.out.printf("  cookie store:      %,d bytes of server heap per session, %,d bytes of Set-Cookie per login%n",
+            cookieStoreBytes, cookieChars / sessions);
+        System.out.printf("  cookie encode %.1f us per login, decode %.1f us per request%n",
+            encodeNanos / 1e3 / sessions, decodeNanos / 1e3 / decodes);
+
+        assertTrue(cookieStoreBytes < sessionBytes / 10);
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
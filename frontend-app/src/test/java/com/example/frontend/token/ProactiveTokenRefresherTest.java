@@ -0,0 +1,135 @@
+package com.example.frontend.token;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.endpoint.DefaultRefreshTokenTokenResponseClient;
+import org.springframework.security.oauth2.client.web.HttpSessionOAuth2AuthorizedClientRepository;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProactiveTokenRefresherTest {
+
+    private StubTokenEndpoint endpoint;
+    private ProactiveTokenRefresher refresher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        endpoint = new StubTokenEndpoint(Duration.ofMillis(20), Duration.ofMinutes(5));
+        refresher = new ProactiveTokenRefresher(new DefaultRefreshTokenTokenResponseClient(),
+                Duration.ofSeconds(2), Duration.ofMillis(200), Duration.ofMinutes(1), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        refresher.shutdown();
+        endpoint.close();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void nextRequestShouldGetTokenRefreshedInBackgroundAndSaveIt() throws Exception {
+        HttpSessionOAuth2AuthorizedClientRepository sessions = new HttpSessionOAuth2AuthorizedClientRepository();
+        RefreshAheadAuthorizedClientRepository repository = new RefreshAheadAuthorizedClientRepository(sessions, refresher);
+        Authentication alice = new TestingAuthenticationToken("alice", "n/a");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        repository.saveAuthorizedClient(endpoint.authorizedClient("alice", Duration.ofMillis(2500)),
+                alice, request, new MockHttpServletResponse());
+
+        awaitRefreshes(1);
+
+        MockHttpServletRequest next = new MockHttpServletRequest();
+        next.setSession(request.getSession());
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(next, new MockHttpServletResponse()));
+        OAuth2AuthorizedClient loaded = repository.loadAuthorizedClient("keycloak", alice, next);
+
+        assertEquals("access-1", loaded.getAccessToken().getTokenValue());
+        assertEquals("refresh-1", loaded.getRefreshToken().getTokenValue());
+        assertEquals("access-1", sessions.loadAuthorizedClient("keycloak", alice, next)
+                .getAccessToken().getTokenValue(), "refreshed client written back to the session");
+        assertEquals(1, endpoint.requests());
+    }
+
+    @Test
+    void concurrentRequestsOfOneUserShouldCoalesceIntoOneRefresh() throws Exception {
+        OAuth2AuthorizedClient client = endpoint.authorizedClient("bob", Duration.ofMillis(2100));
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<OAuth2AuthorizedClient>> requests = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                requests.add(CompletableFuture.supplyAsync(() -> refresher.track(client), pool));
+            }
+            requests.forEach(CompletableFuture::join);
+        } finally {
+            pool.shutdown();
+        }
+
+        awaitRefreshes(1);
+        Thread.sleep(300);
+
+        assertEquals(1, endpoint.requests());
+        assertEquals(1, refresher.trackedClients());
+        assertEquals("access-1", refresher.track(client).getAccessToken().getTokenValue());
+    }
+
+    @Test
+    void idleAndLoggedOutSessionsShouldNotBeRefreshed() throws Exception {
+        refresher.shutdown();
+        refresher = new ProactiveTokenRefresher(new DefaultRefreshTokenTokenResponseClient(),
+                Duration.ofSeconds(2), Duration.ZERO, Duration.ofMillis(100), 2);
+        refresher.track(endpoint.authorizedClient("idle", Duration.ofMillis(2300)));
+        OAuth2AuthorizedClient gone = endpoint.authorizedClient("gone", Duration.ofMillis(2300));
+        refresher.track(gone);
+        refresher.forget(gone);
+
+        Thread.sleep(800);
+
+        assertEquals(0, endpoint.requests());
+        assertEquals(0, refresher.trackedClients());
+    }
+
+    @Test
+    void sessionsOfOneUserShouldBeRefreshedAndForgottenIndependently() throws Exception {
+        OAuth2AuthorizedClient laptop = endpoint.authorizedClient("carol", "-laptop", Duration.ofMillis(2300));
+        OAuth2AuthorizedClient phone = endpoint.authorizedClient("carol", "-phone", Duration.ofMillis(2300));
+        refresher.track(laptop);
+        refresher.track(phone);
+        assertEquals(2, refresher.trackedClients());
+
+        refresher.forget(laptop);
+        awaitRefreshes(1);
+        Thread.sleep(300);
+
+        assertEquals(1, endpoint.requests(), "Logging out of the laptop must not cancel the phone's refresh");
+        assertEquals("access-1", refresher.track(phone).getAccessToken().getTokenValue());
+        assertSame(laptop, refresher.track(laptop), "The laptop session must not receive the phone's token");
+
+        // Once the phone presents its rotated refresh token, the old one no longer identifies it
+        OAuth2AuthorizedClient rotated = refresher.track(phone);
+        assertSame(rotated, refresher.track(rotated));
+        assertEquals(2, refresher.trackedClients(), "Phone plus the re-tracked laptop");
+    }
+
+    private void awaitRefreshes(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (refresher.refreshCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, refresher.refreshCount());
+    }
+}
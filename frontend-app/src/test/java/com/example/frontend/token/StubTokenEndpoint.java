@@ -0,0 +1,92 @@
+package com.example.frontend.token;
+
+import com.sun.net.httpserver.HttpServer;
+
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Keycloak token endpoint: answers every refresh_token grant with
+ * a new token pair after a configurable delay that models the identity provider round trip.
+ */
+class StubTokenEndpoint implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    StubTokenEndpoint(Duration latency, Duration tokenLifetime) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/token", exchange -> {
+            int n = requests.incrementAndGet();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            int status = body.contains("grant_type=refresh_token") ? 200 : 400;
+            byte[] json = ("{\"access_token\":\"access-" + n + "\",\"token_type\":\"Bearer\",\"expires_in\":"
+                    + tokenLifetime.toSeconds() + ",\"refresh_token\":\"refresh-" + n + "\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, json.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(json);
+            }
+        });
+        server.start();
+    }
+
+    ClientRegistration registration() {
+        return ClientRegistration.withRegistrationId("keycloak")
+                .clientId("frontend-app")
+                .clientSecret("secret")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("http://localhost:8090/login/oauth2/code/keycloak")
+                .scope("openid")
+                .authorizationUri("http://127.0.0.1:" + server.getAddress().getPort() + "/auth")
+                .tokenUri("http://127.0.0.1:" + server.getAddress().getPort() + "/token")
+                .userNameAttributeName("sub")
+                .build();
+    }
+
+    /**
+     * Client as stored at login, with an access token expiring after {@code expiresIn}.
+     */
+    OAuth2AuthorizedClient authorizedClient(String principal, Duration expiresIn) {
+        return authorizedClient(principal, "", expiresIn);
+    }
+
+    /**
+     * Client of one of several sessions of the same principal.
+     */
+    OAuth2AuthorizedClient authorizedClient(String principal, String session, Duration expiresIn) {
+        Instant now = Instant.now();
+        OAuth2AccessToken accessToken = new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER,
+                "login-" + principal + session, now.minusSeconds(60), now.plus(expiresIn));
+        return new OAuth2AuthorizedClient(registration(), principal, accessToken,
+                new OAuth2RefreshToken("login-refresh-" + principal + session, now.minusSeconds(60)));
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
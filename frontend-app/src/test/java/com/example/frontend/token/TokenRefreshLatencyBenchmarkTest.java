@@ -0,0 +1,124 @@
+package com.example.frontend.token;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.client.OAuth2AuthorizeRequest;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClientProviderBuilder;
+import org.springframework.security.oauth2.client.endpoint.DefaultRefreshTokenTokenResponseClient;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.client.web.DefaultOAuth2AuthorizedClientManager;
+import org.springframework.security.oauth2.client.web.HttpSessionOAuth2AuthorizedClientRepository;
+import org.springframework.security.oauth2.client.web.OAuth2AuthorizedClientRepository;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures the latency a page view pays for its access token when the token has expired:
+ * with on-demand refresh only, versus with background refresh ahead of expiry. The token
+ * endpoint is a local stub that adds a simulated identity provider round trip.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=TokenRefreshLatencyBenchmarkTest -Dbenchmark=true [-Dbenchmark.users=50] [-Dbenchmark.idp-latency-ms=80]
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class TokenRefreshLatencyBenchmarkTest {
+
+    private final int users = Integer.getInteger("benchmark.users", 50);
+    private final Duration idpLatency = Duration.ofMillis(Integer.getInteger("benchmark.idp-latency-ms", 80));
+
+    @Test
+    void backgroundRefreshRemovesTheRefreshSpike() throws Exception {
+        try (StubTokenEndpoint endpoint = new StubTokenEndpoint(idpLatency, Duration.ofMinutes(5))) {
+            // Warm up HTTP client and security classes
+            measure(endpoint, null);
+
+            long[] onDemand = measure(endpoint, null);
+            ProactiveTokenRefresher refresher = new ProactiveTokenRefresher(new DefaultRefreshTokenTokenResponseClient(),
+                    Duration.ofSeconds(2), Duration.ofMillis(500), Duration.ofMinutes(1), 4);
+            long[] ahead;
+            try {
+                ahead = measure(endpoint, refresher);
+                assertEquals(users, refresher.refreshCount());
+            } finally {
+                refresher.shutdown();
+            }
+
+            System.out.printf("Token for %d users after expiry, IdP round trip %d ms%n", users, idpLatency.toMillis());
+            report("on-demand refresh", onDemand);
+            report("background refresh", ahead);
+            assertTrue(percentile(ahead, 0.99) < percentile(onDemand, 0.50));
+        }
+    }
+
+    /**
+     * Logs in every user with a token expiring in 3 s, lets it expire, then times one
+     * {@code authorize} call per user, as made before each calendar request.
+     */
+    private long[] measure(StubTokenEndpoint endpoint, ProactiveTokenRefresher refresher) throws Exception {
+        InMemoryClientRegistrationRepository registrations = new InMemoryClientRegistrationRepository(endpoint.registration());
+        OAuth2AuthorizedClientRepository sessions = new HttpSessionOAuth2AuthorizedClientRepository();
+        OAuth2AuthorizedClientRepository repository = refresher != null
+                ? new RefreshAheadAuthorizedClientRepository(sessions, refresher) : sessions;
+        DefaultOAuth2AuthorizedClientManager manager = new DefaultOAuth2AuthorizedClientManager(registrations, repository);
+        manager.setAuthorizedClientProvider(OAuth2AuthorizedClientProviderBuilder.builder()
+                .authorizationCode().refreshToken().build());
+
+        MockHttpSession[] httpSessions = new MockHttpSession[users];
+        Authentication[] principals = new Authentication[users];
+        for (int i = 0; i < users; i++) {
+            httpSessions[i] = new MockHttpSession();
+            principals[i] = new TestingAuthenticationToken("user-" + i, "n/a");
+            MockHttpServletRequest login = new MockHttpServletRequest();
+            login.setSession(httpSessions[i]);
+            repository.saveAuthorizedClient(endpoint.authorizedClient("user-" + i, Duration.ofSeconds(3)),
+                    principals[i], login, new MockHttpServletResponse());
+        }
+        Thread.sleep(3100);
+
+        long[] nanos = new long[users];
+        for (int i = 0; i < users; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest();
+            request.setSession(httpSessions[i]);
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+            try {
+                long start = System.nanoTime();
+                manager.authorize(OAuth2AuthorizeRequest.withClientRegistrationId("keycloak")
+                        .principal(principals[i])
+                        .attribute(HttpServletRequest.class.getName(), request)
+                        .attribute(HttpServletResponse.class.getName(), response)
+                        .build());
+                nanos[i] = System.nanoTime() - start;
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private static void report(String label, long[] sortedNanos) {
+        System.out.printf("  %-20s p50 %8.2f ms  p99 %8.2f ms  max %8.2f ms%n", label,
+                percentile(sortedNanos, 0.50) / 1e6, percentile(sortedNanos, 0.99) / 1e6,
+                sortedNanos[sortedNanos.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sortedNanos, double p) {
+        return sortedNanos[(int) Math.min(sortedNanos.length - 1, Math.ceil(p * sortedNanos.length) - 1)];
+    }
+}
@@ -0,0 +1,283 @@
+package com.example.frontend.warmup;
+
+import com.example.frontend.FrontendApplication;
+import com.example.frontend.model.ColumnarCalendarEvents;
+import com.example.frontend.security.AccessFlags;
+import com.example.frontend.security.FlaggedOidcUser;
+import com.example.frontend.session.CookieOAuth2AuthorizedClientRepository;
+import com.example.frontend.session.CookieSecurityContextRepository;
+import com.example.frontend.session.EncryptedCookieStore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistration;
+import org.springframework.security.oauth2.client.registration.InMemoryClientRegistrationRepository;
+import org.springframework.security.oauth2.core.AuthorizationGrantType;
+import org.springframework.security.oauth2.core.OAuth2AccessToken;
+import org.springframework.security.oauth2.core.OAuth2RefreshToken;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Latency of the first calendar page views after the frontend reports ready, with and without
+ * the startup warmup. Each variant starts the frontend in its own JVM, so neither benefits
+ * from the other's JIT state. A local stub serves issuer discovery and the calendar service's
+ * columnar responses; users are logged in with encrypted login cookies minted here with the
+ * frontend's shared cookie key. After readiness turns UP, 1,000 page views (50 users) are
+ * sent one after another and their p50/p99/max latency is reported.
+ * Disabled by default; run with:
+ * <pre>
+ * mvn test -Dtest=StartupWarmupBenchmarkTest -Dbenchmark=true
+ * </pre>
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class StartupWarmupBenchmarkTest {
+
+    private static final int REQUESTS = 1_000;
+    private static final int USERS = 50;
+    private static final byte[] COOKIE_KEY = new byte[32];
+
+    private static HttpServer stub;
+    private static String issuerUri;
+    private static ClientRegistration registration;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @BeforeAll
+    static void startStub() throws Exception {
+        // Headers and body are separate writes; without TCP_NODELAY each response waits for a delayed ACK
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        stub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        String base = "http://localhost:" + stub.getAddress().getPort();
+        issuerUri = base + "/realms/bench";
+        String discovery = """
+                {"issuer":"%1$s","jwks_uri":"%1$s/certs","authorization_endpoint":"%1$s/auth",
+                 "token_endpoint":"%1$s/token","userinfo_endpoint":"%1$s/userinfo",
+                 "response_types_supported":["code"],"subject_types_supported":["public"],
+                 "id_token_signing_alg_values_supported":["RS256"]}""".formatted(issuerUri);
+        byte[] events = columnarPayload(101);
+        stub.createContext("/realms/bench/.well-known/openid-configuration",
+                exchange -> respond(exchange, discovery.getBytes(StandardCharsets.UTF_8), "application/json"));
+        stub.createContext("/calendar/events", exchange -> respond(exchange, events, ColumnarCalendarEvents.MEDIA_TYPE));
+        stub.start();
+
+        registration = ClientRegistration.withRegistrationId("keycloak")
+                .clientId("frontend-app")
+                .authorizationGrantType(AuthorizationGrantType.AUTHORIZATION_CODE)
+                .redirectUri("{baseUrl}/login/oauth2/code/{registrationId}")
+                .scope("openid", "profile", "email")
+                .authorizationUri(issuerUri + "/auth")
+                .tokenUri(issuerUri + "/token")
+                .jwkSetUri(issuerUri + "/certs")
+                .userNameAttributeName("sub")
+                .build();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Test
+    void warmupLowersFirstPageViewsP99() throws Exception {
+        String[] cookies = new String[USERS];
+        for (int user = 0; user < USERS; user++) {
+            cookies[user] = loginCookies("bench-" + user);
+        }
+
+        Result cold = run(false, cookies);
+        Result warm = run(true, cookies);
+
+        System.out.printf("first %d page views after ready (ms), %d users, %d cores%n",
+                REQUESTS, USERS, Runtime.getRuntime().availableProcessors());
+        System.out.printf("  without warmup:  %s%n", cold);
+        System.out.printf("  with warmup:     %s%n", warm);
+
+        assertEquals(0, cold.errors());
+        assertEquals(0, warm.errors());
+        assertTrue(warm.p99() < cold.p99(), "Warmup must lower the p99 of the first page views");
+    }
+
+    private Result run(boolean warmup, String[] cookies) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        Process frontend = new ProcessBuilder(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", System.getProperty("java.class.path"),
+                FrontendApplication.class.getName(),
+                "--server.port=" + port,
+                "--spring.security.oauth2.client.provider.keycloak.issuer-uri=" + issuerUri,
+                "--calendar.service.url=http://localhost:" + stub.getAddress().getPort(),
+                "--app.session.store=cookie",
+                "--app.session.cookie-key=" + Base64.getEncoder().encodeToString(COOKIE_KEY),
+                "--app.warmup.enabled=" + warmup,
+                "--logging.level.root=WARN")
+                .redirectErrorStream(true)
+                .redirectOutput(Path.of("target", "warmup-benchmark-" + warmup + ".log").toFile())
+                .start();
+        try {
+            URI base = URI.create("http://localhost:" + port);
+            long started = System.nanoTime();
+            awaitReady(base.resolve("/actuator/health/readiness"));
+            long readyMillis = (System.nanoTime() - started) / 1_000_000;
+
+            long[] latencies = new long[REQUESTS];
+            int errors = 0;
+            for (int i = 0; i < REQUESTS; i++) {
+                HttpRequest request = HttpRequest.newBuilder(base.resolve("/calendar"))
+                        .header("Cookie", cookies[i % USERS])
+                        .header("Accept", "text/html")
+                        .build();
+                long start = System.nanoTime();
+                HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                latencies[i] = System.nanoTime() - start;
+                if (response.statusCode() != 200) {
+                    errors++;
+                }
+            }
+            return new Result(readyMillis, latencies, errors);
+        } finally {
+            frontend.destroy();
+            frontend.waitFor();
+        }
+    }
+
+    private void awaitReady(URI readiness) throws Exception {
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                if (client.send(HttpRequest.newBuilder(readiness).build(),
+                        HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(20);
+        }
+        fail("Frontend did not become ready");
+    }
+
+    private static String loginCookies(String subject) throws IOException {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        Map<String, Object> claims = Map.of("iss", issuerUri, "sub", subject, "aud", "frontend-app",
+                "iat", now.getEpochSecond(), "exp", now.plus(Duration.ofHours(1)).getEpochSecond(),
+                "preferred_username", subject);
+        // Login cookies keep the ID token as a JWT and restore its claims from the payload
+        String idTokenValue = "eyJhbGciOiJSUzI1NiJ9."
+                + Base64.getUrlEncoder().withoutPadding().encodeToString(new ObjectMapper().writeValueAsBytes(claims))
+                + ".c2ln";
+        OidcIdToken idToken = OidcIdToken.withTokenValue(idTokenValue)
+                .issuer(issuerUri)
+                .subject(subject)
+                .audience(List.of("frontend-app"))
+                .issuedAt(now)
+                .expiresAt(now.plus(Duration.ofHours(1)))
+                .claim("preferred_username", subject)
+                .build();
+        List<GrantedAuthority> authorities = AuthorityUtils.createAuthorityList("OIDC_USER", "ROLE_my-role");
+        OAuth2AuthenticationToken authentication = new OAuth2AuthenticationToken(
+                new FlaggedOidcUser(authorities, idToken, null, "sub", AccessFlags.REQUIRED_ROLE), authorities, "keycloak");
+        OAuth2AuthorizedClient authorizedClient = new OAuth2AuthorizedClient(registration, subject,
+                new OAuth2AccessToken(OAuth2AccessToken.TokenType.BEARER, "access-" + subject, now, now.plus(Duration.ofHours(1))),
+                new OAuth2RefreshToken("refresh-" + subject, now));
+
+        EncryptedCookieStore store = new EncryptedCookieStore(COOKIE_KEY, false, Duration.ofHours(1));
+        InMemoryClientRegistrationRepository registrations = new InMemoryClientRegistrationRepository(registration);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new CookieSecurityContextRepository(store, registrations)
+                .saveContext(new SecurityContextImpl(authentication), request, response);
+        new CookieOAuth2AuthorizedClientRepository(store, registrations)
+                .saveAuthorizedClient(authorizedClient, authentication, request, response);
+        return Arrays.stream(response.getCookies())
+                .map(cookie -> cookie.getName() + "=" + cookie.getValue())
+                .collect(Collectors.joining("; "));
+    }
+
+    private static byte[] columnarPayload(int count) throws IOException {
+        String[] titles = {"Team meeting", "Doctor appointment", "Project review", "Client call", "Code review"};
+        long[] ids = new long[count];
+        long[] starts = new long[count];
+        int[] durations = new int[count];
+        int[] titleIndexes = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = i + 1;
+            starts[i] = i == 0 ? LocalDate.now().atTime(8, 0).toEpochSecond(ZoneOffset.UTC) : 1800;
+            durations[i] = 30;
+            titleIndexes[i] = i % titles.length;
+        }
+        ColumnarCalendarEvents columns = new ColumnarCalendarEvents();
+        columns.setCount(count);
+        columns.setIds(ids);
+        columns.setStarts(starts);
+        columns.setDurations(durations);
+        columns.setTitleIndexes(titleIndexes);
+        columns.setTitles(List.of(titles));
+        return new ObjectMapper().writeValueAsBytes(columns);
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body, String contentType) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    record Result(long readyMillis, long[] latencies, int errors) {
+
+        double p99() {
+            return percentile(0.99);
+        }
+
+        double percentile(double p) {
+            long[] sorted = latencies.clone();
+            Arrays.sort(sorted);
+            return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("ready after %5d ms  p50 %6.2f  p99 %7.2f  max %7.2f  errors %d",
+                    readyMillis, percentile(0.5), p99(), percentile(1.0), errors);
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives the calendar page the way browsers do. Every simulated user runs on its own virtual
+ * thread with its own cookies: it requests {@code /calendar}, follows the login redirects
+ * through the frontend and the {@link StubIssuer} (whose authorization endpoint is told the
+ * user by {@code login_hint}) back to the page, and then requests {@code /calendar} again and
+ * again until the run ends, optionally pausing for a think time in between. A user whose
+ * session is gone (a redirect instead of the page) logs in again.
+ * <p>
+ * The load is closed-loop: a user sends its next request only after the previous one has been
+ * answered, so slow responses lower the offered load. Latencies are recorded in microseconds in
+ * HdrHistograms; requests finishing during the warmup are not counted.
+ */
+public class LoadGenerator {
+
+    /** Longest latency the histograms track */
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private static final Duration FAILURE_BACKOFF = Duration.ofMillis(100);
+
+    private final URI frontend;
+    private final URI authorizationEndpoint;
+    private final HttpClient client;
+
+    /**
+     * @param frontend              frontend base URI, e.g. {@code http://localhost:8090}
+     * @param authorizationEndpoint the stub issuer's authorization endpoint
+     */
+    public LoadGenerator(URI frontend, URI authorizationEndpoint) {
+        this.frontend = frontend;
+        this.authorizationEndpoint = authorizationEndpoint;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    /**
+     * Runs the simulated users for {@code warmup} plus {@code duration}, printing one progress
+     * line per {@code reportInterval} to {@code progress}.
+     */
+    public Result run(List<String> users, Duration warmup, Duration duration, Duration thinkTime,
+                      Duration reportInterval, PrintStream progress) throws InterruptedException {
+        Recorder pages = new Recorder(MAX_LATENCY_MICROS, 3);
+        Recorder logins = new Recorder(MAX_LATENCY_MICROS, 3);
+        AtomicLong errors = new AtomicLong();
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+
+        List<Future<?>> tasks = new ArrayList<>(users.size());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (String user : users) {
+                tasks.add(executor.submit(() -> simulate(user, deadline, thinkTime, pages, logins, errors)));
+            }
+
+            Histogram total = new Histogram(MAX_LATENCY_MICROS, 3);
+            Histogram interval = null;
+            long errorsBefore = 0;
+            boolean measuring = warmup.isZero();
+            long last = start;
+            while (true) {
+                long target = Math.min(last + reportInterval.toNanos(), measuring ? deadline : measureFrom);
+                boolean done = sleepUntil(target, tasks);
+                long now = System.nanoTime();
+                interval = pages.getIntervalHistogram(interval);
+                if (measuring) {
+                    total.add(interval);
+                }
+                progress.printf("%6.1fs  %8.0f pages/s  p50 %7.2f ms  p99 %7.2f ms  max %7.2f ms  errors %d%s%n",
+                        (now - start) / 1e9, interval.getTotalCount() / ((now - last) / 1e9),
+                        interval.getValueAtPercentile(50) / 1000.0, interval.getValueAtPercentile(99) / 1000.0,
+                        interval.getMaxValue() / 1000.0, errors.get(), measuring ? "" : "  (warmup)");
+                last = now;
+                if (!measuring && now >= measureFrom) {
+                    measuring = true;
+                    errorsBefore = errors.get();
+                }
+                if (done || (measuring && now >= deadline)) {
+                    break;
+                }
+            }
+            for (Future<?> task : tasks) {
+                try {
+                    task.get();
+                } catch (Exception e) {
+                    errors.incrementAndGet();
+                }
+            }
+            total.add(pages.getIntervalHistogram());
+            return new Result(users.size(), duration, total, logins.getIntervalHistogram(), errors.get() - errorsBefore);
+        }
+    }
+
+    private void simulate(String user, long deadline, Duration thinkTime, Recorder pages, Recorder logins,
+                          AtomicLong errors) {
+        Session session = new Session();
+        URI calendar = frontend.resolve("/calendar");
+        boolean loggedIn = false;
+        while (System.nanoTime() < deadline) {
+            long start = System.nanoTime();
+            boolean failed = false;
+            try {
+                if (!loggedIn) {
+                    loggedIn = login(session, user, calendar);
+                    logins.recordValue(Math.min(MAX_LATENCY_MICROS, (System.nanoTime() - start) / 1000));
+                    failed = !loggedIn;
+                } else {
+                    HttpResponse<Void> response = session.send(client, calendar);
+                    long micros = (System.nanoTime() - start) / 1000;
+                    if (response.statusCode() == 200) {
+                        pages.recordValue(Math.min(MAX_LATENCY_MICROS, micros));
+                    } else {
+                        failed = true;
+                        loggedIn = response.statusCode() / 100 != 3;
+                    }
+                }
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (failed) {
+                errors.incrementAndGet();
+            }
+            // Back off after a failure, so an unreachable service is not hammered in a tight loop
+            Duration pause = failed && thinkTime.compareTo(FAILURE_BACKOFF) < 0 ? FAILURE_BACKOFF : thinkTime;
+            if (!pause.isZero()) {
+                try {
+                    Thread.sleep(pause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Requests the page and follows the redirects of the login until it is served.
+     *
+     * @return whether the page was served at the end
+     */
+    boolean login(Session session, String user, URI page) throws IOException, InterruptedException {
+        URI next = page;
+        for (int hops = 0; hops < 10; hops++) {
+            HttpResponse<Void> response = session.send(client, next);
+            if (response.statusCode() / 100 != 3) {
+                return response.statusCode() == 200;
+            }
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (location == null) {
+                return false;
+            }
+            next = response.uri().resolve(location);
+            if (next.toString().startsWith(authorizationEndpoint.toString())) {
+                next = URI.create(next + (next.getRawQuery() == null ? "?" : "&") + "login_hint=" + user);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cookies of one simulated user. Both services and the issuer run on localhost, so cookies
+     * are kept by name only.
+     */
+    static class Session {
+
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+
+        HttpResponse<Void> send(HttpClient client, URI uri) throws IOException, InterruptedException {
+            HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30));
+            if (!cookies.isEmpty()) {
+                StringBuilder header = new StringBuilder();
+                cookies.forEach((name, value) -> header.append(header.isEmpty() ? "" : "; ").append(name).append('=').append(value));
+                request.header("Cookie", header.toString());
+            }
+            HttpResponse<Void> response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+            for (String setCookie : response.headers().allValues("Set-Cookie")) {
+                store(setCookie);
+            }
+            return response;
+        }
+
+        void store(String setCookie) {
+            String[] attributes = setCookie.split(";");
+            int eq = attributes[0].indexOf('=');
+            if (eq <= 0) {
+                return;
+            }
+            String name = attributes[0].substring(0, eq).trim();
+            String value = attributes[0].substring(eq + 1).trim();
+            boolean expired = value.isEmpty();
+            for (int i = 1; i < attributes.length; i++) {
+                if (attributes[i].trim().equalsIgnoreCase("Max-Age=0")) {
+                    expired = true;
+                }
+            }
+            if (expired) {
+                cookies.remove(name);
+            } else {
+                cookies.put(name, value);
+            }
+        }
+
+        Map<String, String> cookies() {
+            return cookies;
+        }
+    }
+
+    /**
+     * Waits until {@code deadlineNanos} or until all users have finished.
+     *
+     * @return whether all users have finished
+     */
+    private static boolean sleepUntil(long deadlineNanos, List<Future<?>> tasks) throws InterruptedException {
+        while (System.nanoTime() < deadlineNanos) {
+            if (tasks.stream().allMatch(Future::isDone)) {
+                return true;
+            }
+            TimeUnit.NANOSECONDS.sleep(Math.min(100_000_000L, deadlineNanos - System.nanoTime()));
+        }
+        return tasks.stream().allMatch(Future::isDone);
+    }
+
+    /**
+     * Outcome of a run: page latencies and logins in microseconds, and the errors counted after
+     * the warmup (failed logins, non-200 pages and I/O failures).
+     */
+    public record Result(int users, Duration duration, Histogram pages, Histogram logins, long errors) {
+
+        public double pagesPerSecond() {
+            return pages.getTotalCount() / (duration.toNanos() / 1e9);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test of browser → frontend-app → calendar-service on localhost, with a
+ * {@link StubIssuer} in place of Keycloak. Starts the issuer, then both services from their
+ * built jars (pointed at the issuer, the calendar service preloaded with a synthetic calendar
+ * per simulated user), logs the users in through the frontend and drives {@code /calendar}
+ * with a {@link LoadGenerator}. Prints throughput and latency percentiles and writes the full
+ * HdrHistogram percentile distribution of the page latencies.
+ * <p>
+ * Options, all {@code --name=value}:
+ * <ul>
+ *   <li>{@code users} (50), {@code warmup} (15s), {@code duration} (60s), {@code think-time} (0ms),
+ *       {@code report-interval} (5s): the simulated load</li>
+ *   <li>{@code events-per-user} (200): size of each user's generated calendar</li>
+ *   <li>{@code roles} (my-role): realm roles in the users' tokens, comma-separated</li>
+ *   <li>{@code calendar-jar}, {@code frontend-jar}: the service jars, by default under
+ *       {@code ../<service>/target}</li>
+ *   <li>{@code calendar-service.<property>}, {@code frontend-app.<property>}: passed on to that
+ *       service as {@code --<property>}</li>
+ *   <li>{@code frontend-url}: drive an already running frontend instead of starting the services;
+ *       the issuer then listens on {@code issuer-port} (8080, Keycloak's port), so services
+ *       configured for the local Keycloak use it unchanged, given the {@code client-secret}</li>
+ *   <li>{@code histogram} (target/load-test.hgrm): where the percentile distribution is written</li>
+ * </ul>
+ */
+public class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("users", "50"),
+            Map.entry("warmup", "15s"),
+            Map.entry("duration", "60s"),
+            Map.entry("think-time", "0ms"),
+            Map.entry("report-interval", "5s"),
+            Map.entry("events-per-user", "200"),
+            Map.entry("user-prefix", "loadtest-"),
+            Map.entry("roles", "my-role"),
+            Map.entry("client-id", "frontend-app"),
+            Map.entry("client-secret", "load-test-secret"),
+            Map.entry("calendar-jar", "../calendar-service/target/calendar-service-0.0.1-SNAPSHOT.jar"),
+            Map.entry("frontend-jar", "../frontend-app/target/frontend-app-0.0.1-SNAPSHOT.jar"),
+            Map.entry("startup-timeout", "3m"),
+            Map.entry("histogram", "target/load-test.hgrm"));
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        List<String> calendarArguments = new ArrayList<>();
+        List<String> frontendArguments = new ArrayList<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            if (name.startsWith("calendar-service.")) {
+                calendarArguments.add("--" + name.substring("calendar-service.".length()) + "=" + value);
+            } else if (name.startsWith("frontend-app.")) {
+                frontendArguments.add("--" + name.substring("frontend-app.".length()) + "=" + value);
+            } else if (DEFAULTS.containsKey(name) || name.equals("frontend-url") || name.equals("issuer-port")) {
+                options.put(name, value);
+            } else {
+                throw new IllegalArgumentException("Unknown option --" + name);
+            }
+        }
+
+        int users = Integer.parseInt(options.get("users"));
+        List<String> usernames = new ArrayList<>(users);
+        for (int i = 0; i < users; i++) {
+            // Same ids as the calendar service's synthetic data generator
+            usernames.add(String.format("%s%06d", options.get("user-prefix"), i));
+        }
+        boolean external = options.containsKey("frontend-url");
+        int issuerPort = Integer.parseInt(options.getOrDefault("issuer-port", external ? "8080" : "0"));
+        PrintStream out = System.out;
+
+        try (StubIssuer issuer = new StubIssuer(issuerPort, Map.of(options.get("client-id"), options.get("client-secret")),
+                Arrays.asList(options.get("roles").split(",")), Duration.ofMinutes(5))) {
+            out.printf("stub issuer at %s%n", issuer.issuer());
+            LoadGenerator.Result result;
+            if (external) {
+                result = drive(URI.create(options.get("frontend-url")), issuer, usernames, options, out);
+            } else {
+                try (ServiceProcess calendar = startCalendarService(issuer, options, calendarArguments);
+                     ServiceProcess frontend = startFrontend(issuer, calendar, options, frontendArguments)) {
+                    Duration timeout = parseDuration(options.get("startup-timeout"));
+                    calendar.awaitReady(timeout);
+                    frontend.awaitReady(timeout);
+                    out.printf("calendar-service at %s, frontend-app at %s%n", calendar.baseUri(), frontend.baseUri());
+                    result = drive(frontend.baseUri(), issuer, usernames, options, out);
+                }
+            }
+            report(result, Path.of(options.get("histogram")), out);
+            if (result.pages().getTotalCount() == 0) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static ServiceProcess startCalendarService(StubIssuer issuer, Map<String, String> options,
+                                                       List<String> extraArguments) throws IOException {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.security.oauth2.resourceserver.jwt.issuer-uri=" + issuer.issuer(),
+                "--calendar.generator.enabled=true",
+                "--calendar.generator.users=" + options.get("users"),
+                "--calendar.generator.user-prefix=" + options.get("user-prefix"),
+                "--calendar.generator.events-per-user=" + options.get("events-per-user"),
+                "--calendar.generator.start=" + LocalDate.now().atStartOfDay()));
+        arguments.addAll(extraArguments);
+        return ServiceProcess.start("calendar-service", Path.of(options.get("calendar-jar")), List.of(), arguments,
+                Path.of("target"));
+    }
+
+    private static ServiceProcess startFrontend(StubIssuer issuer, ServiceProcess calendar, Map<String, String> options,
+                                                List<String> extraArguments) throws IOException {
+        List<String> arguments = new ArrayList<>(List.of(
+                "--spring.security.oauth2.client.provider.keycloak.issuer-uri=" + issuer.issuer(),
+                "--spring.security.oauth2.client.registration.keycloak.client-id=" + options.get("client-id"),
+                "--spring.security.oauth2.client.registration.keycloak.client-secret=" + options.get("client-secret"),
+                // The default redirect URI names port 8090
+                "--spring.security.oauth2.client.registration.keycloak.redirect-uri={baseUrl}/login/oauth2/code/{registrationId}",
+                "--calendar.service.url=" + calendar.baseUri()));
+        arguments.addAll(extraArguments);
+        return ServiceProcess.start("frontend-app", Path.of(options.get("frontend-jar")), List.of(), arguments,
+                Path.of("target"));
+    }
+
+    private static LoadGenerator.Result drive(URI frontend, StubIssuer issuer, List<String> usernames,
+                                              Map<String, String> options, PrintStream out) throws InterruptedException {
+        Duration warmup = parseDuration(options.get("warmup"));
+        Duration duration = parseDuration(options.get("duration"));
+        out.printf("%d users, %s warmup, %s measured, think time %s, %d cores%n", usernames.size(), warmup, duration,
+                options.get("think-time"), Runtime.getRuntime().availableProcessors());
+        return new LoadGenerator(frontend, issuer.authorizationEndpoint()).run(usernames, warmup, duration,
+                parseDuration(options.get("think-time")), parseDuration(options.get("report-interval")), out);
+    }
+
+    private static void report(LoadGenerator.Result result, Path histogramFile, PrintStream out) throws IOException {
+        Histogram pages = result.pages();
+        Histogram logins = result.logins();
+        out.println();
+        out.printf("logins:  %d  p50 %.2f ms  p99 %.2f ms  max %.2f ms%n", logins.getTotalCount(),
+                logins.getValueAtPercentile(50) / 1000.0, logins.getValueAtPercentile(99) / 1000.0,
+                logins.getMaxValue() / 1000.0);
+        out.printf("pages:   %d in %s, %.1f pages/s, %d errors%n", pages.getTotalCount(), result.duration(),
+                result.pagesPerSecond(), result.errors());
+        out.println("page latency (ms):");
+        for (double percentile : new double[] {50, 75, 90, 99, 99.9, 99.99}) {
+            out.printf("  %6s%%  %9.2f%n", percentile, pages.getValueAtPercentile(percentile) / 1000.0);
+        }
+        out.printf("     max  %9.2f%n", pages.getMaxValue() / 1000.0);
+
+        if (histogramFile.getParent() != null) {
+            Files.createDirectories(histogramFile.getParent());
+        }
+        try (PrintStream file = new PrintStream(Files.newOutputStream(histogramFile))) {
+            // Values in milliseconds; plot with HdrHistogram's plotFiles.html
+            pages.outputPercentileDistribution(file, 5, 1000.0);
+        }
+        out.printf("percentile distribution written to %s%n", histogramFile.toAbsolutePath());
+    }
+
+    /**
+     * Parses {@code 500ms}, {@code 30s}, {@code 2m} or an ISO-8601 duration.
+     */
+    static Duration parseDuration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        if (value.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        return Duration.parse(value);
+    }
+}
@@ -0,0 +1,437 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JOSEObjectType;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Embedded stand-in for the Keycloak realm of {@code keycloak/realm-export.json}, serving the
+ * endpoints the two services use under Keycloak's paths: discovery, JWKS, authorization, token
+ * and UserInfo. Tokens are RS256-signed with a key generated at startup and carry the claims
+ * Keycloak puts into them, including {@code realm_access.roles} with the realm's default roles
+ * plus the configured ones.
+ * <p>
+ * There is no login form: the authorization endpoint logs in the user named by the
+ * {@code login_hint} parameter and redirects straight back to the client with a code. Any user
+ * name is accepted and becomes the token subject, so calendars generated by the calendar
+ * service for {@code calendar.generator.user-prefix} users belong to the matching simulated users.
+ * Supported grants are {@code authorization_code}, {@code refresh_token} and {@code password}.
+ */
+public class StubIssuer implements AutoCloseable {
+
+    /** Realm name of {@code realm-export.json} */
+    public static final String REALM = "frontend-calendar-realm";
+
+    /** Roles of the realm's {@code default-roles-frontend-calendar-realm} composite */
+    private static final List<String> DEFAULT_ROLES =
+            List.of("default-roles-" + REALM, "offline_access", "uma_authorization");
+
+    private static final String OIDC = "/protocol/openid-connect";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String issuer;
+    private final RSAKey signingKey;
+    private final RSASSASigner signer;
+    private final Map<String, String> clientSecrets;
+    private final List<String> roles;
+    private final Duration accessTokenLifespan;
+    private final Map<String, PendingLogin> pendingLogins = new ConcurrentHashMap<>();
+
+    /**
+     * @param port                port to listen on, 0 for any free port
+     * @param clientSecrets       secrets of the confidential clients, by client id
+     * @param roles               realm roles granted to every user besides the default roles
+     * @param accessTokenLifespan access and ID token lifetime (Keycloak's realm default is 5 minutes)
+     */
+    public StubIssuer(int port, Map<String, String> clientSecrets, List<String> roles, Duration accessTokenLifespan)
+            throws IOException {
+        try {
+            this.signingKey = new RSAKeyGenerator(2048).keyID(UUID.randomUUID().toString()).generate();
+            this.signer = new RSASSASigner(signingKey);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot generate the signing key", e);
+        }
+        this.clientSecrets = Map.copyOf(clientSecrets);
+        this.roles = List.copyOf(roles);
+        this.accessTokenLifespan = accessTokenLifespan;
+
+        server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        issuer = "http://localhost:" + server.getAddress().getPort() + "/realms/" + REALM;
+        String realmPath = "/realms/" + REALM;
+        server.createContext(realmPath + "/.well-known/openid-configuration", exchange -> handle(exchange, this::discovery));
+        server.createContext(realmPath + OIDC + "/certs", exchange -> handle(exchange, this::jwks));
+        server.createContext(realmPath + OIDC + "/auth", exchange -> handle(exchange, this::authorize));
+        server.createContext(realmPath + OIDC + "/token", exchange -> handle(exchange, this::token));
+        server.createContext(realmPath + OIDC + "/userinfo", exchange -> handle(exchange, this::userInfo));
+        executor = Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()));
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    /**
+     * Issuer URI, to be configured as the services' {@code issuer-uri}.
+     */
+    public String issuer() {
+        return issuer;
+    }
+
+    public URI authorizationEndpoint() {
+        return URI.create(issuer + OIDC + "/auth");
+    }
+
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Public signing key, as served at the JWKS endpoint.
+     */
+    public RSAKey publicKey() {
+        return signingKey.toPublicJWK();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private Response discovery(HttpExchange exchange) {
+        String endpoints = issuer + OIDC;
+        Map<String, Object> configuration = new LinkedHashMap<>();
+        configuration.put("issuer", issuer);
+        configuration.put("authorization_endpoint", endpoints + "/auth");
+        configuration.put("token_endpoint", endpoints + "/token");
+        configuration.put("userinfo_endpoint", endpoints + "/userinfo");
+        configuration.put("jwks_uri", endpoints + "/certs");
+        configuration.put("grant_types_supported", List.of("authorization_code", "refresh_token", "password"));
+        configuration.put("response_types_supported", List.of("code"));
+        configuration.put("subject_types_supported", List.of("public"));
+        configuration.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        configuration.put("token_endpoint_auth_methods_supported", List.of("client_secret_basic", "client_secret_post"));
+        configuration.put("scopes_supported", List.of("openid", "profile", "email", "roles"));
+        return Response.json(200, configuration);
+    }
+
+    private Response jwks(HttpExchange exchange) {
+        return new Response(200, "application/json", new JWKSet(publicKey()).toString(), null);
+    }
+
+    private Response authorize(HttpExchange exchange) {
+        Map<String, String> params = parseForm(exchange.getRequestURI().getRawQuery());
+        String clientId = params.get("client_id");
+        String redirectUri = params.get("redirect_uri");
+        String username = params.get("login_hint");
+        if (clientId == null || !clientSecrets.containsKey(clientId) || redirectUri == null) {
+            return Response.error(400, "invalid_request", "Unknown client or missing redirect_uri");
+        }
+        if (!"code".equals(params.get("response_type"))) {
+            return Response.error(400, "unsupported_response_type", "Only the code flow is supported");
+        }
+        if (username == null || username.isBlank()) {
+            return Response.error(400, "login_required", "The stub issuer logs in the user named by login_hint");
+        }
+        String code = UUID.randomUUID().toString();
+        String sessionId = UUID.randomUUID().toString();
+        pendingLogins.put(code, new PendingLogin(username, clientId, redirectUri, params.get("nonce"),
+                params.getOrDefault("scope", "openid"), sessionId));
+        StringBuilder location = new StringBuilder(redirectUri)
+                .append(redirectUri.contains("?") ? '&' : '?')
+                .append("code=").append(encode(code))
+                .append("&session_state=").append(encode(sessionId))
+                .append("&iss=").append(encode(issuer));
+        if (params.containsKey("state")) {
+            location.append("&state=").append(encode(params.get("state")));
+        }
+        return new Response(302, null, "", location.toString());
+    }
+
+    private Response token(HttpExchange exchange) throws IOException {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            return Response.error(405, "invalid_request", "POST required");
+        }
+        Map<String, String> params = parseForm(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+        String clientId = authenticateClient(exchange, params);
+        if (clientId == null) {
+            return Response.error(401, "unauthorized_client", "Invalid client credentials");
+        }
+        String grantType = String.valueOf(params.get("grant_type"));
+        return switch (grantType) {
+            case "authorization_code" -> {
+                PendingLogin login = pendingLogins.remove(String.valueOf(params.get("code")));
+                if (login == null || !login.clientId().equals(clientId)
+                        || !login.redirectUri().equals(params.get("redirect_uri"))) {
+                    yield Response.error(400, "invalid_grant", "Code not valid");
+                }
+                yield tokens(login.username(), clientId, login.scope(), login.nonce(), login.sessionId());
+            }
+            case "refresh_token" -> {
+                JWTClaimsSet refresh = verify(params.get("refresh_token"), "Refresh");
+                if (refresh == null || !clientId.equals(refresh.getClaim("azp"))) {
+                    yield Response.error(400, "invalid_grant", "Invalid refresh token");
+                }
+                yield tokens(refresh.getSubject(), clientId, String.valueOf(refresh.getClaim("scope")), null,
+                        String.valueOf(refresh.getClaim("sid")));
+            }
+            case "password" -> {
+                String username = params.get("username");
+                if (username == null || username.isBlank()) {
+                    yield Response.error(400, "invalid_request", "Missing username");
+                }
+                yield tokens(username, clientId, params.getOrDefault("scope", "openid profile email"), null,
+                        UUID.randomUUID().toString());
+            }
+            default -> Response.error(400, "unsupported_grant_type", "Unsupported grant type " + grantType);
+        };
+    }
+
+    private Response userInfo(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        JWTClaimsSet accessToken = authorization != null && authorization.startsWith("Bearer ")
+                ? verify(authorization.substring("Bearer ".length()), "Bearer")
+                : null;
+        if (accessToken == null) {
+            return Response.error(401, "invalid_token", "Missing or invalid access token");
+        }
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", accessToken.getSubject());
+        claims.putAll(profile(accessToken.getSubject()));
+        return Response.json(200, claims);
+    }
+
+    private Response tokens(String username, String clientId, String scope, String nonce, String sessionId) {
+        Instant now = Instant.now();
+        Instant expires = now.plus(accessTokenLifespan);
+        Map<String, Object> profile = profile(username);
+
+        JWTClaimsSet.Builder access = common(username, sessionId, now, expires)
+                .audience("account")
+                .claim("typ", "Bearer")
+                .claim("azp", clientId)
+                .claim("scope", scope)
+                .claim("realm_access", Map.of("roles", realmRoles()))
+                .claim("resource_access", Map.of("account",
+                        Map.of("roles", List.of("manage-account", "manage-account-links", "view-profile"))));
+        profile.forEach(access::claim);
+
+        Instant refreshExpires = now.plus(Duration.ofMinutes(30));
+        JWTClaimsSet.Builder refresh = common(username, sessionId, now, refreshExpires)
+                .audience(issuer)
+                .claim("typ", "Refresh")
+                .claim("azp", clientId)
+                .claim("scope", scope);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("access_token", sign(access.build(), "JWT"));
+        body.put("expires_in", accessTokenLifespan.toSeconds());
+        body.put("refresh_expires_in", Duration.between(now, refreshExpires).toSeconds());
+        body.put("refresh_token", sign(refresh.build(), "JWT"));
+        body.put("token_type", "Bearer");
+        if (scope.contains("openid")) {
+            // Like Keycloak's default "roles" scope mapping, the ID token carries the realm roles too
+            JWTClaimsSet.Builder id = common(username, sessionId, now, expires)
+                    .audience(clientId)
+                    .claim("typ", "ID")
+                    .claim("azp", clientId)
+                    .claim("auth_time", now.getEpochSecond())
+                    .claim("realm_access", Map.of("roles", realmRoles()));
+            if (nonce != null) {
+                id.claim("nonce", nonce);
+            }
+            profile.forEach(id::claim);
+            body.put("id_token", sign(id.build(), "JWT"));
+        }
+        body.put("not-before-policy", 0);
+        body.put("session_state", sessionId);
+        body.put("scope", scope);
+        return Response.json(200, body);
+    }
+
+    private JWTClaimsSet.Builder common(String username, String sessionId, Instant issuedAt, Instant expires) {
+        return new JWTClaimsSet.Builder()
+                .jwtID(UUID.randomUUID().toString())
+                .issuer(issuer)
+                .subject(username)
+                .issueTime(Date.from(issuedAt))
+                .expirationTime(Date.from(expires))
+                .claim("session_state", sessionId)
+                .claim("sid", sessionId)
+                .claim("acr", "1");
+    }
+
+    private List<String> realmRoles() {
+        List<String> realmRoles = new ArrayList<>(DEFAULT_ROLES);
+        realmRoles.addAll(roles);
+        return realmRoles;
+    }
+
+    private static Map<String, Object> profile(String username) {
+        Map<String, Object> profile = new LinkedHashMap<>();
+        profile.put("preferred_username", username);
+        profile.put("email", username + "@example.com");
+        profile.put("email_verified", true);
+        profile.put("name", username + " Test");
+        profile.put("given_name", username);
+        profile.put("family_name", "Test");
+        return profile;
+    }
+
+    private String sign(JWTClaimsSet claims, String type) {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256)
+                .keyID(signingKey.getKeyID())
+                .type(new JOSEObjectType(type))
+                .build(), claims);
+        try {
+            jwt.sign(signer);
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Cannot sign token", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * Returns the claims of a token this issuer signed, of the given {@code typ}, that has not
+     * expired; {@code null} otherwise.
+     */
+    private JWTClaimsSet verify(String token, String type) {
+        if (token == null) {
+            return null;
+        }
+        try {
+            SignedJWT jwt = SignedJWT.parse(token);
+            if (!jwt.verify(new RSASSAVerifier(signingKey))) {
+                return null;
+            }
+            JWTClaimsSet claims = jwt.getJWTClaimsSet();
+            boolean valid = issuer.equals(claims.getIssuer()) && type.equals(claims.getClaim("typ"))
+                    && claims.getExpirationTime() != null && claims.getExpirationTime().after(new Date());
+            return valid ? claims : null;
+        } catch (ParseException | JOSEException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Client id of the request's client credentials, from HTTP Basic or the form; {@code null}
+     * when they do not match a registered client.
+     */
+    private String authenticateClient(HttpExchange exchange, Map<String, String> params) {
+        String clientId = params.get("client_id");
+        String secret = params.get("client_secret");
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        if (authorization != null && authorization.startsWith("Basic ")) {
+            String decoded = new String(Base64.getDecoder().decode(authorization.substring("Basic ".length())),
+                    StandardCharsets.UTF_8);
+            int colon = decoded.indexOf(':');
+            if (colon < 0) {
+                return null;
+            }
+            // Basic credentials are form-encoded first (RFC 6749, section 2.3.1)
+            clientId = URLDecoder.decode(decoded.substring(0, colon), StandardCharsets.UTF_8);
+            secret = URLDecoder.decode(decoded.substring(colon + 1), StandardCharsets.UTF_8);
+        }
+        return clientId != null && secret != null && secret.equals(clientSecrets.get(clientId)) ? clientId : null;
+    }
+
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        try (exchange) {
+            Response response;
+            try {
+                response = endpoint.respond(exchange);
+            } catch (RuntimeException e) {
+                response = Response.error(500, "server_error", e.toString());
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            if (response.contentType() != null) {
+                exchange.getResponseHeaders().set("Content-Type", response.contentType());
+            }
+            if (response.location() != null) {
+                exchange.getResponseHeaders().set("Location", response.location());
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "no-store");
+            exchange.sendResponseHeaders(response.status(), body.length == 0 ? -1 : body.length);
+            if (body.length > 0) {
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+            }
+        }
+    }
+
+    static Map<String, String> parseForm(String form) {
+        Map<String, String> params = new LinkedHashMap<>();
+        if (form == null || form.isEmpty()) {
+            return params;
+        }
+        for (String pair : form.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            params.putIfAbsent(name, value);
+        }
+        return params;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        Response respond(HttpExchange exchange) throws IOException;
+    }
+
+    private record PendingLogin(String username, String clientId, String redirectUri, String nonce,
+                                String scope, String sessionId) {
+    }
+
+    private record Response(int status, String contentType, String body, String location) {
+
+        static Response json(int status, Object body) {
+            try {
+                return new Response(status, "application/json", MAPPER.writeValueAsString(body), null);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        static Response error(int status, String error, String description) {
+            return json(status, Map.of("error", error, "error_description", description));
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the generator against a minimal frontend that logs users in through the stub issuer's
+ * code flow and serves {@code /calendar} to sessions it created.
+ */
+class LoadGeneratorTest {
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+    private StubIssuer issuer;
+    private HttpServer frontend;
+    private String frontendUri;
+
+    @BeforeEach
+    void setup() throws Exception {
+        issuer = new StubIssuer(0, Map.of("frontend-app", "secret"), List.of("my-role"), Duration.ofMinutes(5));
+        frontend = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        frontendUri = "http://localhost:" + frontend.getAddress().getPort();
+        frontend.createContext("/calendar", this::calendar);
+        frontend.createContext("/callback", this::callback);
+        frontend.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        frontend.stop(0);
+        issuer.close();
+    }
+
+    @Test
+    void logsUsersInAndRecordsPageLatencies() throws Exception {
+        LoadGenerator.Result result = new LoadGenerator(URI.create(frontendUri), issuer.authorizationEndpoint())
+                .run(List.of("user-0", "user-1"), Duration.ZERO, Duration.ofSeconds(1), Duration.ofMillis(5),
+                        Duration.ofMillis(500), new PrintStream(OutputStream.nullOutputStream()));
+
+        assertEquals(2, result.logins().getTotalCount());
+        assertEquals(2, sessions.size());
+        assertTrue(result.pages().getTotalCount() > 10, "Pages served: " + result.pages().getTotalCount());
+        assertEquals(0, result.errors());
+    }
+
+    @Test
+    void sessionKeepsAndExpiresCookies() {
+        LoadGenerator.Session session = new LoadGenerator.Session();
+        session.store("JSESSIONID=abc; Path=/; HttpOnly");
+        session.store("XSRF=1; Path=/");
+        session.store("XSRF=; Max-Age=0; Path=/");
+
+        assertEquals(Map.of("JSESSIONID", "abc"), session.cookies());
+    }
+
+    private void calendar(HttpExchange exchange) throws IOException {
+        String cookie = exchange.getRequestHeaders().getFirst("Cookie");
+        if (cookie != null && sessions.contains(cookie.replace("SESSION=", ""))) {
+            respond(exchange, 200, null);
+            return;
+        }
+        respond(exchange, 302, issuer.authorizationEndpoint() + "?response_type=code&client_id=frontend-app"
+                + "&scope=openid&state=s&nonce=n&redirect_uri=" + URLEncoder.encode(frontendUri + "/callback", StandardCharsets.UTF_8));
+    }
+
+    private void callback(HttpExchange exchange) throws IOException {
+        String code = StubIssuer.parseForm(exchange.getRequestURI().getRawQuery()).get("code");
+        String form = "grant_type=authorization_code&code=" + code
+                + "&redirect_uri=" + URLEncoder.encode(frontendUri + "/callback", StandardCharsets.UTF_8);
+        try {
+            HttpResponse<String> tokens = client.send(HttpRequest.newBuilder(URI.create(issuer.issuer() + "/protocol/openid-connect/token"))
+                    .header("Authorization", "Basic " + Base64.getEncoder().encodeToString("frontend-app:secret".getBytes(StandardCharsets.UTF_8)))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString(form))
+                    .build(), HttpResponse.BodyHandlers.ofString());
+            if (tokens.statusCode() != 200) {
+                respond(exchange, 401, null);
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            respond(exchange, 500, null);
+            return;
+        }
+        String session = UUID.randomUUID().toString();
+        sessions.add(session);
+        exchange.getResponseHeaders().add("Set-Cookie", "SESSION=" + session + "; Path=/; HttpOnly");
+        respond(exchange, 302, "/calendar");
+    }
+
+    private static void respond(HttpExchange exchange, int status, String location) throws IOException {
+        if (location != null) {
+            exchange.getResponseHeaders().set("Location", location);
+        }
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StubIssuerTest {
+
+    private static final String REDIRECT_URI = "http://localhost:8090/login/oauth2/code/keycloak";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StubIssuer issuer;
+
+    @BeforeEach
+    void setup() throws Exception {
+        issuer = new StubIssuer(0, Map.of("frontend-app", "secret"), List.of("my-role"), Duration.ofMinutes(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        issuer.close();
+    }
+
+    @Test
+    void discoveryPointsAtTheRealmEndpoints() throws Exception {
+        JsonNode configuration = getJson(issuer.issuer() + "/.well-known/openid-configuration", null);
+
+        assertEquals(issuer.issuer(), configuration.get("issuer").asText());
+        assertTrue(issuer.issuer().endsWith("/realms/frontend-calendar-realm"));
+        assertEquals(issuer.issuer() + "/protocol/openid-connect/certs", configuration.get("jwks_uri").asText());
+        assertEquals(issuer.authorizationEndpoint().toString(), configuration.get("authorization_endpoint").asText());
+    }
+
+    @Test
+    void codeFlowIssuesSignedTokensWithRealmRoles() throws Exception {
+        String code = authorize("alice", "n-0S6_WzA2Mj");
+        JsonNode tokens = tokenRequest("grant_type=authorization_code&code=" + code
+                + "&redirect_uri=" + URLEncoder.encode(REDIRECT_URI, StandardCharsets.UTF_8), "secret");
+
+        RSAKey key = RSAKey.parse(JWKSet.parse(get(issuer.issuer() + "/protocol/openid-connect/certs")).getKeys().get(0).toJSONObject());
+        JWTClaimsSet access = verified(tokens.get("access_token").asText(), key);
+        assertEquals(issuer.issuer(), access.getIssuer());
+        assertEquals("alice", access.getSubject());
+        assertEquals(List.of("default-roles-frontend-calendar-realm", "offline_access", "uma_authorization", "my-role"),
+                access.getJSONObjectClaim("realm_access").get("roles"));
+
+        JWTClaimsSet id = verified(tokens.get("id_token").asText(), key);
+        assertEquals(List.of("frontend-app"), id.getAudience());
+        assertEquals("n-0S6_WzA2Mj", id.getStringClaim("nonce"));
+        assertEquals("alice", id.getStringClaim("preferred_username"));
+
+        JsonNode userInfo = getJson(issuer.issuer() + "/protocol/openid-connect/userinfo",
+                tokens.get("access_token").asText());
+        assertEquals("alice", userInfo.get("sub").asText());
+        assertEquals("alice@example.com", userInfo.get("email").asText());
+
+        JsonNode refreshed = tokenRequest("grant_type=refresh_token&refresh_token=" + tokens.get("refresh_token").asText(), "secret");
+        assertEquals("alice", verified(refreshed.get("access_token").asText(), key).getSubject());
+    }
+
+    @Test
+    void rejectsReusedCodesAndWrongClientSecrets() throws Exception {
+        String code = authorize("bob", "nonce");
+        String form = "grant_type=authorization_code&code=" + code
+                + "&redirect_uri=" + URLEncoder.encode(REDIRECT_URI, StandardCharsets.UTF_8);
+
+        assertEquals(401, postToken(form, "wrong").statusCode());
+        assertEquals(200, postToken(form, "secret").statusCode());
+        assertEquals(400, postToken(form, "secret").statusCode(), "A code can be redeemed once");
+    }
+
+    private String authorize(String user, String nonce) throws Exception {
+        URI authorization = URI.create(issuer.authorizationEndpoint() + "?response_type=code&client_id=frontend-app"
+                + "&scope=openid%20profile%20email&state=xyz&nonce=" + nonce + "&login_hint=" + user
+                + "&redirect_uri=" + URLEncoder.encode(REDIRECT_URI, StandardCharsets.UTF_8));
+        HttpResponse<Void> response = client.send(HttpRequest.newBuilder(authorization).build(),
+                HttpResponse.BodyHandlers.discarding());
+        assertEquals(302, response.statusCode());
+        URI location = URI.create(response.headers().firstValue("Location").orElseThrow());
+        assertTrue(location.toString().startsWith(REDIRECT_URI + "?"));
+        Map<String, String> params = StubIssuer.parseForm(location.getRawQuery());
+        assertEquals("xyz", params.get("state"));
+        return params.get("code");
+    }
+
+    private JsonNode tokenRequest(String form, String secret) throws Exception {
+        HttpResponse<String> response = postToken(form, secret);
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private HttpResponse<String> postToken(String form, String secret) throws Exception {
+        String credentials = Base64.getEncoder().encodeToString(("frontend-app:" + secret).getBytes(StandardCharsets.UTF_8));
+        return client.send(HttpRequest.newBuilder(URI.create(issuer.issuer() + "/protocol/openid-connect/token"))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode getJson(String uri, String bearer) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri));
+        if (bearer != null) {
+            request.header("Authorization", "Bearer " + bearer);
+        }
+        HttpResponse<String> response = client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        assertEquals(200, response.statusCode(), response.body());
+        return objectMapper.readTree(response.body());
+    }
+
+    private String get(String uri) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(uri)).build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static JWTClaimsSet verified(String token, RSAKey key) throws Exception {
+        SignedJWT jwt = SignedJWT.parse(token);
+        assertTrue(jwt.verify(new RSASSAVerifier(key)), "Signature must verify against the JWKS key");
+        return jwt.getJWTClaimsSet();
+    }
+}
@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+#
+# Measures time from JVM launch to the first successful HTTP request, comparing the plain
+# Spring Boot jar with the fast-startup build (Spring AOT + class data sharing archive).
+#
+# Usage: scripts/measure-startup.sh <calendar-service|frontend-app> [runs]
+#
+# Build both variants first:  (cd <module> && mvn -Pfast-startup -DskipTests package)
+# after installing service-support once with mvn -DskipTests install in the repository root.
+#
+# By default a request counts as successful once the security filter chain answers it
+# (401 from calendar-service, the login redirect from frontend-app), which needs no Keycloak.
+# Override with URL and EXPECT, or set TOKEN to send a bearer token and expect 200.
+# Extra JVM options (e.g. -Dapp.session.store=cookie) can be passed in JAVA_OPTS.
+
+set -euo pipefail
+
+module="${1:?usage: $0 <calendar-service|frontend-app> [runs]}"
+runs="${2:-5}"
+root="$(cd "$(dirname "$0")/.." && pwd)"
+dir="$root/$module"
+java="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+case "$module" in
+    calendar-service) default_url="http://localhost:9090/calendar/events"; default_expect=401 ;;
+    frontend-app)     default_url="http://localhost:8090/calendar";        default_expect=302 ;;
+    *) echo "unknown module: $module" >&2; exit 2 ;;
+esac
+url="${URL:-$default_url}"
+if [[ -n "${TOKEN:-}" ]]; then
+    expect="${EXPECT:-200}"
+    auth=(-H "Authorization: Bearer $TOKEN")
+else
+    expect="${EXPECT:-$default_expect}"
+    auth=()
+fi
+
+plain_jar="$(ls "$dir"/target/"$module"-*.jar 2>/dev/null | grep -v -- '-plain.jar' | head -n 1 || true)"
+fast_dir="$dir/target/fast-startup"
+if [[ -z "$plain_jar" || ! -f "$fast_dir/application.jsa" ]]; then
+    echo "build first: (cd $module && mvn -Pfast-startup -DskipTests package)" >&2
+    exit 1
+fi
+
+# Starts the given command, polls until the expected status comes back, prints elapsed milliseconds.
+measure() {
+    local workdir="$1"; shift
+    local start pid status elapsed
+    start=$(date +%s%N)
+    (cd "$workdir" && exec "$@" ${JAVA_OPTS:-} >/dev/null 2>&1) &
+    pid=$!
+    while true; do
+        status=$(curl -s -o /dev/null -w '%{http_code}' "${auth[@]}" "$url" || true)
+        if [[ "$status" == "$expect" ]]; then
+            elapsed=$(( ($(date +%s%N) - start) / 1000000 ))
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "process exited before answering $url" >&2
+            exit 1
+        fi
+        sleep 0.02
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    echo "$elapsed"
+}
+
+# Runs a variant $runs times and prints each sample and the median.
+report() {
+    local name="$1"; shift
+    local samples=() sample
+    for ((i = 0; i < runs; i++)); do
+        sample=$(measure "$@")
+        samples+=("$sample")
+    done
+    local median
+    median=$(printf '%s\n' "${samples[@]}" | sort -n | awk '{ a[NR] = $1 } END { print a[int((NR + 1) / 2)] }')
+    printf '%-14s median %6d ms   runs: %s\n' "$name" "$median" "${samples[*]}"
+}
+
+echo "$module: time to first $expect from $url ($runs runs)"
+report "plain jar" "$dir" "$java" -jar "$plain_jar"
+report "aot + cds" "$fast_dir" "$java" -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar application.jar
@@ -0,0 +1,159 @@
+package com.example.support.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Runs a Java Flight Recorder recording for the whole lifetime of the service and writes it to
+ * a file on demand. The recording keeps only the last {@code maxAge} (and at most
+ * {@code maxSize} bytes) of events, so it can run indefinitely and every dump covers the
+ * minutes leading up to it. Dumps are kept in one directory; beyond {@code maxDumps} the
+ * oldest are deleted.
+ *
+ * <p>With the JDK's {@code default} settings the recording costs around one percent of CPU.
+ */
+public class FlightRecorderService implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlightRecorderService.class);
+
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9._-]+\\.jfr");
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final String filePrefix;
+    private final Path directory;
+    private final int maxDumps;
+    private final Recording recording;
+
+    /**
+     * Starts the continuous recording, unless the JVM has no flight recorder.
+     *
+     * @param filePrefix prefix of dump file names, e.g. the service name
+     * @param directory directory for dumps, created if missing
+     * @param settings JFR settings, {@code default} (low overhead) or {@code profile}
+     * @param maxAge how far back dumps reach
+     * @param maxSizeBytes upper bound for the recording's disk buffer
+     * @param maxDumps dump files kept
+     */
+    public FlightRecorderService(String filePrefix, Path directory, String settings,
+                                 Duration maxAge, long maxSizeBytes, int maxDumps) throws IOException, ParseException {
+        this.filePrefix = filePrefix;
+        this.directory = directory;
+        this.maxDumps = Math.max(1, maxDumps);
+        if (!FlightRecorder.isAvailable()) {
+            logger.warn("Java Flight Recorder is not available; latency-triggered recordings are disabled");
+            this.recording = null;
+            return;
+        }
+        Files.createDirectories(directory);
+        Recording continuous = new Recording(Configuration.getConfiguration(settings));
+        continuous.setName(filePrefix + "-continuous");
+        continuous.setToDisk(true);
+        continuous.setMaxAge(maxAge);
+        continuous.setMaxSize(maxSizeBytes);
+        continuous.start();
+        this.recording = continuous;
+        logger.info("Continuous flight recording started ({} settings, last {} kept); dumps go to {}",
+                settings, maxAge, directory);
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Writes the recorded events of the last {@code maxAge} to a new file.
+     *
+     * @param reason short label for the file name, e.g. {@code p99-812ms} or {@code manual}
+     * @return the written file, or empty when no recording runs
+     */
+    public synchronized Optional<RecordingFile> dump(String reason) throws IOException {
+        if (recording == null) {
+            return Optional.empty();
+        }
+        String label = reason.replaceAll("[^A-Za-z0-9-]", "_");
+        Path file = directory.resolve(filePrefix + "-" + TIMESTAMP.format(Instant.now()) + "-" + label + ".jfr");
+        recording.dump(file);
+        logger.info("Flight recording written to {} ({} bytes)", file, Files.size(file));
+        deleteOldDumps();
+        return Optional.of(RecordingFile.of(file));
+    }
+
+    /**
+     * Lists the dump files, newest first.
+     */
+    public List<RecordingFile> list() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        List<RecordingFile> files = new ArrayList<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) paths::iterator) {
+                if (FILE_NAME.matcher(path.getFileName().toString()).matches()) {
+                    files.add(RecordingFile.of(path));
+                }
+            }
+        }
+        files.sort(Comparator.comparing(RecordingFile::created).thenComparing(RecordingFile::name).reversed());
+        return files;
+    }
+
+    /**
+     * Resolves a dump file by the name returned from {@link #list()}. Names that are not plain
+     * {@code .jfr} file names are rejected, so no file outside the dump directory can be read.
+     */
+    public Optional<Path> find(String name) {
+        if (!FILE_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<RecordingFile> files = list();
+        for (RecordingFile old : files.subList(Math.min(maxDumps, files.size()), files.size())) {
+            Files.deleteIfExists(directory.resolve(old.name()));
+        }
+    }
+
+    @Override
+    public void close() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    /**
+     * A dump file.
+     *
+     * @param name file name, used to download it
+     * @param created time the dump was written
+     * @param sizeBytes file size
+     */
+    public record RecordingFile(String name, Instant created, long sizeBytes) {
+
+        static RecordingFile of(Path file) throws IOException {
+            return new RecordingFile(file.getFileName().toString(),
+                    Files.getLastModifiedTime(file).toInstant(), Files.size(file));
+        }
+    }
+}
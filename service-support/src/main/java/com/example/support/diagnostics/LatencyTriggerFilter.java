@@ -0,0 +1,133 @@
+package com.example.support.diagnostics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures the requests selected by a predicate and dumps the continuous flight recording when
+ * their p99 over the last check interval exceeds the threshold, so the events leading up to a
+ * latency spike are kept for later analysis. Each service passes the requests whose latency users
+ * notice; requests whose duration follows the size of their payload, such as imports, are better
+ * left out. Intervals with fewer than {@code minSamples} requests, and never fewer than
+ * {@link LatencyWindow#MIN_P99_SAMPLES}, are ignored, and at most one recording is written per
+ * {@code cooldown}, so a sustained slowdown produces one recording rather than one per interval.
+ * Checks start once the application is ready; startup and warmup requests are not evaluated.
+ */
+public class LatencyTriggerFilter extends OncePerRequestFilter
+        implements ApplicationListener<ApplicationReadyEvent>, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatencyTriggerFilter.class);
+
+    private final FlightRecorderService recorder;
+    private final Predicate<HttpServletRequest> measured;
+    private final LatencyWindow window;
+    private final Duration threshold;
+    private final int minSamples;
+    private final Duration cooldown;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler;
+    private long lastDumpNanos;
+    private boolean dumped;
+
+    /**
+     * @param recorder continuous recording to dump
+     * @param measured requests whose latency counts
+     * @param threshold p99 latency above which a recording is written
+     * @param checkInterval length of the window the p99 is computed over
+     * @param minSamples requests a window needs before its p99 counts, at least
+     *        {@link LatencyWindow#MIN_P99_SAMPLES}
+     * @param cooldown minimum time between two recordings
+     */
+    public LatencyTriggerFilter(FlightRecorderService recorder, Predicate<HttpServletRequest> measured,
+                                Duration threshold, Duration checkInterval, int minSamples, Duration cooldown) {
+        this.recorder = recorder;
+        this.measured = measured;
+        this.window = new LatencyWindow(4096);
+        this.threshold = threshold;
+        this.minSamples = Math.max(LatencyWindow.MIN_P99_SAMPLES, minSamples);
+        this.cooldown = cooldown;
+        this.checkInterval = checkInterval;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "latency-trigger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        window.drain();
+        long millis = checkInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::check, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !measured.test(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            window.record(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Evaluates the requests since the previous check and dumps the recording if their p99
+     * is above the threshold.
+     *
+     * @return whether a recording was written
+     */
+    synchronized boolean check() {
+        LatencyWindow.Snapshot snapshot = window.drain();
+        if (snapshot.count() < minSamples || snapshot.p99Nanos() <= threshold.toNanos()) {
+            return false;
+        }
+        long now = System.nanoTime();
+        long p99Millis = snapshot.p99Nanos() / 1_000_000;
+        if (dumped && now - lastDumpNanos < cooldown.toNanos()) {
+            logger.debug("Request p99 {} ms exceeds {} ms; recording skipped during cooldown",
+                    p99Millis, threshold.toMillis());
+            return false;
+        }
+        try {
+            Optional<FlightRecorderService.RecordingFile> file = recorder.dump("p99-" + p99Millis + "ms");
+            if (file.isPresent()) {
+                dumped = true;
+                lastDumpNanos = now;
+                logger.warn("Request p99 {} ms (max {} ms, {} requests) exceeds {} ms; flight recording {} written",
+                        p99Millis, snapshot.maxNanos() / 1_000_000, snapshot.count(), threshold.toMillis(),
+                        file.get().name());
+                return true;
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("Could not write flight recording", e);
+        }
+        return false;
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.support.diagnostics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Request latencies recorded since the last {@link #drain()}, in a fixed number of slots.
+ * Recording is one counter increment and one array store; when more requests arrive between
+ * two drains than there are slots, only the most recent ones are kept.
+ */
+public class LatencyWindow {
+
+    /**
+     * Latencies a window needs before its 99th percentile says more than its slowest request:
+     * with fewer, the 99th percentile is the maximum.
+     */
+    public static final int MIN_P99_SAMPLES = 100;
+
+    private final AtomicLongArray samples;
+    private final AtomicLong written = new AtomicLong();
+    private long drained;
+
+    public LatencyWindow(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.samples = new AtomicLongArray(capacity);
+    }
+
+    public void record(long nanos) {
+        long index = written.getAndIncrement();
+        samples.set((int) (index % samples.length()), nanos);
+    }
+
+    /**
+     * Returns the statistics of the latencies recorded since the previous call and starts a
+     * new window. Meant to be called from one thread.
+     */
+    public synchronized Snapshot drain() {
+        long end = written.get();
+        long start = Math.max(drained, end - samples.length());
+        drained = end;
+        long[] values = new long[(int) (end - start)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples.get((int) ((start + i) % samples.length()));
+        }
+        Arrays.sort(values);
+        return new Snapshot(values.length, percentile(values, 0.99), percentile(values, 1.0));
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+    }
+
+    /**
+     * @param count latencies in the window (at most the capacity)
+     * @param p99Nanos 99th percentile
+     * @param maxNanos slowest request
+     */
+    public record Snapshot(int count, long p99Nanos, long maxNanos) {
+    }
+}
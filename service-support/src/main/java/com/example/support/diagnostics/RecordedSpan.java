@@ -0,0 +1,53 @@
+package com.example.support.diagnostics;
+
+import brave.handler.MutableSpan;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Immutable copy of a finished span as kept by {@link SpanRingBuffer}.
+ *
+ * @param traceId trace the span belongs to, shared across services through {@code traceparent}
+ * @param spanId id of this span
+ * @param parentId id of the parent span, which may have been recorded by the calling service; null for a root span
+ * @param name span name, e.g. {@code http get /calendar/events} or {@code calendar.jwt.verify}
+ * @param kind {@code SERVER}, {@code CLIENT} or null for local spans
+ * @param start start time
+ * @param durationMicros duration in microseconds
+ * @param tags span tags
+ * @param error error message, or null when the span completed normally
+ */
+public record RecordedSpan(String traceId,
+                           String spanId,
+                           String parentId,
+                           String name,
+                           String kind,
+                           Instant start,
+                           long durationMicros,
+                           Map<String, String> tags,
+                           String error) {
+
+    static RecordedSpan of(MutableSpan span) {
+        long startMicros = span.startTimestamp();
+        Throwable error = span.error();
+        return new RecordedSpan(
+                span.traceId(),
+                span.id(),
+                span.parentId(),
+                span.name(),
+                span.kind() != null ? span.kind().name() : null,
+                Instant.ofEpochSecond(startMicros / 1_000_000, (startMicros % 1_000_000) * 1_000),
+                Math.max(0, span.finishTimestamp() - startMicros),
+                span.tags(),
+                error != null ? error.getClass().getSimpleName() + ": " + error.getMessage() : span.tag("error"));
+    }
+
+    long startMicros() {
+        return start.getEpochSecond() * 1_000_000 + start.getNano() / 1_000;
+    }
+
+    long endMicros() {
+        return startMicros() + durationMicros;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.support.diagnostics;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Flight recordings written by {@link LatencyTriggerFilter} or on request. Not component-scanned:
+ * each service declares it as a bean next to its {@link FlightRecorderService} and restricts
+ * {@code /diagnostics/recordings} to its diagnostics admin role. Open a downloaded file with JDK
+ * Mission Control or {@code jfr print}.
+ */
+@RestController
+@RequestMapping("/diagnostics/recordings")
+public class RecordingController {
+
+    private final FlightRecorderService recorder;
+
+    public RecordingController(FlightRecorderService recorder) {
+        this.recorder = recorder;
+    }
+
+    /**
+     * Lists the available recordings, newest first.
+     */
+    @GetMapping
+    public List<FlightRecorderService.RecordingFile> list() throws IOException {
+        return recorder.list();
+    }
+
+    /**
+     * Dumps the continuous recording now.
+     *
+     * @return the new recording, or 503 when the JVM has no flight recorder
+     */
+    @PostMapping
+    public ResponseEntity<FlightRecorderService.RecordingFile> dump() throws IOException {
+        return recorder.dump("manual")
+                .map(file -> ResponseEntity.status(HttpStatus.CREATED).body(file))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * Downloads one recording.
+     */
+    @GetMapping("/{name}")
+    public ResponseEntity<Resource> download(@PathVariable String name) {
+        return recorder.find(name)
+                .<ResponseEntity<Resource>>map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(name).build().toString())
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.support.diagnostics;
+
+import brave.handler.MutableSpan;
+import brave.handler.SpanHandler;
+import brave.propagation.TraceContext;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recently finished spans of this service in memory, so request latency can be
+ * broken down through {@code /diagnostics/traces} without running a collector. The buffer has a
+ * fixed number of slots; once it is full every new span overwrites the oldest one, so memory
+ * stays bounded under any load and recording a span costs one copy and one array store.
+ *
+ * <p>Registered as a Brave {@link SpanHandler}; Spring Boot passes every sampled span to it
+ * when the span finishes.
+ */
+public class SpanRingBuffer extends SpanHandler {
+
+    private final AtomicReferenceArray<RecordedSpan> slots;
+    private final AtomicLong written = new AtomicLong();
+
+    public SpanRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    @Override
+    public boolean end(TraceContext context, MutableSpan span, Cause cause) {
+        // Abandoned spans never completed and have no duration
+        if (cause == Cause.FINISHED) {
+            long index = written.getAndIncrement();
+            slots.set((int) (index % slots.length()), RecordedSpan.of(span));
+        }
+        return true;
+    }
+
+    /**
+     * Returns the buffered spans, oldest first. Spans finishing while the buffer is read may
+     * replace ones that were about to be returned.
+     */
+    public List<RecordedSpan> spans() {
+        long end = written.get();
+        long start = Math.max(0, end - slots.length());
+        List<RecordedSpan> spans = new ArrayList<>((int) (end - start));
+        for (long i = start; i < end; i++) {
+            RecordedSpan span = slots.get((int) (i % slots.length()));
+            if (span != null) {
+                spans.add(span);
+            }
+        }
+        return spans;
+    }
+
+    /**
+     * Groups the buffered spans into traces, most recently finished first.
+     *
+     * @param traceId only this trace, or null for all
+     * @param minDurationMicros only traces whose spans in this service cover at least this long
+     * @param limit maximum number of traces
+     */
+    public List<Trace> traces(String traceId, long minDurationMicros, int limit) {
+        Map<String, List<RecordedSpan>> byTrace = new LinkedHashMap<>();
+        List<RecordedSpan> spans = spans();
+        for (int i = spans.size() - 1; i >= 0; i--) {
+            RecordedSpan span = spans.get(i);
+            if (traceId == null || traceId.equals(span.traceId())) {
+                byTrace.computeIfAbsent(span.traceId(), id -> new ArrayList<>()).add(span);
+            }
+        }
+
+        List<Trace> traces = new ArrayList<>();
+        for (Map.Entry<String, List<RecordedSpan>> entry : byTrace.entrySet()) {
+            if (traces.size() >= limit) {
+                break;
+            }
+            Trace trace = Trace.of(entry.getKey(), entry.getValue());
+            if (trace.durationMicros() >= minDurationMicros) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public int capacity() {
+        return slots.length();
+    }
+
+    /**
+     * Spans of one trace recorded by this service, ordered by start time.
+     *
+     * @param durationMicros time from the first span's start to the last span's end
+     */
+    public record Trace(String traceId, long durationMicros, List<RecordedSpan> spans) {
+
+        static Trace of(String traceId, List<RecordedSpan> spans) {
+            List<RecordedSpan> sorted = new ArrayList<>(spans);
+            sorted.sort(Comparator.comparingLong(RecordedSpan::startMicros));
+            long end = sorted.stream().mapToLong(RecordedSpan::endMicros).max().orElse(0);
+            return new Trace(traceId, end - sorted.get(0).startMicros(), sorted);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.support.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logback turbo filter that rate-limits INFO and lower statements of the request-path loggers,
+ * so a burst of requests cannot turn into a burst of identical log lines. Every logger whose
+ * name starts with one of the configured {@code <logger>} prefixes gets its own token bucket of
+ * {@code burst} statements refilled at {@code permitsPerSecond}; WARN and ERROR always pass.
+ * <p>
+ * Turbo filters run before a logging event is created, so a suppressed statement costs neither
+ * message formatting nor a trip through the appenders. How many statements a logger lost is
+ * logged when its next statement is let through, at most once a second, so the summaries do not
+ * add up to a second stream of lines. Configured in {@code logback-spring.xml}.
+ */
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final long SUMMARY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<String> loggerPrefixes = new ArrayList<>();
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private double permitsPerSecond = 10;
+    private int burst = 20;
+    private Logger summaryLogger;
+
+    /**
+     * Adds a logger name prefix to limit; called once per {@code <logger>} element.
+     */
+    public void addLogger(String prefix) {
+        loggerPrefixes.add(prefix);
+    }
+
+    public void setPermitsPerSecond(double permitsPerSecond) {
+        this.permitsPerSecond = permitsPerSecond;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    @Override
+    public void start() {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            addError("permitsPerSecond and burst must be positive");
+            return;
+        }
+        // The filter's own context, which is not necessarily the one SLF4J hands out
+        summaryLogger = ((LoggerContext) getContext()).getLogger(RateLimitingTurboFilter.class);
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger target, Level level, String format, Object[] params, Throwable t) {
+        // A null format is an isXxxEnabled() check, which must not use up a permit
+        if (!isStarted() || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !level.isGreaterOrEqual(target.getEffectiveLevel()) || !isLimited(target.getName())) {
+            return FilterReply.NEUTRAL;
+        }
+        Bucket bucket = buckets.computeIfAbsent(target.getName(), name -> new Bucket(burst, System.nanoTime()));
+        long suppressed = bucket.tryAcquire(System.nanoTime(), permitsPerSecond / TimeUnit.SECONDS.toNanos(1), burst);
+        if (suppressed < 0) {
+            return FilterReply.DENY;
+        }
+        if (suppressed > 0) {
+            summaryLogger.info("Suppressed {} log statements of {}", suppressed, target.getName());
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private boolean isLimited(String name) {
+        if (name.equals(summaryLogger.getName())) {
+            return false;
+        }
+        for (String prefix : loggerPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Token bucket of one logger, refilled lazily; also counts the statements it turned away.
+     */
+    private static final class Bucket {
+
+        private double tokens;
+        private long updatedNanos;
+        private long suppressed;
+        private long summarizedNanos;
+
+        Bucket(double tokens, long nowNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = nowNanos;
+            this.summarizedNanos = nowNanos - SUMMARY_INTERVAL_NANOS;
+        }
+
+        /**
+         * @return -1 when the statement is suppressed, otherwise the number of statements
+         *         suppressed since the last summary, or 0 if that was less than a second ago
+         */
+        synchronized long tryAcquire(long nowNanos, double tokensPerNano, int capacity) {
+            tokens = Math.min(capacity, tokens + Math.max(0, nowNanos - updatedNanos) * tokensPerNano);
+            updatedNanos = Math.max(updatedNanos, nowNanos);
+            if (tokens < 1) {
+                suppressed++;
+                return -1;
+            }
+            tokens--;
+            if (suppressed == 0 || nowNanos - summarizedNanos < SUMMARY_INTERVAL_NANOS) {
+                return 0;
+            }
+            long count = suppressed;
+            suppressed = 0;
+            summarizedNanos = nowNanos;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.support.diagnostics;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyTriggerFilterTest {
+
+    @TempDir
+    Path directory;
+
+    private FlightRecorderService recorder;
+
+    @AfterEach
+    void stopRecording() {
+        if (recorder != null) {
+            recorder.close();
+        }
+    }
+
+    @Test
+    void windowShouldReportP99OfRequestsSinceLastDrain() {
+        LatencyWindow window = new LatencyWindow(1000);
+        for (int i = 1; i <= 200; i++) {
+            window.record(i);
+        }
+
+        LatencyWindow.Snapshot snapshot = window.drain();
+        assertEquals(200, snapshot.count());
+        assertEquals(198, snapshot.p99Nanos());
+        assertEquals(200, snapshot.maxNanos());
+        assertEquals(0, window.drain().count(), "Drained latencies are not counted again");
+    }
+
+    @Test
+    void windowShouldKeepOnlyTheMostRecentLatencies() {
+        LatencyWindow window = new LatencyWindow(10);
+        for (int i = 1; i <= 25; i++) {
+            window.record(i);
+        }
+
+        LatencyWindow.Snapshot snapshot = window.drain();
+        assertEquals(10, snapshot.count());
+        assertEquals(25, snapshot.maxNanos());
+    }
+
+    @Test
+    void slowMeasuredRequestsShouldDumpOneRecordingPerCooldown() throws Exception {
+        recorder = new FlightRecorderService("test", directory, "default", Duration.ofMinutes(1), 16 << 20, 5);
+        assertTrue(recorder.isRecording());
+        LatencyTriggerFilter filter = new LatencyTriggerFilter(recorder,
+                request -> request.getRequestURI().startsWith("/calendar"), Duration.ofMillis(50),
+                Duration.ofMinutes(1), 3, Duration.ofHours(1));
+        try {
+            // Below 100 requests the p99 would be the slowest one
+            request(filter, "/calendar/events", 60, 3);
+            assertFalse(filter.check());
+
+            // Fast requests stay below the threshold; requests the predicate rejects are not measured
+            request(filter, "/calendar/events", 0, 100);
+            request(filter, "/actuator/health", 60, 3);
+            assertFalse(filter.check());
+
+            // One slow request in a hundred is not a slow p99
+            request(filter, "/calendar/events", 0, 99);
+            request(filter, "/calendar/events", 60, 1);
+            assertFalse(filter.check());
+
+            request(filter, "/calendar/events", 0, 97);
+            request(filter, "/calendar/events", 60, 3);
+            assertTrue(filter.check());
+            request(filter, "/calendar", 0, 97);
+            request(filter, "/calendar", 60, 3);
+            assertFalse(filter.check(), "Second spike falls into the cooldown");
+        } finally {
+            filter.close();
+        }
+
+        List<FlightRecorderService.RecordingFile> files = recorder.list();
+        assertEquals(1, files.size());
+        assertTrue(files.get(0).name().matches("test-.*-p99-\\d+ms\\.jfr"), files.get(0).name());
+        Path file = recorder.find(files.get(0).name()).orElseThrow();
+        assertFalse(RecordingFile.readAllEvents(file).isEmpty());
+    }
+
+    @Test
+    void recorderShouldKeepNewestDumpsAndRejectOtherFiles() throws Exception {
+        recorder = new FlightRecorderService("test", directory, "default", Duration.ofMinutes(1), 16 << 20, 2);
+        String first = recorder.dump("manual").orElseThrow().name();
+        recorder.dump("manual");
+        recorder.dump("manual");
+
+        List<FlightRecorderService.RecordingFile> files = recorder.list();
+        assertEquals(2, files.size());
+        assertTrue(files.stream().noneMatch(file -> file.name().equals(first)), "Oldest dump is deleted");
+        assertTrue(recorder.find(first).isEmpty());
+        assertTrue(recorder.find("../" + directory.getFileName() + "/" + files.get(0).name()).isEmpty());
+        assertTrue(recorder.find("application.properties").isEmpty());
+    }
+
+    private static void request(LatencyTriggerFilter filter, String path, long sleepMillis, int count) throws Exception {
+        for (int i = 0; i < count; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        try {
+                            Thread.sleep(sleepMillis);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+        }
+    }
+}
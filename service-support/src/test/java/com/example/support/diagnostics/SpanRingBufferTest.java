@@ -0,0 +1,71 @@
+package com.example.support.diagnostics;
+
+import brave.Span;
+import brave.Tracer;
+import brave.Tracing;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpanRingBufferTest {
+
+    private final SpanRingBuffer buffer = new SpanRingBuffer(4);
+    private final Tracing tracing = Tracing.newBuilder().addSpanHandler(buffer).build();
+    private final Tracer tracer = tracing.tracer();
+
+    @AfterEach
+    void closeTracing() {
+        tracing.close();
+    }
+
+    @Test
+    void shouldKeepOnlyTheMostRecentSpans() {
+        for (int i = 0; i < 6; i++) {
+            tracer.newTrace().name("span-" + i).start().finish();
+        }
+
+        List<RecordedSpan> spans = buffer.spans();
+        assertEquals(4, spans.size());
+        assertEquals(List.of("span-2", "span-3", "span-4", "span-5"), spans.stream().map(RecordedSpan::name).toList());
+    }
+
+    @Test
+    void shouldGroupSpansIntoTracesNewestFirst() {
+        Span first = tracer.newTrace().name("http get /calendar/events").kind(Span.Kind.SERVER).start();
+        Span verify = tracer.newChild(first.context()).name("calendar.jwt.verify").start();
+        verify.finish();
+        first.tag("status", "200").finish();
+        Span second = tracer.newTrace().name("http post /calendar/events").start();
+        second.error(new IllegalStateException("boom"));
+        second.finish();
+
+        List<SpanRingBuffer.Trace> traces = buffer.traces(null, 0, 10);
+        assertEquals(2, traces.size());
+        assertEquals(second.context().traceIdString(), traces.get(0).traceId());
+        assertEquals("IllegalStateException: boom", traces.get(0).spans().get(0).error());
+
+        SpanRingBuffer.Trace trace = traces.get(1);
+        assertEquals(List.of("http get /calendar/events", "calendar.jwt.verify"),
+                trace.spans().stream().map(RecordedSpan::name).toList(), "Spans are ordered by start time");
+        RecordedSpan server = trace.spans().get(0);
+        assertEquals("SERVER", server.kind());
+        assertEquals("200", server.tags().get("status"));
+        assertEquals(server.spanId(), trace.spans().get(1).parentId());
+    }
+
+    @Test
+    void shouldFilterByTraceIdAndLimit() {
+        Span wanted = tracer.newTrace().name("wanted").start();
+        wanted.finish();
+        tracer.newTrace().name("other").start().finish();
+
+        List<SpanRingBuffer.Trace> traces = buffer.traces(wanted.context().traceIdString(), 0, 10);
+        assertEquals(1, traces.size());
+        assertEquals("wanted", traces.get(0).spans().get(0).name());
+        assertEquals(1, buffer.traces(null, 0, 1).size());
+        assertTrue(buffer.traces(null, 60_000_000, 10).isEmpty(), "No trace took a minute");
+    }
+}
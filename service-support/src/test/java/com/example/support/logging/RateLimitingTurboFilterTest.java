@@ -0,0 +1,106 @@
+package com.example.support.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitingTurboFilterTest {
+
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+    @BeforeEach
+    void setup() {
+        appender.setContext(context);
+        appender.start();
+        Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+    }
+
+    @Test
+    void limitsInfoStatementsOfConfiguredLoggersToTheBurst() {
+        // Refills far slower than the test runs, so exactly the burst passes
+        limit("com.example.calendar.service", 0.001, 2);
+        Logger service = context.getLogger("com.example.calendar.service.CalendarService");
+        Logger other = context.getLogger("com.example.calendar.config.SecurityConfig");
+        for (int i = 0; i < 5; i++) {
+            service.info("request {}", i);
+            other.info("other {}", i);
+        }
+
+        assertEquals(List.of("request 0", "request 1"), messagesOf(service));
+        assertEquals(5, messagesOf(other).size(), "Loggers outside the configured prefixes are not limited");
+    }
+
+    @Test
+    void neverLimitsWarningsOrEnabledChecks() {
+        limit("com.example.calendar.service", 0.001, 2);
+        Logger service = context.getLogger("com.example.calendar.service.CalendarService");
+        for (int i = 0; i < 5; i++) {
+            assertTrue(service.isInfoEnabled());
+            service.warn("warning {}", i);
+        }
+        service.info("first");
+        service.info("second");
+        service.info("third");
+
+        assertEquals(List.of("warning 0", "warning 1", "warning 2", "warning 3", "warning 4", "first", "second"),
+                messagesOf(service));
+    }
+
+    @Test
+    void disabledStatementsDoNotUseUpPermits() {
+        limit("com.example.calendar.service", 0.001, 2);
+        Logger service = context.getLogger("com.example.calendar.service.CalendarService");
+        for (int i = 0; i < 5; i++) {
+            service.debug("debug {}", i);
+        }
+        service.info("first");
+        service.info("second");
+
+        assertEquals(List.of("first", "second"), messagesOf(service));
+    }
+
+    @Test
+    void reportsSuppressedStatementsOnceAPermitIsRefilled() throws Exception {
+        limit("com.example.frontend.controller", 20, 1);
+        Logger controller = context.getLogger("com.example.frontend.controller.FrontendController");
+        for (int i = 0; i < 4; i++) {
+            controller.info("page {}", i);
+        }
+        controller.warn("always logged");
+        // One permit is refilled after 50 ms
+        Thread.sleep(100);
+        controller.info("page {}", 4);
+
+        List<String> messages = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(List.of("page 0", "always logged",
+                "Suppressed 3 log statements of com.example.frontend.controller.FrontendController", "page 4"), messages);
+    }
+
+    private void limit(String loggerPrefix, double permitsPerSecond, int burst) {
+        RateLimitingTurboFilter filter = new RateLimitingTurboFilter();
+        filter.setContext(context);
+        filter.addLogger(loggerPrefix);
+        filter.setPermitsPerSecond(permitsPerSecond);
+        filter.setBurst(burst);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    private List<String> messagesOf(Logger logger) {
+        return appender.list.stream()
+                .filter(event -> event.getLoggerName().equals(logger.getName()))
+                .map(ILoggingEvent::getFormattedMessage)
+                .toList();
+    }
+}